@@ -0,0 +1,81 @@
+package com.restaurante.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.restaurante.config.cache.CodecCache;
+import com.restaurante.dto.ProductoDTO;
+
+/**
+ * Codificación y decodificación del menú completo (500 productos), como se
+ * guarda en la región "productos", con cada codec de la caché.
+ * El tamaño en bytes de cada codec sale en los resultados como métrica
+ * secundaria "bytes" de codificar (contador auxiliar de JMH).
+ *
+ * Ejecutar: mvn -f benchmarks/pom.xml compile exec:exec -Djmh.incluir=CodecCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecCacheBenchmark {
+
+    @Param({ "SMILE", "JSON", "JDK" })
+    private CodecCache codec;
+
+    private RedisSerializer<Object> serializador;
+    private List<ProductoDTO> menu;
+    private byte[] codificado;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        serializador = codec.serializador();
+        menu = Datos.productos(500);
+        codificado = serializador.serialize(menu);
+    }
+
+    /** Tamaño del menú codificado; JMH lo informa junto al tiempo de codificar. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamano {
+        public long bytes;
+    }
+
+    @Benchmark
+    public byte[] codificar(Tamano tamano) {
+        byte[] resultado = serializador.serialize(menu);
+        tamano.bytes = resultado.length;
+        return resultado;
+    }
+
+    @Benchmark
+    public Object decodificar() {
+        return serializador.deserialize(codificado);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CodecCacheBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,335 @@
+package com.restaurante.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.restaurante.dto.AsignacionRepartidorDTO;
+import com.restaurante.dto.CategoriaDTO;
+import com.restaurante.dto.ClienteDTO;
+import com.restaurante.dto.DetallePedidoDTO;
+import com.restaurante.dto.HistorialEstadosDTO;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.PersonalCocinaDTO;
+import com.restaurante.dto.ProductoDTO;
+import com.restaurante.dto.RepartidorDTO;
+import com.restaurante.dto.ValoracionDTO;
+import com.restaurante.model.AsignacionRepartidor;
+import com.restaurante.model.Categoria;
+import com.restaurante.model.Cliente;
+import com.restaurante.model.DetallePedido;
+import com.restaurante.model.HistorialEstados;
+import com.restaurante.model.Pedido;
+import com.restaurante.model.PersonalCocina;
+import com.restaurante.model.Producto;
+import com.restaurante.model.Repartidor;
+import com.restaurante.model.Valoracion;
+import com.restaurante.repository.AsignacionRepartidorRepository;
+import com.restaurante.repository.CategoriaRepository;
+import com.restaurante.repository.ClienteRepository;
+import com.restaurante.repository.DetallePedidoRepository;
+import com.restaurante.repository.HistorialEstadosRepository;
+import com.restaurante.repository.PedidoRepository;
+import com.restaurante.repository.PersonalCocinaRepository;
+import com.restaurante.repository.ProductoRepository;
+import com.restaurante.repository.RepartidorRepository;
+import com.restaurante.repository.ResumenValoracionRepository;
+import com.restaurante.repository.ValoracionRepository;
+import com.restaurante.service.IValoracionService;
+import com.restaurante.service.impl.AsignacionRepartidorServiceImpl;
+import com.restaurante.service.impl.CategoriaServiceImpl;
+import com.restaurante.service.impl.ClienteServiceImpl;
+import com.restaurante.service.impl.DetallePedidoServiceImpl;
+import com.restaurante.service.impl.HistorialEstadosServiceImpl;
+import com.restaurante.service.impl.PedidoServiceImpl;
+import com.restaurante.service.impl.PersonalCocinaServiceImpl;
+import com.restaurante.service.impl.ProductoServiceImpl;
+import com.restaurante.service.impl.RepartidorServiceImpl;
+import com.restaurante.service.impl.ValoracionServiceImpl;
+
+/**
+ * Conversiones entidad -> DTO y DTO -> entidad de cada *ServiceImpl, medidas a
+ * través de su API pública sin Spring (ni proxies transaccionales ni caché de
+ * anotaciones): la lectura por id convierte la entidad que devuelve el
+ * repositorio y el alta convierte en los dos sentidos. Los repositorios son
+ * stubs sin latencia, así que el tiempo es el de las conversiones más lo que
+ * cada servicio hace en memoria al escribir (índice de búsqueda, eventos,
+ * pedidos del día).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private static final Long ID = 42L;
+
+    private AsignacionRepartidorServiceImpl asignacionService;
+    private CategoriaServiceImpl categoriaService;
+    private ClienteServiceImpl clienteService;
+    private DetallePedidoServiceImpl detalleService;
+    private HistorialEstadosServiceImpl historialService;
+    private PedidoServiceImpl pedidoService;
+    private PersonalCocinaServiceImpl personalService;
+    private ProductoServiceImpl productoService;
+    private RepartidorServiceImpl repartidorService;
+    private ValoracionServiceImpl valoracionService;
+
+    private AsignacionRepartidorDTO asignacionDTO;
+    private CategoriaDTO categoriaDTO;
+    private ClienteDTO clienteDTO;
+    private DetallePedidoDTO detalleDTO;
+    private HistorialEstadosDTO historialDTO;
+    private PedidoDTO pedidoDTO;
+    private PersonalCocinaDTO personalDTO;
+    private ProductoDTO productoDTO;
+    private RepartidorDTO repartidorDTO;
+    private ValoracionDTO valoracionDTO;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        LocalDateTime ahora = LocalDateTime.of(2024, 6, 1, 13, 30);
+        LocalDate alta = LocalDate.of(2023, 3, 15);
+        ApplicationEventPublisher sinOyentes = evento -> { };
+
+        Categoria categoria = Categoria.builder()
+                .id(5L).nombre("Pizzas").descripcion("Masa madre y horno de leña")
+                .imagenUrl("https://cdn.restaurante.com/img/categorias/5.jpg").estado("activo")
+                .build();
+        Pedido pedido = Pedido.builder()
+                .pid(ID).idCliente(7L).fechaPedido(alta).fechaCreacion(ahora).estado("PENDIENTE")
+                .build();
+        ProductoDTO datosProducto = Datos.producto(9L);
+        Producto producto = Producto.builder()
+                .id(9L).categoria(categoria).nombre(datosProducto.getNombre())
+                .descripcion(datosProducto.getDescripcion()).precio(datosProducto.getPrecio())
+                .imagenUrl(datosProducto.getImagenUrl()).tiempoPreparacion(datosProducto.getTiempoPreparacion())
+                .ingredientes(datosProducto.getIngredientes()).estado("activo").destacado(false)
+                .build();
+
+        asignacionService = new AsignacionRepartidorServiceImpl();
+        ReflectionTestUtils.setField(asignacionService, "asignacionRepository", repositorio(
+                AsignacionRepartidorRepository.class, AsignacionRepartidor.builder()
+                        .pid(1L).idPedido(ID).idRepartidor(3L).fechaAsignacion(ahora).fechaEntrega(ahora.plusMinutes(35))
+                        .build()));
+
+        categoriaService = new CategoriaServiceImpl();
+        ReflectionTestUtils.setField(categoriaService, "categoriaRepository",
+                repositorio(CategoriaRepository.class, categoria));
+        ReflectionTestUtils.setField(categoriaService, "eventPublisher", sinOyentes);
+
+        clienteService = new ClienteServiceImpl(repositorio(ClienteRepository.class, Cliente.builder()
+                .id(7L).nombre("Ana Pérez").email("ana@correo.com").telefono("600123123")
+                .fechaRegistro(alta).direccion("Calle Mayor 1, 3ºB")
+                .build()));
+
+        detalleService = new DetallePedidoServiceImpl();
+        ReflectionTestUtils.setField(detalleService, "detalleRepository", repositorio(
+                DetallePedidoRepository.class, DetallePedido.builder()
+                        .id(11L).pedido(pedido).idProducto(9L).cantidad(2).precioUnitario(12.5)
+                        .instruccionesEspecial("Sin cebolla")
+                        .build()));
+        ReflectionTestUtils.setField(detalleService, "pedidoRepository", repositorio(PedidoRepository.class, pedido));
+        ReflectionTestUtils.setField(detalleService, "valoracionService", repositorio(IValoracionService.class, null));
+
+        historialService = new HistorialEstadosServiceImpl();
+        ReflectionTestUtils.setField(historialService, "historialRepository", repositorio(
+                HistorialEstadosRepository.class, HistorialEstados.builder()
+                        .id(13L).idPedido(ID).estado("en_preparacion").fechaCambio(ahora).idCliente(7L).idPersonaCocina(2L)
+                        .build()));
+        ReflectionTestUtils.setField(historialService, "eventPublisher", sinOyentes);
+
+        pedidoService = new PedidoServiceImpl(repositorio(PedidoRepository.class, pedido), null, null,
+                sinOyentes, null, null, new ConcurrentMapCacheManager(), null);
+
+        personalService = new PersonalCocinaServiceImpl(repositorio(PersonalCocinaRepository.class,
+                PersonalCocina.builder()
+                        .id(2L).nombre("Luis Gómez").email("luis@restaurante.com").telefono("600456456")
+                        .fechaRegistro(alta).turno("mañana").area("horno")
+                        .build()));
+
+        productoService = new ProductoServiceImpl();
+        ReflectionTestUtils.setField(productoService, "productoRepository",
+                repositorio(ProductoRepository.class, producto));
+        ReflectionTestUtils.setField(productoService, "categoriaRepository",
+                repositorio(CategoriaRepository.class, categoria));
+        ReflectionTestUtils.setField(productoService, "cacheManager", new ConcurrentMapCacheManager());
+        ReflectionTestUtils.setField(productoService, "eventPublisher", sinOyentes);
+
+        repartidorService = new RepartidorServiceImpl(repositorio(RepartidorRepository.class, Repartidor.builder()
+                .id(3L).nombre("Marta Ruiz").email("marta@restaurante.com").telefono("600789789")
+                .fechaRegistro(alta).zona("centro")
+                .build()));
+
+        valoracionService = new ValoracionServiceImpl();
+        ReflectionTestUtils.setField(valoracionService, "valoracionRepository", repositorio(
+                ValoracionRepository.class, Valoracion.builder()
+                        .pid(17L).idPedido(ID).idCliente(7L).puntuacion(5).comentario("Muy rápido y la pizza llegó caliente")
+                        .fechaModificacion(ahora)
+                        .build()));
+        ReflectionTestUtils.setField(valoracionService, "resumenRepository",
+                repositorio(ResumenValoracionRepository.class, null));
+
+        asignacionDTO = asignacionService.obtenerPorId(1L);
+        categoriaDTO = categoriaService.obtenerPorId(5L);
+        clienteDTO = clienteService.obtenerClientePorId(7L);
+        detalleDTO = detalleService.obtenerPorId(11L);
+        historialDTO = historialService.obtenerPorId(13L);
+        pedidoDTO = pedidoService.obtenerPorId(ID);
+        personalDTO = personalService.obtenerPersonalPorId(2L);
+        productoDTO = productoService.obtenerPorId(9L);
+        repartidorDTO = repartidorService.obtenerRepartidorPorId(3L);
+        valoracionDTO = valoracionService.obtenerPorId(17L);
+    }
+
+    @Benchmark
+    public AsignacionRepartidorDTO asignacionADTO() {
+        return asignacionService.obtenerPorId(1L);
+    }
+
+    @Benchmark
+    public AsignacionRepartidorDTO asignacionAlta() {
+        return asignacionService.crear(asignacionDTO);
+    }
+
+    @Benchmark
+    public CategoriaDTO categoriaADTO() {
+        return categoriaService.obtenerPorId(5L);
+    }
+
+    @Benchmark
+    public CategoriaDTO categoriaAlta() {
+        return categoriaService.crear(categoriaDTO);
+    }
+
+    @Benchmark
+    public ClienteDTO clienteADTO() {
+        return clienteService.obtenerClientePorId(7L);
+    }
+
+    @Benchmark
+    public ClienteDTO clienteAlta() {
+        return clienteService.crearCliente(clienteDTO);
+    }
+
+    @Benchmark
+    public DetallePedidoDTO detalleADTO() {
+        return detalleService.obtenerPorId(11L);
+    }
+
+    @Benchmark
+    public DetallePedidoDTO detalleAlta() {
+        return detalleService.crear(detalleDTO);
+    }
+
+    @Benchmark
+    public HistorialEstadosDTO historialADTO() {
+        return historialService.obtenerPorId(13L);
+    }
+
+    @Benchmark
+    public HistorialEstadosDTO historialAlta() {
+        return historialService.crear(historialDTO);
+    }
+
+    @Benchmark
+    public PedidoDTO pedidoADTO() {
+        return pedidoService.obtenerPorId(ID);
+    }
+
+    @Benchmark
+    public PedidoDTO pedidoAlta() {
+        return pedidoService.crear(pedidoDTO);
+    }
+
+    @Benchmark
+    public PersonalCocinaDTO personalADTO() {
+        return personalService.obtenerPersonalPorId(2L);
+    }
+
+    @Benchmark
+    public PersonalCocinaDTO personalAlta() {
+        return personalService.crearPersonal(personalDTO);
+    }
+
+    @Benchmark
+    public ProductoDTO productoADTO() {
+        return productoService.obtenerPorId(9L);
+    }
+
+    @Benchmark
+    public ProductoDTO productoAlta() {
+        return productoService.crear(productoDTO);
+    }
+
+    @Benchmark
+    public RepartidorDTO repartidorADTO() {
+        return repartidorService.obtenerRepartidorPorId(3L);
+    }
+
+    @Benchmark
+    public RepartidorDTO repartidorAlta() {
+        return repartidorService.crearRepartidor(repartidorDTO);
+    }
+
+    @Benchmark
+    public ValoracionDTO valoracionADTO() {
+        return valoracionService.obtenerPorId(17L);
+    }
+
+    @Benchmark
+    public ValoracionDTO valoracionAlta() {
+        return valoracionService.crear(valoracionDTO);
+    }
+
+    // findById devuelve la entidad y save su argumento; el resto, el valor vacío de su tipo
+    @SuppressWarnings("unchecked")
+    private static <T> T repositorio(Class<T> tipo, Object entidad) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, (proxy, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "findById":
+                    return Optional.ofNullable(entidad);
+                case "save":
+                case "saveAll":
+                    return args[0];
+                case "toString":
+                    return tipo.getSimpleName();
+                default:
+                    Class<?> retorno = metodo.getReturnType();
+                    if (retorno == boolean.class) {
+                        return false;
+                    }
+                    if (retorno == int.class) {
+                        return 0;
+                    }
+                    if (retorno == long.class) {
+                        return 0L;
+                    }
+                    if (retorno == List.class) {
+                        return List.of();
+                    }
+                    return retorno == Optional.class ? Optional.empty() : null;
+            }
+        });
+    }
+}
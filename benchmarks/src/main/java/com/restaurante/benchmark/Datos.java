@@ -0,0 +1,62 @@
+package com.restaurante.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.ProductoDTO;
+
+/**
+ * Datos sintéticos compartidos por los benchmarks, con textos de longitud
+ * parecida a los reales para que el tamaño serializado sea representativo.
+ */
+public final class Datos {
+
+    private static final String[] ESTADOS = { "pendiente", "en_preparacion", "listo", "entregado" };
+
+    private Datos() {
+    }
+
+    public static ProductoDTO producto(long id) {
+        return ProductoDTO.builder()
+                .id(id)
+                .idCategoria(id % 12 + 1)
+                .nombre("Producto " + id)
+                .descripcion("Descripción del producto " + id + " con ingredientes de temporada")
+                .precio(BigDecimal.valueOf(500 + id * 37, 2))
+                .imagenUrl("https://cdn.restaurante.com/img/productos/" + id + ".jpg")
+                .tiempoPreparacion(Time.valueOf("00:15:00"))
+                .ingredientes("tomate, queso, albahaca")
+                .estado("activo")
+                .destacado(id % 9 == 0)
+                .build();
+    }
+
+    public static PedidoDTO pedido(long pid) {
+        return PedidoDTO.builder()
+                .pid(pid)
+                .idCliente(pid % 300 + 1)
+                .fechaPedido(LocalDate.of(2024, 1, 1).plusDays(pid % 365))
+                .estado(ESTADOS[(int) (pid % ESTADOS.length)])
+                .build();
+    }
+
+    public static List<ProductoDTO> productos(int cantidad) {
+        List<ProductoDTO> productos = new ArrayList<>(cantidad);
+        for (long i = 1; i <= cantidad; i++) {
+            productos.add(producto(i));
+        }
+        return productos;
+    }
+
+    public static List<PedidoDTO> pedidos(int cantidad) {
+        List<PedidoDTO> pedidos = new ArrayList<>(cantidad);
+        for (long i = 1; i <= cantidad; i++) {
+            pedidos.add(pedido(i));
+        }
+        return pedidos;
+    }
+}
@@ -0,0 +1,173 @@
+package com.restaurante.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import com.restaurante.dto.DetallePedidoDTO;
+import com.restaurante.dto.PedidoCompletoDTO;
+import com.restaurante.model.DetallePedido;
+import com.restaurante.model.Pedido;
+import com.restaurante.repository.DetallePedidoRepository;
+import com.restaurante.repository.PedidoRepository;
+import com.restaurante.repository.ProductoRepository;
+import com.restaurante.repository.ProductoRepository.PrecioProducto;
+import com.restaurante.service.impl.PedidoServiceImpl;
+
+/**
+ * Alta de pedidos (crearConDetalles) con hilos de plataforma frente a hilos
+ * virtuales. Cada operación lanza {@code concurrentes} altas a la vez y espera
+ * a todas, como una ráfaga de peticiones en Tomcat. Los repositorios son
+ * stubs que duermen {@code latenciaMs} por consulta para simular la espera de
+ * JDBC; el pool de plataforma tiene 200 hilos, el máximo de Tomcat por defecto.
+ *
+ * La variante virtual necesita ejecutarse con Java 21:
+ *   mvn -B -f benchmarks/pom.xml compile exec:exec -Djmh.incluir=HilosPedidoBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HilosPedidoBenchmark {
+
+    private static final int HILOS_TOMCAT = 200;
+
+    @Param({"plataforma", "virtual"})
+    private String hilos;
+
+    @Param({"200", "1000"})
+    private int concurrentes;
+
+    @Param({"5"})
+    private long latenciaMs;
+
+    // Ids de las entidades guardadas, como los daría la secuencia
+    private final AtomicLong ids = new AtomicLong();
+
+    private PedidoServiceImpl pedidoService;
+    private PedidoCompletoDTO pedido;
+    private ExecutorService plataforma;
+    private VirtualThreadTaskExecutor virtuales;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        if ("virtual".equals(hilos)) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("Los hilos virtuales requieren Java 21 (actual: " + Runtime.version() + ")");
+            }
+            virtuales = new VirtualThreadTaskExecutor("pedido-");
+        } else {
+            plataforma = Executors.newFixedThreadPool(HILOS_TOMCAT);
+        }
+
+        List<PrecioProducto> precios = List.of(precio(1L, "12.50"), precio(2L, "3.00"));
+        pedidoService = new PedidoServiceImpl(
+                repositorio(PedidoRepository.class, precios),
+                repositorio(DetallePedidoRepository.class, precios),
+                repositorio(ProductoRepository.class, precios),
+                evento -> { },
+                null, null, new ConcurrentMapCacheManager(), null);
+        pedido = PedidoCompletoDTO.builder()
+                .idCliente(7L)
+                .detalles(List.of(
+                        DetallePedidoDTO.builder().idProducto(1L).cantidad(2).precioUnitario(12.5).build(),
+                        DetallePedidoDTO.builder().idProducto(2L).cantidad(1).build()))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        if (plataforma != null) {
+            plataforma.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public int rafagaDePedidos() {
+        List<CompletableFuture<PedidoCompletoDTO>> altas = new ArrayList<>(concurrentes);
+        for (int i = 0; i < concurrentes; i++) {
+            altas.add(plataforma != null
+                    ? CompletableFuture.supplyAsync(() -> pedidoService.crearConDetalles(pedido), plataforma)
+                    : CompletableFuture.supplyAsync(() -> pedidoService.crearConDetalles(pedido), virtuales));
+        }
+        CompletableFuture.allOf(altas.toArray(CompletableFuture[]::new)).join();
+        return altas.size();
+    }
+
+    // findByIdIn devuelve los precios; save y saveAll asignan id a lo que no lo tiene y lo devuelven. Todo lo demás falla
+    @SuppressWarnings("unchecked")
+    private <T> T repositorio(Class<T> tipo, List<PrecioProducto> precios) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, (proxy, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "findByIdIn":
+                    Thread.sleep(latenciaMs);
+                    Collection<?> ids = (Collection<?>) args[0];
+                    return precios.stream().filter(p -> ids.contains(p.getId())).toList();
+                case "save":
+                    Thread.sleep(latenciaMs);
+                    return conId(args[0]);
+                case "saveAll":
+                    Thread.sleep(latenciaMs);
+                    ((Iterable<?>) args[0]).forEach(this::conId);
+                    return args[0];
+                case "toString":
+                    return tipo.getSimpleName();
+                default:
+                    throw new UnsupportedOperationException(metodo.getName());
+            }
+        });
+    }
+
+    private Object conId(Object entidad) {
+        if (entidad instanceof Pedido pedido && pedido.getPid() == null) {
+            pedido.setPid(ids.incrementAndGet());
+        } else if (entidad instanceof DetallePedido detalle && detalle.getId() == null) {
+            detalle.setId(ids.incrementAndGet());
+        }
+        return entidad;
+    }
+
+    private static PrecioProducto precio(Long id, String precio) {
+        return new PrecioProducto() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getPrecio() {
+                return new BigDecimal(precio);
+            }
+
+            @Override
+            public String getEstado() {
+                return "activo";
+            }
+        };
+    }
+}
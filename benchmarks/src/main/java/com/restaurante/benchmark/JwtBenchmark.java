@@ -0,0 +1,72 @@
+package com.restaurante.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.restaurante.registro.security.JwtUtils;
+import com.restaurante.registro.security.UsuarioPrincipal;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Coste de JwtUtils en cada petición autenticada: verificar la firma y leer
+ * los claims de un token válido. La generación (login) se mide como referencia.
+ * init() se invoca por reflexión, como hace Spring con @PostConstruct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private Authentication autenticacion;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "QWERTYUIOPASDFGHJKLZXCVBNMQWERTYUIOPASDFGHJKLZXCVBNMQWERTYUIOPASDFGHJKLZXCVBNM");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        List<SimpleGrantedAuthority> roles = List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"));
+        UsuarioPrincipal usuario = new UsuarioPrincipal(7L, "ana", null, true, roles);
+        autenticacion = new UsernamePasswordAuthenticationToken(usuario, null, roles);
+        token = jwtUtils.generateJwtToken(autenticacion);
+    }
+
+    @Benchmark
+    public Claims parsearClaims() {
+        return jwtUtils.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean validarToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtils.generateJwtToken(autenticacion);
+    }
+}
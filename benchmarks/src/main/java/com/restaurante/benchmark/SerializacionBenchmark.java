@@ -0,0 +1,78 @@
+package com.restaurante.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.ProductoDTO;
+
+/**
+ * Serialización JSON de listas grandes de productos y pedidos con un
+ * ObjectMapper configurado como el de Spring MVC (Jackson2ObjectMapperBuilder).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private static final TypeReference<List<ProductoDTO>> LISTA_PRODUCTOS = new TypeReference<>() { };
+    private static final TypeReference<List<PedidoDTO>> LISTA_PEDIDOS = new TypeReference<>() { };
+
+    @Param({ "100", "1000", "10000" })
+    private int tamano;
+
+    private ObjectMapper mapper;
+    private List<ProductoDTO> productos;
+    private List<PedidoDTO> pedidos;
+    private byte[] productosJson;
+    private byte[] pedidosJson;
+
+    @Setup(Level.Trial)
+    public void preparar() throws JsonProcessingException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        productos = Datos.productos(tamano);
+        pedidos = Datos.pedidos(tamano);
+        productosJson = mapper.writeValueAsBytes(productos);
+        pedidosJson = mapper.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] serializarProductos() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(productos);
+    }
+
+    @Benchmark
+    public byte[] serializarPedidos() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public List<ProductoDTO> deserializarProductos() throws Exception {
+        return mapper.readValue(productosJson, LISTA_PRODUCTOS);
+    }
+
+    @Benchmark
+    public List<PedidoDTO> deserializarPedidos() throws Exception {
+        return mapper.readValue(pedidosJson, LISTA_PEDIDOS);
+    }
+}
@@ -3,9 +3,13 @@ package com.restaurante;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
+@EnableRetry
+@EnableScheduling
 public class RestauranteApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,111 @@
+package com.restaurante.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurante.config.cache.CacheRegionesProperties;
+import com.restaurante.config.cache.CodecCache;
+import com.restaurante.config.cache.DosNivelesCacheManager;
+import com.restaurante.config.cache.InvalidacionCache;
+
+/**
+ * Caché en dos niveles: Caffeine por nodo (L1) delante de Redis (L2).
+ * Al declarar aquí el CacheManager, la autoconfiguración de Spring Boot se
+ * desactiva; el TTL por defecto se sigue leyendo de spring.cache.redis.time-to-live
+ * y cada región puede fijar el suyo con app.cache.ttl.[region].
+ */
+@Configuration
+@EnableConfigurationProperties({ CacheProperties.class, CacheRegionesProperties.class })
+public class CacheConfig {
+
+    public static final String CANAL_INVALIDACIONES = "restaurante:cache:invalidaciones";
+
+    @Value("${app.cache.l1.maximumSize:1000}")
+    private long maximoEntradasL1;
+
+    // Red de seguridad si se pierde un mensaje de invalidación (pub/sub no garantiza entrega)
+    @Value("${app.cache.l1.ttlMs:60000}")
+    private long ttlL1Ms;
+
+    @Value("${app.cache.codec:smile}")
+    private String codec;
+
+    @Bean
+    public RedisCacheConfiguration redisCacheConfiguration(CacheProperties cacheProperties) {
+        CodecCache codecCache = CodecCache.desde(codec);
+        RedisCacheConfiguration configuracion = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(SerializationPair.fromSerializer(codecCache.serializador()))
+                // Prefijo por codec: al cambiarlo, las entradas antiguas se ignoran hasta que expiran
+                .computePrefixWith(nombre -> nombre + "::" + codecCache.name().toLowerCase() + "::");
+        Duration ttl = cacheProperties.getRedis().getTimeToLive();
+        if (ttl != null) {
+            configuracion = configuracion.entryTtl(ttl);
+        }
+        return configuracion;
+    }
+
+    @Bean
+    public DosNivelesCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration redisCacheConfiguration, CacheRegionesProperties regiones) {
+        Map<String, RedisCacheConfiguration> porRegion = new HashMap<>();
+        regiones.getTtl().forEach((region, ttl) -> porRegion.put(region, redisCacheConfiguration.entryTtl(ttl)));
+        RedisCacheManager redis = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration)
+                .withInitialCacheConfigurations(porRegion)
+                .build();
+        redis.initializeCaches();
+
+        Caffeine<Object, Object> especificacionLocal = Caffeine.newBuilder()
+                .maximumSize(maximoEntradasL1)
+                .expireAfterWrite(Duration.ofMillis(ttlL1Ms))
+                .recordStats();
+
+        RedisTemplate<String, Object> plantilla = plantillaInvalidaciones(connectionFactory);
+        return new DosNivelesCacheManager(redis, especificacionLocal,
+                invalidacion -> plantilla.convertAndSend(CANAL_INVALIDACIONES, invalidacion));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer invalidacionesCacheListener(RedisConnectionFactory connectionFactory,
+            DosNivelesCacheManager cacheManager, Environment environment) {
+        RedisSerializer<Object> serializador = RedisSerializer.java();
+        RedisMessageListenerContainer contenedor = new RedisMessageListenerContainer();
+        contenedor.setConnectionFactory(connectionFactory);
+        // Un hilo por mensaje recibido: virtual si la aplicación funciona con hilos virtuales
+        SimpleAsyncTaskExecutor ejecutor = new SimpleAsyncTaskExecutor("cache-invalidacion-");
+        ejecutor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        contenedor.setTaskExecutor(ejecutor);
+        contenedor.addMessageListener(
+                (mensaje, patron) -> cacheManager.recibir((InvalidacionCache) serializador.deserialize(mensaje.getBody())),
+                new ChannelTopic(CANAL_INVALIDACIONES));
+        return contenedor;
+    }
+
+    private RedisTemplate<String, Object> plantillaInvalidaciones(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> plantilla = new RedisTemplate<>();
+        plantilla.setConnectionFactory(connectionFactory);
+        plantilla.setKeySerializer(RedisSerializer.string());
+        plantilla.setValueSerializer(RedisSerializer.java());
+        plantilla.afterPropertiesSet();
+        return plantilla;
+    }
+}
@@ -0,0 +1,31 @@
+package com.restaurante.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.restaurante.config.metricas.ConvencionPeticiones;
+import com.restaurante.config.metricas.TrazaMuestreada;
+
+/**
+ * Instrumentación de las peticiones HTTP con Micrometer. Spring Boot registra
+ * el temporizador http.server.requests (histograma activado en
+ * application.properties) y usa esta convención para añadir la etiqueta de rol;
+ * Prometheus lo recoge de /actuator/prometheus en el puerto de gestión.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Value("${app.metricas.muestreoLog:100}")
+    private long muestreoLog;
+
+    @Bean
+    public ConvencionPeticiones convencionPeticiones() {
+        return new ConvencionPeticiones();
+    }
+
+    @Bean
+    public TrazaMuestreada trazaMuestreada() {
+        return new TrazaMuestreada(muestreoLog);
+    }
+}
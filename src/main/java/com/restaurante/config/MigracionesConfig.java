@@ -0,0 +1,36 @@
+package com.restaurante.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Orden de arranque de las migraciones. Spring Boot ejecuta Flyway antes de
+ * crear el EntityManagerFactory, pero aquí las tablas las sigue creando
+ * Hibernate (ddl-auto=update) y las migraciones solo añaden índices y ajustes
+ * sobre ellas: se retrasan hasta que JPA ha actualizado el esquema.
+ *
+ * Lo que el esquema necesita además de las tablas es solo de Flyway, para que
+ * no haya dos definiciones: la alineación de secuencias tras pasar de IDENTITY
+ * está en V2 (antes la repetía un CommandLineRunner en cada arranque) y los
+ * índices no se declaran con @Index en las entidades. Hibernate crea un @Index
+ * al crear la tabla, antes que las migraciones, y el CREATE INDEX IF NOT EXISTS
+ * del mismo nombre ya no haría nada; además JPA no admite índices parciales.
+ */
+@Configuration
+public class MigracionesConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> { };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean migracionesTrasJpa(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
@@ -0,0 +1,122 @@
+package com.restaurante.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Informe al arrancar de las consultas de los repositorios que recorren la
+ * tabla completa. Con enable_seqscan desactivado PostgreSQL solo elige un
+ * Seq Scan cuando no existe ningún índice utilizable, así que el resultado no
+ * depende del tamaño actual de las tablas.
+ *
+ * Cada entrada reproduce el SQL de un finder; al añadir uno nuevo en un
+ * repositorio se añade aquí junto con su índice en db/migration.
+ */
+@Component
+public class VerificadorIndices implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerificadorIndices.class);
+
+    private static final Map<String, String> CONSULTAS = new LinkedHashMap<>();
+
+    static {
+        CONSULTAS.put("PedidoRepository.findByIdCliente", "SELECT * FROM pedidos WHERE id_cliente = 1");
+        CONSULTAS.put("PedidoRepository.findByEstado", "SELECT * FROM pedidos WHERE estado = 'PENDIENTE'");
+        CONSULTAS.put("PedidoRepository.findByIdClienteAndEstado",
+                "SELECT * FROM pedidos WHERE id_cliente = 1 AND estado = 'PENDIENTE'");
+        CONSULTAS.put("PedidoRepository.findByFechaPedido", "SELECT * FROM pedidos WHERE fecha_pedido = CURRENT_DATE");
+        CONSULTAS.put("PedidoRepository.findByFechaPedidoBetween",
+                "SELECT * FROM pedidos WHERE fecha_pedido BETWEEN CURRENT_DATE - 7 AND CURRENT_DATE");
+        CONSULTAS.put("DetallePedidoRepository.listarPorPedido", "SELECT * FROM detalle_pedido WHERE id_pedido = 1");
+        CONSULTAS.put("DetallePedidoRepository.listarPorProducto", "SELECT * FROM detalle_pedido WHERE id_producto = 1");
+        CONSULTAS.put("DetallePedidoRepository.listarConInstruccionesEspeciales",
+                "SELECT * FROM detalle_pedido WHERE instrucciones_especial IS NOT NULL");
+        CONSULTAS.put("HistorialEstadosRepository.findByIdPedidoOrderByFechaCambioDesc",
+                "SELECT * FROM historial_estados WHERE id_pedido = 1 ORDER BY fecha_cambio DESC");
+        CONSULTAS.put("HistorialEstadosRepository.findUltimoEstado",
+                "SELECT * FROM historial_estados WHERE id_pedido = 1 AND estado = 'LISTO' ORDER BY fecha_cambio DESC LIMIT 1");
+        CONSULTAS.put("HistorialEstadosRepository.findByEstado", "SELECT * FROM historial_estados WHERE estado = 'LISTO'");
+        CONSULTAS.put("HistorialEstadosRepository.findByIdCliente", "SELECT * FROM historial_estados WHERE id_cliente = 1");
+        CONSULTAS.put("ValoracionRepository.findByIdPedido", "SELECT * FROM valoracion WHERE id_pedido = 1");
+        CONSULTAS.put("ValoracionRepository.findByIdClienteAndPuntuacionGreaterThanEqual",
+                "SELECT * FROM valoracion WHERE id_cliente = 1 AND puntuacion >= 4");
+        CONSULTAS.put("ValoracionRepository.findByPuntuacionBetween",
+                "SELECT * FROM valoracion WHERE puntuacion BETWEEN 4 AND 5");
+        CONSULTAS.put("AsignacionRepartidorRepository.findByIdPedido",
+                "SELECT * FROM asignacion_repartidor WHERE id_pedido = 1");
+        CONSULTAS.put("AsignacionRepartidorRepository.findByIdRepartidor",
+                "SELECT * FROM asignacion_repartidor WHERE id_repartidor = 1");
+        CONSULTAS.put("AsignacionRepartidorRepository.findByFechaEntregaIsNull",
+                "SELECT * FROM asignacion_repartidor WHERE fecha_entrega IS NULL");
+        CONSULTAS.put("AsignacionRepartidorRepository.findByFechaAsignacionBetween",
+                "SELECT * FROM asignacion_repartidor WHERE fecha_asignacion BETWEEN now() - interval '1 day' AND now()");
+        CONSULTAS.put("ProductoRepository.listarPorCategoriaYEstado",
+                "SELECT * FROM producto WHERE id_categoria = 1 AND estado = 'activo'");
+        CONSULTAS.put("ProductoRepository.listarPorEstado", "SELECT * FROM producto WHERE estado = 'activo'");
+        CONSULTAS.put("ProductoRepository.listarPorDestacado", "SELECT * FROM producto WHERE destacado = true");
+        CONSULTAS.put("ProductoRepository.findByNombreContainingIgnoreCase",
+                "SELECT * FROM producto WHERE upper(nombre) LIKE upper('%pizz%')");
+        CONSULTAS.put("ProductoRepository.buscarTexto",
+                "SELECT * FROM producto p WHERE to_tsvector('spanish', p.nombre || ' ' || coalesce(p.descripcion, '') || ' '"
+                        + " || coalesce(p.ingredientes, '')) @@ plainto_tsquery('spanish', 'pizza')"
+                        + " OR upper(p.nombre) LIKE '%PIZZA%'");
+        CONSULTAS.put("CategoriaRepository.findByNombreContainingIgnoreCase",
+                "SELECT * FROM categoria WHERE upper(nombre) LIKE upper('%bebi%')");
+        CONSULTAS.put("EventoOutboxRepository.bloquearPendientes",
+                "SELECT * FROM eventos_outbox WHERE fecha_publicacion IS NULL AND fecha_fallo IS NULL"
+                        + " AND (proximo_intento IS NULL OR proximo_intento <= LOCALTIMESTAMP) ORDER BY id LIMIT 200");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.indices.verificar:true}")
+    private boolean verificar;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!verificar || !esPostgres()) {
+            return;
+        }
+        List<String> sinIndice = transactionTemplate.execute(estado -> {
+            // SET LOCAL: solo afecta a esta transacción
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            List<String> resultado = new ArrayList<>();
+            CONSULTAS.forEach((finder, sql) -> {
+                String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+                if (plan.contains("Seq Scan")) {
+                    resultado.add(finder);
+                    logger.warn("Consulta sin índice (Seq Scan) en {}:\n{}", finder, plan);
+                }
+            });
+            return resultado;
+        });
+        if (sinIndice.isEmpty()) {
+            logger.info("Verificación de índices: las {} consultas revisadas usan índice", CONSULTAS.size());
+        } else {
+            logger.warn("Verificación de índices: {} de {} consultas recorren la tabla completa: {}",
+                    sinIndice.size(), CONSULTAS.size(), sinIndice);
+        }
+    }
+
+    private boolean esPostgres() {
+        String motor = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(motor);
+    }
+}
@@ -0,0 +1,19 @@
+package com.restaurante.config.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * TTL de Redis por región de caché (app.cache.ttl.[region]=duración).
+ * Las regiones que no aparecen usan spring.cache.redis.time-to-live.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheRegionesProperties {
+    private Map<String, Duration> ttl = new HashMap<>();
+}
@@ -0,0 +1,49 @@
+package com.restaurante.config.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cambios de otros nodos pendientes de aplicar a una estructura en memoria
+ * (índices de búsqueda, pedidos del día). El hilo del listener de Redis solo
+ * los anota; una tarea periódica los aplica juntos, con una sola consulta por
+ * tanda, en lugar de ir a la base de datos con cada mensaje. Varias
+ * invalidaciones del mismo id cuentan una vez.
+ */
+public class CambiosRemotos {
+
+    private final Set<Long> ids = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean todo = new AtomicBoolean();
+
+    /** Una clave numérica es el id cambiado; cualquier otra (o ninguna) obliga a recargar todo. */
+    public void anotar(Object clave) {
+        if (clave instanceof Number id) {
+            ids.add(id.longValue());
+        } else {
+            todo.set(true);
+        }
+    }
+
+    /** Si hay que recargar el índice completo; descarta los ids anotados, que la recarga ya incluye. */
+    public boolean recargarTodo() {
+        if (todo.getAndSet(false)) {
+            ids.clear();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ids anotados desde la última llamada. Si un id vuelve a llegar justo
+     * mientras se toman puede perderse esa segunda anotación, pero el cambio ya
+     * está confirmado y lo ve la lectura de la base de datos que sigue.
+     */
+    public List<Long> tomarIds() {
+        List<Long> pendientes = new ArrayList<>(ids);
+        ids.removeAll(pendientes);
+        return pendientes;
+    }
+}
@@ -0,0 +1,67 @@
+package com.restaurante.config.cache;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Codificación de los valores guardados en Redis, elegida con app.cache.codec.
+ * <ul>
+ *   <li>{@code smile}: JSON binario (Jackson Smile); los nombres de campo y los
+ *       textos cortos repetidos en listas de DTOs se escriben una sola vez por valor.</li>
+ *   <li>{@code json}: JSON de texto, legible con redis-cli.</li>
+ *   <li>{@code jdk}: serialización Java, el comportamiento anterior.</li>
+ * </ul>
+ * Smile y JSON guardan el tipo en la propiedad {@code @class} para poder
+ * reconstruir los DTOs sin conocer el tipo de antemano. Los valores nulos no
+ * pasan por aquí: RedisCache los guarda con su propio marcador.
+ */
+public enum CodecCache {
+
+    SMILE, JSON, JDK;
+
+    public static CodecCache desde(String nombre) {
+        return valueOf(nombre.trim().toUpperCase());
+    }
+
+    public RedisSerializer<Object> serializador() {
+        return switch (this) {
+            case SMILE -> jackson(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+            case JSON -> jackson(new JsonFactory());
+            case JDK -> RedisSerializer.java();
+        };
+    }
+
+    private static RedisSerializer<Object> jackson(JsonFactory formato) {
+        ObjectMapper mapper = new ObjectMapper(formato);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        // Un campo nuevo o retirado de un DTO no debe invalidar lo que ya está en Redis
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.activateDefaultTyping(tiposPermitidos(), ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+
+    private static PolymorphicTypeValidator tiposPermitidos() {
+        return BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.restaurante.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.math.")
+                .allowIfSubType("java.sql.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("java.lang.")
+                .build();
+    }
+}
@@ -0,0 +1,237 @@
+package com.restaurante.config.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.restaurante.dto.EstadisticasCacheDTO;
+
+/**
+ * Región de caché con un nivel local en memoria (Caffeine) delante del nivel
+ * compartido (Redis). Las lecturas que fallan en L1 se resuelven en L2 y se
+ * copian a L1; las escrituras e invalidaciones se aplican en ambos niveles y se
+ * notifican a los demás nodos para que descarten su copia local.
+ *
+ * Rellenar una clave que no estaba en L2 (la carga de un @Cacheable tras un
+ * fallo) no se notifica: ningún nodo puede tener una copia válida distinta,
+ * porque toda escritura o invalidación anterior ya se notificó. El relleno se
+ * escribe con putIfAbsent: si otro nodo escribió la clave entre el fallo y la
+ * carga, su valor es más reciente que lo cargado y es el que se queda, también
+ * en L1.
+ */
+public class DosNivelesCache implements Cache {
+
+    private final CaffeineCache local;
+    private final Cache remoto;
+    private final BiConsumer<String, Object> notificador;
+
+    private final LongAdder aciertosRemoto = new LongAdder();
+    private final LongAdder fallosRemoto = new LongAdder();
+
+    // Cargas en curso por clave: el resto de peticiones de la misma clave esperan la misma carga
+    private final ConcurrentMap<Object, CompletableFuture<Object>> cargas = new ConcurrentHashMap<>();
+
+    // Última clave que falló en ambos niveles en este hilo: el put que la sigue es el relleno del @Cacheable
+    private final ThreadLocal<Object> falloPendiente = new ThreadLocal<>();
+
+    /**
+     * @param notificador recibe el nombre de la región y la clave invalidada
+     *                    (nula cuando se vacía la región)
+     */
+    public DosNivelesCache(CaffeineCache local, Cache remoto, BiConsumer<String, Object> notificador) {
+        this.local = local;
+        this.remoto = remoto;
+        this.notificador = notificador;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoto.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        falloPendiente.remove();
+        ValueWrapper valor = local.get(key);
+        if (valor != null) {
+            return valor;
+        }
+        valor = remoto.get(key);
+        if (valor != null) {
+            aciertosRemoto.increment();
+            local.put(key, valor.get());
+        } else {
+            fallosRemoto.increment();
+            falloPendiente.set(key);
+        }
+        return valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valor = get(key);
+        Object contenido = valor != null ? valor.get() : null;
+        if (contenido != null && type != null && !type.isInstance(contenido)) {
+            throw new IllegalStateException(
+                    "El valor en caché no es del tipo requerido [" + type.getName() + "]: " + contenido);
+        }
+        return (T) contenido;
+    }
+
+    /**
+     * Carga una sola vez por nodo aunque lleguen fallos concurrentes de la misma
+     * clave. No se usa Caffeine.get(key, loader): calcula dentro del bloqueo de
+     * ConcurrentHashMap.compute (un monitor) y la lectura de Redis y la carga de
+     * la base de datos fijarían el hilo virtual a su portador durante la E/S.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper valor = local.get(key);
+        if (valor != null) {
+            return (T) valor.get();
+        }
+        CompletableFuture<Object> carga = new CompletableFuture<>();
+        CompletableFuture<Object> enCurso = cargas.putIfAbsent(key, carga);
+        if (enCurso != null) {
+            return (T) esperar(enCurso);
+        }
+        try {
+            Object cargado = cargar(key, valueLoader);
+            local.put(key, cargado);
+            carga.complete(cargado);
+            return (T) cargado;
+        } catch (RuntimeException | Error e) {
+            carga.completeExceptionally(e);
+            throw e;
+        } finally {
+            cargas.remove(key, carga);
+        }
+    }
+
+    private Object cargar(Object key, Callable<?> valueLoader) {
+        ValueWrapper valor = remoto.get(key);
+        if (valor != null) {
+            aciertosRemoto.increment();
+            return valor.get();
+        }
+        fallosRemoto.increment();
+        Object cargado;
+        try {
+            cargado = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        return rellenar(key, cargado);
+    }
+
+    // Escribe en L2 lo cargado tras un fallo salvo que otro nodo haya escrito antes; devuelve el valor que queda
+    private Object rellenar(Object key, Object cargado) {
+        ValueWrapper existente = remoto.putIfAbsent(key, cargado);
+        return existente != null ? existente.get() : cargado;
+    }
+
+    private static Object esperar(CompletableFuture<Object> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        boolean relleno = key.equals(falloPendiente.get());
+        falloPendiente.remove();
+        if (relleno) {
+            local.put(key, rellenar(key, value));
+            return;
+        }
+        remoto.put(key, value);
+        local.put(key, value);
+        notificador.accept(getName(), key);
+    }
+
+    /** Solo escribe si la clave no estaba en L2, así que tampoco se notifica. */
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        falloPendiente.remove();
+        ValueWrapper existente = remoto.putIfAbsent(key, value);
+        local.put(key, existente != null ? existente.get() : value);
+        return existente;
+    }
+
+    @Override
+    public void evict(Object key) {
+        falloPendiente.remove();
+        remoto.evict(key);
+        local.evict(key);
+        notificador.accept(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        falloPendiente.remove();
+        boolean presente = remoto.evictIfPresent(key);
+        local.evict(key);
+        notificador.accept(getName(), key);
+        return presente;
+    }
+
+    @Override
+    public void clear() {
+        falloPendiente.remove();
+        remoto.clear();
+        local.clear();
+        notificador.accept(getName(), null);
+    }
+
+    /**
+     * Aplica una invalidación recibida de otro nodo; el nivel compartido ya fue
+     * actualizado por el nodo que la originó.
+     */
+    void invalidarLocal(Object key) {
+        if (key == null) {
+            local.clear();
+        } else {
+            local.evict(key);
+        }
+    }
+
+    public EstadisticasCacheDTO estadisticas() {
+        CacheStats l1 = local.getNativeCache().stats();
+        long aciertosL2 = aciertosRemoto.sum();
+        long fallosL2 = fallosRemoto.sum();
+        long consultasL2 = aciertosL2 + fallosL2;
+        return EstadisticasCacheDTO.builder()
+                .cache(getName())
+                .entradasL1(local.getNativeCache().estimatedSize())
+                .aciertosL1(l1.hitCount())
+                .fallosL1(l1.missCount())
+                .ratioAciertosL1(l1.hitRate())
+                .aciertosL2(aciertosL2)
+                .fallosL2(fallosL2)
+                .ratioAciertosL2(consultasL2 == 0 ? 1.0 : (double) aciertosL2 / consultasL2)
+                .build();
+    }
+}
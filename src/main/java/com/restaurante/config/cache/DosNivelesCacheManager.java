@@ -0,0 +1,87 @@
+package com.restaurante.config.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurante.dto.EstadisticasCacheDTO;
+
+/**
+ * CacheManager compuesto: cada región es un {@link DosNivelesCache} con su
+ * propia caché Caffeine acotada y la región homónima del gestor remoto.
+ * Las invalidaciones locales se publican por {@code canal} y las que llegan de
+ * otros nodos se aplican con {@link #recibir(InvalidacionCache)}.
+ */
+public class DosNivelesCacheManager implements CacheManager {
+
+    private final String nodo = UUID.randomUUID().toString();
+    private final CacheManager remoto;
+    private final Caffeine<Object, Object> especificacionLocal;
+    private final Consumer<InvalidacionCache> canal;
+    private final ConcurrentMap<String, DosNivelesCache> caches = new ConcurrentHashMap<>();
+    private final List<Consumer<InvalidacionCache>> oyentes = new CopyOnWriteArrayList<>();
+
+    public DosNivelesCacheManager(CacheManager remoto, Caffeine<Object, Object> especificacionLocal,
+            Consumer<InvalidacionCache> canal) {
+        this.remoto = remoto;
+        this.especificacionLocal = especificacionLocal;
+        this.canal = canal;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, nombre -> {
+            Cache regionRemota = remoto.getCache(nombre);
+            if (regionRemota == null) {
+                throw new IllegalStateException("Región de caché no disponible: " + nombre);
+            }
+            CaffeineCache regionLocal = new CaffeineCache(nombre, especificacionLocal.build(), true);
+            return new DosNivelesCache(regionLocal, regionRemota, this::publicar);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public void recibir(InvalidacionCache invalidacion) {
+        if (nodo.equals(invalidacion.nodo())) {
+            return;
+        }
+        DosNivelesCache cache = caches.get(invalidacion.cache());
+        if (cache != null) {
+            cache.invalidarLocal(invalidacion.clave());
+        }
+        oyentes.forEach(oyente -> oyente.accept(invalidacion));
+    }
+
+    /**
+     * Registra un oyente de las invalidaciones que llegan de otros nodos, para
+     * estructuras en memoria que derivan de una región (p. ej. los índices de búsqueda).
+     */
+    public void alRecibir(Consumer<InvalidacionCache> oyente) {
+        oyentes.add(oyente);
+    }
+
+    public List<EstadisticasCacheDTO> estadisticas() {
+        return caches.values().stream()
+                .map(DosNivelesCache::estadisticas)
+                .sorted((a, b) -> a.getCache().compareTo(b.getCache()))
+                .toList();
+    }
+
+    private void publicar(String cache, Object clave) {
+        canal.accept(new InvalidacionCache(nodo, cache, clave));
+    }
+}
@@ -0,0 +1,10 @@
+package com.restaurante.config.cache;
+
+import java.io.Serializable;
+
+/**
+ * Mensaje publicado en Redis cuando un nodo invalida una entrada.
+ * Una clave nula indica que se vació la región completa.
+ */
+public record InvalidacionCache(String nodo, String cache, Object clave) implements Serializable {
+}
@@ -0,0 +1,53 @@
+package com.restaurante.config.metricas;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Etiquetas del temporizador http.server.requests: las de Spring (método, uri,
+ * estado, outcome, excepción) más el rol de quien hace la petición.
+ * La observación se cierra cuando la cadena de seguridad ya ha limpiado el
+ * SecurityContext, así que el filtro JWT deja el rol en un atributo de la petición.
+ */
+public class ConvencionPeticiones extends DefaultServerRequestObservationConvention {
+
+    public static final String ETIQUETA_ROL = "rol";
+    public static final String ATRIBUTO_ROL = ConvencionPeticiones.class.getName() + ".rol";
+    public static final String ANONIMO = "anonimo";
+
+    public static void registrarRol(HttpServletRequest request, Collection<String> roles) {
+        request.setAttribute(ATRIBUTO_ROL, rolDe(roles));
+    }
+
+    /**
+     * Combinación ordenada de roles sin el prefijo ROLE_ (p. ej. "admin" o
+     * "cliente+personal_cocina"): la cardinalidad queda acotada por los roles existentes.
+     */
+    static String rolDe(Collection<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return ANONIMO;
+        }
+        return roles.stream()
+                .map(rol -> rol.replaceFirst("^ROLE_", "").toLowerCase())
+                .sorted()
+                .collect(Collectors.joining("+"));
+    }
+
+    static String rolDe(HttpServletRequest request) {
+        Object rol = request != null ? request.getAttribute(ATRIBUTO_ROL) : null;
+        return rol != null ? rol.toString() : ANONIMO;
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context)
+                .and(KeyValue.of(ETIQUETA_ROL, rolDe(context.getCarrier())));
+    }
+}
@@ -0,0 +1,61 @@
+package com.restaurante.config.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+/**
+ * Traza DEBUG de una de cada N peticiones HTTP. La latencia agregada sale del
+ * temporizador; esto solo deja ejemplos sueltos en el log para depurar, y con
+ * DEBUG desactivado no formatea nada.
+ */
+public class TrazaMuestreada implements ObservationHandler<ServerRequestObservationContext> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrazaMuestreada.class);
+
+    private final long cadaN;
+    private final AtomicLong contador = new AtomicLong();
+
+    public TrazaMuestreada(long cadaN) {
+        this.cadaN = Math.max(1, cadaN);
+    }
+
+    @Override
+    public void onStart(ServerRequestObservationContext context) {
+        if (debeTrazar()) {
+            context.put(Inicio.class, new Inicio(System.nanoTime()));
+        }
+    }
+
+    @Override
+    public void onStop(ServerRequestObservationContext context) {
+        Inicio inicio = context.get(Inicio.class);
+        if (inicio == null) {
+            return;
+        }
+        long duracionMs = (System.nanoTime() - inicio.nanos()) / 1_000_000;
+        logger.debug("{} {} -> {} rol={} en {} ms",
+                context.getCarrier().getMethod(),
+                context.getPathPattern() != null ? context.getPathPattern() : context.getCarrier().getRequestURI(),
+                context.getResponse() != null ? context.getResponse().getStatus() : "-",
+                ConvencionPeticiones.rolDe(context.getCarrier()),
+                duracionMs);
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext;
+    }
+
+    boolean debeTrazar() {
+        return logger.isDebugEnabled() && contador.getAndIncrement() % cadaN == 0;
+    }
+
+    private record Inicio(long nanos) {
+    }
+}
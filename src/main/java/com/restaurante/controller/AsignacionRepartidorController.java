@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,9 +14,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.restaurante.dto.AsignacionRepartidorDTO;
+import com.restaurante.dto.PaginaDTO;
 import com.restaurante.model.AsignacionRepartidor;
 import com.restaurante.service.IAsignacionRepartidorService;
 
@@ -34,6 +39,9 @@ public class AsignacionRepartidorController {
     @Autowired
     private IAsignacionRepartidorService asignacionService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(
         summary = "Obtener todas las asignaciones",
         description = "Solo accesible por ADMIN",
@@ -48,6 +56,41 @@ public class AsignacionRepartidorController {
         return new ResponseEntity<>(asignacionService.obtenerTodas(), HttpStatus.OK);
     }
 
+    @Operation(
+        summary = "Obtener asignaciones paginados por cursor",
+        description = "Solo accesible por ADMIN. Devuelve como máximo 'limite' registros con id mayor que 'cursor'; "
+                + "el siguienteCursor de la respuesta se usa en la siguiente petición",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Último id recibido (vacío para empezar)"),
+            @Parameter(in = ParameterIn.QUERY, name = "limite", description = "Tamaño de página (1-500, por defecto 50)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Página de asignaciones"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping("/pagina")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaginaDTO<AsignacionRepartidorDTO>> obtenerPagina(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite) {
+        return ResponseEntity.ok(asignacionService.obtenerPagina(cursor, limite));
+    }
+
+    @Operation(
+        summary = "Exportar asignaciones en NDJSON",
+        description = "Solo accesible por ADMIN. Transmite un objeto JSON por línea a medida que se leen de la base de datos",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de asignaciones"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        return NdjsonStream.de(objectMapper, asignacionService::recorrerTodas);
+    }
+
     @Operation(
         summary = "Obtener asignación por ID",
         description = "Accesible por ADMIN y PERSONAL_COCINA",
@@ -0,0 +1,43 @@
+package com.restaurante.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.restaurante.config.cache.DosNivelesCacheManager;
+import com.restaurante.dto.EstadisticasCacheDTO;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/cache")
+@SecurityRequirement(name = "bearer-key")
+@Tag(name = "Caché", description = "Estado de la caché en dos niveles")
+public class CacheController {
+
+    @Autowired
+    private DosNivelesCacheManager cacheManager;
+
+    @Operation(
+        summary = "Obtener estadísticas de la caché",
+        description = "Solo accesible por ADMIN. Aciertos y fallos por región en el nivel local (L1) y en Redis (L2) de este nodo",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas por región"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping("/estadisticas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EstadisticasCacheDTO>> obtenerEstadisticas() {
+        return ResponseEntity.ok(cacheManager.estadisticas());
+    }
+}
@@ -2,8 +2,6 @@ package com.restaurante.controller;
 
 import java.util.List;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,15 +15,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.restaurante.dto.CategoriaDTO;
 import com.restaurante.model.Categoria;
 import com.restaurante.service.ICategoriaService;
+import com.restaurante.service.IMenuService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -35,11 +37,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Categorías", description = "Gestión de categorías de productos")
 public class CategoriaController {
 
-    private static final Logger logger = LoggerFactory.getLogger(CategoriaController.class);
-
     @Autowired
     private ICategoriaService categoriaService;
 
+    @Autowired
+    private IMenuService menuService;
+
     @Operation(
         summary = "Obtener todas las categorías",
         description = "Endpoint público que retorna todas las categorías disponibles",
@@ -50,34 +53,23 @@ public class CategoriaController {
     @GetMapping
     @PreAuthorize("permitAll()")
     public ResponseEntity<List<CategoriaDTO>> obtenerTodas() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/categorias");
-        
-        ResponseEntity<List<CategoriaDTO>> response = ResponseEntity.ok(categoriaService.obtenerTodas());
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/categorias completada en {} ms", duration);
-        return response;
+        return ResponseEntity.ok(categoriaService.obtenerTodas());
     }
 
     @Operation(
         summary = "Obtener categorías activas",
-        description = "Endpoint público que retorna solo las categorías activas",
+        description = "Endpoint público que retorna solo las categorías activas. Respuesta precalculada con ETag: "
+                + "con If-None-Match devuelve 304 sin cuerpo mientras no cambien",
         responses = {
-            @ApiResponse(responseCode = "200", description = "Lista de categorías activas obtenida con éxito")
+            @ApiResponse(responseCode = "200", description = "Lista de categorías activas obtenida con éxito",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = CategoriaDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado", content = @Content)
         }
     )
     @GetMapping("/activas")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<List<CategoriaDTO>> obtenerActivas() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/categorias/activas");
-        
-        ResponseEntity<List<CategoriaDTO>> response = ResponseEntity.ok(categoriaService.obtenerActivas());
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/categorias/activas completada en {} ms", duration);
-        return response;
+    public ResponseEntity<byte[]> obtenerActivas(WebRequest peticion) {
+        return RespuestaMenu.de(menuService.obtenerInstantanea().categoriasActivas(), peticion);
     }
 
     @Operation(
@@ -94,14 +86,7 @@ public class CategoriaController {
     @GetMapping("/{id}")
     @PreAuthorize("permitAll()")
     public ResponseEntity<CategoriaDTO> obtenerPorId(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/categorias/{}", id);
-        
-        ResponseEntity<CategoriaDTO> response = ResponseEntity.ok(categoriaService.obtenerPorId(id));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/categorias/{} completada en {} ms", id, duration);
-        return response;
+        return ResponseEntity.ok(categoriaService.obtenerPorId(id));
     }
 
     @Operation(
@@ -117,16 +102,8 @@ public class CategoriaController {
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<CategoriaDTO> crear(@RequestBody CategoriaDTO categoriaDTO) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud POST /api/categorias");
-        
-        ResponseEntity<CategoriaDTO> response = ResponseEntity.status(HttpStatus.CREATED)
+        return ResponseEntity.status(HttpStatus.CREATED)
                 .body(categoriaService.crear(categoriaDTO));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud POST /api/categorias completada en {} ms. ID creado: {}", 
-                   duration, response.getBody().getId());
-        return response;
     }
 
     @Operation(
@@ -145,14 +122,7 @@ public class CategoriaController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<CategoriaDTO> actualizar(@PathVariable Long id, @RequestBody CategoriaDTO categoriaDTO) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/categorias/{}", id);
-        
-        ResponseEntity<CategoriaDTO> response = ResponseEntity.ok(categoriaService.actualizar(id, categoriaDTO));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/categorias/{} completada en {} ms", id, duration);
-        return response;
+        return ResponseEntity.ok(categoriaService.actualizar(id, categoriaDTO));
     }
 
     @Operation(
@@ -171,14 +141,7 @@ public class CategoriaController {
     @PutMapping("/{id}/desactivar")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<CategoriaDTO> desactivar(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/categorias/{}/desactivar", id);
-        
-        ResponseEntity<CategoriaDTO> response = ResponseEntity.ok(categoriaService.desactivar(id));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/categorias/{}/desactivar completada en {} ms", id, duration);
-        return response;
+        return ResponseEntity.ok(categoriaService.desactivar(id));
     }
 
     @Operation(
@@ -200,14 +163,7 @@ public class CategoriaController {
     @GetMapping("/buscar")
     @PreAuthorize("permitAll()")
     public ResponseEntity<List<CategoriaDTO>> buscarPorNombre(@RequestParam String nombre) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/categorias/buscar?nombre={}", nombre);
-        
-        ResponseEntity<List<CategoriaDTO>> response = ResponseEntity.ok(categoriaService.buscarPorNombre(nombre));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/categorias/buscar completada en {} ms. Parámetro: {}", duration, nombre);
-        return response;
+        return ResponseEntity.ok(categoriaService.buscarPorNombre(nombre));
     }
     
     @Operation(
@@ -226,13 +182,8 @@ public class CategoriaController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> eliminar(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud DELETE /api/categorias/{}", id);
-        
         categoriaService.eliminar(id);
         
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud DELETE /api/categorias/{} completada en {} ms", id, duration);
         return ResponseEntity.noContent().build();
     }
     
@@ -252,13 +203,6 @@ public class CategoriaController {
     @GetMapping("/{id}/lock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Categoria> obtenerPorIdConBloqueo(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/categorias/{}/lock", id);
-        
-        ResponseEntity<Categoria> response = ResponseEntity.ok(categoriaService.obtenerPorIdConBloqueo(id));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/categorias/{}/lock completada en {} ms", id, duration);
-        return response;
+        return ResponseEntity.ok(categoriaService.obtenerPorIdConBloqueo(id));
     }
 }
\ No newline at end of file
@@ -4,8 +4,6 @@ import java.util.List;
 
 import javax.validation.Valid;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,8 +32,6 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @SecurityRequirement(name = "bearer-key")
 public class ClienteController {
 
-    private static final Logger logger = LoggerFactory.getLogger(ClienteController.class);
-    
     private final IClienteService clienteService;
 
     public ClienteController(IClienteService clienteService) {
@@ -54,18 +50,10 @@ public class ClienteController {
     @PostMapping
     @PreAuthorize("permitAll()")
     public ResponseEntity<ClienteDTO> crearCliente(@Valid @RequestBody ClienteDTO clienteDTO) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud POST /api/clientes");
-        
-        ResponseEntity<ClienteDTO> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             clienteService.crearCliente(clienteDTO), 
             HttpStatus.CREATED
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud POST /api/clientes completada en {} ms. ID creado: {}", 
-                   duration, response.getBody().getId());
-        return response;
     }
 
     @Operation(
@@ -90,16 +78,9 @@ public class ClienteController {
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE') and (#id == principal.username or hasRole('ADMIN'))")
     public ResponseEntity<ClienteDTO> actualizarCliente(
             @PathVariable Long id, @Valid @RequestBody ClienteDTO clienteDTO) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/clientes/{}", id);
-        
-        ResponseEntity<ClienteDTO> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             clienteService.actualizarCliente(id, clienteDTO)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/clientes/{} completada en {} ms", id, duration);
-        return response;
     }
 
     @Operation(
@@ -114,16 +95,9 @@ public class ClienteController {
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ClienteDTO>> listarClientes() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/clientes");
-        
-        ResponseEntity<List<ClienteDTO>> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             clienteService.listarTodosClientes()
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/clientes completada en {} ms", duration);
-        return response;
     }
 
     @Operation(
@@ -146,16 +120,9 @@ public class ClienteController {
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE') and (#id == principal.username or hasRole('ADMIN'))")
     public ResponseEntity<ClienteDTO> obtenerCliente(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/clientes/{}", id);
-        
-        ResponseEntity<ClienteDTO> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             clienteService.obtenerClientePorId(id)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/clientes/{} completada en {} ms", id, duration);
-        return response;
     }
 
     @Operation(
@@ -178,13 +145,8 @@ public class ClienteController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> eliminarCliente(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud DELETE /api/clientes/{}", id);
-        
         clienteService.eliminarCliente(id);
         
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud DELETE /api/clientes/{} completada en {} ms", id, duration);
         return ResponseEntity.noContent().build();
     }
 
@@ -208,15 +170,8 @@ public class ClienteController {
     @GetMapping("/{id}/lock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Cliente> obtenerClientePorIdConBloqueo(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/clientes/{}/lock", id);
-        
-        ResponseEntity<Cliente> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             clienteService.obtenerClientePorIdConBloqueo(id)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/clientes/{}/lock completada en {} ms", id, duration);
-        return response;
     }
 }
\ No newline at end of file
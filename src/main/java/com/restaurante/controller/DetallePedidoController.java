@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,9 +14,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.restaurante.dto.DetallePedidoDTO;
+import com.restaurante.dto.PaginaDTO;
 import com.restaurante.service.IDetallePedidoService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,6 +38,9 @@ public class DetallePedidoController {
     @Autowired
     private IDetallePedidoService detalleService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(
         summary = "Obtener todos los detalles de pedidos",
         description = "Accesible por ADMIN y PERSONAL_COCINA",
@@ -48,6 +56,41 @@ public class DetallePedidoController {
         return ResponseEntity.ok(detalleService.obtenerTodos());
     }
 
+    @Operation(
+        summary = "Obtener detalles de pedidos paginados por cursor",
+        description = "Accesible por ADMIN y PERSONAL_COCINA. Devuelve como máximo 'limite' registros con id mayor que 'cursor'; "
+                + "el siguienteCursor de la respuesta se usa en la siguiente petición",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Último id recibido (vacío para empezar)"),
+            @Parameter(in = ParameterIn.QUERY, name = "limite", description = "Tamaño de página (1-500, por defecto 50)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Página de detalles de pedidos"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping("/pagina")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
+    public ResponseEntity<PaginaDTO<DetallePedidoDTO>> obtenerPagina(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite) {
+        return ResponseEntity.ok(detalleService.obtenerPagina(cursor, limite));
+    }
+
+    @Operation(
+        summary = "Exportar detalles de pedidos en NDJSON",
+        description = "Accesible por ADMIN y PERSONAL_COCINA. Transmite un objeto JSON por línea a medida que se leen de la base de datos",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de detalles de pedidos"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        return NdjsonStream.de(objectMapper, detalleService::recorrerTodos);
+    }
+
     @Operation(
         summary = "Obtener detalle por ID",
         description = "Accesible por ADMIN, PERSONAL_COCINA y CLIENTE",
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,9 +13,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.restaurante.dto.HistorialEstadosDTO;
+import com.restaurante.dto.PaginaDTO;
 import com.restaurante.model.HistorialEstados;
 import com.restaurante.service.IHistorialEstadosService;
 
@@ -33,6 +38,9 @@ public class HistorialEstadosController {
     @Autowired
     private IHistorialEstadosService historialService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(
         summary = "Obtener todo el historial de estados",
         description = "Solo accesible por ADMIN",
@@ -48,6 +56,41 @@ public class HistorialEstadosController {
         return new ResponseEntity<>(historialService.obtenerTodos(), HttpStatus.OK);
     }
 
+    @Operation(
+        summary = "Obtener entradas del historial paginados por cursor",
+        description = "Solo accesible por ADMIN. Devuelve como máximo 'limite' registros con id mayor que 'cursor'; "
+                + "el siguienteCursor de la respuesta se usa en la siguiente petición",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Último id recibido (vacío para empezar)"),
+            @Parameter(in = ParameterIn.QUERY, name = "limite", description = "Tamaño de página (1-500, por defecto 50)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Página de entradas del historial"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping("/pagina")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaginaDTO<HistorialEstadosDTO>> obtenerPagina(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite) {
+        return ResponseEntity.ok(historialService.obtenerPagina(cursor, limite));
+    }
+
+    @Operation(
+        summary = "Exportar entradas del historial en NDJSON",
+        description = "Solo accesible por ADMIN. Transmite un objeto JSON por línea a medida que se leen de la base de datos",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de entradas del historial"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        return NdjsonStream.de(objectMapper, historialService::recorrerTodos);
+    }
+
     @Operation(
         summary = "Obtener entrada del historial por ID",
         description = "Accesible por ADMIN y PERSONAL_COCINA",
@@ -0,0 +1,43 @@
+package com.restaurante.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.restaurante.dto.MenuDTO;
+import com.restaurante.service.IMenuService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/public/menu")
+@Tag(name = "Menú", description = "Carta pública precalculada")
+public class MenuController {
+
+    @Autowired
+    private IMenuService menuService;
+
+    @Operation(
+        summary = "Obtener el menú completo",
+        description = "Acceso público sin autenticación. Categorías activas y productos activos en una sola respuesta, "
+                + "ya serializada (y comprimida con gzip si el cliente lo acepta). Devuelve ETag: con If-None-Match "
+                + "la respuesta es 304 sin cuerpo mientras el menú no cambie.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Menú actual",
+                content = @Content(schema = @Schema(implementation = MenuDTO.class))),
+            @ApiResponse(responseCode = "304", description = "El menú no ha cambiado desde el ETag indicado", content = @Content)
+        },
+        security = {}
+    )
+    @GetMapping
+    public ResponseEntity<byte[]> obtenerMenu(WebRequest peticion) {
+        return RespuestaMenu.de(menuService.obtenerInstantanea().menu(), peticion);
+    }
+}
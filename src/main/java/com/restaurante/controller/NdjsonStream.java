@@ -0,0 +1,45 @@
+package com.restaurante.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Respuesta NDJSON (un objeto JSON por línea) escrita a medida que el servicio
+ * recorre las filas, sin materializar la lista completa en memoria.
+ */
+final class NdjsonStream {
+
+    private NdjsonStream() {
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> de(ObjectMapper objectMapper, Consumer<Consumer<T>> origen) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody cuerpo = salida -> {
+            try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generador.setRootValueSeparator(null);
+                origen.accept(fila -> {
+                    try {
+                        writer.writeValue(generador, fila);
+                        generador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+}
@@ -1,11 +1,11 @@
 package com.restaurante.controller;
 
 import java.util.List;
+import java.util.Set;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,11 +15,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.CambioEstadoLoteDTO;
+import com.restaurante.dto.EtaPedidoDTO;
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.PedidoCompletoDTO;
 import com.restaurante.dto.PedidoDTO;
 import com.restaurante.model.Pedido;
+import com.restaurante.service.IEtaCocinaService;
 import com.restaurante.service.IPedidoService;
+import com.restaurante.service.ITableroCocinaService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -27,17 +37,25 @@ import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/pedidos")
 @SecurityRequirement(name = "bearer-key")
 public class PedidoController {
 
-    private static final Logger logger = LoggerFactory.getLogger(PedidoController.class);
-    
     @Autowired
     private IPedidoService pedidoService;
 
+    @Autowired
+    private ITableroCocinaService tableroCocinaService;
+
+    @Autowired
+    private IEtaCocinaService etaCocinaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(
         summary = "Obtener todos los pedidos",
         description = "Solo accesible por ADMIN y PERSONAL_COCINA",
@@ -49,17 +67,67 @@ public class PedidoController {
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
     public ResponseEntity<List<PedidoDTO>> obtenerTodos() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/pedidos");
-        
-        ResponseEntity<List<PedidoDTO>> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             pedidoService.obtenerTodos(), 
             HttpStatus.OK
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/pedidos completada en {} ms", duration);
-        return response;
+    }
+
+    @Operation(
+        summary = "Obtener pedidos paginados por cursor",
+        description = "Solo accesible por ADMIN y PERSONAL_COCINA. Devuelve como máximo 'limite' registros con id mayor que 'cursor'; "
+                + "el siguienteCursor de la respuesta se usa en la siguiente petición",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Último id recibido (vacío para empezar)"),
+            @Parameter(in = ParameterIn.QUERY, name = "limite", description = "Tamaño de página (1-500, por defecto 50)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Página de pedidos"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping("/pagina")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
+    public ResponseEntity<PaginaDTO<PedidoDTO>> obtenerPagina(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite) {
+        return ResponseEntity.ok(pedidoService.obtenerPagina(cursor, limite));
+    }
+
+    @Operation(
+        summary = "Exportar pedidos en NDJSON",
+        description = "Solo accesible por ADMIN y PERSONAL_COCINA. Transmite un objeto JSON por línea a medida que se leen de la base de datos",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de pedidos"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        return NdjsonStream.de(objectMapper, pedidoService::recorrerTodos);
+    }
+
+    @Operation(
+        summary = "Suscribirse al tablero de cocina (SSE)",
+        description = "Solo accesible por ADMIN y PERSONAL_COCINA. Envía un evento por cada pedido creado, cambio de estado "
+                + "o registro de historial, filtrado por estados y área. La pantalla debe suscribirse primero y después "
+                + "cargar el estado actual por REST; si la conexión se corta, el navegador reconecta y vuelve a cargarlo",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "estados", description = "Estados a recibir (vacío para todos)"),
+            @Parameter(in = ParameterIn.QUERY, name = "area", description = "Área de cocina del personal asignado")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Flujo de eventos del tablero"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping(value = "/tablero", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
+    public SseEmitter suscribirTablero(
+            @RequestParam(required = false) Set<String> estados,
+            @RequestParam(required = false) String area) {
+        return tableroCocinaService.suscribir(estados, area);
     }
 
     @Operation(
@@ -77,17 +145,30 @@ public class PedidoController {
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA', 'CLIENTE')")
     public ResponseEntity<PedidoDTO> obtenerPorId(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/pedidos/{}", id);
-        
-        ResponseEntity<PedidoDTO> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             pedidoService.obtenerPorId(id), 
             HttpStatus.OK
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/pedidos/{} completada en {} ms", id, duration);
-        return response;
+    }
+
+    @Operation(
+        summary = "Hora estimada de un pedido",
+        description = "Accesible por ADMIN, PERSONAL_COCINA y CLIENTE. Estima cuándo estará LISTO un pedido pendiente o en "
+                + "preparación según los pedidos que tiene delante, los tiempos de preparación de sus productos (corregidos "
+                + "con lo observado en el historial) y el personal de cocina del turno en curso.",
+        parameters = {
+            @Parameter(in = ParameterIn.PATH, name = "id", description = "ID del pedido", required = true)
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Estimación del pedido; listo = true si ya salió de cocina"),
+            @ApiResponse(responseCode = "404", description = "Pedido no encontrado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @GetMapping("/{id}/eta")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA', 'CLIENTE')")
+    public ResponseEntity<EtaPedidoDTO> obtenerEta(@PathVariable Long id) {
+        return ResponseEntity.ok(etaCocinaService.obtenerEta(id));
     }
 
     @Operation(
@@ -104,17 +185,10 @@ public class PedidoController {
     @GetMapping("/cliente/{idCliente}")
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE') and (#idCliente == principal.id or hasRole('ADMIN'))")
     public ResponseEntity<List<PedidoDTO>> obtenerPorCliente(@PathVariable Long idCliente) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/pedidos/cliente/{}", idCliente);
-        
-        ResponseEntity<List<PedidoDTO>> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             pedidoService.obtenerPorCliente(idCliente), 
             HttpStatus.OK
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/pedidos/cliente/{} completada en {} ms", idCliente, duration);
-        return response;
     }
 
     @Operation(
@@ -131,17 +205,10 @@ public class PedidoController {
     @GetMapping("/estado/{estado}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
     public ResponseEntity<List<PedidoDTO>> obtenerPorEstado(@PathVariable String estado) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/pedidos/estado/{}", estado);
-        
-        ResponseEntity<List<PedidoDTO>> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             pedidoService.obtenerPorEstado(estado), 
             HttpStatus.OK
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/pedidos/estado/{} completada en {} ms", estado, duration);
-        return response;
     }
 
     @Operation(
@@ -155,17 +222,10 @@ public class PedidoController {
     @GetMapping("/hoy")
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
     public ResponseEntity<List<PedidoDTO>> obtenerPedidosDelDia() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/pedidos/hoy");
-        
-        ResponseEntity<List<PedidoDTO>> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             pedidoService.obtenerPedidosDelDia(), 
             HttpStatus.OK
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/pedidos/hoy completada en {} ms", duration);
-        return response;
     }
 
     @Operation(
@@ -180,18 +240,28 @@ public class PedidoController {
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
     public ResponseEntity<PedidoDTO> crear(@RequestBody PedidoDTO pedidoDTO) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud POST /api/pedidos");
-        
-        ResponseEntity<PedidoDTO> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             pedidoService.crear(pedidoDTO), 
             HttpStatus.CREATED
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud POST /api/pedidos completada en {} ms. ID creado: {}", 
-                   duration, response.getBody().getPid());
-        return response;
+    }
+
+    @Operation(
+        summary = "Crear pedido con todos sus detalles",
+        description = "Accesible por ADMIN y CLIENTE. Valida productos y precios y guarda el pedido y sus líneas en una sola transacción",
+        responses = {
+            @ApiResponse(responseCode = "201", description = "Pedido y detalles creados exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @PostMapping("/con-detalles")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    public ResponseEntity<PedidoCompletoDTO> crearConDetalles(@Valid @RequestBody PedidoCompletoDTO pedidoDTO) {
+        return new ResponseEntity<>(
+            pedidoService.crearConDetalles(pedidoDTO), 
+            HttpStatus.CREATED
+        );
     }
 
     @Operation(
@@ -211,25 +281,21 @@ public class PedidoController {
     public ResponseEntity<PedidoDTO> actualizar(
             @PathVariable Long id, 
             @RequestBody PedidoDTO pedidoDTO) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/pedidos/{}", id);
-        
-        ResponseEntity<PedidoDTO> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             pedidoService.actualizar(id, pedidoDTO), 
             HttpStatus.OK
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/pedidos/{} completada en {} ms", id, duration);
-        return response;
     }
 
     @Operation(
         summary = "Actualizar estado de pedido",
-        description = "Solo accesible por ADMIN y PERSONAL_COCINA",
+        description = "Solo accesible por ADMIN y PERSONAL_COCINA. Solo se avanza al estado siguiente "
+                + "(PENDIENTE → EN_PREPARACION → LISTO → EN_CAMINO → ENTREGADO) y el cambio queda "
+                + "registrado en el historial de estados sin llamar a /api/historial-estados",
         parameters = {
             @Parameter(in = ParameterIn.PATH, name = "id", description = "ID del pedido", required = true),
-            @Parameter(in = ParameterIn.PATH, name = "nuevoEstado", description = "Nuevo estado del pedido", required = true)
+            @Parameter(in = ParameterIn.PATH, name = "nuevoEstado", description = "Nuevo estado del pedido", required = true),
+            @Parameter(in = ParameterIn.QUERY, name = "idPersonaCocina", description = "Persona de cocina que hace el cambio (se guarda en el historial)")
         },
         responses = {
             @ApiResponse(responseCode = "200", description = "Estado actualizado exitosamente"),
@@ -241,19 +307,29 @@ public class PedidoController {
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
     public ResponseEntity<PedidoDTO> actualizarEstado(
             @PathVariable Long id,
-            @PathVariable String nuevoEstado) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/pedidos/{}/estado/{}", id, nuevoEstado);
-        
-        ResponseEntity<PedidoDTO> response = new ResponseEntity<>(
-            pedidoService.actualizarEstado(id, nuevoEstado), 
+            @PathVariable String nuevoEstado,
+            @RequestParam(required = false) Long idPersonaCocina) {
+        return new ResponseEntity<>(
+            pedidoService.actualizarEstado(id, nuevoEstado, idPersonaCocina), 
             HttpStatus.OK
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/pedidos/{}/estado/{} completada en {} ms", 
-                   id, nuevoEstado, duration);
-        return response;
+    }
+
+    @Operation(
+        summary = "Actualizar el estado de varios pedidos",
+        description = "Solo accesible por ADMIN y PERSONAL_COCINA. Aplica las mismas reglas que el cambio de estado "
+                + "individual a todos los pedidos del lote (como máximo " + CambioEstadoLoteDTO.MAXIMO_PEDIDOS + ") "
+                + "en una sola transacción: si alguno no existe o no puede pasar al nuevo estado, no se cambia ninguno",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Estados actualizados exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        }
+    )
+    @PutMapping("/estado")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA')")
+    public ResponseEntity<List<PedidoDTO>> actualizarEstadoEnLote(@Valid @RequestBody CambioEstadoLoteDTO cambio) {
+        return ResponseEntity.ok(pedidoService.actualizarEstadoEnLote(cambio));
     }
 
     @Operation(
@@ -271,13 +347,8 @@ public class PedidoController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> eliminar(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud DELETE /api/pedidos/{}", id);
-        
         pedidoService.eliminar(id);
         
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud DELETE /api/pedidos/{} completada en {} ms", id, duration);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
     
@@ -296,15 +367,8 @@ public class PedidoController {
     @GetMapping("/{id}/lock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Pedido> obtenerPorIdConBloqueo(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/pedidos/{}/lock", id);
-        
-        ResponseEntity<Pedido> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             pedidoService.obtenerPorIdConBloqueo(id)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/pedidos/{}/lock completada en {} ms", id, duration);
-        return response;
     }
 }
\ No newline at end of file
@@ -4,8 +4,6 @@ import java.util.List;
 
 import javax.validation.Valid;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,8 +32,6 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @SecurityRequirement(name = "bearer-key")
 public class PersonalCocinaController {
 
-    private static final Logger logger = LoggerFactory.getLogger(PersonalCocinaController.class);
-    
     private final IPersonalCocinaService personalService;
 
     public PersonalCocinaController(IPersonalCocinaService personalService) {
@@ -55,18 +51,10 @@ public class PersonalCocinaController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PersonalCocinaDTO> crearPersonal(
             @Valid @RequestBody PersonalCocinaDTO dto) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud POST /api/personal-cocina");
-        
-        ResponseEntity<PersonalCocinaDTO> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             personalService.crearPersonal(dto), 
             HttpStatus.CREATED
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud POST /api/personal-cocina completada en {} ms. ID creado: {}", 
-                   duration, response.getBody().getId());
-        return response;
     }
 
     @Operation(
@@ -87,16 +75,9 @@ public class PersonalCocinaController {
     public ResponseEntity<PersonalCocinaDTO> actualizarPersonal(
             @PathVariable Long id, 
             @Valid @RequestBody PersonalCocinaDTO dto) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/personal-cocina/{}", id);
-        
-        ResponseEntity<PersonalCocinaDTO> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             personalService.actualizarPersonal(id, dto)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/personal-cocina/{} completada en {} ms", id, duration);
-        return response;
     }
 
     @Operation(
@@ -110,16 +91,9 @@ public class PersonalCocinaController {
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<PersonalCocinaDTO>> listarTodoPersonal() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/personal-cocina");
-        
-        ResponseEntity<List<PersonalCocinaDTO>> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             personalService.listarTodoPersonal()
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/personal-cocina completada en {} ms", duration);
-        return response;
     }
 
     @Operation(
@@ -137,16 +111,9 @@ public class PersonalCocinaController {
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PERSONAL_COCINA') and (#id == principal.username or hasRole('ADMIN'))")
     public ResponseEntity<PersonalCocinaDTO> obtenerPersonalPorId(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/personal-cocina/{}", id);
-        
-        ResponseEntity<PersonalCocinaDTO> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             personalService.obtenerPersonalPorId(id)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/personal-cocina/{} completada en {} ms", id, duration);
-        return response;
     }
 
     @Operation(
@@ -164,13 +131,8 @@ public class PersonalCocinaController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> eliminarPersonal(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud DELETE /api/personal-cocina/{}", id);
-        
         personalService.eliminarPersonal(id);
         
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud DELETE /api/personal-cocina/{} completada en {} ms", id, duration);
         return ResponseEntity.noContent().build();
     }
 
@@ -189,15 +151,8 @@ public class PersonalCocinaController {
     @GetMapping("/{id}/lock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PersonalCocina> obtenerPorIdConBloqueo(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/personal-cocina/{}/lock", id);
-        
-        ResponseEntity<PersonalCocina> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             personalService.obtenerPorIdConBloqueo(id)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/personal-cocina/{}/lock completada en {} ms", id, duration);
-        return response;
     }
 }
\ No newline at end of file
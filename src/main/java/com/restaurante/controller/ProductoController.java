@@ -2,8 +2,6 @@ package com.restaurante.controller;
 
 import java.util.List;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,15 +15,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.restaurante.dto.ProductoDTO;
+import com.restaurante.dto.ProductoValoradoDTO;
 import com.restaurante.model.Producto;
+import com.restaurante.service.IMenuService;
 import com.restaurante.service.IProductoService;
+import com.restaurante.service.IValoracionService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
@@ -34,11 +38,15 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @SecurityRequirement(name = "bearer-key")
 public class ProductoController {
 
-    private static final Logger logger = LoggerFactory.getLogger(ProductoController.class);
-
     @Autowired
     private IProductoService productoService;
 
+    @Autowired
+    private IMenuService menuService;
+
+    @Autowired
+    private IValoracionService valoracionService;
+
     @Operation(
         summary = "Obtener todos los productos",
         description = "Acceso público sin autenticación",
@@ -51,58 +59,41 @@ public class ProductoController {
     @GetMapping
     @PreAuthorize("permitAll()")
     public ResponseEntity<List<ProductoDTO>> obtenerTodos() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/productos");
-        
-        ResponseEntity<List<ProductoDTO>> response = ResponseEntity.ok(productoService.obtenerTodos());
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/productos completada en {} ms", duration);
-        return response;
+        return ResponseEntity.ok(productoService.obtenerTodos());
     }
 
     @Operation(
         summary = "Obtener productos activos",
         description = "Acceso público sin autenticación",
         responses = {
-            @ApiResponse(responseCode = "200", description = "Lista de productos activos encontrada"),
+            @ApiResponse(responseCode = "200", description = "Lista de productos activos encontrada",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductoDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado (If-None-Match)", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content)
         },
         security = {}
     )
     @GetMapping("/activos")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<List<ProductoDTO>> obtenerActivos() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/productos/activos");
-        
-        ResponseEntity<List<ProductoDTO>> response = ResponseEntity.ok(productoService.obtenerActivos());
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/productos/activos completada en {} ms", duration);
-        return response;
+    public ResponseEntity<byte[]> obtenerActivos(WebRequest peticion) {
+        return RespuestaMenu.de(menuService.obtenerInstantanea().productosActivos(), peticion);
     }
 
     @Operation(
         summary = "Obtener productos destacados",
         description = "Acceso público sin autenticación",
         responses = {
-            @ApiResponse(responseCode = "200", description = "Lista de productos destacados encontrada"),
+            @ApiResponse(responseCode = "200", description = "Lista de productos destacados encontrada",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductoDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado (If-None-Match)", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content)
         },
         security = {}
     )
     @GetMapping("/destacados")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<List<ProductoDTO>> obtenerDestacados() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/productos/destacados");
-        
-        ResponseEntity<List<ProductoDTO>> response = ResponseEntity.ok(productoService.obtenerDestacados());
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/productos/destacados completada en {} ms", duration);
-        return response;
+    public ResponseEntity<byte[]> obtenerDestacados(WebRequest peticion) {
+        return RespuestaMenu.de(menuService.obtenerInstantanea().productosDestacados(), peticion);
     }
 
     @Operation(
@@ -112,7 +103,9 @@ public class ProductoController {
             @Parameter(in = ParameterIn.PATH, name = "idCategoria", description = "ID de la categoría", required = true)
         },
         responses = {
-            @ApiResponse(responseCode = "200", description = "Lista de productos encontrada"),
+            @ApiResponse(responseCode = "200", description = "Lista de productos encontrada",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductoDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado (If-None-Match)", content = @Content),
             @ApiResponse(responseCode = "404", description = "Categoría no encontrada", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content)
         },
@@ -120,15 +113,9 @@ public class ProductoController {
     )
     @GetMapping("/categoria/{idCategoria}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<List<ProductoDTO>> obtenerPorCategoria(@PathVariable Long idCategoria) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/productos/categoria/{}", idCategoria);
-        
-        ResponseEntity<List<ProductoDTO>> response = ResponseEntity.ok(productoService.obtenerPorCategoria(idCategoria));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/productos/categoria/{} completada en {} ms", idCategoria, duration);
-        return response;
+    public ResponseEntity<byte[]> obtenerPorCategoria(@PathVariable Long idCategoria, WebRequest peticion) {
+        return RespuestaMenu.de(
+                menuService.obtenerInstantanea().productosDeCategoria(idCategoria), peticion);
     }
 
     @Operation(
@@ -147,14 +134,7 @@ public class ProductoController {
     @GetMapping("/{id}")
     @PreAuthorize("permitAll()")
     public ResponseEntity<ProductoDTO> obtenerPorId(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/productos/{}", id);
-        
-        ResponseEntity<ProductoDTO> response = ResponseEntity.ok(productoService.obtenerPorId(id));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/productos/{} completada en {} ms", id, duration);
-        return response;
+        return ResponseEntity.ok(productoService.obtenerPorId(id));
     }
 
     @Operation(
@@ -170,16 +150,8 @@ public class ProductoController {
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductoDTO> crear(@RequestBody ProductoDTO productoDTO) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud POST /api/productos");
-        
-        ResponseEntity<ProductoDTO> response = ResponseEntity.status(HttpStatus.CREATED)
+        return ResponseEntity.status(HttpStatus.CREATED)
                 .body(productoService.crear(productoDTO));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud POST /api/productos completada en {} ms. ID creado: {}", 
-                   duration, response.getBody().getId());
-        return response;
     }
 
     @Operation(
@@ -199,14 +171,7 @@ public class ProductoController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductoDTO> actualizar(@PathVariable Long id, @RequestBody ProductoDTO productoDTO) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/productos/{}", id);
-        
-        ResponseEntity<ProductoDTO> response = ResponseEntity.ok(productoService.actualizar(id, productoDTO));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/productos/{} completada en {} ms", id, duration);
-        return response;
+        return ResponseEntity.ok(productoService.actualizar(id, productoDTO));
     }
 
     @Operation(
@@ -225,21 +190,17 @@ public class ProductoController {
     @PutMapping("/{id}/desactivar")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductoDTO> desactivar(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/productos/{}/desactivar", id);
-        
-        ResponseEntity<ProductoDTO> response = ResponseEntity.ok(productoService.desactivar(id));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/productos/{}/desactivar completada en {} ms", id, duration);
-        return response;
+        return ResponseEntity.ok(productoService.desactivar(id));
     }
 
     @Operation(
-        summary = "Buscar productos por nombre",
-        description = "Acceso público sin autenticación",
+        summary = "Buscar productos",
+        description = "Acceso público sin autenticación. Busca entre los productos activos por nombre, ingredientes y descripción, "
+                + "sin distinguir mayúsculas ni tildes; cada palabra se compara como prefijo (\"pizz marg\" encuentra \"Pizza Margarita\"). "
+                + "Los resultados se ordenan por relevancia: pesa más una coincidencia en el nombre y una palabra completa.",
         parameters = {
-            @Parameter(in = ParameterIn.QUERY, name = "nombre", description = "Nombre o parte del nombre del producto", required = true)
+            @Parameter(in = ParameterIn.QUERY, name = "nombre", description = "Texto a buscar", required = true),
+            @Parameter(in = ParameterIn.QUERY, name = "limite", description = "Máximo de resultados (por defecto 20, hasta 50)")
         },
         responses = {
             @ApiResponse(responseCode = "200", description = "Lista de productos encontrados"),
@@ -250,15 +211,31 @@ public class ProductoController {
     )
     @GetMapping("/buscar")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<List<ProductoDTO>> buscarPorNombre(@RequestParam String nombre) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/productos/buscar?nombre={}", nombre);
-        
-        ResponseEntity<List<ProductoDTO>> response = ResponseEntity.ok(productoService.buscarPorNombre(nombre));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/productos/buscar completada en {} ms. Parámetro: {}", duration, nombre);
-        return response;
+    public ResponseEntity<List<ProductoDTO>> buscar(@RequestParam String nombre,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(productoService.buscar(nombre, limite));
+    }
+
+    @Operation(
+        summary = "Productos mejor valorados",
+        description = "Acceso público sin autenticación. Productos activos ordenados por las valoraciones de los pedidos en que aparecen; "
+                + "el promedio se ajusta por el número de valoraciones, para que uno con pocas no adelante a otro con muchas. "
+                + "Se sirve desde memoria y puede tardar unos minutos en reflejar valoraciones hechas en otro nodo.",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "categoria", description = "ID de la categoría (sin él, todo el menú)"),
+            @Parameter(in = ParameterIn.QUERY, name = "limite", description = "Máximo de resultados (por defecto 10, hasta 50)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Ranking de productos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content)
+        },
+        security = {}
+    )
+    @GetMapping("/top-valorados")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<List<ProductoValoradoDTO>> topValorados(@RequestParam(required = false) Long categoria,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(valoracionService.obtenerTopValorados(categoria, limite));
     }
     
     @Operation(
@@ -277,13 +254,8 @@ public class ProductoController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> eliminar(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud DELETE /api/productos/{}", id);
-        
         productoService.eliminar(id);
         
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud DELETE /api/productos/{} completada en {} ms", id, duration);
         return ResponseEntity.noContent().build();
     }
     
@@ -303,13 +275,6 @@ public class ProductoController {
     @GetMapping("/{id}/lock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Producto> obtenerPorIdConBloqueo(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/productos/{}/lock", id);
-        
-        ResponseEntity<Producto> response = ResponseEntity.ok(productoService.obtenerPorIdConBloqueo(id));
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/productos/{}/lock completada en {} ms", id, duration);
-        return response;
+        return ResponseEntity.ok(productoService.obtenerPorIdConBloqueo(id));
     }
 }
\ No newline at end of file
@@ -4,8 +4,6 @@ import java.util.List;
 
 import javax.validation.Valid;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,7 +32,6 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @SecurityRequirement(name = "bearer-key")
 public class RepartidorController {
 
-    private static final Logger logger = LoggerFactory.getLogger(RepartidorController.class);
     private final IRepartidorService repartidorService;
 
     public RepartidorController(IRepartidorService repartidorService) {
@@ -54,18 +51,10 @@ public class RepartidorController {
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<RepartidorDTO> crearRepartidor(@Valid @RequestBody RepartidorDTO dto) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud POST /api/repartidores");
-        
-        ResponseEntity<RepartidorDTO> response = new ResponseEntity<>(
+        return new ResponseEntity<>(
             repartidorService.crearRepartidor(dto), 
             HttpStatus.CREATED
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud POST /api/repartidores completada en {} ms. ID creado: {}", 
-                   duration, response.getBody().getId());
-        return response;
     }
 
     @Operation(
@@ -86,16 +75,9 @@ public class RepartidorController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<RepartidorDTO> actualizarRepartidor(
             @PathVariable Long id, @Valid @RequestBody RepartidorDTO dto) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud PUT /api/repartidores/{}", id);
-        
-        ResponseEntity<RepartidorDTO> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             repartidorService.actualizarRepartidor(id, dto)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud PUT /api/repartidores/{} completada en {} ms", id, duration);
-        return response;
     }
 
     @Operation(
@@ -110,16 +92,9 @@ public class RepartidorController {
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<RepartidorDTO>> listarTodosRepartidores() {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/repartidores");
-        
-        ResponseEntity<List<RepartidorDTO>> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             repartidorService.listarTodosRepartidores()
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/repartidores completada en {} ms", duration);
-        return response;
     }
 
     @Operation(
@@ -138,16 +113,9 @@ public class RepartidorController {
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<RepartidorDTO> obtenerRepartidorPorId(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/repartidores/{}", id);
-        
-        ResponseEntity<RepartidorDTO> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             repartidorService.obtenerRepartidorPorId(id)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/repartidores/{} completada en {} ms", id, duration);
-        return response;
     }
 
     @Operation(
@@ -166,13 +134,8 @@ public class RepartidorController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> eliminarRepartidor(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud DELETE /api/repartidores/{}", id);
-        
         repartidorService.eliminarRepartidor(id);
         
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud DELETE /api/repartidores/{} completada en {} ms", id, duration);
         return ResponseEntity.noContent().build();
     }
 
@@ -192,15 +155,8 @@ public class RepartidorController {
     @GetMapping("/{id}/lock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Repartidor> obtenerPorIdConBloqueo(@PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        logger.info("Iniciando solicitud GET /api/repartidores/{}/lock", id);
-        
-        ResponseEntity<Repartidor> response = ResponseEntity.ok(
+        return ResponseEntity.ok(
             repartidorService.obtenerPorIdConBloqueo(id)
         );
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Solicitud GET /api/repartidores/{}/lock completada en {} ms", id, duration);
-        return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.restaurante.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.restaurante.dto.AgregadoDiarioDTO;
+import com.restaurante.dto.FilaVentasDTO;
+import com.restaurante.dto.ReporteVentasDTO;
+import com.restaurante.service.IAgregadosDiariosService;
+import com.restaurante.service.IReporteVentasService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/reportes")
+@SecurityRequirement(name = "bearer-key")
+@Tag(name = "Reportes", description = "Informes de ventas para la gerencia")
+public class ReporteVentasController {
+
+    @Autowired
+    private IReporteVentasService reporteVentasService;
+
+    @Autowired
+    private IAgregadosDiariosService agregadosDiariosService;
+
+    @Operation(
+        summary = "Informe de ventas",
+        description = "Solo accesible por ADMIN. Unidades, ingresos, pedidos y ticket medio entre dos fechas (incluidas), "
+                + "agrupados por producto, categoría, hora del día o día. Los días anteriores se agregan en la base de datos "
+                + "y el día en curso se lee de los acumulados en memoria, que se recargan cada minuto.",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "desde", description = "Fecha inicial (aaaa-mm-dd)", required = true),
+            @Parameter(in = ParameterIn.QUERY, name = "hasta", description = "Fecha final (aaaa-mm-dd); hasta 731 días después de desde", required = true),
+            @Parameter(in = ParameterIn.QUERY, name = "agrupacion", description = "producto (por defecto), categoria, hora o dia")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Informe de ventas"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Rango o agrupación no válidos", content = @Content)
+        }
+    )
+    @GetMapping("/ventas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReporteVentasDTO> obtenerVentas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "producto") String agrupacion) {
+        return ResponseEntity.ok(reporteVentasService.obtenerVentas(desde, hasta, agrupacion));
+    }
+
+    @Operation(
+        summary = "Resumen por día",
+        description = "Solo accesible por ADMIN. Una fila por día con pedidos entre dos fechas (incluidas): pedidos por estado, "
+                + "unidades, ingresos, ticket medio y tiempo medio de entrega. Se lee de los agregados que recalcula el proceso "
+                + "nocturno; fechaCalculo indica cuándo se calculó cada día.",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "desde", description = "Fecha inicial (aaaa-mm-dd)", required = true),
+            @Parameter(in = ParameterIn.QUERY, name = "hasta", description = "Fecha final (aaaa-mm-dd); hasta 731 días después de desde", required = true)
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Agregados diarios"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Rango no válido", content = @Content)
+        }
+    )
+    @GetMapping("/diario")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AgregadoDiarioDTO>> obtenerDias(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(agregadosDiariosService.obtenerDias(desde, hasta));
+    }
+
+    @Operation(
+        summary = "Productos vendidos según los agregados diarios",
+        description = "Solo accesible por ADMIN. Unidades, ingresos y pedidos por producto entre dos fechas (incluidas), "
+                + "de más a menos ingresos, sumando los agregados diarios del proceso nocturno.",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "desde", description = "Fecha inicial (aaaa-mm-dd)", required = true),
+            @Parameter(in = ParameterIn.QUERY, name = "hasta", description = "Fecha final (aaaa-mm-dd); hasta 731 días después de desde", required = true)
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Ventas por producto"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Rango no válido", content = @Content)
+        }
+    )
+    @GetMapping("/diario/productos")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<FilaVentasDTO>> obtenerProductosPorDia(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(agregadosDiariosService.obtenerProductos(desde, hasta));
+    }
+
+    @Operation(
+        summary = "Recalcular agregados diarios",
+        description = "Solo accesible por ADMIN. Marca los días del rango como pendientes y ejecuta una pasada del proceso "
+                + "de agregados. Devuelve los días recalculados; 0 si otro nodo está ejecutando la pasada, que los "
+                + "recogerá en la siguiente.",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "desde", description = "Fecha inicial (aaaa-mm-dd)", required = true),
+            @Parameter(in = ParameterIn.QUERY, name = "hasta", description = "Fecha final (aaaa-mm-dd)", required = true)
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Días recalculados"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Rango no válido", content = @Content)
+        }
+    )
+    @PostMapping("/diario/recalcular")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Integer> recalcular(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(agregadosDiariosService.recalcular(desde, hasta));
+    }
+}
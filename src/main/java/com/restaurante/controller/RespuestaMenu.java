@@ -0,0 +1,73 @@
+package com.restaurante.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.restaurante.service.menu.RecursoMenu;
+
+/**
+ * Respuesta con los bytes ya serializados de una vista del menú. Con ETag en
+ * la respuesta, Spring contesta 304 sin cuerpo cuando If-None-Match coincide.
+ * no-cache obliga al cliente a revalidar en cada uso, así que un cambio de menú
+ * se ve enseguida y mientras tanto solo viajan cabeceras.
+ */
+final class RespuestaMenu {
+
+    private RespuestaMenu() {
+    }
+
+    static ResponseEntity<byte[]> de(RecursoMenu recurso, WebRequest peticion) {
+        boolean gzip = recurso.tieneGzip() && aceptaGzip(peticion.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(recurso.etag(gzip))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(recurso.gzip());
+        }
+        return respuesta.body(recurso.json());
+    }
+
+    /**
+     * Si Accept-Encoding admite gzip: una entrada gzip con q mayor que 0 o, sin
+     * entrada gzip, un * con q mayor que 0. gzip;q=0 lo rechaza aunque haya *.
+     */
+    static boolean aceptaGzip(String codificaciones) {
+        if (codificaciones == null) {
+            return false;
+        }
+        Boolean comodin = null;
+        for (String entrada : codificaciones.split(",")) {
+            String[] partes = entrada.split(";");
+            String codificacion = partes[0].trim();
+            boolean aceptada = calidad(partes) > 0;
+            if ("gzip".equalsIgnoreCase(codificacion) || "x-gzip".equalsIgnoreCase(codificacion)) {
+                return aceptada;
+            }
+            if ("*".equals(codificacion)) {
+                comodin = aceptada;
+            }
+        }
+        return Boolean.TRUE.equals(comodin);
+    }
+
+    // Sin q vale 1; un q mal formado se trata como 0
+    private static double calidad(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.length() >= 2 && Character.toLowerCase(parametro.charAt(0)) == 'q'
+                    && parametro.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,8 +14,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.ResumenValoracionDTO;
 import com.restaurante.dto.ValoracionDTO;
 import com.restaurante.model.Valoracion;
 import com.restaurante.service.IValoracionService;
@@ -34,6 +40,9 @@ public class ValoracionController {
     @Autowired
     private IValoracionService valoracionService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(
         summary = "Obtener todas las valoraciones",
         description = "Acceso público sin autenticación",
@@ -49,6 +58,43 @@ public class ValoracionController {
         return new ResponseEntity<>(valoracionService.obtenerTodas(), HttpStatus.OK);
     }
 
+    @Operation(
+        summary = "Obtener valoraciones paginados por cursor",
+        description = "Acceso público sin autenticación. Devuelve como máximo 'limite' registros con id mayor que 'cursor'; "
+                + "el siguienteCursor de la respuesta se usa en la siguiente petición",
+        parameters = {
+            @Parameter(in = ParameterIn.QUERY, name = "cursor", description = "Último id recibido (vacío para empezar)"),
+            @Parameter(in = ParameterIn.QUERY, name = "limite", description = "Tamaño de página (1-500, por defecto 50)")
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Página de valoraciones"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        },
+        security = {}
+    )
+    @GetMapping("/pagina")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<PaginaDTO<ValoracionDTO>> obtenerPagina(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite) {
+        return ResponseEntity.ok(valoracionService.obtenerPagina(cursor, limite));
+    }
+
+    @Operation(
+        summary = "Exportar valoraciones en NDJSON",
+        description = "Acceso público sin autenticación. Transmite un objeto JSON por línea a medida que se leen de la base de datos",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de valoraciones"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado", content = @Content)
+        },
+        security = {}
+    )
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        return NdjsonStream.de(objectMapper, valoracionService::recorrerTodas);
+    }
+
     @Operation(
         summary = "Obtener valoración por ID",
         description = "Acceso público sin autenticación",
@@ -200,6 +246,26 @@ public class ValoracionController {
         return new ResponseEntity<>(valoracionService.obtenerPuntuacionPromedioPorCliente(idCliente), HttpStatus.OK);
     }
 
+    @Operation(
+        summary = "Obtener el resumen de valoraciones",
+        description = "Acceso público sin autenticación. Número de valoraciones, promedio y cuántas hay de 1 a 5 estrellas "
+                + "de un pedido, un cliente o un producto (cada valoración de un pedido cuenta para sus productos)",
+        parameters = {
+            @Parameter(in = ParameterIn.PATH, name = "ambito", description = "pedido, cliente o producto", required = true),
+            @Parameter(in = ParameterIn.PATH, name = "id", description = "ID del pedido, cliente o producto", required = true)
+        },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Resumen de valoraciones"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content)
+        },
+        security = {}
+    )
+    @GetMapping("/resumen/{ambito}/{id}")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<ResumenValoracionDTO> obtenerResumen(@PathVariable String ambito, @PathVariable Long id) {
+        return ResponseEntity.ok(valoracionService.obtenerResumen(ambito, id));
+    }
+
     @Operation(
         summary = "Obtener valoración con bloqueo optimista",
         description = "Solo accesible por ADMIN",
@@ -0,0 +1,35 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totales precalculados de un día: pedidos por estado, ventas y tiempo medio
+ * de entrega (desde la asignación al repartidor, en minutos). fechaCalculo es
+ * el momento de la última pasada que recalculó el día.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgregadoDiarioDTO implements Serializable {
+    private LocalDate dia;
+    private long pedidos;
+    private long pedidosPendiente;
+    private long pedidosEnPreparacion;
+    private long pedidosListo;
+    private long pedidosEnCamino;
+    private long pedidosEntregado;
+    private long unidades;
+    private double ingresos;
+    private double ticketMedio;
+    private long entregas;
+    private double minutosEntregaMedio;
+    private LocalDateTime fechaCalculo;
+}
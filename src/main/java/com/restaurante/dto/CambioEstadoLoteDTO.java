@@ -0,0 +1,33 @@
+package com.restaurante.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio de estado de varios pedidos a la vez, por ejemplo todos los de una
+ * hornada que pasan de EN_PREPARACION a LISTO.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioEstadoLoteDTO {
+    public static final int MAXIMO_PEDIDOS = 500;
+
+    @NotEmpty(message = "Debe indicarse al menos un pedido")
+    @Size(max = MAXIMO_PEDIDOS, message = "Como máximo " + MAXIMO_PEDIDOS + " pedidos por lote")
+    private List<Long> ids;
+
+    @NotBlank(message = "El nuevo estado es obligatorio")
+    private String estado;
+
+    // Opcional: persona de cocina que hace el cambio, para el historial
+    private Long idPersonaCocina;
+}
@@ -0,0 +1,25 @@
+package com.restaurante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCacheDTO {
+    private String cache;
+
+    // Nivel local (Caffeine, por nodo)
+    private long entradasL1;
+    private long aciertosL1;
+    private long fallosL1;
+    private double ratioAciertosL1;
+
+    // Nivel compartido (Redis), solo consultado tras un fallo en L1
+    private long aciertosL2;
+    private long fallosL2;
+    private double ratioAciertosL2;
+}
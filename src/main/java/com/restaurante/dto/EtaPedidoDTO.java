@@ -0,0 +1,31 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hora estimada a la que un pedido estará LISTO. Para un pedido que ya salió
+ * de cocina listo es verdadero y no hay estimación. pedidosDelante son los
+ * pedidos abiertos que llegaron antes; cocineros, los del turno en curso; y
+ * factorCalibracion, la corrección de los tiempos de preparación según lo
+ * observado en el historial.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EtaPedidoDTO implements Serializable {
+    private Long idPedido;
+    private String estado;
+    private boolean listo;
+    private long pedidosDelante;
+    private long segundosRestantes;
+    private LocalDateTime listoEstimado;
+    private int cocineros;
+    private double factorCalibracion;
+}
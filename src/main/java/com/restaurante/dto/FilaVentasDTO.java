@@ -0,0 +1,26 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ventas de un grupo del informe. La clave es el id del producto o de la
+ * categoría, la hora (0-23, "sin_hora" para pedidos anteriores a que se
+ * guardara) o el día (aaaa-mm-dd). El ticket medio son los ingresos entre los
+ * pedidos del grupo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaVentasDTO implements Serializable {
+    private String clave;
+    private long unidades;
+    private double ingresos;
+    private long pedidos;
+    private double ticketMedio;
+}
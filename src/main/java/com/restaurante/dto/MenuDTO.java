@@ -0,0 +1,18 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MenuDTO implements Serializable {
+    private List<CategoriaDTO> categorias;
+    private List<ProductoDTO> productos;
+}
@@ -0,0 +1,52 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de resultados con paginación por cursor (keyset).
+ * El cliente envía {@code siguienteCursor} en la próxima petición para continuar
+ * desde el último id devuelto, sin OFFSET.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> implements Serializable {
+
+    public static final int LIMITE_POR_DEFECTO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    private List<T> contenido;
+    private Long siguienteCursor;
+    private boolean hayMas;
+
+    public static int normalizarLimite(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+
+    public static long normalizarCursor(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas con {@code limite + 1}:
+     * la fila sobrante solo indica que existe una página siguiente.
+     */
+    public static <T> PaginaDTO<T> de(List<T> filas, int limite, Function<T, Long> id) {
+        boolean hayMas = filas.size() > limite;
+        List<T> contenido = hayMas ? filas.subList(0, limite) : filas;
+        Long siguienteCursor = contenido.isEmpty() ? null : id.apply(contenido.get(contenido.size() - 1));
+        return PaginaDTO.<T>builder()
+                .contenido(List.copyOf(contenido))
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
+    }
+}
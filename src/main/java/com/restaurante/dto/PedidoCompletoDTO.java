@@ -0,0 +1,39 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pedido junto con todas sus líneas, creado en una sola petición.
+ * En la entrada solo se usan idCliente y, por línea, idProducto, cantidad,
+ * instruccionesEspecial y opcionalmente precioUnitario, que debe coincidir con
+ * el precio actual del producto.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoCompletoDTO implements Serializable {
+    private Long pid;
+
+    @NotNull(message = "ID del cliente es obligatorio")
+    private Long idCliente;
+
+    private LocalDate fechaPedido;
+
+    private String estado;
+
+    @NotEmpty(message = "El pedido debe tener al menos un detalle")
+    private List<DetallePedidoDTO> detalles;
+
+    private BigDecimal total;
+}
@@ -0,0 +1,33 @@
+package com.restaurante.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio en un pedido publicado en el bus de eventos de la aplicación y
+ * reenviado a las pantallas de cocina suscritas por SSE. Los que pasan por el
+ * outbox llevan idEvento (id de la fila) para descartar entregas repetidas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoEventoDTO {
+
+    public static final String PEDIDO_CREADO = "PEDIDO_CREADO";
+    public static final String ESTADO_ACTUALIZADO = "ESTADO_ACTUALIZADO";
+    public static final String HISTORIAL_REGISTRADO = "HISTORIAL_REGISTRADO";
+    public static final String PEDIDO_ENTREGADO = "PEDIDO_ENTREGADO";
+
+    private Long idEvento;
+    private String tipo;
+    private Long idPedido;
+    private Long idCliente;
+    private String estado;
+    private Long idPersonaCocina;
+    private LocalDateTime fecha;
+}
@@ -0,0 +1,25 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Producto en el ranking de mejor valorados. El orden lo da la puntuación
+ * (promedio ajustado por el número de valoraciones), no el promedio simple.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoValoradoDTO implements Serializable {
+    private Long idProducto;
+    private String nombre;
+    private Long idCategoria;
+    private long cantidad;
+    private double promedio;
+    private double puntuacion;
+}
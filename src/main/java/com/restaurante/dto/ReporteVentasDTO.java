@@ -0,0 +1,30 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Informe de ventas entre dos fechas (ambas incluidas): totales del periodo y
+ * una fila por grupo. Por producto y por categoría las filas van de más a menos
+ * ingresos; por hora y por día, en orden cronológico.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteVentasDTO implements Serializable {
+    private LocalDate desde;
+    private LocalDate hasta;
+    private String agrupacion;
+    private long unidades;
+    private double ingresos;
+    private long pedidos;
+    private double ticketMedio;
+    private List<FilaVentasDTO> filas;
+}
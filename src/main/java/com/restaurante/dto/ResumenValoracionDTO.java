@@ -0,0 +1,25 @@
+package com.restaurante.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Valoraciones de un pedido, cliente o producto: número, promedio (0 si no hay
+ * ninguna) y cuántas hay de 1 a 5 estrellas, en ese orden.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenValoracionDTO implements Serializable {
+    private String ambito;
+    private Long idReferencia;
+    private long cantidad;
+    private double promedio;
+    private List<Long> estrellas;
+}
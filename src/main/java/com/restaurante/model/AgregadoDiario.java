@@ -0,0 +1,66 @@
+package com.restaurante.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Totales de un día (por fecha_pedido): pedidos por estado, unidades,
+ * ingresos y entregas con su duración sumada. Solo la escribe
+ * AgregadosDiariosServiceImpl, que recalcula el día entero a partir de los
+ * pedidos, así que repetir el cálculo deja la misma fila. Un día sin pedidos
+ * no tiene fila.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "agregado_diario")
+public class AgregadoDiario {
+
+    @Id
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private long pedidos;
+
+    @Column(name = "pedidos_pendiente", nullable = false)
+    private long pedidosPendiente;
+
+    @Column(name = "pedidos_en_preparacion", nullable = false)
+    private long pedidosEnPreparacion;
+
+    @Column(name = "pedidos_listo", nullable = false)
+    private long pedidosListo;
+
+    @Column(name = "pedidos_en_camino", nullable = false)
+    private long pedidosEnCamino;
+
+    @Column(name = "pedidos_entregado", nullable = false)
+    private long pedidosEntregado;
+
+    @Column(nullable = false)
+    private long unidades;
+
+    @Column(nullable = false)
+    private double ingresos;
+
+    // Asignaciones con fecha de asignación y de entrega; el tiempo medio es segundosEntrega / entregas
+    @Column(nullable = false)
+    private long entregas;
+
+    @Column(name = "segundos_entrega", nullable = false)
+    private long segundosEntrega;
+
+    @Column(name = "fecha_calculo", nullable = false)
+    private LocalDateTime fechaCalculo;
+}
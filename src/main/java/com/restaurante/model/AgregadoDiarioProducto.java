@@ -0,0 +1,52 @@
+package com.restaurante.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ventas de un producto en un día: unidades, ingresos y pedidos distintos. Se
+ * recalcula junto con AgregadoDiario.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "agregado_diario_producto")
+public class AgregadoDiarioProducto {
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        @Column(nullable = false)
+        private LocalDate dia;
+
+        @Column(name = "id_producto", nullable = false)
+        private Long idProducto;
+    }
+
+    @EmbeddedId
+    private Clave clave;
+
+    @Column(nullable = false)
+    private long unidades;
+
+    @Column(nullable = false)
+    private double ingresos;
+
+    @Column(nullable = false)
+    private long pedidos;
+}
@@ -33,6 +33,16 @@ public class AsignacionRepartidor {
     @Column(name = "fecha_entrega")
     private LocalDateTime fechaEntrega;
 
+    // Último cambio, para recalcular el tiempo de entrega del día del pedido (agregados diarios)
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
+
     @Version
     private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void marcarModificacion() {
+        fechaModificacion = LocalDateTime.now();
+    }
 }
\ No newline at end of file
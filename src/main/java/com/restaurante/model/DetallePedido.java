@@ -2,12 +2,15 @@ package com.restaurante.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -24,10 +27,12 @@ import lombok.experimental.SuperBuilder;
 public class DetallePedido {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia en lugar de IDENTITY para que Hibernate pueda agrupar los INSERT en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_pedido_seq")
+    @SequenceGenerator(name = "detalle_pedido_seq", sequenceName = "detalle_pedido_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_pedido", nullable = false)
     private Pedido pedido;
     
@@ -42,4 +47,7 @@ public class DetallePedido {
     
     @Column(name = "instrucciones_especial", length = 500)
     private String instruccionesEspecial;
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.restaurante.model;
+
+/**
+ * Ciclo de vida de un pedido. Cada estado solo puede avanzar al siguiente:
+ * PENDIENTE → EN_PREPARACION → LISTO → EN_CAMINO → ENTREGADO.
+ */
+public enum EstadoPedido {
+    PENDIENTE,
+    EN_PREPARACION,
+    LISTO,
+    EN_CAMINO,
+    ENTREGADO;
+
+    public static EstadoPedido desde(String estado) {
+        if (estado == null) {
+            throw new RuntimeException("El estado del pedido es obligatorio");
+        }
+        try {
+            return valueOf(estado.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Estado de pedido no válido: " + estado);
+        }
+    }
+
+    public boolean puedeCambiarA(EstadoPedido nuevo) {
+        return nuevo.ordinal() == ordinal() + 1;
+    }
+
+    /**
+     * Valida el cambio y devuelve el nuevo estado normalizado. Un pedido sin
+     * estado se trata como PENDIENTE.
+     */
+    public static EstadoPedido validarTransicion(String actual, String nuevo) {
+        EstadoPedido origen = actual == null ? PENDIENTE : desde(actual);
+        EstadoPedido destino = desde(nuevo);
+        if (!origen.puedeCambiarA(destino)) {
+            throw new RuntimeException("Transición de estado no permitida: " + origen + " -> " + destino);
+        }
+        return destino;
+    }
+}
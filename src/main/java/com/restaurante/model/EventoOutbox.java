@@ -0,0 +1,70 @@
+package com.restaurante.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Evento pendiente de publicar, escrito en la misma transacción que el cambio
+ * que lo origina. El relé de OutboxServiceImpl lo publica y marca fecha_publicacion;
+ * si no lo consigue lo reintenta a partir de proximo_intento y, agotados los
+ * intentos (o si el payload no se puede leer), lo aparta con fecha_fallo.
+ *
+ * El índice de pendientes que usa el relé es idx_eventos_outbox_pendientes, de
+ * las migraciones (V1, parcial sobre las filas sin publicar ni descartar desde
+ * V7); no se declara aquí con @Index (ver MigracionesConfig).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Entity
+@Table(name = "eventos_outbox")
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_outbox_seq")
+    @SequenceGenerator(name = "eventos_outbox_seq", sequenceName = "eventos_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    @Column(name = "id_pedido")
+    private Long idPedido;
+
+    // JSON del PedidoEventoDTO
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_publicacion")
+    private LocalDateTime fechaPublicacion;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    // Fila descartada: ya no se reintenta y queda para revisarla a mano
+    @Column(name = "fecha_fallo")
+    private LocalDateTime fechaFallo;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+}
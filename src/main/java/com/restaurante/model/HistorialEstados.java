@@ -18,7 +18,9 @@ import java.time.LocalDateTime;
 @Table(name = "HistorialEstados")
 public class HistorialEstados {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia para que el escritor asíncrono del historial inserte por lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historial_estados_seq")
+    @SequenceGenerator(name = "historial_estados_seq", sequenceName = "historial_estados_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "id_pedido")
@@ -8,6 +8,7 @@ import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -26,10 +27,24 @@ public class Pedido {
     
     @Column(name = "fecha_pedido")
     private LocalDate fechaPedido;
+
+    // Momento del alta, para los informes por hora; nulo en los pedidos anteriores a la columna
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    // Último cambio; el proceso de agregados diarios recalcula los días de los pedidos cambiados desde su marca
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
     
     @Column(name = "estado")
     private String estado;
 
     @Version
     private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void marcarModificacion() {
+        fechaModificacion = LocalDateTime.now();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.restaurante.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resumen de las valoraciones de un pedido, un cliente o un producto: número,
+ * suma e histograma de 1 a 5 estrellas. Se actualiza en la misma transacción
+ * que cada valoración (ResumenValoracionRepository.sumar), así que el promedio
+ * se lee de una fila sin recorrer las valoraciones.
+ *
+ * Una valoración cuenta para cada producto distinto de su pedido.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "resumen_valoraciones")
+public class ResumenValoracion {
+
+    public enum Ambito {
+        PEDIDO,
+        CLIENTE,
+        PRODUCTO
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 20)
+        private Ambito ambito;
+
+        @Column(name = "id_referencia", nullable = false)
+        private Long idReferencia;
+    }
+
+    @EmbeddedId
+    private Clave clave;
+
+    @Column(nullable = false)
+    private long cantidad;
+
+    @Column(nullable = false)
+    private long suma;
+
+    @Column(name = "estrellas_1", nullable = false)
+    private long estrellas1;
+
+    @Column(name = "estrellas_2", nullable = false)
+    private long estrellas2;
+
+    @Column(name = "estrellas_3", nullable = false)
+    private long estrellas3;
+
+    @Column(name = "estrellas_4", nullable = false)
+    private long estrellas4;
+
+    @Column(name = "estrellas_5", nullable = false)
+    private long estrellas5;
+}
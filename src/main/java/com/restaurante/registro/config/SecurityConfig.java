@@ -1,5 +1,8 @@
 package com.restaurante.registro.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +20,8 @@ import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHtt
 import com.restaurante.registro.security.JwtAuthenticationEntryPoint;
 import com.restaurante.registro.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -52,6 +57,10 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Los flujos SSE/NDJSON terminan en un despacho ASYNC sin token; la petición original ya se autorizó
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Actuator escucha en el puerto de gestión, que no se publica: el scraper de Prometheus va sin token
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                 .requestMatchers("/api/auth/**", "/api/public/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/personal-cocina/**").hasAnyRole("ADMIN", "PERSONAL_COCINA")
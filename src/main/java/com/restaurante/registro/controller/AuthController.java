@@ -9,6 +9,7 @@ import com.restaurante.registro.model.Usuario;
 import com.restaurante.registro.repository.RolRepository;
 import com.restaurante.registro.repository.UsuarioRepository;
 import com.restaurante.registro.security.JwtUtils;
+import com.restaurante.registro.security.RevocacionTokens;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -45,6 +46,9 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    RevocacionTokens revocacionTokens;
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -149,6 +153,11 @@ public class AuthController {
     
     @PostMapping("/logout")
     public ResponseEntity<?> logoutUser() {
+        // Los JWT no tienen estado en el servidor: se revocan todos los tokens emitidos hasta ahora para este usuario
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth.getPrincipal().equals("anonymousUser"))) {
+            revocacionTokens.revocar(auth.getName());
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(new MessageResponse("Sesión cerrada exitosamente!"));
     }
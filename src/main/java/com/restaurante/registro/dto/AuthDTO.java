@@ -1,5 +1,6 @@
 package com.restaurante.registro.dto;
 
+import java.io.Serializable;
 import java.util.Set;
 
 import javax.validation.constraints.Email;
@@ -73,4 +74,18 @@ public class AuthDTO {
     public static class MessageResponse {
         private String message;
     }
-}
\ No newline at end of file
+
+    /**
+     * Estado del usuario que el filtro JWT necesita en cada petición; se cachea
+     * por username con un TTL corto (región usuario_sesion).
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SesionUsuario implements Serializable {
+        private Long id;
+        private String username;
+        private boolean activo;
+        private Set<String> roles;
+    }
+}
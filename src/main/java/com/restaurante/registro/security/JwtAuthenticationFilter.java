@@ -1,20 +1,26 @@
 package com.restaurante.registro.security;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.restaurante.config.metricas.ConvencionPeticiones;
+import com.restaurante.registro.dto.AuthDTO.SesionUsuario;
 import com.restaurante.registro.service.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -32,6 +38,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Override
@@ -39,15 +48,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+
+                // Sesión cacheada con TTL corto: una baja o un cambio de roles se aplica sin consultar la BD en cada petición
+                SesionUsuario sesion = userDetailsService.obtenerSesion(username);
+                Set<String> roles = jwtUtils.getRoles(claims);
+                if (roles.isEmpty()) {
+                    roles = sesion.getRoles();
+                }
+
+                if (sesion.isActivo()
+                        && sesion.getRoles().containsAll(roles)
+                        && !revocacionTokens.estaRevocado(username, jwtUtils.getEmision(claims))) {
+                    Long id = jwtUtils.getUserId(claims);
+                    List<SimpleGrantedAuthority> authorities = roles.stream()
+                            .map(SimpleGrantedAuthority::new)
+                            .collect(Collectors.toList());
+                    UsuarioPrincipal principal = new UsuarioPrincipal(
+                            id != null ? id : sesion.getId(), username, null, true, authorities);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal, null, authorities);
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    ConvencionPeticiones.registrarRol(request, roles);
+                }
             }
         } catch (SignatureException e) {
             logger.error("Firma JWT inválida: {}", e.getMessage());
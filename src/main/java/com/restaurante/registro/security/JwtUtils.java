@@ -1,20 +1,32 @@
 package com.restaurante.registro.security;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 
 
 @Component
@@ -34,6 +46,21 @@ public class JwtUtils {
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_ROLES = "roles";
+    // iat solo tiene precisión de segundos; la revocación compara con el instante exacto de emisión
+    public static final String CLAIM_EMITIDO_MS = "iat_ms";
+
+    // La clave y el parser se construyen una sola vez; JwtParser es inmutable y seguro entre hilos
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = new SecretKeySpec(jwtSecret.getBytes(), SignatureAlgorithm.HS512.getJcaName());
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     // Este método se utiliza para extraer el token JWT del encabezado de autorización de la solicitud HTTP
     // El token JWT se espera que esté en el formato "Bearer <token>"
     // Si el encabezado de autorización no está presente o no tiene el formato correcto, se devuelve null
@@ -42,29 +69,33 @@ public class JwtUtils {
 
         // Se utiliza para generar un nuevo token JWT utilizando la información del usuario autenticado
         // Se establece el sujeto del token como el nombre de usuario del usuario autenticado
-        return Jwts.builder()
+        // El id y los roles viajan como claims para no consultarlos en cada petición
+        Date ahora = new Date();
+        JwtBuilder builder = Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(new javax.crypto.spec.SecretKeySpec(jwtSecret.getBytes(), SignatureAlgorithm.HS512.getJcaName()), SignatureAlgorithm.HS512)
-                .compact();
+                .claim(CLAIM_ROLES, userPrincipal.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList()))
+                .claim(CLAIM_EMITIDO_MS, ahora.getTime())
+                .setIssuedAt(ahora)
+                .setExpiration(new Date(ahora.getTime() + jwtExpirationMs));
+        if (userPrincipal instanceof UsuarioPrincipal usuario) {
+            builder.claim(CLAIM_ID, usuario.getId());
+        }
+        return builder.signWith(signingKey, SignatureAlgorithm.HS512).compact();
     }
 
     // Este método se utiliza para extraer el token JWT del encabezado de autorización de la solicitud HTTP
     // El token JWT se espera que esté en el formato "Bearer <token>"
     // Si el encabezado de autorización no está presente o no tiene el formato correcto, se devuelve null
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(jwtSecret.getBytes()).build().parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
-    
-    public boolean validateJwtToken(String authToken) { // Este método se utiliza para validar el token JWT
-        // Se utiliza para verificar la firma del token y asegurarse de que no haya sido modificado
-        // Se verifica si el token ha expirado y si es válido
-        // Si el token es válido, se devuelve true; de lo contrario, se devuelve false
+    // Valida firma y expiración y devuelve los claims en un único parseo; null si el token no es válido
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(jwtSecret.getBytes()).build().parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -76,8 +107,38 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
+        return null;
+    }
+
+    public Long getUserId(Claims claims) {
+        Number id = claims.get(CLAIM_ID, Number.class);
+        return id != null ? id.longValue() : null;
+    }
+
+    // Instante de emisión con milisegundos. Los tokens sin iat_ms solo traen iat en segundos: se toma el
+    // principio de ese segundo, así que uno emitido en el mismo segundo que la revocación se rechaza
+    public Date getEmision(Claims claims) {
+        Number emitidoMs = claims.get(CLAIM_EMITIDO_MS, Number.class);
+        if (emitidoMs != null) {
+            return new Date(emitidoMs.longValue());
+        }
+        return claims.getIssuedAt();
+    }
 
+    // Tokens emitidos antes de incluir los roles devuelven un conjunto vacío
+    public Set<String> getRoles(Claims claims) {
+        Collection<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (roles == null) {
+            return Set.of();
+        }
+        return roles.stream().map(String::valueOf).collect(Collectors.toSet());
+    }
 
-        return false;
+    
+    public boolean validateJwtToken(String authToken) { // Este método se utiliza para validar el token JWT
+        // Se utiliza para verificar la firma del token y asegurarse de que no haya sido modificado
+        // Se verifica si el token ha expirado y si es válido
+        // Si el token es válido, se devuelve true; de lo contrario, se devuelve false
+        return parseClaims(authToken) != null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.restaurante.registro.security;
+
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revocación de tokens por usuario: se guarda el instante de revocación en la
+ * región tokens_revocados y se rechazan los tokens emitidos antes. La región
+ * pasa por la caché en dos niveles, así que la consulta habitual se resuelve en
+ * memoria y la revocación llega al resto de nodos por la invalidación de Redis.
+ *
+ * El instante se guarda con milisegundos y se compara con el de emisión del
+ * token (JwtUtils.getEmision): un token emitido en el mismo segundo que la
+ * revocación, pero antes, también queda rechazado. La ausencia de revocación se
+ * cachea rellenando la región tras un fallo; ese relleno usa putIfAbsent
+ * (DosNivelesCache), así que no puede pisar una revocación que llegue a la vez.
+ */
+@Component
+public class RevocacionTokens {
+
+    private static final String REGION = "tokens_revocados";
+    private static final long SIN_REVOCAR = 0L;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public void revocar(String username) {
+        cacheManager.getCache(REGION).put(username, System.currentTimeMillis());
+    }
+
+    public boolean estaRevocado(String username, Date emitido) {
+        Cache cache = cacheManager.getCache(REGION);
+        // Se cachea también la ausencia de revocación para no ir a Redis en cada petición.
+        // Number y no Long: los codecs JSON devuelven Integer para valores pequeños
+        Number revocadoEn = cache.get(username, () -> SIN_REVOCAR);
+        if (revocadoEn == null || revocadoEn.longValue() == SIN_REVOCAR) {
+            return false;
+        }
+        return emitido == null || emitido.getTime() <= revocadoEn.longValue();
+    }
+}
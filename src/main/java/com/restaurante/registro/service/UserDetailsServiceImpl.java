@@ -1,20 +1,23 @@
 package com.restaurante.registro.service;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.restaurante.registro.dto.AuthDTO.SesionUsuario;
 import com.restaurante.registro.model.Usuario;
 import com.restaurante.registro.repository.UsuarioRepository;
+import com.restaurante.registro.security.UsuarioPrincipal;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -22,21 +25,36 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // Usado en el login: incluye la contraseña y siempre consulta la base de datos
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con username: " + username));
+        Usuario usuario = buscarUsuario(username);
 
-        List<GrantedAuthority> authorities = usuario.getRoles().stream()
-                .map(rol -> {
-                    String enumName = rol.getNombre().name();
-                    String springRole = enumName.replace("ROL_", "ROLE_");
-                    return new SimpleGrantedAuthority(springRole);
-                })
+        List<GrantedAuthority> authorities = rolesDe(usuario).stream()
+                .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
 
-        return new User(usuario.getUsername(), usuario.getPassword(), usuario.isActivo(),
-                true, true, true, authorities);
+        return new UsuarioPrincipal(usuario.getId(), usuario.getUsername(), usuario.getPassword(),
+                usuario.isActivo(), authorities);
+    }
+
+    // Usado por el filtro JWT en cada petición: sin contraseña y cacheado con TTL corto
+    @Transactional(readOnly = true)
+    @Cacheable(value = "usuario_sesion", key = "#username", sync = true)
+    public SesionUsuario obtenerSesion(String username) {
+        Usuario usuario = buscarUsuario(username);
+        return new SesionUsuario(usuario.getId(), usuario.getUsername(), usuario.isActivo(), rolesDe(usuario));
+    }
+
+    private Usuario buscarUsuario(String username) {
+        return usuarioRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con username: " + username));
+    }
+
+    private Set<String> rolesDe(Usuario usuario) {
+        return usuario.getRoles().stream()
+                .map(rol -> rol.getNombre().name().replace("ROL_", "ROLE_"))
+                .collect(Collectors.toSet());
     }
-}
\ No newline at end of file
+}
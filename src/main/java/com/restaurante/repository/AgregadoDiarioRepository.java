@@ -0,0 +1,143 @@
+package com.restaurante.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.restaurante.model.AgregadoDiario;
+import com.restaurante.repository.DetallePedidoRepository.VentaAgrupada;
+
+/**
+ * Lectura de los agregados diarios y sentencias del proceso que los calcula
+ * (AgregadosDiariosServiceImpl). Los tiempos del control (marca, turno,
+ * días pendientes) se toman de LOCALTIMESTAMP de la base de datos para no
+ * depender del reloj de cada nodo.
+ */
+public interface AgregadoDiarioRepository extends JpaRepository<AgregadoDiario, LocalDate> {
+
+    List<AgregadoDiario> findByDiaBetweenOrderByDia(LocalDate desde, LocalDate hasta);
+
+    // Cada pedido es de un solo día, así que los pedidos de un producto se pueden sumar entre días
+    @Query("SELECT a.clave.idProducto AS clave, SUM(a.unidades) AS unidades, SUM(a.ingresos) AS ingresos, "
+            + "SUM(a.pedidos) AS pedidos FROM AgregadoDiarioProducto a WHERE a.clave.dia BETWEEN :desde AND :hasta "
+            + "GROUP BY a.clave.idProducto ORDER BY SUM(a.ingresos) DESC, a.clave.idProducto")
+    List<VentaAgrupada> ventasPorProducto(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Toma el turno de la pasada si está libre o caducado y anota su inicio.
+     * Devuelve 0 si otro nodo la está ejecutando.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE agregados_marca
+            SET bloqueado_hasta = LOCALTIMESTAMP + make_interval(mins => :minutos), inicio_pasada = LOCALTIMESTAMP
+            WHERE nombre = 'diario' AND (bloqueado_hasta IS NULL OR bloqueado_hasta < LOCALTIMESTAMP)
+            """, nativeQuery = true)
+    int tomarTurno(@Param("minutos") int minutos);
+
+    @Modifying
+    @Query(value = """
+            UPDATE agregados_marca SET bloqueado_hasta = LOCALTIMESTAMP + make_interval(mins => :minutos)
+            WHERE nombre = 'diario'
+            """, nativeQuery = true)
+    int renovarTurno(@Param("minutos") int minutos);
+
+    /**
+     * Días con pedidos o asignaciones modificados desde la última marca, más
+     * los anotados como pendientes. El margen cubre las transacciones que
+     * empezaron antes de la marca y confirmaron después, y la diferencia entre
+     * relojes de los nodos. Las consultas nativas devuelven las fechas como
+     * java.sql.Date.
+     */
+    @Query(value = """
+            SELECT p.fecha_pedido FROM pedidos p, agregados_marca m
+            WHERE m.nombre = 'diario' AND p.fecha_pedido IS NOT NULL
+              AND p.fecha_modificacion > m.marca - make_interval(mins => :margen)
+            UNION
+            SELECT p.fecha_pedido FROM asignacion_repartidor a JOIN pedidos p ON p.pid = a.id_pedido, agregados_marca m
+            WHERE m.nombre = 'diario' AND p.fecha_pedido IS NOT NULL
+              AND a.fecha_modificacion > m.marca - make_interval(mins => :margen)
+            UNION
+            SELECT dia FROM agregados_dias_pendientes
+            ORDER BY 1
+            """, nativeQuery = true)
+    List<Date> diasCambiados(@Param("margen") int margen);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO agregados_dias_pendientes (dia, fecha_marca)
+            SELECT CAST(d AS date), LOCALTIMESTAMP FROM generate_series(CAST(:desde AS date), CAST(:hasta AS date), INTERVAL '1 day') d
+            ON CONFLICT (dia) DO UPDATE SET fecha_marca = EXCLUDED.fecha_marca
+            """, nativeQuery = true)
+    int marcarDiasPendientes(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @Query(value = "DELETE FROM agregado_diario_producto WHERE dia = :dia", nativeQuery = true)
+    int borrarProductosDelDia(@Param("dia") LocalDate dia);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO agregado_diario_producto (dia, id_producto, unidades, ingresos, pedidos)
+            SELECT p.fecha_pedido, d.id_producto, SUM(d.cantidad), SUM(d.cantidad * d.precio_unitario), COUNT(DISTINCT p.pid)
+            FROM detalle_pedido d JOIN pedidos p ON p.pid = d.id_pedido
+            WHERE p.fecha_pedido = :dia
+            GROUP BY p.fecha_pedido, d.id_producto
+            """, nativeQuery = true)
+    int insertarProductosDelDia(@Param("dia") LocalDate dia);
+
+    @Modifying
+    @Query(value = "DELETE FROM agregado_diario WHERE dia = :dia", nativeQuery = true)
+    int borrarDia(@Param("dia") LocalDate dia);
+
+    /**
+     * Totales del día; unidades e ingresos salen de las filas por producto
+     * recién insertadas. Sin pedidos no se inserta nada.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO agregado_diario (dia, pedidos, pedidos_pendiente, pedidos_en_preparacion, pedidos_listo,
+                pedidos_en_camino, pedidos_entregado, unidades, ingresos, entregas, segundos_entrega, fecha_calculo)
+            SELECT CAST(:dia AS date), e.pedidos, e.pendiente, e.en_preparacion, e.listo, e.en_camino, e.entregado,
+                   COALESCE(v.unidades, 0), COALESCE(v.ingresos, 0), r.entregas, COALESCE(r.segundos, 0), LOCALTIMESTAMP
+            FROM (SELECT COUNT(*) AS pedidos,
+                         COUNT(*) FILTER (WHERE UPPER(COALESCE(estado, 'PENDIENTE')) = 'PENDIENTE') AS pendiente,
+                         COUNT(*) FILTER (WHERE UPPER(estado) = 'EN_PREPARACION') AS en_preparacion,
+                         COUNT(*) FILTER (WHERE UPPER(estado) = 'LISTO') AS listo,
+                         COUNT(*) FILTER (WHERE UPPER(estado) = 'EN_CAMINO') AS en_camino,
+                         COUNT(*) FILTER (WHERE UPPER(estado) = 'ENTREGADO') AS entregado
+                  FROM pedidos WHERE fecha_pedido = :dia) e
+            CROSS JOIN (SELECT SUM(unidades) AS unidades, SUM(ingresos) AS ingresos
+                        FROM agregado_diario_producto WHERE dia = :dia) v
+            CROSS JOIN (SELECT COUNT(*) AS entregas,
+                               CAST(SUM(EXTRACT(EPOCH FROM a.fecha_entrega - a.fecha_asignacion)) AS bigint) AS segundos
+                        FROM asignacion_repartidor a JOIN pedidos p ON p.pid = a.id_pedido
+                        WHERE p.fecha_pedido = :dia AND a.fecha_entrega >= a.fecha_asignacion) r
+            WHERE e.pedidos > 0
+            """, nativeQuery = true)
+    int insertarDia(@Param("dia") LocalDate dia);
+
+    // Solo las marcas anteriores al inicio de la pasada (menos el margen); las más recientes se repiten en la siguiente
+    @Modifying
+    @Query(value = """
+            DELETE FROM agregados_dias_pendientes
+            WHERE dia = :dia AND fecha_marca < (SELECT inicio_pasada - make_interval(mins => :margen)
+                                                FROM agregados_marca WHERE nombre = 'diario')
+            """, nativeQuery = true)
+    int quitarPendiente(@Param("dia") LocalDate dia, @Param("margen") int margen);
+
+    /** Cierra la pasada: la marca avanza a su inicio y se libera el turno. */
+    @Modifying
+    @Query(value = """
+            UPDATE agregados_marca SET marca = inicio_pasada, bloqueado_hasta = NULL WHERE nombre = 'diario'
+            """, nativeQuery = true)
+    int avanzarMarca();
+
+    @Modifying
+    @Query(value = "UPDATE agregados_marca SET bloqueado_hasta = NULL WHERE nombre = 'diario'", nativeQuery = true)
+    int liberarTurno();
+}
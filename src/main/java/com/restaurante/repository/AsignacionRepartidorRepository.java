@@ -1,15 +1,23 @@
 package com.restaurante.repository;
 
-import com.restaurante.model.AsignacionRepartidor;
-
-import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import com.restaurante.dto.AsignacionRepartidorDTO;
+import com.restaurante.model.AsignacionRepartidor;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface AsignacionRepartidorRepository extends JpaRepository<AsignacionRepartidor, Long> {
     Optional<AsignacionRepartidor> findByIdPedido(Long idPedido);
@@ -19,5 +27,14 @@ public interface AsignacionRepartidorRepository extends JpaRepository<Asignacion
     List<AsignacionRepartidor> findByFechaEntregaIsNull();
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<AsignacionRepartidor> findById(Long idPedido);
+    @Query("SELECT a FROM AsignacionRepartidor a WHERE a.pid = :id")
+    Optional<AsignacionRepartidor> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT new com.restaurante.dto.AsignacionRepartidorDTO(a.pid, a.idPedido, a.idRepartidor, a.fechaAsignacion, a.fechaEntrega) FROM AsignacionRepartidor a "
+            + "WHERE a.pid > :cursor ORDER BY a.pid")
+    List<AsignacionRepartidorDTO> findPaginaDesde(@Param("cursor") Long cursor, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.restaurante.dto.AsignacionRepartidorDTO(a.pid, a.idPedido, a.idRepartidor, a.fechaAsignacion, a.fechaEntrega) FROM AsignacionRepartidor a ORDER BY a.pid")
+    Stream<AsignacionRepartidorDTO> streamTodos();
 }
\ No newline at end of file
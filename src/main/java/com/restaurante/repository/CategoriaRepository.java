@@ -5,6 +5,8 @@ import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.restaurante.model.Categoria;
@@ -17,5 +19,6 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
     List<Categoria> findByNombreContainingIgnoreCase(String nombre);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Categoria> findById(Long id);
+    @Query("SELECT c FROM Categoria c WHERE c.id = :id")
+    Optional<Categoria> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
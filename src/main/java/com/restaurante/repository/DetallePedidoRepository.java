@@ -1,21 +1,105 @@
 package com.restaurante.repository;
 
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.restaurante.dto.DetallePedidoDTO;
 import com.restaurante.model.DetallePedido;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface DetallePedidoRepository extends JpaRepository<DetallePedido, Long> {
-    // Cambiar findByPedidoId a findByPedidoPid
-    List<DetallePedido> findByPedidoPid(Long pid);
-    
-    List<DetallePedido> findByIdProducto(Long idProducto);
-    
-    List<DetallePedido> findByInstruccionesEspecialIsNotNull();
-    
+    // Proyección a DTO: del pedido solo se necesita la FK, así que no se carga la entidad Pedido
+    String SELECT_DTO = "SELECT new com.restaurante.dto.DetallePedidoDTO(d.id, d.pedido.pid, d.idProducto, d.cantidad, "
+            + "d.precioUnitario, d.instruccionesEspecial) FROM DetallePedido d ";
+
+    @Query(SELECT_DTO + "ORDER BY d.id")
+    List<DetallePedidoDTO> listarTodos();
+
+    @Query(SELECT_DTO + "WHERE d.pedido.pid = :pid ORDER BY d.id")
+    List<DetallePedidoDTO> listarPorPedido(@Param("pid") Long pid);
+
+    @Query(SELECT_DTO + "WHERE d.idProducto = :idProducto ORDER BY d.id")
+    List<DetallePedidoDTO> listarPorProducto(@Param("idProducto") Long idProducto);
+
+    @Query(SELECT_DTO + "WHERE d.instruccionesEspecial IS NOT NULL ORDER BY d.id")
+    List<DetallePedidoDTO> listarConInstruccionesEspeciales();
+
     // Cambiar deleteByPedidoId a deleteByPedidoPid
     void deleteByPedidoPid(Long pid);
-}
\ No newline at end of file
+
+    boolean existsByPedidoPidAndIdProducto(Long pid, Long idProducto);
+
+    @Query(SELECT_DTO + "WHERE d.id > :cursor ORDER BY d.id")
+    List<DetallePedidoDTO> findPaginaDesde(@Param("cursor") Long cursor, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "ORDER BY d.id")
+    Stream<DetallePedidoDTO> streamTodos();
+
+    // Ventas agregadas en la base de datos: solo viaja una fila por grupo, sin cargar entidades
+    String SELECT_VENTAS = "SUM(d.cantidad) AS unidades, SUM(d.cantidad * d.precioUnitario) AS ingresos, "
+            + "COUNT(DISTINCT p.pid) AS pedidos FROM DetallePedido d JOIN d.pedido p ";
+    String ENTRE_FECHAS = "WHERE p.fechaPedido BETWEEN :desde AND :hasta ";
+
+    interface VentaAgrupada {
+        Object getClave();
+        Long getUnidades();
+        Double getIngresos();
+        Long getPedidos();
+    }
+
+    @Query("SELECT d.idProducto AS clave, " + SELECT_VENTAS + ENTRE_FECHAS + "GROUP BY d.idProducto")
+    List<VentaAgrupada> ventasPorProducto(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT pr.categoria.id AS clave, " + SELECT_VENTAS + "JOIN Producto pr ON pr.id = d.idProducto "
+            + ENTRE_FECHAS + "GROUP BY pr.categoria.id")
+    List<VentaAgrupada> ventasPorCategoria(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT p.fechaPedido AS clave, " + SELECT_VENTAS + ENTRE_FECHAS + "GROUP BY p.fechaPedido")
+    List<VentaAgrupada> ventasPorDia(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    // Los pedidos sin fechaCreacion (anteriores a la columna) quedan en el grupo nulo
+    @Query("SELECT EXTRACT(HOUR FROM p.fechaCreacion) AS clave, " + SELECT_VENTAS + ENTRE_FECHAS
+            + "GROUP BY EXTRACT(HOUR FROM p.fechaCreacion)")
+    List<VentaAgrupada> ventasPorHora(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT 0 AS clave, " + SELECT_VENTAS + ENTRE_FECHAS)
+    VentaAgrupada ventasTotales(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    // Pedidos ya sumados en los GROUP BY del mismo rango, para no volver a sumarlos desde memoria
+    @Query("SELECT DISTINCT p.pid FROM DetallePedido d JOIN d.pedido p " + ENTRE_FECHAS)
+    List<Long> pedidosConVentas(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    // Líneas de los pedidos de la cola de cocina con el tiempo de preparación de su producto
+    String SELECT_LINEA_COCINA = "SELECT d.pedido.pid AS idPedido, d.cantidad AS cantidad, "
+            + "pr.tiempoPreparacion AS tiempoPreparacion FROM DetallePedido d LEFT JOIN Producto pr ON pr.id = d.idProducto ";
+
+    interface LineaCocina {
+        Long getIdPedido();
+        Integer getCantidad();
+        Time getTiempoPreparacion();
+    }
+
+    @Query(SELECT_LINEA_COCINA + "WHERE d.pedido.pid = :pid")
+    List<LineaCocina> listarLineasCocina(@Param("pid") Long pid);
+
+    @Query(SELECT_LINEA_COCINA + "WHERE d.pedido.pid IN :pids")
+    List<LineaCocina> listarLineasCocinaDe(@Param("pids") Collection<Long> pids);
+
+    @Query(SELECT_LINEA_COCINA + "WHERE d.pedido.fechaPedido >= :desde "
+            + "AND COALESCE(UPPER(d.pedido.estado), 'PENDIENTE') IN ('PENDIENTE', 'EN_PREPARACION')")
+    List<LineaCocina> listarLineasCocinaAbiertas(@Param("desde") LocalDate desde);
+}
@@ -0,0 +1,25 @@
+package com.restaurante.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.restaurante.model.EventoOutbox;
+
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // SKIP LOCKED: varios nodos pueden vaciar el outbox a la vez sin esperar ni repartirse la misma fila
+    // Las que están esperando un reintento o descartadas no se bloquean
+    @Query(value = "SELECT * FROM eventos_outbox WHERE fecha_publicacion IS NULL AND fecha_fallo IS NULL "
+            + "AND (proximo_intento IS NULL OR proximo_intento <= :ahora) ORDER BY id "
+            + "LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EventoOutbox> bloquearPendientes(@Param("limite") int limite, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.fechaPublicacion < :limite")
+    int eliminarPublicadosAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -1,15 +1,24 @@
 package com.restaurante.repository;
 
-//import com.restaurante.model.DetallePedido;
-import com.restaurante.model.HistorialEstados;
-
-import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
-import java.util.List;
-import java.util.Optional;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+//import com.restaurante.model.DetallePedido;
+import com.restaurante.dto.HistorialEstadosDTO;
+import com.restaurante.model.HistorialEstados;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface HistorialEstadosRepository extends JpaRepository<HistorialEstados, Long> {
     List<HistorialEstados> findByIdPedido(Long idPedido);
@@ -21,5 +30,43 @@ public interface HistorialEstadosRepository extends JpaRepository<HistorialEstad
     Optional<HistorialEstados> findUltimoEstado(Long idPedido, String estado);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<HistorialEstados> findById(Long id);
-}
\ No newline at end of file
+    @Query("SELECT h FROM HistorialEstados h WHERE h.id = :id")
+    Optional<HistorialEstados> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT new com.restaurante.dto.HistorialEstadosDTO(h.id, h.idPedido, h.estado, h.fechaCambio, h.idCliente, h.idPersonaCocina) FROM HistorialEstados h "
+            + "WHERE h.id > :cursor ORDER BY h.id")
+    List<HistorialEstadosDTO> findPaginaDesde(@Param("cursor") Long cursor, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.restaurante.dto.HistorialEstadosDTO(h.id, h.idPedido, h.estado, h.fechaCambio, h.idCliente, h.idPersonaCocina) FROM HistorialEstados h ORDER BY h.id")
+    Stream<HistorialEstadosDTO> streamTodos();
+
+    /**
+     * Calibración de la cola de cocina: para los pedidos que pasaron de
+     * EN_PREPARACION a LISTO desde esa fecha, la suma de lo que tardaron y la
+     * de lo estimado (el producto más largo de cada pedido, con el tiempo por
+     * defecto para los que no lo tienen).
+     */
+    @Query(value = """
+            SELECT COUNT(*) AS muestras, CAST(COALESCE(SUM(o.observados), 0) AS double precision) AS observados,
+                   CAST(COALESCE(SUM(e.estimados), 0) AS double precision) AS estimados
+            FROM (SELECT id_pedido,
+                         EXTRACT(EPOCH FROM MAX(fecha_cambio) FILTER (WHERE estado = 'LISTO')
+                                          - MAX(fecha_cambio) FILTER (WHERE estado = 'EN_PREPARACION')) AS observados
+                  FROM historial_estados
+                  WHERE fecha_cambio >= :desde AND estado IN ('EN_PREPARACION', 'LISTO')
+                  GROUP BY id_pedido) o
+            CROSS JOIN LATERAL (
+                SELECT MAX(COALESCE(NULLIF(EXTRACT(EPOCH FROM pr.tiempo_preparacion), 0), :porDefecto)) AS estimados
+                FROM detalle_pedido d LEFT JOIN producto pr ON pr.id = d.id_producto
+                WHERE d.id_pedido = o.id_pedido) e
+            WHERE o.observados > 0 AND e.estimados > 0
+            """, nativeQuery = true)
+    CalibracionCocina calcularCalibracion(@Param("desde") LocalDateTime desde, @Param("porDefecto") long porDefecto);
+
+    interface CalibracionCocina {
+        Long getMuestras();
+        Double getObservados();
+        Double getEstimados();
+    }
+}
@@ -1,16 +1,27 @@
 package com.restaurante.repository;
 
-//import com.restaurante.model.HistorialEstados;
-import com.restaurante.model.Pedido;
-
-import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+//import com.restaurante.model.HistorialEstados;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.model.Pedido;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     List<Pedido> findByIdCliente(Long idCliente);
@@ -22,6 +33,86 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     @Query("SELECT p FROM Pedido p WHERE p.fechaPedido = CURRENT_DATE")
     List<Pedido> findPedidosDeHoy();
     
+    // SELECT ... FOR UPDATE explícito; las lecturas normales usan findById() sin bloqueo
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Pedido> findById(Long id);
-}
\ No newline at end of file
+    @Query("SELECT p FROM Pedido p WHERE p.pid = :id")
+    Optional<Pedido> findByIdForUpdate(@Param("id") Long id);
+
+    // Paginación por cursor sobre la PK: WHERE pid > :cursor en lugar de OFFSET
+    @Query("SELECT new com.restaurante.dto.PedidoDTO(p.pid, p.idCliente, p.fechaPedido, p.estado) FROM Pedido p "
+            + "WHERE p.pid > :cursor ORDER BY p.pid")
+    List<PedidoDTO> findPaginaDesde(@Param("cursor") Long cursor, Pageable pageable);
+
+    // Carga de los pedidos del día en memoria (PedidosDelDia)
+    @Query("SELECT new com.restaurante.dto.PedidoDTO(p.pid, p.idCliente, p.fechaPedido, p.estado) FROM Pedido p "
+            + "WHERE p.fechaPedido = :fecha ORDER BY p.pid")
+    List<PedidoDTO> listarPorFecha(@Param("fecha") LocalDate fecha);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.restaurante.dto.PedidoDTO(p.pid, p.idCliente, p.fechaPedido, p.estado) FROM Pedido p ORDER BY p.pid")
+    Stream<PedidoDTO> streamTodos();
+
+    // Estado actual de varios pedidos para validar un cambio de estado en lote
+    @Query("SELECT p.pid AS pid, p.idCliente AS idCliente, p.fechaPedido AS fechaPedido, p.estado AS estado "
+            + "FROM Pedido p WHERE p.pid IN :ids ORDER BY p.pid")
+    List<EstadoActual> findEstadosByPidIn(@Param("ids") Collection<Long> ids);
+
+    // Cambio de estado en lote con comprobación optimista: solo se actualizan los pedidos que siguen
+    // en uno de los estados de origen validados; un recuento menor indica una modificación concurrente
+    @Modifying
+    @Query("UPDATE Pedido p SET p.estado = :nuevo, p.version = COALESCE(p.version, 0) + 1, "
+            + "p.fechaModificacion = CURRENT_TIMESTAMP WHERE p.pid IN :ids AND COALESCE(p.estado, 'PENDIENTE') IN :origenes")
+    int actualizarEstadoEnLote(@Param("ids") Collection<Long> ids, @Param("origenes") Collection<String> origenes,
+            @Param("nuevo") String nuevo);
+
+    /**
+     * Anota el día del pedido para que el proceso de agregados diarios lo
+     * recalcule. Solo para los cambios que no dejan fecha_modificacion en un
+     * pedido que sigue existiendo en ese día: bajas de pedidos y pedidos que
+     * pasan a otra fecha. Se llama antes del cambio. Bloquea la fila del día
+     * hasta el commit, así que los cambios de líneas y asignaciones usan
+     * marcarModificado.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO agregados_dias_pendientes (dia, fecha_marca)
+            SELECT fecha_pedido, LOCALTIMESTAMP FROM pedidos WHERE pid = :idPedido AND fecha_pedido IS NOT NULL
+            ON CONFLICT (dia) DO UPDATE SET fecha_marca = EXCLUDED.fecha_marca
+            """, nativeQuery = true)
+    int marcarDiaPendiente(@Param("idPedido") Long idPedido);
+
+    // Alta, cambio o baja de una línea o asignación: el proceso de agregados diarios recalcula el día del
+    // pedido por su fecha_modificacion. Solo bloquea la fila de ese pedido
+    @Modifying
+    @Query("UPDATE Pedido p SET p.fechaModificacion = CURRENT_TIMESTAMP WHERE p.pid = :idPedido")
+    int marcarModificado(@Param("idPedido") Long idPedido);
+
+    // Cola de cocina (ColaCocina): pedidos abiertos con su llegada y el último paso a EN_PREPARACION
+    String ABIERTO = "COALESCE(UPPER(p.estado), 'PENDIENTE') IN ('PENDIENTE', 'EN_PREPARACION') ";
+    String SELECT_ABIERTO = "SELECT p.pid AS pid, p.estado AS estado, p.fechaCreacion AS fechaCreacion, "
+            + "(SELECT MAX(h.fechaCambio) FROM HistorialEstados h WHERE h.idPedido = p.pid "
+            + "AND h.estado = 'EN_PREPARACION') AS inicio FROM Pedido p WHERE " + ABIERTO;
+
+    @Query(SELECT_ABIERTO + "AND p.fechaPedido >= :desde ORDER BY p.fechaCreacion, p.pid")
+    List<PedidoAbierto> listarAbiertosDesde(@Param("desde") LocalDate desde);
+
+    @Query(SELECT_ABIERTO + "AND p.pid = :id")
+    Optional<PedidoAbierto> findAbierto(@Param("id") Long id);
+
+    @Query(SELECT_ABIERTO + "AND p.pid IN :ids")
+    List<PedidoAbierto> listarAbiertos(@Param("ids") Collection<Long> ids);
+
+    interface PedidoAbierto {
+        Long getPid();
+        String getEstado();
+        LocalDateTime getFechaCreacion();
+        LocalDateTime getInicio();
+    }
+
+    interface EstadoActual {
+        Long getPid();
+        Long getIdCliente();
+        LocalDate getFechaPedido();
+        String getEstado();
+    }
+}
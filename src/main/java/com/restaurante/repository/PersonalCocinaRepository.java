@@ -4,13 +4,26 @@ import com.restaurante.model.PersonalCocina;
 
 import jakarta.persistence.LockModeType;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PersonalCocinaRepository extends JpaRepository<PersonalCocina, Long> {
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<PersonalCocina> findById(Long id);
+    @Query("SELECT p FROM PersonalCocina p WHERE p.id = :id")
+    Optional<PersonalCocina> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT p.turno AS turno, p.area AS area, COUNT(p) AS personas FROM PersonalCocina p GROUP BY p.turno, p.area")
+    List<PlantillaCocina> contarPorTurnoYArea();
+
+    interface PlantillaCocina {
+        String getTurno();
+        String getArea();
+        Long getPersonas();
+    }
 }
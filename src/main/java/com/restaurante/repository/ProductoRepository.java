@@ -1,25 +1,74 @@
 package com.restaurante.repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 //import com.restaurante.model.PersonalCocina;
+import com.restaurante.dto.ProductoDTO;
 import com.restaurante.model.Producto;
 
 import jakarta.persistence.LockModeType;
 
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
-    List<Producto> findByEstado(String estado);
-    List<Producto> findByDestacado(Boolean destacado);
-    List<Producto> findByCategoriaIdAndEstado(Long idCategoria, String estado);
+    // Listados proyectados a DTO en una sola consulta: de la categoría basta la FK, sin join ni selects por fila
+    String SELECT_DTO = "SELECT new com.restaurante.dto.ProductoDTO(p.id, p.categoria.id, p.nombre, p.descripcion, p.precio, "
+            + "p.imagenUrl, p.tiempoPreparacion, p.ingredientes, p.estado, p.destacado) FROM Producto p ";
+
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    List<ProductoDTO> listarTodos();
+
+    @Query(SELECT_DTO + "WHERE p.estado = :estado ORDER BY p.id")
+    List<ProductoDTO> listarPorEstado(@Param("estado") String estado);
+
+    @Query(SELECT_DTO + "WHERE p.destacado = :destacado ORDER BY p.id")
+    List<ProductoDTO> listarPorDestacado(@Param("destacado") Boolean destacado);
+
+    @Query(SELECT_DTO + "WHERE p.categoria.id = :idCategoria AND p.estado = :estado ORDER BY p.id")
+    List<ProductoDTO> listarPorCategoriaYEstado(@Param("idCategoria") Long idCategoria, @Param("estado") String estado);
+
     List<Producto> findByNombreContainingIgnoreCase(String nombre);
     List<Producto> findByCategoriaId(Long idCategoria);
 
+    // Una sola consulta IN con las columnas necesarias para validar un pedido
+    List<PrecioProducto> findByIdIn(Collection<Long> ids);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Producto> findById(Long id);
-}
\ No newline at end of file
+    @Query("SELECT p FROM Producto p WHERE p.id = :id")
+    Optional<Producto> findByIdForUpdate(@Param("id") Long id);
+
+    // Respaldo de la búsqueda en memoria: texto completo en español más fragmentos del nombre,
+    // ordenado por parecido del nombre. Índices en V3__busqueda_texto.sql (pg_trgm)
+    @Query(value = """
+            SELECT * FROM producto p
+            WHERE p.estado = 'activo'
+              AND (to_tsvector('spanish', p.nombre || ' ' || coalesce(p.descripcion, '') || ' ' || coalesce(p.ingredientes, ''))
+                       @@ plainto_tsquery('spanish', :texto)
+                   OR upper(p.nombre) LIKE '%' || upper(:texto) || '%')
+            ORDER BY similarity(upper(p.nombre), upper(:texto)) DESC, p.id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Producto> buscarTexto(@Param("texto") String texto, @Param("limite") int limite);
+
+    @Query("SELECT p.id AS id, p.categoria.id AS idCategoria FROM Producto p")
+    List<CategoriaProducto> listarCategorias();
+
+    interface CategoriaProducto {
+        Long getId();
+        Long getIdCategoria();
+    }
+
+    interface PrecioProducto {
+        Long getId();
+        BigDecimal getPrecio();
+        String getEstado();
+    }
+}
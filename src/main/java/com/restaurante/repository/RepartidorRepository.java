@@ -7,9 +7,12 @@ import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface RepartidorRepository extends JpaRepository<Repartidor, Long> {
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Repartidor> findById(Long id);
+    @Query("SELECT r FROM Repartidor r WHERE r.id = :id")
+    Optional<Repartidor> findByIdForUpdate(@Param("id") Long id);
 }
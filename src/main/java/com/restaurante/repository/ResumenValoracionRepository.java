@@ -0,0 +1,158 @@
+package com.restaurante.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
+
+import com.restaurante.model.ResumenValoracion;
+
+public interface ResumenValoracionRepository extends JpaRepository<ResumenValoracion, ResumenValoracion.Clave> {
+
+    String SELECT_VALORACION_PRODUCTO = "SELECT p.id AS idProducto, p.nombre AS nombre, p.categoria.id AS idCategoria, "
+            + "r.cantidad AS cantidad, r.suma AS suma FROM ResumenValoracion r JOIN Producto p ON p.id = r.clave.idReferencia "
+            + "WHERE r.clave.ambito = com.restaurante.model.ResumenValoracion.Ambito.PRODUCTO "
+            + "AND r.cantidad > 0 AND p.estado = 'activo'";
+
+    interface ValoracionProducto {
+        Long getIdProducto();
+        String getNombre();
+        Long getIdCategoria();
+        Long getCantidad();
+        Long getSuma();
+    }
+
+    /** Resumen de cada producto activo con alguna valoración, fila a fila; requiere una transacción abierta. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VALORACION_PRODUCTO)
+    Stream<ValoracionProducto> streamValoracionesProducto();
+
+    @Query(SELECT_VALORACION_PRODUCTO + " AND p.id IN :ids")
+    List<ValoracionProducto> findValoracionesProducto(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT d.idProducto FROM DetallePedido d WHERE d.pedido.pid = :idPedido")
+    List<Long> findIdsProductoDePedido(@Param("idPedido") Long idPedido);
+
+    /**
+     * Suma (delta = 1) o resta (delta = -1) una valoración en los resúmenes de
+     * su pedido, su cliente y cada producto distinto del pedido, en una sola
+     * sentencia. El upsert incrementa sobre el valor de la fila, así que dos
+     * valoraciones simultáneas no se pisan; el orden fijo de las filas evita
+     * interbloqueos entre ellas.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO resumen_valoraciones
+                (ambito, id_referencia, cantidad, suma, estrellas_1, estrellas_2, estrellas_3, estrellas_4, estrellas_5)
+            SELECT r.ambito, r.id_referencia, :delta, :delta * :puntuacion,
+                   CASE WHEN :puntuacion = 1 THEN :delta ELSE 0 END,
+                   CASE WHEN :puntuacion = 2 THEN :delta ELSE 0 END,
+                   CASE WHEN :puntuacion = 3 THEN :delta ELSE 0 END,
+                   CASE WHEN :puntuacion = 4 THEN :delta ELSE 0 END,
+                   CASE WHEN :puntuacion = 5 THEN :delta ELSE 0 END
+            FROM (
+                SELECT 'PEDIDO' AS ambito, CAST(:idPedido AS bigint) AS id_referencia
+                UNION ALL
+                SELECT 'CLIENTE', CAST(:idCliente AS bigint)
+                UNION ALL
+                SELECT DISTINCT 'PRODUCTO', id_producto FROM detalle_pedido WHERE id_pedido = :idPedido
+            ) r
+            WHERE r.id_referencia IS NOT NULL
+            ORDER BY r.ambito, r.id_referencia
+            ON CONFLICT (ambito, id_referencia) DO UPDATE SET
+                cantidad = resumen_valoraciones.cantidad + EXCLUDED.cantidad,
+                suma = resumen_valoraciones.suma + EXCLUDED.suma,
+                estrellas_1 = resumen_valoraciones.estrellas_1 + EXCLUDED.estrellas_1,
+                estrellas_2 = resumen_valoraciones.estrellas_2 + EXCLUDED.estrellas_2,
+                estrellas_3 = resumen_valoraciones.estrellas_3 + EXCLUDED.estrellas_3,
+                estrellas_4 = resumen_valoraciones.estrellas_4 + EXCLUDED.estrellas_4,
+                estrellas_5 = resumen_valoraciones.estrellas_5 + EXCLUDED.estrellas_5
+            """, nativeQuery = true)
+    int sumar(@Param("idPedido") Long idPedido, @Param("idCliente") Long idCliente,
+            @Param("puntuacion") int puntuacion, @Param("delta") int delta);
+
+    /**
+     * Suma (delta = 1) o resta (delta = -1) todas las valoraciones de un pedido
+     * en el resumen de un producto, cuando el producto entra en el pedido o deja
+     * de estar en él. Sin valoraciones no escribe nada.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO resumen_valoraciones
+                (ambito, id_referencia, cantidad, suma, estrellas_1, estrellas_2, estrellas_3, estrellas_4, estrellas_5)
+            SELECT 'PRODUCTO', CAST(:idProducto AS bigint), :delta * COUNT(*), :delta * SUM(puntuacion),
+                   :delta * COUNT(*) FILTER (WHERE puntuacion = 1),
+                   :delta * COUNT(*) FILTER (WHERE puntuacion = 2),
+                   :delta * COUNT(*) FILTER (WHERE puntuacion = 3),
+                   :delta * COUNT(*) FILTER (WHERE puntuacion = 4),
+                   :delta * COUNT(*) FILTER (WHERE puntuacion = 5)
+            FROM valoracion
+            WHERE id_pedido = :idPedido AND puntuacion BETWEEN 1 AND 5
+            HAVING COUNT(*) > 0
+            ON CONFLICT (ambito, id_referencia) DO UPDATE SET
+                cantidad = resumen_valoraciones.cantidad + EXCLUDED.cantidad,
+                suma = resumen_valoraciones.suma + EXCLUDED.suma,
+                estrellas_1 = resumen_valoraciones.estrellas_1 + EXCLUDED.estrellas_1,
+                estrellas_2 = resumen_valoraciones.estrellas_2 + EXCLUDED.estrellas_2,
+                estrellas_3 = resumen_valoraciones.estrellas_3 + EXCLUDED.estrellas_3,
+                estrellas_4 = resumen_valoraciones.estrellas_4 + EXCLUDED.estrellas_4,
+                estrellas_5 = resumen_valoraciones.estrellas_5 + EXCLUDED.estrellas_5
+            """, nativeQuery = true)
+    int sumarProducto(@Param("idPedido") Long idPedido, @Param("idProducto") Long idProducto,
+            @Param("delta") int delta);
+
+    /**
+     * Recalcula los resúmenes por producto desde valoracion y detalle_pedido
+     * (como la carga de V4) y sobrescribe solo las filas que no cuadran, también
+     * las de productos que ya no tienen valoraciones. Devuelve las filas corregidas.
+     */
+    @Modifying
+    @Query(value = """
+            WITH esperado AS (
+                SELECT d.id_producto, COUNT(*) AS cantidad, SUM(v.puntuacion) AS suma,
+                       COUNT(*) FILTER (WHERE v.puntuacion = 1) AS e1,
+                       COUNT(*) FILTER (WHERE v.puntuacion = 2) AS e2,
+                       COUNT(*) FILTER (WHERE v.puntuacion = 3) AS e3,
+                       COUNT(*) FILTER (WHERE v.puntuacion = 4) AS e4,
+                       COUNT(*) FILTER (WHERE v.puntuacion = 5) AS e5
+                FROM valoracion v
+                JOIN (SELECT DISTINCT id_pedido, id_producto FROM detalle_pedido) d ON d.id_pedido = v.id_pedido
+                WHERE v.puntuacion BETWEEN 1 AND 5
+                GROUP BY d.id_producto
+            ), corregido AS (
+                SELECT COALESCE(e.id_producto, r.id_referencia) AS id_producto,
+                       COALESCE(e.cantidad, 0) AS cantidad, COALESCE(e.suma, 0) AS suma,
+                       COALESCE(e.e1, 0) AS e1, COALESCE(e.e2, 0) AS e2, COALESCE(e.e3, 0) AS e3,
+                       COALESCE(e.e4, 0) AS e4, COALESCE(e.e5, 0) AS e5
+                FROM esperado e
+                FULL JOIN (SELECT * FROM resumen_valoraciones WHERE ambito = 'PRODUCTO') r
+                    ON r.id_referencia = e.id_producto
+                WHERE r.id_referencia IS NULL
+                   OR (r.cantidad, r.suma, r.estrellas_1, r.estrellas_2, r.estrellas_3, r.estrellas_4, r.estrellas_5)
+                      IS DISTINCT FROM (COALESCE(e.cantidad, 0), COALESCE(e.suma, 0), COALESCE(e.e1, 0),
+                                        COALESCE(e.e2, 0), COALESCE(e.e3, 0), COALESCE(e.e4, 0), COALESCE(e.e5, 0))
+            )
+            INSERT INTO resumen_valoraciones
+                (ambito, id_referencia, cantidad, suma, estrellas_1, estrellas_2, estrellas_3, estrellas_4, estrellas_5)
+            SELECT 'PRODUCTO', id_producto, cantidad, suma, e1, e2, e3, e4, e5
+            FROM corregido
+            ORDER BY id_producto
+            ON CONFLICT (ambito, id_referencia) DO UPDATE SET
+                cantidad = EXCLUDED.cantidad,
+                suma = EXCLUDED.suma,
+                estrellas_1 = EXCLUDED.estrellas_1,
+                estrellas_2 = EXCLUDED.estrellas_2,
+                estrellas_3 = EXCLUDED.estrellas_3,
+                estrellas_4 = EXCLUDED.estrellas_4,
+                estrellas_5 = EXCLUDED.estrellas_5
+            """, nativeQuery = true)
+    int recalcularProductos();
+}
@@ -1,15 +1,23 @@
 package com.restaurante.repository;
 
-//import com.restaurante.model.Repartidor;
-import com.restaurante.model.Valoracion;
-
-import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.List;
-import java.util.Optional;
+//import com.restaurante.model.Repartidor;
+import com.restaurante.dto.ValoracionDTO;
+import com.restaurante.model.Valoracion;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface ValoracionRepository extends JpaRepository<Valoracion, Long> {
     List<Valoracion> findByIdPedido(Long idPedido);
@@ -18,6 +26,33 @@ public interface ValoracionRepository extends JpaRepository<Valoracion, Long> {
     List<Valoracion> findByIdClienteAndPuntuacionGreaterThanEqual(Long idCliente, Integer puntuacionMinima);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Valoracion> findById(Long id);
+    @Query("SELECT v FROM Valoracion v WHERE v.pid = :id")
+    Optional<Valoracion> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT new com.restaurante.dto.ValoracionDTO(v.pid, v.idPedido, v.idCliente, v.puntuacion, v.comentario, v.fechaModificacion) FROM Valoracion v "
+            + "WHERE v.pid > :cursor ORDER BY v.pid")
+    List<ValoracionDTO> findPaginaDesde(@Param("cursor") Long cursor, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.restaurante.dto.ValoracionDTO(v.pid, v.idPedido, v.idCliente, v.puntuacion, v.comentario, v.fechaModificacion) FROM Valoracion v ORDER BY v.pid")
+    Stream<ValoracionDTO> streamTodos();
+
+    // Respaldo de ResumenValoracion: número de valoraciones por puntuación, calculado en la base de datos
+    @Query("SELECT v.puntuacion AS puntuacion, COUNT(v) AS cantidad FROM Valoracion v "
+            + "WHERE v.idPedido = :idPedido GROUP BY v.puntuacion")
+    List<ConteoPuntuacion> contarPorPuntuacionDePedido(@Param("idPedido") Long idPedido);
+
+    @Query("SELECT v.puntuacion AS puntuacion, COUNT(v) AS cantidad FROM Valoracion v "
+            + "WHERE v.idCliente = :idCliente GROUP BY v.puntuacion")
+    List<ConteoPuntuacion> contarPorPuntuacionDeCliente(@Param("idCliente") Long idCliente);
+
+    @Query("SELECT v.puntuacion AS puntuacion, COUNT(v) AS cantidad FROM Valoracion v "
+            + "WHERE v.idPedido IN (SELECT d.pedido.pid FROM DetallePedido d WHERE d.idProducto = :idProducto) "
+            + "GROUP BY v.puntuacion")
+    List<ConteoPuntuacion> contarPorPuntuacionDeProducto(@Param("idProducto") Long idProducto);
 
-}
\ No newline at end of file
+    interface ConteoPuntuacion {
+        Integer getPuntuacion();
+        Long getCantidad();
+    }
+}
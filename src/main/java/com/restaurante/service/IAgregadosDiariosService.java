@@ -0,0 +1,14 @@
+package com.restaurante.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.restaurante.dto.AgregadoDiarioDTO;
+import com.restaurante.dto.FilaVentasDTO;
+
+public interface IAgregadosDiariosService {
+    List<AgregadoDiarioDTO> obtenerDias(LocalDate desde, LocalDate hasta);
+    List<FilaVentasDTO> obtenerProductos(LocalDate desde, LocalDate hasta);
+    int procesarPendientes();
+    int recalcular(LocalDate desde, LocalDate hasta);
+}
@@ -1,11 +1,15 @@
 package com.restaurante.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import com.restaurante.dto.AsignacionRepartidorDTO;
+import com.restaurante.dto.PaginaDTO;
 import com.restaurante.model.AsignacionRepartidor;
 
 public interface IAsignacionRepartidorService {
     List<AsignacionRepartidorDTO> obtenerTodas();
+    PaginaDTO<AsignacionRepartidorDTO> obtenerPagina(Long cursor, int limite);
+    void recorrerTodas(Consumer<AsignacionRepartidorDTO> consumidor);
     AsignacionRepartidorDTO obtenerPorId(Long id);
     AsignacionRepartidorDTO obtenerPorPedido(Long idPedido);
     List<AsignacionRepartidorDTO> obtenerPorRepartidor(Long idRepartidor);
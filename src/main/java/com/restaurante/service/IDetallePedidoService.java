@@ -1,11 +1,15 @@
 package com.restaurante.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.restaurante.dto.DetallePedidoDTO;
+import com.restaurante.dto.PaginaDTO;
 
 public interface IDetallePedidoService {
     List<DetallePedidoDTO> obtenerTodos();
+    PaginaDTO<DetallePedidoDTO> obtenerPagina(Long cursor, int limite);
+    void recorrerTodos(Consumer<DetallePedidoDTO> consumidor);
     DetallePedidoDTO obtenerPorId(Long id);
     List<DetallePedidoDTO> obtenerPorPedido(Long idPedido);
     List<DetallePedidoDTO> obtenerPorProducto(Long idProducto);
@@ -0,0 +1,7 @@
+package com.restaurante.service;
+
+import com.restaurante.dto.EtaPedidoDTO;
+
+public interface IEtaCocinaService {
+    EtaPedidoDTO obtenerEta(Long idPedido);
+}
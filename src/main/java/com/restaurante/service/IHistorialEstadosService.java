@@ -1,11 +1,15 @@
 package com.restaurante.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import com.restaurante.dto.HistorialEstadosDTO;
+import com.restaurante.dto.PaginaDTO;
 import com.restaurante.model.HistorialEstados;
 
 public interface IHistorialEstadosService {
     List<HistorialEstadosDTO> obtenerTodos();
+    PaginaDTO<HistorialEstadosDTO> obtenerPagina(Long cursor, int limite);
+    void recorrerTodos(Consumer<HistorialEstadosDTO> consumidor);
     HistorialEstadosDTO obtenerPorId(Long id);
     List<HistorialEstadosDTO> obtenerPorPedido(Long idPedido);
     List<HistorialEstadosDTO> obtenerPorEstado(String estado);
@@ -0,0 +1,8 @@
+package com.restaurante.service;
+
+import com.restaurante.service.menu.InstantaneaMenu;
+
+public interface IMenuService {
+    InstantaneaMenu obtenerInstantanea(); // Se reconstruye en la primera lectura tras un cambio
+    void invalidar();
+}
@@ -0,0 +1,12 @@
+package com.restaurante.service;
+
+import java.util.List;
+
+import com.restaurante.dto.PedidoEventoDTO;
+
+public interface IOutboxService {
+    void registrar(PedidoEventoDTO evento);
+    void registrarTodos(List<PedidoEventoDTO> eventos);
+    int publicarPendientes();
+    int purgarPublicados();
+}
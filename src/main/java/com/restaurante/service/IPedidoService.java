@@ -1,17 +1,25 @@
 package com.restaurante.service;
 
 import java.util.List;
+import java.util.function.Consumer;
+import com.restaurante.dto.CambioEstadoLoteDTO;
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.PedidoCompletoDTO;
 import com.restaurante.dto.PedidoDTO;
 import com.restaurante.model.Pedido;
 
 public interface IPedidoService {
     List<PedidoDTO> obtenerTodos();
+    PaginaDTO<PedidoDTO> obtenerPagina(Long cursor, int limite);
+    void recorrerTodos(Consumer<PedidoDTO> consumidor);
     PedidoDTO obtenerPorId(Long id);
     List<PedidoDTO> obtenerPorCliente(Long idCliente);
     List<PedidoDTO> obtenerPorEstado(String estado);
     PedidoDTO crear(PedidoDTO pedidoDTO);
+    PedidoCompletoDTO crearConDetalles(PedidoCompletoDTO pedidoDTO);
     PedidoDTO actualizar(Long id, PedidoDTO pedidoDTO);
-    PedidoDTO actualizarEstado(Long id, String nuevoEstado);
+    PedidoDTO actualizarEstado(Long id, String nuevoEstado, Long idPersonaCocina);
+    List<PedidoDTO> actualizarEstadoEnLote(CambioEstadoLoteDTO cambio);
     void eliminar(Long id);
     List<PedidoDTO> obtenerPedidosDelDia();
 
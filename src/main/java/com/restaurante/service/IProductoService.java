@@ -15,7 +15,7 @@ public interface IProductoService {
     ProductoDTO actualizar(Long id, ProductoDTO productoDTO);
     ProductoDTO desactivar(Long id); // Baja lógica
     void eliminar(Long id); // Eliminación física
-    List<ProductoDTO> buscarPorNombre(String nombre);
+    List<ProductoDTO> buscar(String texto, int limite); // Nombre, ingredientes y descripción, por relevancia
 
     Producto obtenerPorIdConBloqueo(Long id);
 }
\ No newline at end of file
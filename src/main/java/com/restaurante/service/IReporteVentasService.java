@@ -0,0 +1,9 @@
+package com.restaurante.service;
+
+import java.time.LocalDate;
+
+import com.restaurante.dto.ReporteVentasDTO;
+
+public interface IReporteVentasService {
+    ReporteVentasDTO obtenerVentas(LocalDate desde, LocalDate hasta, String agrupacion);
+}
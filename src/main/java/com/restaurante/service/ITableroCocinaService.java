@@ -0,0 +1,13 @@
+package com.restaurante.service;
+
+import java.util.Set;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.restaurante.dto.PedidoEventoDTO;
+
+public interface ITableroCocinaService {
+    SseEmitter suscribir(Set<String> estados, String area);
+    void publicar(PedidoEventoDTO evento);
+    int suscriptoresActivos();
+}
@@ -1,11 +1,17 @@
 package com.restaurante.service;
 
 import java.util.List;
+import java.util.function.Consumer;
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.ProductoValoradoDTO;
+import com.restaurante.dto.ResumenValoracionDTO;
 import com.restaurante.dto.ValoracionDTO;
 import com.restaurante.model.Valoracion;
 
 public interface IValoracionService {
     List<ValoracionDTO> obtenerTodas();
+    PaginaDTO<ValoracionDTO> obtenerPagina(Long cursor, int limite);
+    void recorrerTodas(Consumer<ValoracionDTO> consumidor);
     ValoracionDTO obtenerPorId(Long id);
     List<ValoracionDTO> obtenerPorPedido(Long idPedido);
     List<ValoracionDTO> obtenerPorCliente(Long idCliente);
@@ -14,6 +20,10 @@ public interface IValoracionService {
     void eliminar(Long id);
     Double obtenerPuntuacionPromedioPorPedido(Long idPedido);
     Double obtenerPuntuacionPromedioPorCliente(Long idCliente);
+    ResumenValoracionDTO obtenerResumen(String ambito, Long id);
+    List<ProductoValoradoDTO> obtenerTopValorados(Long idCategoria, int limite);
+    void sumarProductoDePedido(Long idPedido, Long idProducto, int delta);
+    void quitarProductosDePedido(Long idPedido);
 
     Valoracion obtenerPorIdConBloqueo(Long id);
 }
\ No newline at end of file
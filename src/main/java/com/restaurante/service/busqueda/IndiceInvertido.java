@@ -0,0 +1,226 @@
+package com.restaurante.service.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.restaurante.service.comun.CambiosDesdeCarga;
+
+/**
+ * Índice invertido en memoria para la búsqueda mientras se escribe: cada
+ * término normalizado (minúsculas y sin tildes) apunta a los documentos que lo
+ * contienen con el peso del campo donde aparece.
+ *
+ * Cada palabra de la consulta se busca como prefijo ("pizz" encuentra "pizza")
+ * y un documento debe coincidir con todas. La puntuación suma, por palabra, el
+ * mayor peso encontrado, doblado si la coincidencia es la palabra completa.
+ *
+ * Los documentos indexados o eliminados mientras una reconstrucción está en
+ * curso prevalecen sobre lo que esa reconstrucción leyó (CambiosDesdeCarga);
+ * reaplicar un documento lo sustituye o lo quita.
+ */
+public class IndiceInvertido<T> {
+
+    private static final Pattern TILDES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final Function<T, Long> id;
+    private final Function<T, List<Campo>> campos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private NavigableMap<String, Map<Long, Integer>> terminos = new TreeMap<>();
+    private Map<Long, T> documentos = new HashMap<>();
+    private Map<Long, Set<String>> terminosPorDocumento = new HashMap<>();
+    private volatile boolean construido;
+    // Documento nulo indica que se eliminó
+    private final CambiosDesdeCarga<Long, T> cambios = new CambiosDesdeCarga<>();
+
+    /** Texto de un campo indexado y su peso en la puntuación; un texto nulo se ignora. */
+    public record Campo(String texto, int peso) {
+    }
+
+    public IndiceInvertido(Function<T, Long> id, Function<T, List<Campo>> campos) {
+        this.id = id;
+        this.campos = campos;
+    }
+
+    public boolean estaConstruido() {
+        return construido;
+    }
+
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Se toma antes de leer los documentos de la base de datos y se pasa a reconstruir. */
+    public long marca() {
+        lock.writeLock().lock();
+        try {
+            return cambios.marca();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye el contenido completo. Se construye aparte y se intercambia, así
+     * que las búsquedas en curso no esperan a la reconstrucción. Una
+     * reconstrucción con una marca anterior a la de la última aplicada se
+     * descarta.
+     */
+    public void reconstruir(List<T> todos, long marca) {
+        NavigableMap<String, Map<Long, Integer>> nuevosTerminos = new TreeMap<>();
+        Map<Long, T> nuevosDocumentos = new HashMap<>();
+        Map<Long, Set<String>> nuevosPorDocumento = new HashMap<>();
+        for (T documento : todos) {
+            agregar(documento, nuevosTerminos, nuevosDocumentos, nuevosPorDocumento);
+        }
+        lock.writeLock().lock();
+        try {
+            if (cambios.obsoleta(marca)) {
+                return;
+            }
+            cambios.reaplicar(marca, (idDocumento, documento) -> {
+                quitar(idDocumento, nuevosTerminos, nuevosDocumentos, nuevosPorDocumento);
+                if (documento != null) {
+                    agregar(documento, nuevosTerminos, nuevosDocumentos, nuevosPorDocumento);
+                }
+            });
+            terminos = nuevosTerminos;
+            documentos = nuevosDocumentos;
+            terminosPorDocumento = nuevosPorDocumento;
+            construido = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexar(T documento) {
+        lock.writeLock().lock();
+        try {
+            Long idDocumento = id.apply(documento);
+            cambios.anotar(idDocumento, documento);
+            quitar(idDocumento, terminos, documentos, terminosPorDocumento);
+            agregar(documento, terminos, documentos, terminosPorDocumento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long idDocumento) {
+        lock.writeLock().lock();
+        try {
+            cambios.anotar(idDocumento, null);
+            quitar(idDocumento, terminos, documentos, terminosPorDocumento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<T> buscar(String consulta, int limite) {
+        List<String> palabras = tokens(consulta);
+        if (palabras.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> puntuaciones = null;
+            for (String palabra : palabras) {
+                Map<Long, Integer> porPalabra = coincidencias(palabra);
+                if (puntuaciones == null) {
+                    puntuaciones = porPalabra;
+                } else {
+                    puntuaciones.keySet().retainAll(porPalabra.keySet());
+                    puntuaciones.replaceAll((doc, puntos) -> puntos + porPalabra.get(doc));
+                }
+                if (puntuaciones.isEmpty()) {
+                    return List.of();
+                }
+            }
+            Map<Long, T> docs = documentos;
+            return puntuaciones.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limite)
+                    .map(entrada -> docs.get(entrada.getKey()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Minúsculas, sin tildes ni signos: "Piña colada" → [pina, colada]. */
+    public static List<String> tokens(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = TILDES.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        List<String> resultado = new ArrayList<>();
+        for (String token : SEPARADORES.split(normalizado.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                resultado.add(token);
+            }
+        }
+        return resultado;
+    }
+
+    // Mayor peso por documento entre los términos que empiezan por la palabra
+    private Map<Long, Integer> coincidencias(String palabra) {
+        Map<Long, Integer> resultado = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> termino
+                : terminos.subMap(palabra, true, palabra + Character.MAX_VALUE, false).entrySet()) {
+            int factor = termino.getKey().equals(palabra) ? 2 : 1;
+            termino.getValue().forEach((doc, peso) -> resultado.merge(doc, peso * factor, Math::max));
+        }
+        return resultado;
+    }
+
+    private void agregar(T documento, NavigableMap<String, Map<Long, Integer>> destinoTerminos,
+            Map<Long, T> destinoDocumentos, Map<Long, Set<String>> destinoPorDocumento) {
+        Long idDocumento = id.apply(documento);
+        Set<String> propios = new HashSet<>();
+        for (Campo campo : campos.apply(documento)) {
+            for (String token : tokens(campo.texto())) {
+                propios.add(token);
+                destinoTerminos.computeIfAbsent(token, t -> new HashMap<>()).merge(idDocumento, campo.peso(), Math::max);
+            }
+        }
+        destinoDocumentos.put(idDocumento, documento);
+        destinoPorDocumento.put(idDocumento, propios);
+    }
+
+    private static void quitar(Long idDocumento, NavigableMap<String, Map<Long, Integer>> origenTerminos,
+            Map<Long, ?> origenDocumentos, Map<Long, Set<String>> origenPorDocumento) {
+        Set<String> propios = origenPorDocumento.remove(idDocumento);
+        origenDocumentos.remove(idDocumento);
+        if (propios == null) {
+            return;
+        }
+        for (String token : propios) {
+            Map<Long, Integer> publicaciones = origenTerminos.get(token);
+            if (publicaciones != null) {
+                publicaciones.remove(idDocumento);
+                if (publicaciones.isEmpty()) {
+                    origenTerminos.remove(token);
+                }
+            }
+        }
+    }
+}
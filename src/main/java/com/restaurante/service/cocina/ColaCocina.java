@@ -0,0 +1,381 @@
+package com.restaurante.service.cocina;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.restaurante.service.comun.CambiosDesdeCarga;
+
+/**
+ * Cola de cocina en memoria: los pedidos pendientes y en preparación, en orden
+ * de llegada, con su trabajo estimado. Cada pedido ocupa una posición y los
+ * totales de las posiciones se guardan en árboles de Fenwick, así que un alta,
+ * un cambio de estado o una estimación cuestan O(log n) sin recorrer la cola.
+ *
+ * La estimación trata la cocina como un fluido: el trabajo pendiente de los
+ * pedidos que van delante más el propio, repartido entre los cocineros del
+ * turno, y nunca menos que el plato más largo del pedido. Los tiempos de los
+ * productos se corrigen con un factor calibrado con lo observado en el
+ * historial (calibrar, y cada pedido que pasa a LISTO).
+ *
+ * Lo transcurrido de un pedido en preparación no cuenta más que su trabajo:
+ * al pasar inicio + factor * trabajo el pedido está vencido y sale de las
+ * sumas de trabajo (sigue contando como pedido delante). Si no, un pedido
+ * olvidado en EN_PREPARACION durante horas anularía el trabajo de todos los
+ * que van detrás. Los vencimientos se revisan en cada estimación con un
+ * montículo por instante; las estimaciones se piden con un ahora que no
+ * retrocede.
+ *
+ * Una carga desde la base de datos reaplica los cambios posteriores a su marca
+ * (CambiosDesdeCarga); reaplicar un ticket lo sustituye o lo quita.
+ */
+public class ColaCocina {
+
+    /** Muestras necesarias para usar el factor calibrado en lugar de 1. */
+    static final long MINIMO_MUESTRAS = 20;
+    static final double FACTOR_MINIMO = 0.5;
+    static final double FACTOR_MAXIMO = 3.0;
+    // Un cambio menor del factor por los cierres no recalcula los vencimientos
+    static final double VARIACION_FACTOR = 0.01;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<Long, Ticket> tickets = new HashMap<>();
+    private final Map<Long, Integer> posiciones = new HashMap<>();
+    private Fenwick abiertos = new Fenwick(64);
+    private Fenwick trabajo = new Fenwick(64);
+    private Fenwick enPreparacion = new Fenwick(64);
+    private Fenwick inicios = new Fenwick(64);
+    private int siguiente = 1;
+
+    // Pedidos en preparación por instante de vencimiento; las entradas de tickets ya sustituidos se ignoran
+    private final PriorityQueue<Vencimiento> vencimientos = new PriorityQueue<>();
+    private final Set<Long> vencidos = new HashSet<>();
+    private double factorAplicado = 1.0;
+
+    private long muestras;
+    private double segundosObservados;
+    private double segundosEstimados;
+
+    // Ticket nulo indica que el pedido salió de la cola
+    private final CambiosDesdeCarga<Long, Ticket> cambios = new CambiosDesdeCarga<>();
+
+    private record Vencimiento(long instante, Ticket ticket) implements Comparable<Vencimiento> {
+
+        @Override
+        public int compareTo(Vencimiento otro) {
+            return Long.compare(instante, otro.instante);
+        }
+    }
+
+    /**
+     * Un pedido en la cola. trabajo: segundos de cocina de todas sus unidades;
+     * duracion: los del producto más largo, lo mínimo que tarda aunque sobren
+     * cocineros; inicio: paso a EN_PREPARACION (nulo si sigue pendiente).
+     */
+    public record Ticket(long idPedido, LocalDateTime llegada, long trabajo, long duracion, LocalDateTime inicio) {
+
+        public Ticket iniciado(LocalDateTime instante) {
+            return new Ticket(idPedido, llegada, trabajo, duracion, instante);
+        }
+    }
+
+    public record Estimacion(long idPedido, boolean enPreparacion, long pedidosDelante, long segundosRestantes,
+            int cocineros, double factor) {
+    }
+
+    /** Se toma antes de leer los pedidos abiertos y se pasa a reemplazar. */
+    public long marca() {
+        lock.lock();
+        try {
+            return cambios.marca();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sustituye la cola por los pedidos cargados, ordenados por llegada. Una
+     * carga con una marca anterior a la de la última aplicada se descarta.
+     */
+    public void reemplazar(List<Ticket> cargados, long marca) {
+        lock.lock();
+        try {
+            if (cambios.obsoleta(marca)) {
+                return;
+            }
+            Map<Long, Ticket> nuevos = new HashMap<>();
+            for (Ticket ticket : cargados) {
+                nuevos.put(ticket.idPedido(), ticket);
+            }
+            cambios.reaplicar(marca, (idPedido, ticket) -> {
+                if (ticket == null) {
+                    nuevos.remove(idPedido);
+                } else {
+                    nuevos.put(idPedido, ticket);
+                }
+            });
+            tickets.clear();
+            tickets.putAll(nuevos);
+            reordenar(Math.max(64, capacidadPara(tickets.size() * 2)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contiene(long idPedido) {
+        lock.lock();
+        try {
+            return tickets.containsKey(idPedido);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Añade un pedido al final de la cola o, si ya está, lo sustituye sin cambiar su posición. */
+    public void abrir(Ticket ticket) {
+        lock.lock();
+        try {
+            cambios.anotar(ticket.idPedido(), ticket);
+            Integer posicion = posiciones.get(ticket.idPedido());
+            if (posicion != null) {
+                restar(posicion, tickets.get(ticket.idPedido()));
+                vencidos.remove(ticket.idPedido());
+            } else {
+                posicion = nuevaPosicion();
+                posiciones.put(ticket.idPedido(), posicion);
+            }
+            tickets.put(ticket.idPedido(), ticket);
+            sumar(posicion, ticket);
+            programarVencimiento(ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Anota el paso a EN_PREPARACION. Devuelve falso si el pedido no está en la cola. */
+    public boolean iniciar(long idPedido, LocalDateTime instante) {
+        lock.lock();
+        try {
+            Ticket ticket = tickets.get(idPedido);
+            if (ticket == null) {
+                return false;
+            }
+            if (ticket.inicio() == null) {
+                abrir(ticket.iniciado(instante));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Saca el pedido de la cola. Con fin (paso a LISTO) y un inicio conocido, la
+     * duración real se suma a la calibración.
+     */
+    public void cerrar(long idPedido, LocalDateTime fin) {
+        lock.lock();
+        try {
+            // Se anota aunque no esté: una carga en curso puede haberlo leído antes del cierre
+            cambios.anotar(idPedido, null);
+            Integer posicion = posiciones.remove(idPedido);
+            Ticket ticket = tickets.remove(idPedido);
+            if (ticket == null) {
+                return;
+            }
+            restar(posicion, ticket);
+            vencidos.remove(idPedido);
+            if (fin != null && ticket.inicio() != null && fin.isAfter(ticket.inicio())) {
+                muestras++;
+                segundosObservados += segundos(fin) - segundos(ticket.inicio());
+                segundosEstimados += ticket.duracion();
+                if (Math.abs(factor() - factorAplicado) >= VARIACION_FACTOR) {
+                    aplicarFactor();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Sustituye la calibración por la calculada sobre el historial. */
+    public void calibrar(long nuevasMuestras, double observados, double estimados) {
+        lock.lock();
+        try {
+            muestras = nuevasMuestras;
+            segundosObservados = observados;
+            segundosEstimados = estimados;
+            if (factor() != factorAplicado) {
+                aplicarFactor();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Estimacion> estimar(long idPedido, LocalDateTime ahora, int cocineros) {
+        lock.lock();
+        try {
+            Ticket ticket = tickets.get(idPedido);
+            if (ticket == null) {
+                return Optional.empty();
+            }
+            int posicion = posiciones.get(idPedido);
+            double factor = factorAplicado;
+            long instante = segundos(ahora);
+            vencer(instante);
+
+            // Pendiente de los anteriores: su trabajo menos lo ya transcurrido en los que están en preparación
+            // (sin los vencidos, así que ninguno resta más que su propio trabajo)
+            double transcurridoDelante = enPreparacion.prefijo(posicion - 1) * instante - inicios.prefijo(posicion - 1);
+            double delante = Math.max(0, factor * trabajo.prefijo(posicion - 1) - transcurridoDelante);
+            double transcurrido = ticket.inicio() == null ? 0 : Math.max(0, instante - segundos(ticket.inicio()));
+            double propio = Math.max(0, factor * ticket.trabajo() - transcurrido);
+            double minimo = Math.max(0, factor * ticket.duracion() - transcurrido);
+            int repartido = Math.max(1, cocineros);
+            double restante = Math.max(minimo, (delante + propio) / repartido);
+
+            return Optional.of(new Estimacion(idPedido, ticket.inicio() != null, abiertos.prefijo(posicion - 1),
+                    Math.round(restante), repartido, factor));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int tamano() {
+        lock.lock();
+        try {
+            return tickets.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double factor() {
+        if (muestras < MINIMO_MUESTRAS || segundosEstimados <= 0) {
+            return 1.0;
+        }
+        return Math.min(FACTOR_MAXIMO, Math.max(FACTOR_MINIMO, segundosObservados / segundosEstimados));
+    }
+
+    /** Cambia el factor de las estimaciones y recalcula los vencimientos con él. */
+    private void aplicarFactor() {
+        factorAplicado = factor();
+        reordenar(abiertos.capacidad());
+    }
+
+    private void programarVencimiento(Ticket ticket) {
+        if (ticket.inicio() != null) {
+            long instante = segundos(ticket.inicio()) + (long) Math.ceil(factorAplicado * ticket.trabajo());
+            vencimientos.add(new Vencimiento(instante, ticket));
+        }
+    }
+
+    /** Saca de las sumas de trabajo los pedidos en preparación que ya deberían haber terminado. */
+    private void vencer(long instante) {
+        while (!vencimientos.isEmpty() && vencimientos.peek().instante() <= instante) {
+            Ticket ticket = vencimientos.poll().ticket();
+            long idPedido = ticket.idPedido();
+            if (tickets.get(idPedido) == ticket && vencidos.add(idPedido)) {
+                sumarTrabajo(posiciones.get(idPedido), ticket, -1);
+            }
+        }
+    }
+
+    private int nuevaPosicion() {
+        if (siguiente > abiertos.capacidad()) {
+            // Las posiciones de los pedidos cerrados no se reutilizan: se compacta, o se duplica si la cola está llena
+            int capacidad = abiertos.capacidad();
+            reordenar(tickets.size() * 2 < capacidad ? capacidad : capacidad * 2);
+        }
+        return siguiente++;
+    }
+
+    /** Vuelve a numerar las posiciones por orden de llegada y reconstruye los árboles. */
+    private void reordenar(int capacidad) {
+        List<Ticket> ordenados = new ArrayList<>(tickets.values());
+        ordenados.sort(Comparator.comparing(Ticket::llegada, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparingLong(Ticket::idPedido));
+        abiertos = new Fenwick(capacidad);
+        trabajo = new Fenwick(capacidad);
+        enPreparacion = new Fenwick(capacidad);
+        inicios = new Fenwick(capacidad);
+        posiciones.clear();
+        vencimientos.clear();
+        vencidos.clear();
+        siguiente = 1;
+        for (Ticket ticket : ordenados) {
+            posiciones.put(ticket.idPedido(), siguiente);
+            sumar(siguiente++, ticket);
+            programarVencimiento(ticket);
+        }
+    }
+
+    private void sumar(int posicion, Ticket ticket) {
+        actualizar(posicion, ticket, 1);
+    }
+
+    private void restar(int posicion, Ticket ticket) {
+        actualizar(posicion, ticket, -1);
+    }
+
+    private void actualizar(int posicion, Ticket ticket, int signo) {
+        abiertos.sumar(posicion, signo);
+        if (!vencidos.contains(ticket.idPedido())) {
+            sumarTrabajo(posicion, ticket, signo);
+        }
+    }
+
+    private void sumarTrabajo(int posicion, Ticket ticket, int signo) {
+        trabajo.sumar(posicion, signo * ticket.trabajo());
+        if (ticket.inicio() != null) {
+            enPreparacion.sumar(posicion, signo);
+            inicios.sumar(posicion, signo * segundos(ticket.inicio()));
+        }
+    }
+
+    private static long segundos(LocalDateTime instante) {
+        return instante.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int capacidadPara(int tamano) {
+        return Integer.highestOneBit(Math.max(1, tamano)) * 2;
+    }
+
+    /** Sumas por prefijo de posiciones 1..n con actualización puntual, ambas en O(log n). */
+    private static final class Fenwick {
+        private final long[] arbol;
+
+        Fenwick(int capacidad) {
+            arbol = new long[capacidad + 1];
+        }
+
+        int capacidad() {
+            return arbol.length - 1;
+        }
+
+        void sumar(int posicion, long delta) {
+            for (int i = posicion; i < arbol.length; i += i & -i) {
+                arbol[i] += delta;
+            }
+        }
+
+        long prefijo(int posicion) {
+            long suma = 0;
+            for (int i = posicion; i > 0; i -= i & -i) {
+                suma += arbol[i];
+            }
+            return suma;
+        }
+    }
+}
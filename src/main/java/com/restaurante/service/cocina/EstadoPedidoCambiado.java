@@ -0,0 +1,11 @@
+package com.restaurante.service.cocina;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de estado de un pedido hecho en este nodo, publicado en el bus de
+ * eventos de la aplicación para aplicarlo a la cola de cocina tras el commit.
+ * El evento del outbox solo llega al nodo que lo publica, que puede ser otro.
+ */
+public record EstadoPedidoCambiado(Long idPedido, String estado, LocalDateTime fecha) {
+}
@@ -0,0 +1,63 @@
+package com.restaurante.service.comun;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Cambios aplicados a una estructura en memoria desde su última carga desde
+ * la base de datos, para que la carga siguiente no los pierda. Lo comparten
+ * PedidosDelDia, ColaCocina, RankingProductos y VentasDelDia.
+ *
+ * Cada cambio recibe un número de secuencia. Antes de consultar se toma la
+ * marca (el último número dado); al aplicar lo leído se reaplican encima los
+ * cambios posteriores a esa marca, que la consulta pudo no ver. Una carga con
+ * una marca anterior a la de la última aplicada se descarta: sus datos son
+ * más viejos.
+ *
+ * Que un cambio sea posterior a la marca no quiere decir que la carga no lo
+ * incluya: pudo confirmarse antes de la consulta y anotarse después. Por eso
+ * reaplicar tiene que sustituir el valor de la clave, no acumular sobre él;
+ * de cada clave solo se guarda el último cambio. Una estructura que suma (las
+ * ventas) debe saber qué claves trae ya la carga y saltarlas.
+ *
+ * No es thread-safe: se usa bajo el lock de la estructura que lo contiene.
+ */
+public class CambiosDesdeCarga<K, V> {
+
+    // Valor nulo: la clave se quitó
+    private final Map<K, Cambio<V>> cambios = new HashMap<>();
+    private long secuencia;
+    private long marcaCargada = -1;
+
+    private record Cambio<V>(long secuencia, V valor) {
+    }
+
+    public long marca() {
+        return secuencia;
+    }
+
+    /** Anota el último cambio de la clave; valor nulo indica baja. */
+    public void anotar(K clave, V valor) {
+        cambios.put(clave, new Cambio<>(++secuencia, valor));
+    }
+
+    /** Indica si una carga con esa marca es más vieja que la última aplicada. */
+    public boolean obsoleta(long marca) {
+        return marca < marcaCargada;
+    }
+
+    /**
+     * Pasa a aplicar cada cambio posterior a la marca, olvida todos los
+     * anotados y deja la marca como la de la última carga aplicada.
+     */
+    public void reaplicar(long marca, BiConsumer<K, V> aplicar) {
+        cambios.forEach((clave, cambio) -> {
+            if (cambio.secuencia() > marca) {
+                aplicar.accept(clave, cambio.valor());
+            }
+        });
+        cambios.clear();
+        marcaCargada = marca;
+    }
+}
@@ -0,0 +1,28 @@
+package com.restaurante.service.comun;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ejecuta una acción cuando la transacción en curso se confirma, o en el
+ * momento si no hay ninguna. Los servicios lo usan para tocar estructuras en
+ * memoria, cachés e índices solo con cambios que ya no pueden deshacerse.
+ */
+public final class DespuesDelCommit {
+
+    private DespuesDelCommit() {
+    }
+
+    public static void ejecutar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
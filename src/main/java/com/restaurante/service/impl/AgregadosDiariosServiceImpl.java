@@ -0,0 +1,156 @@
+package com.restaurante.service.impl;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.restaurante.dto.AgregadoDiarioDTO;
+import com.restaurante.dto.FilaVentasDTO;
+import com.restaurante.model.AgregadoDiario;
+import com.restaurante.repository.AgregadoDiarioRepository;
+import com.restaurante.service.IAgregadosDiariosService;
+
+/**
+ * Agregados por día (agregado_diario y agregado_diario_producto) para los
+ * cuadros de mando, que leen una fila por día o por producto y día en lugar
+ * de recorrer las líneas de pedido.
+ *
+ * Una pasada recalcula entera cada día cambiado desde la marca anterior, cada
+ * uno en su transacción, y solo al final avanza la marca. Si se interrumpe, la
+ * siguiente vuelve a recalcular esos días con el mismo resultado.
+ */
+@Service
+public class AgregadosDiariosServiceImpl implements IAgregadosDiariosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgregadosDiariosServiceImpl.class);
+
+    @Autowired
+    private AgregadoDiarioRepository agregadoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.agregados.margenMinutos:10}")
+    private int margenMinutos;
+
+    @Value("${app.agregados.turnoMinutos:60}")
+    private int turnoMinutos;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AgregadoDiarioDTO> obtenerDias(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return agregadoRepository.findByDiaBetweenOrderByDia(desde, hasta).stream()
+                .map(this::convertToDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FilaVentasDTO> obtenerProductos(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return agregadoRepository.ventasPorProducto(desde, hasta).stream()
+                .map(fila -> {
+                    long pedidos = fila.getPedidos() == null ? 0 : fila.getPedidos();
+                    double ingresos = fila.getIngresos() == null ? 0.0 : fila.getIngresos();
+                    return FilaVentasDTO.builder()
+                            .clave(String.valueOf(fila.getClave()))
+                            .unidades(fila.getUnidades() == null ? 0 : fila.getUnidades())
+                            .ingresos(redondear(ingresos))
+                            .pedidos(pedidos)
+                            .ticketMedio(pedidos == 0 ? 0.0 : redondear(ingresos / pedidos))
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Pasada nocturna. Solo la ejecuta el nodo que toma el turno; el turno se
+     * renueva con cada día y caduca a los app.agregados.turnoMinutos si el
+     * nodo cae. Devuelve los días recalculados (0 si otro nodo tiene el turno).
+     */
+    @Override
+    @Scheduled(cron = "${app.agregados.cron:0 30 3 * * *}")
+    public int procesarPendientes() {
+        Integer tomado = transactionTemplate.execute(estado -> agregadoRepository.tomarTurno(turnoMinutos));
+        if (tomado == null || tomado == 0) {
+            logger.info("Agregados diarios: otro nodo está ejecutando la pasada");
+            return 0;
+        }
+        try {
+            List<LocalDate> dias = transactionTemplate.execute(estado -> agregadoRepository.diasCambiados(margenMinutos))
+                    .stream()
+                    .map(Date::toLocalDate)
+                    .toList();
+            for (LocalDate dia : dias) {
+                transactionTemplate.executeWithoutResult(estado -> recalcularDia(dia));
+            }
+            transactionTemplate.executeWithoutResult(estado -> agregadoRepository.avanzarMarca());
+            logger.info("Agregados diarios: {} días recalculados", dias.size());
+            return dias.size();
+        } catch (RuntimeException e) {
+            // La marca no avanza: la próxima pasada repite los días de esta
+            transactionTemplate.executeWithoutResult(estado -> agregadoRepository.liberarTurno());
+            throw e;
+        }
+    }
+
+    /** Anota los días del rango como pendientes y lanza una pasada, por ejemplo tras corregir datos a mano. */
+    @Override
+    public int recalcular(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        transactionTemplate.executeWithoutResult(estado -> agregadoRepository.marcarDiasPendientes(desde, hasta));
+        return procesarPendientes();
+    }
+
+    private void recalcularDia(LocalDate dia) {
+        agregadoRepository.renovarTurno(turnoMinutos);
+        agregadoRepository.borrarProductosDelDia(dia);
+        agregadoRepository.insertarProductosDelDia(dia);
+        agregadoRepository.borrarDia(dia);
+        agregadoRepository.insertarDia(dia);
+        agregadoRepository.quitarPendiente(dia, margenMinutos);
+    }
+
+    private static void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new RuntimeException("El rango de fechas no es válido");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= ReporteVentasServiceImpl.MAXIMO_DIAS) {
+            throw new RuntimeException("El rango no puede superar " + ReporteVentasServiceImpl.MAXIMO_DIAS + " días");
+        }
+    }
+
+    private static double redondear(double importe) {
+        return Math.round(importe * 100) / 100.0;
+    }
+
+    private AgregadoDiarioDTO convertToDTO(AgregadoDiario agregado) {
+        return AgregadoDiarioDTO.builder()
+                .dia(agregado.getDia())
+                .pedidos(agregado.getPedidos())
+                .pedidosPendiente(agregado.getPedidosPendiente())
+                .pedidosEnPreparacion(agregado.getPedidosEnPreparacion())
+                .pedidosListo(agregado.getPedidosListo())
+                .pedidosEnCamino(agregado.getPedidosEnCamino())
+                .pedidosEntregado(agregado.getPedidosEntregado())
+                .unidades(agregado.getUnidades())
+                .ingresos(redondear(agregado.getIngresos()))
+                .ticketMedio(agregado.getPedidos() == 0 ? 0.0 : redondear(agregado.getIngresos() / agregado.getPedidos()))
+                .entregas(agregado.getEntregas())
+                .minutosEntregaMedio(agregado.getEntregas() == 0 ? 0.0
+                        : Math.round(agregado.getSegundosEntrega() / (double) agregado.getEntregas() / 6.0) / 10.0)
+                .fechaCalculo(agregado.getFechaCalculo())
+                .build();
+    }
+}
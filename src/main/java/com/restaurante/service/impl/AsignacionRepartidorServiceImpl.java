@@ -3,15 +3,25 @@ package com.restaurante.service.impl;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
 import com.restaurante.dto.AsignacionRepartidorDTO;
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.PedidoEventoDTO;
 import com.restaurante.model.AsignacionRepartidor;
 import com.restaurante.repository.AsignacionRepartidorRepository;
+import com.restaurante.repository.PedidoRepository;
 import com.restaurante.service.IAsignacionRepartidorService;
+import com.restaurante.service.IOutboxService;
 
 import jakarta.transaction.Transactional;
 
@@ -21,6 +31,12 @@ public class AsignacionRepartidorServiceImpl implements IAsignacionRepartidorSer
     @Autowired
     private AsignacionRepartidorRepository asignacionRepository;
 
+    @Autowired
+    private IOutboxService outboxService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
     @Override
     public List<AsignacionRepartidorDTO> obtenerTodas() {
         return asignacionRepository.findAll().stream()
@@ -28,6 +44,22 @@ public class AsignacionRepartidorServiceImpl implements IAsignacionRepartidorSer
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PaginaDTO<AsignacionRepartidorDTO> obtenerPagina(Long cursor, int limite) {
+        int tamano = PaginaDTO.normalizarLimite(limite);
+        List<AsignacionRepartidorDTO> filas = asignacionRepository.findPaginaDesde(
+                PaginaDTO.normalizarCursor(cursor), PageRequest.ofSize(tamano + 1));
+        return PaginaDTO.de(filas, tamano, AsignacionRepartidorDTO::getPid);
+    }
+
+    @Override
+    @Transactional
+    public void recorrerTodas(Consumer<AsignacionRepartidorDTO> consumidor) {
+        try (Stream<AsignacionRepartidorDTO> filas = asignacionRepository.streamTodos()) {
+            filas.forEach(consumidor);
+        }
+    }
+
     @Override
     public AsignacionRepartidorDTO obtenerPorId(Long id) {
         AsignacionRepartidor asignacion = asignacionRepository.findById(id)
@@ -64,9 +96,15 @@ public class AsignacionRepartidorServiceImpl implements IAsignacionRepartidorSer
     }
 
     @Override
+    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     public AsignacionRepartidorDTO actualizar(Long id, AsignacionRepartidorDTO asignacionDTO) {
         AsignacionRepartidor existente = asignacionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Asignación no encontrada"));
+        if (existente.getIdPedido() != null && !existente.getIdPedido().equals(asignacionDTO.getIdPedido())) {
+            // La entrega deja de contar en el día del pedido anterior
+            pedidoRepository.marcarModificado(existente.getIdPedido());
+        }
         
         existente.setIdPedido(asignacionDTO.getIdPedido());
         existente.setIdRepartidor(asignacionDTO.getIdRepartidor());
@@ -77,22 +115,37 @@ public class AsignacionRepartidorServiceImpl implements IAsignacionRepartidorSer
     }
 
     @Override
+    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     public AsignacionRepartidorDTO registrarEntrega(Long idAsignacion) {
         AsignacionRepartidor asignacion = asignacionRepository.findById(idAsignacion)
                 .orElseThrow(() -> new RuntimeException("Asignación no encontrada"));
         
         asignacion.setFechaEntrega(LocalDateTime.now());
-        return convertToDTO(asignacionRepository.save(asignacion));
+        AsignacionRepartidor guardada = asignacionRepository.save(asignacion);
+        outboxService.registrar(PedidoEventoDTO.builder()
+                .tipo(PedidoEventoDTO.PEDIDO_ENTREGADO)
+                .idPedido(guardada.getIdPedido())
+                .estado("ENTREGADO")
+                .fecha(guardada.getFechaEntrega())
+                .build());
+        return convertToDTO(guardada);
     }
 
     @Override
+    @Transactional
     public void eliminar(Long id) {
-        asignacionRepository.deleteById(id);
+        asignacionRepository.findById(id).ifPresent(asignacion -> {
+            if (asignacion.getIdPedido() != null) {
+                pedidoRepository.marcarModificado(asignacion.getIdPedido());
+            }
+            asignacionRepository.delete(asignacion);
+        });
     }
 
     @Transactional
     public AsignacionRepartidor obtenerPorIdConBloqueo(Long id) {
-        AsignacionRepartidor est = asignacionRepository.findById(id)
+        AsignacionRepartidor est = asignacionRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Asignacion no encontrado"));
         try { Thread.sleep(15000); } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
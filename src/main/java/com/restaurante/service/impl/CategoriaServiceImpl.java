@@ -1,20 +1,35 @@
 package com.restaurante.service.impl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.restaurante.config.cache.CambiosRemotos;
+import com.restaurante.config.cache.DosNivelesCacheManager;
 import com.restaurante.dto.CategoriaDTO;
 import com.restaurante.model.Categoria;
 import com.restaurante.repository.CategoriaRepository;
 import com.restaurante.repository.ProductoRepository;
 import com.restaurante.service.ICategoriaService;
+import com.restaurante.service.busqueda.IndiceInvertido;
+import com.restaurante.service.busqueda.IndiceInvertido.Campo;
+import com.restaurante.service.comun.DespuesDelCommit;
+import com.restaurante.service.menu.MenuModificadoEvento;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class CategoriaServiceImpl implements ICategoriaService {
@@ -25,6 +40,66 @@ public class CategoriaServiceImpl implements ICategoriaService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int LIMITE_BUSQUEDA = 50;
+
+    private final IndiceInvertido<CategoriaDTO> indiceBusqueda = new IndiceInvertido<>(CategoriaDTO::getId,
+            categoria -> List.of(new Campo(categoria.getNombre(), 3), new Campo(categoria.getDescripcion(), 1)));
+
+    private final CambiosRemotos cambiosRemotos = new CambiosRemotos();
+
+    // Toda escritura invalida "categoria" con su id, así que cada cambio en otro nodo llega con esa invalidación;
+    // aquí solo se anota y lo aplica aplicarCambiosRemotos
+    @PostConstruct
+    void escucharOtrosNodos() {
+        if (cacheManager instanceof DosNivelesCacheManager dosNiveles) {
+            dosNiveles.alRecibir(invalidacion -> {
+                if ("categoria".equals(invalidacion.cache())) {
+                    cambiosRemotos.anotar(invalidacion.clave());
+                }
+            });
+        }
+    }
+
+    // Son pocas filas: se recarga completo al arrancar y periódicamente, sin perder los cambios hechos durante la lectura
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${app.busqueda.reconstruccionMs:600000}")
+    public void reconstruirIndiceBusqueda() {
+        long marca = indiceBusqueda.marca();
+        indiceBusqueda.reconstruir(categoriaRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()), marca);
+    }
+
+    // Las categorías cambiadas en otros nodos, todas con una consulta; el planificador la llama a través del proxy
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${app.busqueda.cambiosRemotosMs:500}")
+    public void aplicarCambiosRemotos() {
+        if (cambiosRemotos.recargarTodo()) {
+            reconstruirIndiceBusqueda();
+            return;
+        }
+        List<Long> ids = cambiosRemotos.tomarIds();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, CategoriaDTO> actuales = categoriaRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Categoria::getId, this::convertToDTO));
+        ids.forEach(id -> {
+            CategoriaDTO categoria = actuales.get(id);
+            if (categoria != null) {
+                indiceBusqueda.indexar(categoria);
+            } else {
+                indiceBusqueda.eliminar(id);
+            }
+        });
+    }
+
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "categorias")
@@ -44,7 +119,7 @@ public class CategoriaServiceImpl implements ICategoriaService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     @Cacheable(value = "categoria", key = "#id")
     public CategoriaDTO obtenerPorId(Long id) {
         Categoria categoria = categoriaRepository.findById(id)
@@ -58,19 +133,23 @@ public class CategoriaServiceImpl implements ICategoriaService {
         evict = {
             @CacheEvict(value = "categorias", allEntries = true),
             @CacheEvict(value = "categorias_activas", allEntries = true),
-           
+            // No hay nada en caché con ese id, pero así el alta llega a los índices de los otros nodos
+            @CacheEvict(value = "categoria", key = "#result.id")
         }
     )
     public CategoriaDTO crear(CategoriaDTO categoriaDTO) {
         Categoria categoria = convertToEntity(categoriaDTO);
         categoria.setEstado("activo");
         Categoria categoriaGuardada = categoriaRepository.save(categoria);
-        return convertToDTO(categoriaGuardada);
+        CategoriaDTO creada = convertToDTO(categoriaGuardada);
+        despuesDelCommit(() -> indiceBusqueda.indexar(creada));
+        return creada;
     }
 
     @Override
     //@Transactional(readOnly = false) // Asegúrate de que no sea de solo lectura
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     @Caching(
         evict = {
             @CacheEvict(value = "categorias", allEntries = true),
@@ -87,11 +166,14 @@ public class CategoriaServiceImpl implements ICategoriaService {
         categoriaExistente.setImagenUrl(categoriaDTO.getImagenUrl());
         
         Categoria categoriaActualizada = categoriaRepository.save(categoriaExistente);
-        return convertToDTO(categoriaActualizada);
+        CategoriaDTO actualizada = convertToDTO(categoriaActualizada);
+        despuesDelCommit(() -> indiceBusqueda.indexar(actualizada));
+        return actualizada;
     }
 
     @Override
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     @Caching(
         evict = {
             @CacheEvict(value = "categorias", allEntries = true),
@@ -104,12 +186,17 @@ public class CategoriaServiceImpl implements ICategoriaService {
                 .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
         categoria.setEstado("inactivo");
         Categoria categoriaDesactivada = categoriaRepository.save(categoria);
-        return convertToDTO(categoriaDesactivada);
+        CategoriaDTO desactivada = convertToDTO(categoriaDesactivada);
+        despuesDelCommit(() -> indiceBusqueda.indexar(desactivada));
+        return desactivada;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CategoriaDTO> buscarPorNombre(String nombre) {
+        if (indiceBusqueda.estaConstruido()) {
+            return indiceBusqueda.buscar(nombre, LIMITE_BUSQUEDA);
+        }
         return categoriaRepository.findByNombreContainingIgnoreCase(nombre).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -118,7 +205,7 @@ public class CategoriaServiceImpl implements ICategoriaService {
     @Override
     @Transactional
     public Categoria obtenerPorIdConBloqueo(Long id) {
-        Categoria est = categoriaRepository.findById(id)
+        Categoria est = categoriaRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
         try { Thread.sleep(15000); } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -141,6 +228,15 @@ public class CategoriaServiceImpl implements ICategoriaService {
             throw new RuntimeException("No se puede eliminar la categoría porque tiene productos asociados");
         }
         categoriaRepository.deleteById(id);
+        despuesDelCommit(() -> indiceBusqueda.eliminar(id));
+    }
+
+    // Actualiza el índice de búsqueda y avisa del cambio de menú una vez confirmada la transacción
+    private void despuesDelCommit(Runnable cambioIndice) {
+        DespuesDelCommit.ejecutar(() -> {
+            cambioIndice.run();
+            eventPublisher.publishEvent(new MenuModificadoEvento("categoria"));
+        });
     }
 
     private CategoriaDTO convertToDTO(Categoria categoria) {
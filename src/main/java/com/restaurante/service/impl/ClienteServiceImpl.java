@@ -6,6 +6,9 @@ import java.util.stream.Collectors;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +37,7 @@ public class ClienteServiceImpl implements IClienteService {
 
     @Override
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     @Caching(evict = {
         @CacheEvict(value = "clientes", allEntries = true),
         @CacheEvict(value = "cliente", key = "#id")
@@ -60,7 +64,7 @@ public class ClienteServiceImpl implements IClienteService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     @Cacheable(value = "cliente", key = "#id")
     public ClienteDTO obtenerClientePorId(Long id) {
         return clienteRepository.findById(id)
@@ -81,7 +85,7 @@ public class ClienteServiceImpl implements IClienteService {
     @Override
     @Transactional
     public Cliente obtenerClientePorIdConBloqueo(Long id) {
-        Cliente cliente = clienteRepository.findById(id)
+        Cliente cliente = clienteRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
         try { 
             Thread.sleep(15000); 
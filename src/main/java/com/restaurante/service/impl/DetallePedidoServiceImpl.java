@@ -1,17 +1,25 @@
 package com.restaurante.service.impl;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
 import com.restaurante.dto.DetallePedidoDTO;
+import com.restaurante.dto.PaginaDTO;
 import com.restaurante.model.DetallePedido;
 import com.restaurante.model.Pedido;
 import com.restaurante.repository.DetallePedidoRepository;
 import com.restaurante.repository.PedidoRepository;
 import com.restaurante.service.IDetallePedidoService;
+import com.restaurante.service.IValoracionService;
 
 import jakarta.transaction.Transactional;
 
@@ -24,11 +32,29 @@ public class DetallePedidoServiceImpl implements IDetallePedidoService {
     @Autowired
     private PedidoRepository pedidoRepository;
 
+    // Los resúmenes de valoración por producto cuentan los productos de cada pedido
+    @Autowired
+    private IValoracionService valoracionService;
+
     @Override
     public List<DetallePedidoDTO> obtenerTodos() {
-        return detalleRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return detalleRepository.listarTodos();
+    }
+
+    @Override
+    public PaginaDTO<DetallePedidoDTO> obtenerPagina(Long cursor, int limite) {
+        int tamano = PaginaDTO.normalizarLimite(limite);
+        List<DetallePedidoDTO> filas = detalleRepository.findPaginaDesde(
+                PaginaDTO.normalizarCursor(cursor), PageRequest.ofSize(tamano + 1));
+        return PaginaDTO.de(filas, tamano, DetallePedidoDTO::getId);
+    }
+
+    @Override
+    @Transactional
+    public void recorrerTodos(Consumer<DetallePedidoDTO> consumidor) {
+        try (Stream<DetallePedidoDTO> filas = detalleRepository.streamTodos()) {
+            filas.forEach(consumidor);
+        }
     }
 
     @Override
@@ -40,23 +66,17 @@ public class DetallePedidoServiceImpl implements IDetallePedidoService {
 
     @Override
     public List<DetallePedidoDTO> obtenerPorPedido(Long idPedido) {
-        return detalleRepository.findByPedidoPid(idPedido).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return detalleRepository.listarPorPedido(idPedido);
     }
 
     @Override
     public List<DetallePedidoDTO> obtenerPorProducto(Long idProducto) {
-        return detalleRepository.findByIdProducto(idProducto).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return detalleRepository.listarPorProducto(idProducto);
     }
 
     @Override
     public List<DetallePedidoDTO> obtenerConInstruccionesEspeciales() {
-        return detalleRepository.findByInstruccionesEspecialIsNotNull().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return detalleRepository.listarConInstruccionesEspeciales();
     }
 
     @Override
@@ -67,33 +87,65 @@ public class DetallePedidoServiceImpl implements IDetallePedidoService {
         
         DetallePedido detalle = convertToEntity(detalleDTO);
         detalle.setPedido(pedido);
+        pedidoRepository.marcarModificado(pedido.getPid());
+        boolean productoNuevo = !detalleRepository.existsByPedidoPidAndIdProducto(pedido.getPid(), detalle.getIdProducto());
         
-        return convertToDTO(detalleRepository.save(detalle));
+        DetallePedido guardado = detalleRepository.save(detalle);
+        if (productoNuevo) {
+            valoracionService.sumarProductoDePedido(pedido.getPid(), detalle.getIdProducto(), 1);
+        }
+        return convertToDTO(guardado);
     }
 
     @Override
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     public DetallePedidoDTO actualizar(Long id, DetallePedidoDTO detalleDTO) {
         DetallePedido existente = detalleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Detalle de pedido no encontrado"));
+        Long idPedido = existente.getPedido().getPid();
+        Long productoAnterior = existente.getIdProducto();
+        boolean cambiaProducto = !Objects.equals(productoAnterior, detalleDTO.getIdProducto());
+        boolean productoNuevo = cambiaProducto
+                && !detalleRepository.existsByPedidoPidAndIdProducto(idPedido, detalleDTO.getIdProducto());
         
         existente.setIdProducto(detalleDTO.getIdProducto());
         existente.setCantidad(detalleDTO.getCantidad());
         existente.setPrecioUnitario(detalleDTO.getPrecioUnitario());
         existente.setInstruccionesEspecial(detalleDTO.getInstruccionesEspecial());
+        pedidoRepository.marcarModificado(idPedido);
         
-        return convertToDTO(detalleRepository.save(existente));
+        DetallePedido guardado = detalleRepository.save(existente);
+        if (cambiaProducto) {
+            if (productoNuevo) {
+                valoracionService.sumarProductoDePedido(idPedido, guardado.getIdProducto(), 1);
+            }
+            // La consulta vuelca antes el cambio de producto de esta línea
+            if (!detalleRepository.existsByPedidoPidAndIdProducto(idPedido, productoAnterior)) {
+                valoracionService.sumarProductoDePedido(idPedido, productoAnterior, -1);
+            }
+        }
+        return convertToDTO(guardado);
     }
 
     @Override
     @Transactional
     public void eliminar(Long id) {
-        detalleRepository.deleteById(id);
+        detalleRepository.findById(id).ifPresent(detalle -> {
+            Long idPedido = detalle.getPedido().getPid();
+            pedidoRepository.marcarModificado(idPedido);
+            detalleRepository.delete(detalle);
+            if (!detalleRepository.existsByPedidoPidAndIdProducto(idPedido, detalle.getIdProducto())) {
+                valoracionService.sumarProductoDePedido(idPedido, detalle.getIdProducto(), -1);
+            }
+        });
     }
 
     @Override
     @Transactional
     public void eliminarTodosDePedido(Long idPedido) {
+        pedidoRepository.marcarModificado(idPedido);
+        valoracionService.quitarProductosDePedido(idPedido);
         detalleRepository.deleteByPedidoPid(idPedido);
     }
 
@@ -0,0 +1,297 @@
+package com.restaurante.service.impl;
+
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.restaurante.config.cache.CambiosRemotos;
+import com.restaurante.config.cache.DosNivelesCacheManager;
+import com.restaurante.dto.EtaPedidoDTO;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.model.EstadoPedido;
+import com.restaurante.repository.DetallePedidoRepository;
+import com.restaurante.repository.DetallePedidoRepository.LineaCocina;
+import com.restaurante.repository.HistorialEstadosRepository;
+import com.restaurante.repository.HistorialEstadosRepository.CalibracionCocina;
+import com.restaurante.repository.PedidoRepository;
+import com.restaurante.repository.PedidoRepository.PedidoAbierto;
+import com.restaurante.repository.PersonalCocinaRepository;
+import com.restaurante.repository.PersonalCocinaRepository.PlantillaCocina;
+import com.restaurante.service.IEtaCocinaService;
+import com.restaurante.service.IPedidoService;
+import com.restaurante.service.cocina.ColaCocina;
+import com.restaurante.service.cocina.EstadoPedidoCambiado;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Hora estimada de salida de cocina de cada pedido abierto (ColaCocina). La
+ * cola se mantiene con los eventos de los pedidos de este nodo y con las
+ * invalidaciones de "pedido" que llegan de los demás (aplicadas en lote cada
+ * app.eta.cambiosRemotosMs), y se recarga desde la base de datos cada
+ * app.eta.reconciliacionMs junto con el personal por turno.
+ */
+@Service
+public class EtaCocinaServiceImpl implements IEtaCocinaService {
+
+    // Los pedidos que siguen abiertos de días anteriores a ayer se consideran abandonados
+    private static final int DIAS_ABIERTOS = 1;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private DetallePedidoRepository detalleRepository;
+
+    @Autowired
+    private PersonalCocinaRepository personalRepository;
+
+    @Autowired
+    private HistorialEstadosRepository historialRepository;
+
+    @Autowired
+    private IPedidoService pedidoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${app.eta.tiempoPorDefectoSegundos:600}")
+    private long tiempoPorDefecto;
+
+    @Value("${app.eta.diasCalibracion:7}")
+    private int diasCalibracion;
+
+    // Áreas de personal que preparan platos; vacío cuenta todas
+    @Value("${app.eta.areas:}")
+    private Set<String> areas;
+
+    private final ColaCocina cola = new ColaCocina();
+    private volatile Map<String, Integer> cocinerosPorTurno = Map.of();
+    private final CambiosRemotos cambiosRemotos = new CambiosRemotos();
+
+    // Los cambios hechos en otros nodos llegan como invalidaciones de la región "pedido";
+    // aquí solo se anotan y los aplica aplicarCambiosRemotos
+    @PostConstruct
+    void escucharOtrosNodos() {
+        if (cacheManager instanceof DosNivelesCacheManager dosNiveles) {
+            dosNiveles.alRecibir(invalidacion -> {
+                if ("pedido".equals(invalidacion.cache())) {
+                    cambiosRemotos.anotar(invalidacion.clave());
+                }
+            });
+        }
+    }
+
+    /**
+     * Se sirve desde memoria. Un pedido que no está en la cola (ya cerrado, o de
+     * otro nodo y aún sin reconciliar) se mira en la caché de "pedido" y solo si
+     * sigue abierto se cargan sus líneas de la base de datos.
+     */
+    @Override
+    public EtaPedidoDTO obtenerEta(Long idPedido) {
+        if (!cola.contiene(idPedido)) {
+            PedidoDTO pedido = pedidoService.obtenerPorId(idPedido);
+            if (!abierto(pedido.getEstado())) {
+                return fueraDeCocina(pedido);
+            }
+            abrirDesdeBaseDeDatos(idPedido);
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        return cola.estimar(idPedido, ahora, cocineros(ahora.toLocalTime()))
+                .map(estimacion -> EtaPedidoDTO.builder()
+                        .idPedido(idPedido)
+                        .estado((estimacion.enPreparacion() ? EstadoPedido.EN_PREPARACION : EstadoPedido.PENDIENTE).name())
+                        .pedidosDelante(estimacion.pedidosDelante())
+                        .segundosRestantes(estimacion.segundosRestantes())
+                        .listoEstimado(ahora.plusSeconds(estimacion.segundosRestantes()).withNano(0))
+                        .cocineros(estimacion.cocineros())
+                        .factorCalibracion(Math.round(estimacion.factor() * 100) / 100.0)
+                        .build())
+                .orElseGet(() -> fueraDeCocina(pedidoService.obtenerPorId(idPedido)));
+    }
+
+    // Tras el commit. Los cambios de estado de este nodo entran por alCambiarEstado; si el outbox los publica
+    // aquí también, volver a aplicarlos no cambia la cola
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarPedido(PedidoEventoDTO evento) {
+        if (evento.getIdPedido() == null || evento.getTipo() == null) {
+            return;
+        }
+        switch (evento.getTipo()) {
+            case PedidoEventoDTO.PEDIDO_CREADO -> abrirDesdeBaseDeDatos(evento.getIdPedido());
+            case PedidoEventoDTO.ESTADO_ACTUALIZADO, PedidoEventoDTO.PEDIDO_ENTREGADO ->
+                    aplicarEstado(evento.getIdPedido(), evento.getEstado(), evento.getFecha());
+            default -> {
+                // HISTORIAL_REGISTRADO no cambia el estado del pedido
+            }
+        }
+    }
+
+    // Tras el commit del cambio de estado hecho en este nodo
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarEstado(EstadoPedidoCambiado cambio) {
+        if (cambio.idPedido() != null) {
+            aplicarEstado(cambio.idPedido(), cambio.estado(), cambio.fecha());
+        }
+    }
+
+    /** Recarga la cola (dos consultas: pedidos abiertos y sus líneas) y el personal de cocina por turno. */
+    @Scheduled(fixedDelayString = "${app.eta.reconciliacionMs:60000}")
+    @Transactional(readOnly = true)
+    public void reconciliarCola() {
+        long marca = cola.marca();
+        LocalDate desde = LocalDate.now().minusDays(DIAS_ABIERTOS);
+        Map<Long, List<LineaCocina>> lineas = detalleRepository.listarLineasCocinaAbiertas(desde).stream()
+                .collect(Collectors.groupingBy(LineaCocina::getIdPedido));
+        cola.reemplazar(pedidoRepository.listarAbiertosDesde(desde).stream()
+                .map(pedido -> ticket(pedido, lineas.getOrDefault(pedido.getPid(), List.of())))
+                .toList(), marca);
+        cocinerosPorTurno = plantilla(personalRepository.contarPorTurnoYArea());
+    }
+
+    /**
+     * Vuelve a leer los pedidos de la cola que han cambiado en otros nodos desde
+     * la última pasada, con dos consultas para todos (pedidos y líneas). Solo los
+     * que ya están en la cola; los nuevos de otros nodos entran al pedirlos o al
+     * reconciliar.
+     */
+    @Scheduled(fixedDelayString = "${app.eta.cambiosRemotosMs:500}")
+    @Transactional(readOnly = true)
+    public void aplicarCambiosRemotos() {
+        if (cambiosRemotos.recargarTodo()) {
+            reconciliarCola();
+            return;
+        }
+        List<Long> ids = cambiosRemotos.tomarIds().stream().filter(cola::contiene).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, List<LineaCocina>> lineas = detalleRepository.listarLineasCocinaDe(ids).stream()
+                .collect(Collectors.groupingBy(LineaCocina::getIdPedido));
+        Map<Long, PedidoAbierto> abiertos = pedidoRepository.listarAbiertos(ids).stream()
+                .collect(Collectors.toMap(PedidoAbierto::getPid, pedido -> pedido));
+        ids.forEach(id -> {
+            PedidoAbierto pedido = abiertos.get(id);
+            if (pedido != null) {
+                cola.abrir(ticket(pedido, lineas.getOrDefault(id, List.of())));
+            } else {
+                cola.cerrar(id, null);
+            }
+        });
+    }
+
+    /** Factor de corrección de los tiempos de preparación con los pedidos de los últimos app.eta.diasCalibracion. */
+    @Scheduled(fixedDelayString = "${app.eta.calibracionMs:600000}")
+    public void calibrar() {
+        CalibracionCocina calibracion = historialRepository.calcularCalibracion(
+                LocalDateTime.now().minusDays(diasCalibracion), tiempoPorDefecto);
+        if (calibracion != null && calibracion.getMuestras() != null) {
+            cola.calibrar(calibracion.getMuestras(), valor(calibracion.getObservados()), valor(calibracion.getEstimados()));
+        }
+    }
+
+    /** Turnos del personal de cocina: mañana de 6 a 14, tarde de 14 a 22 y noche el resto. */
+    static String turnoDe(LocalTime hora) {
+        int h = hora.getHour();
+        if (h >= 6 && h < 14) {
+            return "mañana";
+        }
+        return h >= 14 && h < 22 ? "tarde" : "noche";
+    }
+
+    private int cocineros(LocalTime hora) {
+        return Math.max(1, cocinerosPorTurno.getOrDefault(turnoDe(hora), 0));
+    }
+
+    private void aplicarEstado(Long idPedido, String estado, LocalDateTime fecha) {
+        LocalDateTime instante = fecha == null ? LocalDateTime.now() : fecha;
+        String normalizado = estado == null ? EstadoPedido.PENDIENTE.name() : estado.toUpperCase();
+        if (EstadoPedido.EN_PREPARACION.name().equals(normalizado)) {
+            if (!cola.iniciar(idPedido, instante)) {
+                abrirDesdeBaseDeDatos(idPedido);
+                // Si el pedido ya había cambiado otra vez, la consulta trae el inicio de su historial
+                cola.iniciar(idPedido, instante);
+            }
+        } else if (EstadoPedido.PENDIENTE.name().equals(normalizado)) {
+            if (!cola.contiene(idPedido)) {
+                abrirDesdeBaseDeDatos(idPedido);
+            }
+        } else {
+            cola.cerrar(idPedido, EstadoPedido.LISTO.name().equals(normalizado) ? instante : null);
+        }
+    }
+
+    private void abrirDesdeBaseDeDatos(Long idPedido) {
+        pedidoRepository.findAbierto(idPedido).ifPresentOrElse(
+                pedido -> cola.abrir(ticket(pedido, detalleRepository.listarLineasCocina(idPedido))),
+                () -> cola.cerrar(idPedido, null));
+    }
+
+    private static boolean abierto(String estado) {
+        return estado == null || EstadoPedido.PENDIENTE.name().equalsIgnoreCase(estado)
+                || EstadoPedido.EN_PREPARACION.name().equalsIgnoreCase(estado);
+    }
+
+    private EtaPedidoDTO fueraDeCocina(PedidoDTO pedido) {
+        return EtaPedidoDTO.builder()
+                .idPedido(pedido.getPid())
+                .estado(pedido.getEstado())
+                .listo(true)
+                .build();
+    }
+
+    private ColaCocina.Ticket ticket(PedidoAbierto pedido, List<LineaCocina> lineas) {
+        long trabajo = 0;
+        long duracion = 0;
+        for (LineaCocina linea : lineas) {
+            long segundos = segundosPreparacion(linea.getTiempoPreparacion());
+            trabajo += segundos * (linea.getCantidad() == null ? 1 : linea.getCantidad());
+            duracion = Math.max(duracion, segundos);
+        }
+        boolean enPreparacion = EstadoPedido.EN_PREPARACION.name().equalsIgnoreCase(pedido.getEstado());
+        return new ColaCocina.Ticket(pedido.getPid(), pedido.getFechaCreacion(), trabajo, duracion,
+                enPreparacion ? pedido.getInicio() : null);
+    }
+
+    // Un producto sin tiempo de preparación (o a cero) cuenta con app.eta.tiempoPorDefectoSegundos
+    private long segundosPreparacion(Time tiempo) {
+        int segundos = tiempo == null ? 0 : tiempo.toLocalTime().toSecondOfDay();
+        return segundos == 0 ? tiempoPorDefecto : segundos;
+    }
+
+    private Map<String, Integer> plantilla(List<PlantillaCocina> filas) {
+        Set<String> preparan = areas == null ? Set.of() : areas.stream()
+                .map(String::trim)
+                .filter(area -> !area.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        Map<String, Integer> porTurno = new HashMap<>();
+        for (PlantillaCocina fila : filas) {
+            if (fila.getTurno() == null || (!preparan.isEmpty()
+                    && (fila.getArea() == null || !preparan.contains(fila.getArea().trim().toLowerCase())))) {
+                continue;
+            }
+            porTurno.merge(fila.getTurno().trim().toLowerCase(), fila.getPersonas().intValue(), Integer::sum);
+        }
+        return Map.copyOf(porTurno);
+    }
+
+    private static double valor(Double valor) {
+        return valor == null ? 0.0 : valor;
+    }
+}
@@ -2,13 +2,19 @@ package com.restaurante.service.impl;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.restaurante.dto.HistorialEstadosDTO;
 //import com.restaurante.model.DetallePedido;
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.PedidoEventoDTO;
 import com.restaurante.model.HistorialEstados;
 import com.restaurante.repository.HistorialEstadosRepository;
 import com.restaurante.service.IHistorialEstadosService;
@@ -21,6 +27,9 @@ public class HistorialEstadosServiceImpl implements IHistorialEstadosService {
     @Autowired
     private HistorialEstadosRepository historialRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public List<HistorialEstadosDTO> obtenerTodos() {
         return historialRepository.findAll().stream()
@@ -28,6 +37,22 @@ public class HistorialEstadosServiceImpl implements IHistorialEstadosService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PaginaDTO<HistorialEstadosDTO> obtenerPagina(Long cursor, int limite) {
+        int tamano = PaginaDTO.normalizarLimite(limite);
+        List<HistorialEstadosDTO> filas = historialRepository.findPaginaDesde(
+                PaginaDTO.normalizarCursor(cursor), PageRequest.ofSize(tamano + 1));
+        return PaginaDTO.de(filas, tamano, HistorialEstadosDTO::getId);
+    }
+
+    @Override
+    @Transactional
+    public void recorrerTodos(Consumer<HistorialEstadosDTO> consumidor) {
+        try (Stream<HistorialEstadosDTO> filas = historialRepository.streamTodos()) {
+            filas.forEach(consumidor);
+        }
+    }
+
     @Override
     public HistorialEstadosDTO obtenerPorId(Long id) {
         HistorialEstados historial = historialRepository.findById(id)
@@ -60,7 +85,16 @@ public class HistorialEstadosServiceImpl implements IHistorialEstadosService {
     public HistorialEstadosDTO crear(HistorialEstadosDTO historialDTO) {
         HistorialEstados historial = convertToEntity(historialDTO);
         historial.setFechaCambio(LocalDateTime.now());
-        return convertToDTO(historialRepository.save(historial));
+        HistorialEstados guardado = historialRepository.save(historial);
+        eventPublisher.publishEvent(PedidoEventoDTO.builder()
+                .tipo(PedidoEventoDTO.HISTORIAL_REGISTRADO)
+                .idPedido(guardado.getIdPedido())
+                .idCliente(guardado.getIdCliente())
+                .estado(guardado.getEstado())
+                .idPersonaCocina(guardado.getIdPersonaCocina())
+                .fecha(guardado.getFechaCambio())
+                .build());
+        return convertToDTO(guardado);
     }
 
     @Override
@@ -79,7 +113,7 @@ public class HistorialEstadosServiceImpl implements IHistorialEstadosService {
 
     @Transactional
     public HistorialEstados obtenerPorIdConBloqueo(Long id) {
-        HistorialEstados est = historialRepository.findById(id)
+        HistorialEstados est = historialRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Historial de pedido no encontrado"));
         try { Thread.sleep(15000); } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
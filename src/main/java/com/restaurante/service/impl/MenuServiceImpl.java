@@ -0,0 +1,141 @@
+package com.restaurante.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.config.cache.DosNivelesCacheManager;
+import com.restaurante.dto.CategoriaDTO;
+import com.restaurante.dto.MenuDTO;
+import com.restaurante.dto.ProductoDTO;
+import com.restaurante.service.ICategoriaService;
+import com.restaurante.service.IMenuService;
+import com.restaurante.service.IProductoService;
+import com.restaurante.service.menu.InstantaneaMenu;
+import com.restaurante.service.menu.MenuModificadoEvento;
+import com.restaurante.service.menu.RecursoMenu;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Vistas públicas del menú preserializadas: en lugar de convertir las listas de
+ * DTO a JSON en cada petición, se guardan los bytes (y su versión gzip) con un
+ * ETag por contenido. Un cambio solo incrementa la generación; la instantánea
+ * se reconstruye una vez, en la primera lectura posterior, desde las regiones
+ * de caché de productos y categorías.
+ */
+@Service
+public class MenuServiceImpl implements IMenuService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuServiceImpl.class);
+
+    @Autowired
+    private IProductoService productoService;
+
+    @Autowired
+    private ICategoriaService categoriaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLong generacion = new AtomicLong();
+    private volatile InstantaneaMenu instantanea;
+    // ReentrantLock y no synchronized: la reconstrucción lee Redis y la base de datos, y un hilo
+    // virtual que espera o hace E/S dentro de un monitor bloquea su hilo portador (Java 21)
+    private final ReentrantLock reconstruccion = new ReentrantLock();
+
+    // Las escrituras de otros nodos llegan como invalidaciones de las regiones de productos y categorías
+    @PostConstruct
+    void escucharOtrosNodos() {
+        if (cacheManager instanceof DosNivelesCacheManager dosNiveles) {
+            dosNiveles.alRecibir(invalidacion -> {
+                if (invalidacion.cache().startsWith("producto") || invalidacion.cache().startsWith("categoria")) {
+                    invalidar();
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void alModificarMenu(MenuModificadoEvento evento) {
+        invalidar();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precalentar() {
+        try {
+            obtenerInstantanea();
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo construir la instantánea del menú al arrancar; se construirá en la primera petición", e);
+        }
+    }
+
+    @Override
+    public void invalidar() {
+        generacion.incrementAndGet();
+    }
+
+    @Override
+    public InstantaneaMenu obtenerInstantanea() {
+        InstantaneaMenu actual = instantanea;
+        if (actual != null && actual.generacion() == generacion.get()) {
+            return actual;
+        }
+        reconstruccion.lock();
+        try {
+            // La generación se lee antes que los datos: un cambio durante la construcción deja la instantánea vieja
+            long objetivo = generacion.get();
+            actual = instantanea;
+            if (actual == null || actual.generacion() != objetivo) {
+                actual = construir(objetivo);
+                instantanea = actual;
+            }
+            return actual;
+        } finally {
+            reconstruccion.unlock();
+        }
+    }
+
+    private InstantaneaMenu construir(long objetivo) {
+        List<CategoriaDTO> categorias = categoriaService.obtenerActivas();
+        List<ProductoDTO> activos = productoService.obtenerActivos();
+        List<ProductoDTO> destacados = productoService.obtenerDestacados();
+
+        Map<Long, RecursoMenu> porCategoria = new LinkedHashMap<>();
+        activos.stream()
+                .collect(Collectors.groupingBy(ProductoDTO::getIdCategoria, LinkedHashMap::new, Collectors.toList()))
+                .forEach((idCategoria, productos) -> porCategoria.put(idCategoria, serializar(productos)));
+
+        return new InstantaneaMenu(objetivo,
+                serializar(MenuDTO.builder().categorias(categorias).productos(activos).build()),
+                serializar(categorias),
+                serializar(activos),
+                serializar(destacados),
+                Map.copyOf(porCategoria),
+                serializar(List.of()));
+    }
+
+    private RecursoMenu serializar(Object valor) {
+        try {
+            return RecursoMenu.de(objectMapper.writeValueAsBytes(valor));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo serializar el menú", e);
+        }
+    }
+}
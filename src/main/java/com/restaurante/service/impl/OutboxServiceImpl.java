@@ -0,0 +1,209 @@
+package com.restaurante.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.model.EventoOutbox;
+import com.restaurante.repository.EventoOutboxRepository;
+import com.restaurante.service.IOutboxService;
+import com.restaurante.service.outbox.PublicadorEventos;
+
+/**
+ * Outbox transaccional: los servicios registran el evento en la misma
+ * transacción que el cambio y un relé en segundo plano lo publica por lotes en
+ * todos los PublicadorEventos. Si el nodo cae antes de publicar, las filas
+ * siguen pendientes y las recoge el siguiente ciclo de cualquier nodo.
+ *
+ * Si un destino falla, el lote se reenvía fila a fila hasta el primer fallo:
+ * las filas anteriores quedan publicadas, la que falla espera cada vez más
+ * hasta el siguiente intento y las posteriores se aplazan con ella sin contar
+ * un intento. Un destino caído recibe así dos llamadas por ciclo y no una por
+ * fila, mientras la transacción retiene los bloqueos. Pasados
+ * app.outbox.maxIntentos la fila se descarta con fecha_fallo y deja de retener
+ * a las siguientes. Una fila cuyo payload no se puede leer se descarta sin
+ * reintentos.
+ */
+@Service
+public class OutboxServiceImpl implements IOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+    @Autowired
+    private EventoOutboxRepository outboxRepository;
+
+    @Autowired
+    private List<PublicadorEventos> publicadores;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.outbox.tamanoLote:200}")
+    private int tamanoLote;
+
+    @Value("${app.outbox.retencionHoras:24}")
+    private long retencionHoras;
+
+    @Value("${app.outbox.maxIntentos:20}")
+    private int maxIntentos;
+
+    @Value("${app.outbox.esperaMaximaMs:300000}")
+    private long esperaMaxima;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(PedidoEventoDTO evento) {
+        outboxRepository.save(fila(evento));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarTodos(List<PedidoEventoDTO> eventos) {
+        // Con id por secuencia, saveAll se envía como INSERT por lotes JDBC
+        outboxRepository.saveAll(eventos.stream().map(this::fila).toList());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.outbox.intervaloMs:500}")
+    public int publicarPendientes() {
+        int total = 0;
+        int publicados;
+        do {
+            // Una transacción por lote: el bloqueo de las filas dura solo lo que tarda ese lote
+            publicados = transactionTemplate.execute(estado -> publicarLote());
+            total += publicados;
+        } while (publicados == tamanoLote);
+        return total;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${app.outbox.purgaCron:0 15 * * * *}")
+    public int purgarPublicados() {
+        return outboxRepository.eliminarPublicadosAntesDe(LocalDateTime.now().minusHours(retencionHoras));
+    }
+
+    /**
+     * Devuelve las filas publicadas; si alguna falla devuelve menos que el
+     * tamaño del lote y publicarPendientes espera al siguiente ciclo.
+     */
+    private int publicarLote() {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<EventoOutbox> lote = outboxRepository.bloquearPendientes(tamanoLote, ahora);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        List<EventoOutbox> legibles = new ArrayList<>(lote.size());
+        List<PedidoEventoDTO> eventos = new ArrayList<>(lote.size());
+        for (EventoOutbox fila : lote) {
+            try {
+                eventos.add(leer(fila));
+                legibles.add(fila);
+            } catch (IllegalStateException e) {
+                descartar(fila, e, ahora);
+            }
+        }
+        RuntimeException error = publicar(eventos);
+        if (error == null) {
+            legibles.forEach(fila -> fila.setFechaPublicacion(ahora));
+            return legibles.size();
+        }
+        logger.warn("No se pudo publicar un lote de {} eventos del outbox (desde id {}); se reintenta fila a fila",
+                eventos.size(), legibles.get(0).getId(), error);
+        for (int i = 0; i < legibles.size(); i++) {
+            EventoOutbox fila = legibles.get(i);
+            RuntimeException errorFila = publicar(List.of(eventos.get(i)));
+            if (errorFila != null) {
+                reintentarMasTarde(fila, errorFila, ahora);
+                aplazar(legibles.subList(i + 1, legibles.size()), fila, ahora);
+                return i;
+            }
+            fila.setFechaPublicacion(ahora);
+        }
+        return legibles.size();
+    }
+
+    // Las filas detrás de una que falla no se prueban: esperan lo mismo que ella, sin sumar un intento
+    private void aplazar(List<EventoOutbox> resto, EventoOutbox fallida, LocalDateTime ahora) {
+        LocalDateTime proximo = fallida.getFechaFallo() != null ? ahora.plusSeconds(1) : fallida.getProximoIntento();
+        resto.forEach(fila -> fila.setProximoIntento(proximo));
+    }
+
+    private RuntimeException publicar(List<PedidoEventoDTO> eventos) {
+        if (eventos.isEmpty()) {
+            return null;
+        }
+        try {
+            publicadores.forEach(publicador -> publicador.publicar(eventos));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private void reintentarMasTarde(EventoOutbox fila, RuntimeException error, LocalDateTime ahora) {
+        fila.setIntentos(fila.getIntentos() + 1);
+        if (fila.getIntentos() >= maxIntentos) {
+            descartar(fila, error, ahora);
+            return;
+        }
+        long espera = Math.min(esperaMaxima, 1000L << Math.min(fila.getIntentos() - 1, 30));
+        fila.setProximoIntento(ahora.plusNanos(espera * 1_000_000));
+        fila.setUltimoError(resumen(error));
+    }
+
+    private void descartar(EventoOutbox fila, RuntimeException error, LocalDateTime ahora) {
+        logger.error("Evento {} del outbox descartado tras {} intentos; queda con fecha_fallo para revisarlo",
+                fila.getId(), fila.getIntentos(), error);
+        fila.setFechaFallo(ahora);
+        fila.setUltimoError(resumen(error));
+    }
+
+    private static String resumen(RuntimeException error) {
+        String texto = error.getCause() != null ? error.getMessage() + ": " + error.getCause() : error.toString();
+        return texto.length() > 500 ? texto.substring(0, 500) : texto;
+    }
+
+    private EventoOutbox fila(PedidoEventoDTO evento) {
+        EventoOutbox fila = new EventoOutbox();
+        fila.setTipo(evento.getTipo());
+        fila.setIdPedido(evento.getIdPedido());
+        fila.setPayload(escribir(evento));
+        fila.setFechaCreacion(LocalDateTime.now());
+        return fila;
+    }
+
+    private String escribir(PedidoEventoDTO evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + evento.getTipo(), e);
+        }
+    }
+
+    private PedidoEventoDTO leer(EventoOutbox fila) {
+        try {
+            PedidoEventoDTO evento = objectMapper.readValue(fila.getPayload(), PedidoEventoDTO.class);
+            evento.setIdEvento(fila.getId());
+            return evento;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento del outbox ilegible: " + fila.getId(), e);
+        }
+    }
+}
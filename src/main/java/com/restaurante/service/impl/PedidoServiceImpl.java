@@ -1,20 +1,58 @@
 package com.restaurante.service.impl;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.restaurante.config.cache.CambiosRemotos;
+import com.restaurante.config.cache.DosNivelesCacheManager;
+import com.restaurante.dto.CambioEstadoLoteDTO;
+import com.restaurante.dto.DetallePedidoDTO;
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.PedidoCompletoDTO;
 import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.model.DetallePedido;
+import com.restaurante.model.EstadoPedido;
+import com.restaurante.model.HistorialEstados;
 import com.restaurante.model.Pedido;
+import com.restaurante.repository.DetallePedidoRepository;
+import com.restaurante.repository.HistorialEstadosRepository;
 import com.restaurante.repository.PedidoRepository;
+import com.restaurante.repository.PedidoRepository.EstadoActual;
+import com.restaurante.repository.ProductoRepository;
+import com.restaurante.repository.ProductoRepository.PrecioProducto;
+import com.restaurante.service.IOutboxService;
 import com.restaurante.service.IPedidoService;
+import com.restaurante.service.IValoracionService;
+import com.restaurante.service.cocina.EstadoPedidoCambiado;
+import com.restaurante.service.comun.DespuesDelCommit;
+import com.restaurante.service.pedidos.PedidosDelDia;
+import com.restaurante.service.ventas.VentaRegistrada;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -22,6 +60,29 @@ import lombok.RequiredArgsConstructor;
 public class PedidoServiceImpl implements IPedidoService {
 
     private final PedidoRepository pedidoRepository;
+    private final DetallePedidoRepository detalleRepository;
+    private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IOutboxService outboxService;
+    private final HistorialEstadosRepository historialRepository;
+    private final CacheManager cacheManager;
+    private final IValoracionService valoracionService;
+
+    private final PedidosDelDia pedidosDelDia = new PedidosDelDia();
+    private final CambiosRemotos cambiosRemotos = new CambiosRemotos();
+
+    // Los cambios hechos en otros nodos llegan como invalidaciones de la región "pedido";
+    // aquí solo se anotan y los aplica aplicarCambiosRemotos
+    @PostConstruct
+    void escucharOtrosNodos() {
+        if (cacheManager instanceof DosNivelesCacheManager dosNiveles) {
+            dosNiveles.alRecibir(invalidacion -> {
+                if ("pedido".equals(invalidacion.cache())) {
+                    cambiosRemotos.anotar(invalidacion.clave());
+                }
+            });
+        }
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -32,7 +93,24 @@ public class PedidoServiceImpl implements IPedidoService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public PaginaDTO<PedidoDTO> obtenerPagina(Long cursor, int limite) {
+        int tamano = PaginaDTO.normalizarLimite(limite);
+        List<PedidoDTO> filas = pedidoRepository.findPaginaDesde(
+                PaginaDTO.normalizarCursor(cursor), PageRequest.ofSize(tamano + 1));
+        return PaginaDTO.de(filas, tamano, PedidoDTO::getPid);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodos(Consumer<PedidoDTO> consumidor) {
+        try (Stream<PedidoDTO> filas = pedidoRepository.streamTodos()) {
+            filas.forEach(consumidor);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     @Cacheable(value = "pedido", key = "#id")
     public PedidoDTO obtenerPorId(Long id) {
         Pedido pedido = pedidoRepository.findById(id)
@@ -56,72 +134,266 @@ public class PedidoServiceImpl implements IPedidoService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Se sirve desde memoria: las pantallas de cocina lo consultan sin parar y
+     * cada escritura lo cambia, así que una caché invalidada por región casi
+     * nunca acertaba. La primera lectura del día carga la partición nueva.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "pedidos_del_dia")
     public List<PedidoDTO> obtenerPedidosDelDia() {
-        return pedidoRepository.findByFechaPedido(LocalDate.now()).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (!pedidosDelDia.vigente(LocalDate.now())) {
+            reconciliarPedidosDelDia();
+        }
+        return pedidosDelDia.listar();
+    }
+
+    /**
+     * Recarga los pedidos del día desde la base de datos cada
+     * app.pedidosDelDia.reconciliacionMs. Entre recargas se mantienen con cada
+     * escritura de este nodo y con las invalidaciones de "pedido" que llegan de
+     * los demás; la recarga corrige un mensaje perdido.
+     */
+    @Scheduled(fixedDelayString = "${app.pedidosDelDia.reconciliacionMs:60000}")
+    public void reconciliarPedidosDelDia() {
+        long marca = pedidosDelDia.marca();
+        LocalDate hoy = LocalDate.now();
+        pedidosDelDia.reemplazar(hoy, pedidoRepository.listarPorFecha(hoy), marca);
+    }
+
+    /**
+     * Aplica a los pedidos del día los pedidos cambiados en otros nodos desde la
+     * última pasada, con una sola consulta para todos. Mientras nadie haya leído
+     * los pedidos de hoy no se consulta nada: la primera lectura los carga.
+     */
+    @Scheduled(fixedDelayString = "${app.pedidosDelDia.cambiosRemotosMs:500}")
+    @Transactional(readOnly = true)
+    public void aplicarCambiosRemotos() {
+        if (cambiosRemotos.recargarTodo()) {
+            reconciliarPedidosDelDia();
+            return;
+        }
+        List<Long> pids = cambiosRemotos.tomarIds();
+        if (pids.isEmpty() || !pedidosDelDia.vigente(LocalDate.now())) {
+            return;
+        }
+        Map<Long, PedidoDTO> actuales = pedidoRepository.findAllById(pids).stream()
+                .collect(Collectors.toMap(Pedido::getPid, this::convertToDTO));
+        pids.forEach(pid -> {
+            PedidoDTO pedido = actuales.get(pid);
+            if (pedido != null) {
+                pedidosDelDia.aplicar(pedido);
+            } else {
+                pedidosDelDia.eliminar(pid);
+            }
+        });
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "pedidos_del_dia", allEntries = true)
-    })
     public PedidoDTO crear(PedidoDTO pedidoDTO) {
         Pedido pedido = convertToEntity(pedidoDTO);
         pedido.setFechaPedido(LocalDate.now());
+        pedido.setFechaCreacion(LocalDateTime.now());
+        pedido.setEstado("PENDIENTE");
+        Pedido guardado = pedidoRepository.save(pedido);
+        eventPublisher.publishEvent(evento(PedidoEventoDTO.PEDIDO_CREADO, guardado));
+        PedidoDTO creado = convertToDTO(guardado);
+        alConfirmar(List.of(creado));
+        return creado;
+    }
+
+    @Override
+    @Transactional
+    public PedidoCompletoDTO crearConDetalles(PedidoCompletoDTO pedidoDTO) {
+        List<DetallePedidoDTO> lineas = pedidoDTO.getDetalles();
+        if (lineas == null || lineas.isEmpty()) {
+            throw new RuntimeException("El pedido debe tener al menos un detalle");
+        }
+
+        Set<Long> idsProducto = lineas.stream()
+                .map(DetallePedidoDTO::getIdProducto)
+                .collect(Collectors.toSet());
+        Map<Long, PrecioProducto> productos = productoRepository.findByIdIn(idsProducto).stream()
+                .collect(Collectors.toMap(PrecioProducto::getId, Function.identity()));
+
+        // Se valida todo antes de escribir para no dejar un pedido a medias
+        for (DetallePedidoDTO linea : lineas) {
+            PrecioProducto producto = productos.get(linea.getIdProducto());
+            if (producto == null || !"activo".equals(producto.getEstado())) {
+                throw new RuntimeException("Producto no disponible: " + linea.getIdProducto());
+            }
+            if (linea.getCantidad() == null || linea.getCantidad() < 1) {
+                throw new RuntimeException("La cantidad debe ser al menos 1");
+            }
+            if (linea.getPrecioUnitario() != null
+                    && BigDecimal.valueOf(linea.getPrecioUnitario()).compareTo(producto.getPrecio()) != 0) {
+                throw new RuntimeException("El precio del producto " + linea.getIdProducto() + " ha cambiado");
+            }
+        }
+
+        Pedido pedido = new Pedido();
+        pedido.setIdCliente(pedidoDTO.getIdCliente());
+        LocalDateTime ahora = LocalDateTime.now();
+        pedido.setFechaPedido(ahora.toLocalDate());
+        pedido.setFechaCreacion(ahora);
         pedido.setEstado("PENDIENTE");
-        return convertToDTO(pedidoRepository.save(pedido));
+        Pedido guardado = pedidoRepository.save(pedido);
+
+        List<DetallePedido> detalles = new ArrayList<>(lineas.size());
+        for (DetallePedidoDTO linea : lineas) {
+            DetallePedido detalle = new DetallePedido();
+            detalle.setPedido(guardado);
+            detalle.setIdProducto(linea.getIdProducto());
+            detalle.setCantidad(linea.getCantidad());
+            detalle.setPrecioUnitario(productos.get(linea.getIdProducto()).getPrecio().doubleValue());
+            detalle.setInstruccionesEspecial(linea.getInstruccionesEspecial());
+            detalles.add(detalle);
+        }
+        // Con id por secuencia, saveAll se envía como INSERT por lotes (hibernate.jdbc.batch_size)
+        List<DetallePedido> guardados = detalleRepository.saveAll(detalles);
+        eventPublisher.publishEvent(evento(PedidoEventoDTO.PEDIDO_CREADO, guardado));
+        eventPublisher.publishEvent(new VentaRegistrada(guardado.getPid(), ahora, guardados.stream()
+                .map(d -> new VentaRegistrada.Linea(d.getIdProducto(), d.getCantidad(), d.getPrecioUnitario()))
+                .toList()));
+        alConfirmar(List.of(convertToDTO(guardado)));
+
+        return convertToCompletoDTO(guardado, guardados);
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "pedidos_del_dia", allEntries = true),
-        @CacheEvict(value = "pedido", key = "#id")
-    })
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     public PedidoDTO actualizar(Long id, PedidoDTO pedidoDTO) {
         Pedido existente = pedidoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido no encontrado"));
+        // Un cambio de estado sigue el ciclo de vida y deja historial y evento, igual que actualizarEstado;
+        // sin estado, o con el mismo, se conserva el actual
+        EstadoPedido nuevoEstado = cambiaEstado(existente.getEstado(), pedidoDTO.getEstado())
+                ? EstadoPedido.validarTransicion(existente.getEstado(), pedidoDTO.getEstado())
+                : null;
+        if (!Objects.equals(existente.getFechaPedido(), pedidoDTO.getFechaPedido())) {
+            // El día anterior también cambia y fecha_modificacion solo lleva al nuevo
+            pedidoRepository.marcarDiaPendiente(id);
+        }
         
         existente.setIdCliente(pedidoDTO.getIdCliente());
         existente.setFechaPedido(pedidoDTO.getFechaPedido());
-        existente.setEstado(pedidoDTO.getEstado());
+        if (nuevoEstado != null) {
+            existente.setEstado(nuevoEstado.name());
+        }
         
-        return convertToDTO(pedidoRepository.save(existente));
+        Pedido guardado = pedidoRepository.save(existente);
+        if (nuevoEstado != null) {
+            registrarCambioEstado(guardado, null);
+        }
+        PedidoDTO actualizado = convertToDTO(guardado);
+        alConfirmar(List.of(actualizado));
+        return actualizado;
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "pedidos_del_dia", allEntries = true),
-        @CacheEvict(value = "pedido", key = "#id")
-    })
-    public PedidoDTO actualizarEstado(Long id, String nuevoEstado) {
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
+    public PedidoDTO actualizarEstado(Long id, String nuevoEstado, Long idPersonaCocina) {
         Pedido pedido = pedidoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido no encontrado"));
         
-        pedido.setEstado(nuevoEstado);
-        return convertToDTO(pedidoRepository.save(pedido));
+        EstadoPedido estado = EstadoPedido.validarTransicion(pedido.getEstado(), nuevoEstado);
+        pedido.setEstado(estado.name());
+        Pedido guardado = pedidoRepository.save(pedido);
+        registrarCambioEstado(guardado, idPersonaCocina);
+        PedidoDTO actualizado = convertToDTO(guardado);
+        alConfirmar(List.of(actualizado));
+        return actualizado;
+    }
+
+    /**
+     * Cambio de estado de varios pedidos en una sola transacción: una lectura
+     * de los estados actuales, un único UPDATE ... WHERE pid IN (...), el
+     * historial y el outbox por lotes.
+     * Si algún pedido no existe o no puede pasar al nuevo estado no se cambia
+     * ninguno.
+     */
+    @Override
+    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
+    public List<PedidoDTO> actualizarEstadoEnLote(CambioEstadoLoteDTO cambio) {
+        List<Long> ids = cambio.getIds();
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("Debe indicarse al menos un pedido");
+        }
+        if (ids.size() > CambioEstadoLoteDTO.MAXIMO_PEDIDOS) {
+            throw new RuntimeException("Como máximo " + CambioEstadoLoteDTO.MAXIMO_PEDIDOS + " pedidos por lote");
+        }
+        Set<Long> solicitados = new TreeSet<>(ids);
+        List<EstadoActual> actuales = pedidoRepository.findEstadosByPidIn(solicitados);
+        Set<Long> pendientes = new TreeSet<>(solicitados);
+
+        EstadoPedido destino = null;
+        Set<String> origenes = new TreeSet<>();
+        for (EstadoActual actual : actuales) {
+            destino = EstadoPedido.validarTransicion(actual.getEstado(), cambio.getEstado());
+            origenes.add(actual.getEstado() == null ? EstadoPedido.PENDIENTE.name() : actual.getEstado());
+            pendientes.remove(actual.getPid());
+        }
+        if (!pendientes.isEmpty()) {
+            throw new RuntimeException("Pedido no encontrado: " + pendientes);
+        }
+
+        int actualizados = pedidoRepository.actualizarEstadoEnLote(
+                actuales.stream().map(EstadoActual::getPid).toList(), origenes, destino.name());
+        if (actualizados != actuales.size()) {
+            // Otro cambio se confirmó entre la lectura y el UPDATE: se revierte y se reintenta desde la lectura
+            throw new OptimisticLockingFailureException("Pedidos modificados durante el cambio de estado en lote");
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<PedidoDTO> resultado = new ArrayList<>(actuales.size());
+        List<HistorialEstados> historial = new ArrayList<>(actuales.size());
+        List<PedidoEventoDTO> eventos = new ArrayList<>(actuales.size());
+        for (EstadoActual actual : actuales) {
+            resultado.add(new PedidoDTO(actual.getPid(), actual.getIdCliente(), actual.getFechaPedido(), destino.name()));
+            historial.add(HistorialEstados.builder()
+                    .idPedido(actual.getPid())
+                    .estado(destino.name())
+                    .fechaCambio(ahora)
+                    .idCliente(actual.getIdCliente())
+                    .idPersonaCocina(cambio.getIdPersonaCocina())
+                    .build());
+            eventos.add(PedidoEventoDTO.builder()
+                    .tipo(PedidoEventoDTO.ESTADO_ACTUALIZADO)
+                    .idPedido(actual.getPid())
+                    .idCliente(actual.getIdCliente())
+                    .estado(destino.name())
+                    .idPersonaCocina(cambio.getIdPersonaCocina())
+                    .fecha(ahora)
+                    .build());
+            eventPublisher.publishEvent(new EstadoPedidoCambiado(actual.getPid(), destino.name(), ahora));
+        }
+        // En la transacción del cambio: si el pedido se confirma, su historial también. Con id por secuencia,
+        // saveAll se envía como INSERT por lotes JDBC
+        historialRepository.saveAll(historial);
+        outboxService.registrarTodos(eventos);
+        alConfirmar(resultado);
+        return resultado;
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "pedidos_del_dia", allEntries = true),
-        @CacheEvict(value = "pedido", key = "#id")
-    })
     public void eliminar(Long id) {
+        pedidoRepository.marcarDiaPendiente(id);
+        valoracionService.quitarProductosDePedido(id);
         pedidoRepository.deleteById(id);
+        DespuesDelCommit.ejecutar(() -> {
+            pedidosDelDia.eliminar(id);
+            evictarPedido(id);
+        });
     }
 
     @Override
     @Transactional
     public Pedido obtenerPorIdConBloqueo(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
+        Pedido pedido = pedidoRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Pedido no encontrado"));
         try { 
             Thread.sleep(15000); 
@@ -131,6 +403,63 @@ public class PedidoServiceImpl implements IPedidoService {
         return pedido;
     }
 
+    // El historial se guarda en la transacción del cambio de estado; lo leen la calibración de la cola de
+    // cocina y los agregados diarios
+    private void registrarCambioEstado(Pedido guardado, Long idPersonaCocina) {
+        historialRepository.save(HistorialEstados.builder()
+                .idPedido(guardado.getPid())
+                .estado(guardado.getEstado())
+                .fechaCambio(LocalDateTime.now())
+                .idCliente(guardado.getIdCliente())
+                .idPersonaCocina(idPersonaCocina)
+                .build());
+        // Por el outbox: se confirma con el cambio de estado y se publica fuera del hilo de la petición
+        PedidoEventoDTO evento = evento(PedidoEventoDTO.ESTADO_ACTUALIZADO, guardado);
+        evento.setIdPersonaCocina(idPersonaCocina);
+        outboxService.registrar(evento);
+        // La cola de cocina de este nodo no espera al outbox, que puede publicarlo otro nodo
+        eventPublisher.publishEvent(new EstadoPedidoCambiado(guardado.getPid(), guardado.getEstado(), evento.getFecha()));
+    }
+
+    // Un pedido sin estado está PENDIENTE
+    private static boolean cambiaEstado(String actual, String nuevo) {
+        if (nuevo == null) {
+            return false;
+        }
+        String origen = actual == null ? EstadoPedido.PENDIENTE.name() : actual.trim().toUpperCase();
+        return !origen.equals(nuevo.trim().toUpperCase());
+    }
+
+    /**
+     * Tras el commit actualiza los pedidos del día y borra la entrada "pedido"
+     * de cada uno. Ese borrado llega a los demás nodos, que recargan el pedido
+     * ya confirmado (aplicarCambiosRemotos).
+     */
+    private void alConfirmar(List<PedidoDTO> cambiados) {
+        DespuesDelCommit.ejecutar(() -> cambiados.forEach(pedido -> {
+            pedidosDelDia.aplicar(pedido);
+            evictarPedido(pedido.getPid());
+        }));
+    }
+
+    private void evictarPedido(Long id) {
+        Cache pedido = cacheManager.getCache("pedido");
+        if (pedido != null) {
+            pedido.evict(id);
+        }
+    }
+
+    // Evento para el tablero de cocina (bus local) o el outbox
+    private PedidoEventoDTO evento(String tipo, Pedido pedido) {
+        return PedidoEventoDTO.builder()
+                .tipo(tipo)
+                .idPedido(pedido.getPid())
+                .idCliente(pedido.getIdCliente())
+                .estado(pedido.getEstado())
+                .fecha(LocalDateTime.now())
+                .build();
+    }
+
     private PedidoDTO convertToDTO(Pedido pedido) {
         PedidoDTO dto = new PedidoDTO();
         dto.setPid(pedido.getPid());
@@ -140,6 +469,31 @@ public class PedidoServiceImpl implements IPedidoService {
         return dto;
     }
 
+    private PedidoCompletoDTO convertToCompletoDTO(Pedido pedido, List<DetallePedido> detalles) {
+        BigDecimal total = BigDecimal.ZERO;
+        List<DetallePedidoDTO> lineas = new ArrayList<>(detalles.size());
+        for (DetallePedido detalle : detalles) {
+            total = total.add(BigDecimal.valueOf(detalle.getPrecioUnitario())
+                    .multiply(BigDecimal.valueOf(detalle.getCantidad())));
+            lineas.add(DetallePedidoDTO.builder()
+                    .id(detalle.getId())
+                    .idPedido(pedido.getPid())
+                    .idProducto(detalle.getIdProducto())
+                    .cantidad(detalle.getCantidad())
+                    .precioUnitario(detalle.getPrecioUnitario())
+                    .instruccionesEspecial(detalle.getInstruccionesEspecial())
+                    .build());
+        }
+        return PedidoCompletoDTO.builder()
+                .pid(pedido.getPid())
+                .idCliente(pedido.getIdCliente())
+                .fechaPedido(pedido.getFechaPedido())
+                .estado(pedido.getEstado())
+                .detalles(lineas)
+                .total(total)
+                .build();
+    }
+
     private Pedido convertToEntity(PedidoDTO dto) {
         Pedido pedido = new Pedido();
         pedido.setPid(dto.getPid());
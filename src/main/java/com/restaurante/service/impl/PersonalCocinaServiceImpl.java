@@ -6,6 +6,9 @@ import java.util.stream.Collectors;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +37,7 @@ public class PersonalCocinaServiceImpl implements IPersonalCocinaService {
 
     @Override
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     @Caching(evict = {
         @CacheEvict(value = "personal_cocina_lista", allEntries = true),
         @CacheEvict(value = "personal_cocina", key = "#id")
@@ -61,7 +65,7 @@ public class PersonalCocinaServiceImpl implements IPersonalCocinaService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     @Cacheable(value = "personal_cocina", key = "#id")
     public PersonalCocinaDTO obtenerPersonalPorId(Long id) {
         return personalRepository.findById(id)
@@ -82,7 +86,7 @@ public class PersonalCocinaServiceImpl implements IPersonalCocinaService {
     @Override
     @Transactional
     public PersonalCocina obtenerPorIdConBloqueo(Long id) {
-        PersonalCocina personal = personalRepository.findById(id)
+        PersonalCocina personal = personalRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Personal no encontrado"));
         try { 
             Thread.sleep(15000); 
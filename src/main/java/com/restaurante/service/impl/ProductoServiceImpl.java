@@ -1,21 +1,36 @@
 package com.restaurante.service.impl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.restaurante.config.cache.CambiosRemotos;
+import com.restaurante.config.cache.DosNivelesCacheManager;
 import com.restaurante.dto.ProductoDTO;
 import com.restaurante.model.Categoria;
 import com.restaurante.model.Producto;
 import com.restaurante.repository.CategoriaRepository;
 import com.restaurante.repository.ProductoRepository;
 import com.restaurante.service.IProductoService;
+import com.restaurante.service.busqueda.IndiceInvertido;
+import com.restaurante.service.busqueda.IndiceInvertido.Campo;
+import com.restaurante.service.comun.DespuesDelCommit;
+import com.restaurante.service.menu.MenuModificadoEvento;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class ProductoServiceImpl implements IProductoService {
@@ -26,45 +41,102 @@ public class ProductoServiceImpl implements IProductoService {
     @Autowired
     private CategoriaRepository categoriaRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int LIMITE_BUSQUEDA = 50;
+
+    // Búsqueda del menú: solo productos activos, el nombre pesa más que ingredientes y descripción
+    private final IndiceInvertido<ProductoDTO> indiceBusqueda = new IndiceInvertido<>(ProductoDTO::getId,
+            producto -> List.of(
+                    new Campo(producto.getNombre(), 3),
+                    new Campo(producto.getIngredientes(), 2),
+                    new Campo(producto.getDescripcion(), 1)));
+
+    private final CambiosRemotos cambiosRemotos = new CambiosRemotos();
+
+    // Los cambios hechos en otros nodos llegan como invalidaciones de la región "producto";
+    // aquí solo se anotan y los aplica aplicarCambiosRemotos
+    @PostConstruct
+    void escucharOtrosNodos() {
+        if (cacheManager instanceof DosNivelesCacheManager dosNiveles) {
+            dosNiveles.alRecibir(invalidacion -> {
+                if ("producto".equals(invalidacion.cache())) {
+                    cambiosRemotos.anotar(invalidacion.clave());
+                }
+            });
+        }
+    }
+
+    /**
+     * Reconstruye el índice de búsqueda desde la base de datos al arrancar y cada
+     * app.busqueda.reconstruccionMs. Entre reconstrucciones se mantiene con cada
+     * escritura; la reconstrucción corrige un mensaje de invalidación no
+     * recibido. Las escrituras que se aplican al índice mientras se lee la base
+     * de datos no se pierden: se reaplican sobre lo leído.
+     */
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${app.busqueda.reconstruccionMs:600000}")
+    public void reconstruirIndiceBusqueda() {
+        long marca = indiceBusqueda.marca();
+        indiceBusqueda.reconstruir(productoRepository.listarPorEstado("activo"), marca);
+    }
+
+    /**
+     * Aplica al índice los productos cambiados en otros nodos desde la última
+     * pasada, con una sola consulta para todos. Se invoca a través del proxy del
+     * planificador, así que corre en su propia transacción de solo lectura.
+     */
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${app.busqueda.cambiosRemotosMs:500}")
+    public void aplicarCambiosRemotos() {
+        if (cambiosRemotos.recargarTodo()) {
+            reconstruirIndiceBusqueda();
+            return;
+        }
+        List<Long> ids = cambiosRemotos.tomarIds();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, ProductoDTO> actuales = productoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Producto::getId, this::convertToDTO));
+        ids.forEach(id -> actualizarIndice(id, actuales.get(id)));
+    }
+
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "productos")
+    @Cacheable(value = "productos", sync = true)
     public List<ProductoDTO> obtenerTodos() {
-        return productoRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return productoRepository.listarTodos();
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "productos_activos")
+    @Cacheable(value = "productos_activos", sync = true)
     public List<ProductoDTO> obtenerActivos() {
-        return productoRepository.findByEstado("activo").stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return productoRepository.listarPorEstado("activo");
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "productos_destacados")
+    @Cacheable(value = "productos_destacados", sync = true)
     public List<ProductoDTO> obtenerDestacados() {
-        return productoRepository.findByDestacado(true).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return productoRepository.listarPorDestacado(true);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "productos_por_categoria", key = "#idCategoria")
+    @Cacheable(value = "productos_por_categoria", key = "#idCategoria", sync = true)
     public List<ProductoDTO> obtenerPorCategoria(Long idCategoria) {
-        return productoRepository.findByCategoriaIdAndEstado(idCategoria, "activo").stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return productoRepository.listarPorCategoriaYEstado(idCategoria, "activo");
     }
 
     @Override
-    @Transactional
-    @Cacheable(value = "producto", key = "#id")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "producto", key = "#id", sync = true)
     public ProductoDTO obtenerPorId(Long id) {
         Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
@@ -73,12 +145,6 @@ public class ProductoServiceImpl implements IProductoService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "productos", allEntries = true),
-        @CacheEvict(value = "productos_activos", allEntries = true),
-        @CacheEvict(value = "productos_destacados", allEntries = true),
-        @CacheEvict(value = "productos_por_categoria", allEntries = true)
-    })
     public ProductoDTO crear(ProductoDTO productoDTO) {
         Categoria categoria = categoriaRepository.findById(productoDTO.getIdCategoria())
                 .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
@@ -88,24 +154,21 @@ public class ProductoServiceImpl implements IProductoService {
         producto.setEstado("activo");
         
         Producto productoGuardado = productoRepository.save(producto);
-        return convertToDTO(productoGuardado);
+        ProductoDTO creado = convertToDTO(productoGuardado);
+        sincronizarCaches(creado.getId(), null, creado);
+        return creado;
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "productos", allEntries = true),
-        @CacheEvict(value = "productos_activos", allEntries = true),
-        @CacheEvict(value = "productos_destacados", allEntries = true),
-        @CacheEvict(value = "productos_por_categoria", allEntries = true),
-        @CacheEvict(value = "producto", key = "#id")
-    })
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     public ProductoDTO actualizar(Long id, ProductoDTO productoDTO) {
         Producto productoExistente = productoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
         
         Categoria categoria = categoriaRepository.findById(productoDTO.getIdCategoria())
                 .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
+        Long idCategoriaAnterior = productoExistente.getCategoria().getId();
         
         productoExistente.setCategoria(categoria);
         productoExistente.setNombre(productoDTO.getNombre());
@@ -117,30 +180,33 @@ public class ProductoServiceImpl implements IProductoService {
         productoExistente.setDestacado(productoDTO.getDestacado());
         
         Producto productoActualizado = productoRepository.save(productoExistente);
-        return convertToDTO(productoActualizado);
+        ProductoDTO actualizado = convertToDTO(productoActualizado);
+        sincronizarCaches(id, idCategoriaAnterior, actualizado);
+        return actualizado;
     }
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "productos", allEntries = true),
-        @CacheEvict(value = "productos_activos", allEntries = true),
-        @CacheEvict(value = "productos_destacados", allEntries = true),
-        @CacheEvict(value = "productos_por_categoria", allEntries = true),
-        @CacheEvict(value = "producto", key = "#id")
-    })
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     public ProductoDTO desactivar(Long id) {
         Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
         producto.setEstado("inactivo");
         Producto productoDesactivado = productoRepository.save(producto);
-        return convertToDTO(productoDesactivado);
+        ProductoDTO desactivado = convertToDTO(productoDesactivado);
+        sincronizarCaches(id, desactivado.getIdCategoria(), desactivado);
+        return desactivado;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductoDTO> buscarPorNombre(String nombre) {
-        return productoRepository.findByNombreContainingIgnoreCase(nombre).stream()
+    public List<ProductoDTO> buscar(String texto, int limite) {
+        int tope = Math.min(Math.max(limite, 1), LIMITE_BUSQUEDA);
+        if (indiceBusqueda.estaConstruido()) {
+            return indiceBusqueda.buscar(texto, tope);
+        }
+        // Hasta la primera carga del índice responde PostgreSQL (sin ignorar tildes)
+        return productoRepository.buscarTexto(texto, tope).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -148,7 +214,7 @@ public class ProductoServiceImpl implements IProductoService {
     @Override
     @Transactional
     public Producto obtenerPorIdConBloqueo(Long id) {
-        Producto producto = productoRepository.findById(id)
+        Producto producto = productoRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
         try { 
             Thread.sleep(15000); 
@@ -160,15 +226,58 @@ public class ProductoServiceImpl implements IProductoService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "productos", allEntries = true),
-        @CacheEvict(value = "productos_activos", allEntries = true),
-        @CacheEvict(value = "productos_destacados", allEntries = true),
-        @CacheEvict(value = "productos_por_categoria", allEntries = true),
-        @CacheEvict(value = "producto", key = "#id")
-    })
     public void eliminar(Long id) {
+        // findById queda en el contexto de persistencia, así que deleteById no vuelve a consultar
+        Long idCategoria = productoRepository.findById(id)
+                .map(producto -> producto.getCategoria().getId())
+                .orElse(null);
         productoRepository.deleteById(id);
+        sincronizarCaches(id, idCategoria, null);
+    }
+
+    /**
+     * Lleva un cambio de producto a las regiones cacheadas sin vaciarlas: quita
+     * las listas agregadas, solo la entrada de productos_por_categoria de las
+     * categorías afectadas y la del propio producto; la siguiente lectura las
+     * carga ya actualizadas. No se escribe el producto nuevo ni se parchean las
+     * listas en su sitio: los afterCommit de dos ediciones simultáneas (en este
+     * nodo o en otro) pueden ejecutarse en orden inverso y dejar la versión
+     * vieja hasta el TTL. Se ejecuta tras el commit para no publicar cambios
+     * que luego se deshacen.
+     *
+     * @param anterior categoría que tenía el producto antes del cambio (puede ser nula)
+     * @param nuevo    estado final del producto, o null si se eliminó
+     */
+    private void sincronizarCaches(Long id, Long anterior, ProductoDTO nuevo) {
+        DespuesDelCommit.ejecutar(() -> {
+            quitar("productos", SimpleKey.EMPTY);
+            quitar("productos_activos", SimpleKey.EMPTY);
+            quitar("productos_destacados", SimpleKey.EMPTY);
+            if (anterior != null) {
+                quitar("productos_por_categoria", anterior);
+            }
+            if (nuevo != null && !nuevo.getIdCategoria().equals(anterior)) {
+                quitar("productos_por_categoria", nuevo.getIdCategoria());
+            }
+            actualizarIndice(id, nuevo);
+            quitar("producto", id);
+            eventPublisher.publishEvent(new MenuModificadoEvento("producto"));
+        });
+    }
+
+    private void actualizarIndice(Long id, ProductoDTO producto) {
+        if (producto != null && "activo".equals(producto.getEstado())) {
+            indiceBusqueda.indexar(producto);
+        } else {
+            indiceBusqueda.eliminar(id);
+        }
+    }
+
+    private void quitar(String region, Object clave) {
+        Cache cache = cacheManager.getCache(region);
+        if (cache != null) {
+            cache.evict(clave);
+        }
     }
 
     private ProductoDTO convertToDTO(Producto producto) {
@@ -6,6 +6,9 @@ import java.util.stream.Collectors;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +37,7 @@ public class RepartidorServiceImpl implements IRepartidorService {
 
     @Override
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     @Caching(evict = {
         @CacheEvict(value = "repartidores", allEntries = true),
         @CacheEvict(value = "repartidor", key = "#id")
@@ -60,7 +64,7 @@ public class RepartidorServiceImpl implements IRepartidorService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     @Cacheable(value = "repartidor", key = "#id")
     public RepartidorDTO obtenerRepartidorPorId(Long id) {
         return repartidorRepository.findById(id)
@@ -81,7 +85,7 @@ public class RepartidorServiceImpl implements IRepartidorService {
     @Override
     @Transactional
     public Repartidor obtenerPorIdConBloqueo(Long id) {
-        Repartidor repartidor = repartidorRepository.findById(id)
+        Repartidor repartidor = repartidorRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Repartidor no encontrado"));
         try { 
             Thread.sleep(15000); 
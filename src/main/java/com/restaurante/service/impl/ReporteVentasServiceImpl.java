@@ -0,0 +1,274 @@
+package com.restaurante.service.impl;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.restaurante.dto.FilaVentasDTO;
+import com.restaurante.dto.ReporteVentasDTO;
+import com.restaurante.repository.DetallePedidoRepository;
+import com.restaurante.repository.DetallePedidoRepository.VentaAgrupada;
+import com.restaurante.repository.ProductoRepository;
+import com.restaurante.repository.ProductoRepository.CategoriaProducto;
+import com.restaurante.service.IReporteVentasService;
+import com.restaurante.service.ventas.VentaRegistrada;
+import com.restaurante.service.ventas.VentasDelDia;
+
+@Service
+public class ReporteVentasServiceImpl implements IReporteVentasService {
+
+    static final long MAXIMO_DIAS = 731;
+
+    private enum Agrupacion {
+        PRODUCTO,
+        CATEGORIA,
+        HORA,
+        DIA
+    }
+
+    @Autowired
+    private DetallePedidoRepository detalleRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final VentasDelDia ventasDelDia = new VentasDelDia();
+
+    // Algún informe ha leído el día en curso desde la última recarga
+    private final AtomicBoolean consultadas = new AtomicBoolean();
+    // Se omitió una recarga por falta de lecturas; la siguiente lectura recarga antes de responder
+    private volatile boolean desactualizadas;
+
+    // Tras el commit del alta; los cambios en las líneas y los pedidos de otros nodos llegan con la reconciliación
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarVenta(VentaRegistrada venta) {
+        if (!ventasDelDia.conoceCategorias(venta)) {
+            // Algún producto se creó después de la última carga
+            ventasDelDia.asignarCategorias(categorias());
+        }
+        ventasDelDia.registrar(venta);
+    }
+
+    /**
+     * Recarga las ventas del día en curso con un GROUP BY por producto, otro por
+     * categoría y otro por hora cada app.ventas.reconciliacionMs; también cambia
+     * de día pasada la medianoche. Si nadie ha pedido el informe de hoy desde la
+     * recarga anterior no se consulta nada: solo se anota, y la próxima lectura
+     * recarga antes de responder. Un nodo sin lecturas no repite los tres
+     * GROUP BY cada minuto.
+     */
+    @Scheduled(fixedDelayString = "${app.ventas.reconciliacionMs:60000}")
+    public void reconciliarVentasDelDia() {
+        if (!consultadas.getAndSet(false) && ventasDelDia.vigente(LocalDate.now())) {
+            desactualizadas = true;
+            return;
+        }
+        recargarVentasDelDia();
+    }
+
+    /**
+     * Los tres GROUP BY y los pedidos que suman se leen en una transacción de
+     * solo lectura REPEATABLE_READ: con READ COMMITTED cada consulta ve su
+     * propia instantánea, y un pedido confirmado entre dos de ellas quedaría en
+     * unos totales y no en otros. REQUIRES_NEW porque unirse a una transacción
+     * ya abierta mantendría el aislamiento de esa.
+     */
+    private void recargarVentasDelDia() {
+        desactualizadas = false;
+        long marca = ventasDelDia.marca();
+        LocalDate hoy = LocalDate.now();
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        lectura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        VentasDelDia.Carga carga = lectura.execute(estado -> new VentasDelDia.Carga(
+                filasDelDia(detalleRepository.ventasPorProducto(hoy, hoy)),
+                filasDelDia(detalleRepository.ventasPorCategoria(hoy, hoy)),
+                filasDelDia(detalleRepository.ventasPorHora(hoy, hoy)),
+                categorias(),
+                new HashSet<>(detalleRepository.pedidosConVentas(hoy, hoy))));
+        ventasDelDia.reemplazar(hoy, carga, marca);
+    }
+
+    /**
+     * Los días anteriores a hoy se agregan en la base de datos; hoy sale de los
+     * acumulados en memoria. Solo se cargan filas ya agrupadas, así que la
+     * memoria depende del número de grupos y no del de pedidos. Sin transacción
+     * propia: cada consulta del histórico va en la del repositorio y la recarga
+     * de hoy abre la suya.
+     */
+    @Override
+    public ReporteVentasDTO obtenerVentas(LocalDate desde, LocalDate hasta, String agrupacion) {
+        Agrupacion tipo = agrupacionDesde(agrupacion);
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new RuntimeException("El rango de fechas no es válido");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS) {
+            throw new RuntimeException("El rango no puede superar " + MAXIMO_DIAS + " días");
+        }
+
+        LocalDate hoy = LocalDate.now();
+        Map<Object, Acumulado> grupos = new HashMap<>();
+        Acumulado total = new Acumulado();
+
+        LocalDate finHistorico = hasta.isBefore(hoy) ? hasta : hoy.minusDays(1);
+        if (!desde.isAfter(finHistorico)) {
+            // Por hora y por día cada pedido está en un solo grupo y el total es la suma de las filas; por producto
+            // o categoría un pedido cuenta en varios, así que los pedidos distintos necesitan su propia consulta
+            boolean totalPorFilas = tipo == Agrupacion.HORA || tipo == Agrupacion.DIA;
+            for (VentaAgrupada fila : historico(tipo, desde, finHistorico)) {
+                grupos.computeIfAbsent(clave(fila.getClave()), c -> new Acumulado())
+                        .sumar(valor(fila.getUnidades()), fila.getIngresos(), valor(fila.getPedidos()));
+                if (totalPorFilas) {
+                    total.sumar(valor(fila.getUnidades()), fila.getIngresos(), valor(fila.getPedidos()));
+                }
+            }
+            VentaAgrupada totales = totalPorFilas ? null : detalleRepository.ventasTotales(desde, finHistorico);
+            if (totales != null) {
+                total.sumar(valor(totales.getUnidades()), totales.getIngresos(), valor(totales.getPedidos()));
+            }
+        }
+
+        if (!desde.isAfter(hoy) && !hasta.isBefore(hoy)) {
+            consultadas.set(true);
+            if (desactualizadas || !ventasDelDia.vigente(hoy)) {
+                recargarVentasDelDia();
+            }
+            sumarHoy(tipo, hoy, grupos);
+            VentasDelDia.Fila totales = ventasDelDia.totales();
+            total.sumar(totales.unidades(), totales.ingresos(), totales.pedidos());
+        }
+
+        return ReporteVentasDTO.builder()
+                .desde(desde)
+                .hasta(hasta)
+                .agrupacion(tipo.name().toLowerCase())
+                .unidades(total.unidades)
+                .ingresos(redondear(total.ingresos))
+                .pedidos(total.pedidos)
+                .ticketMedio(total.ticketMedio())
+                .filas(grupos.entrySet().stream()
+                        .sorted(orden(tipo))
+                        .map(grupo -> convertirFila(grupo.getKey(), grupo.getValue()))
+                        .toList())
+                .build();
+    }
+
+    private List<VentaAgrupada> historico(Agrupacion tipo, LocalDate desde, LocalDate hasta) {
+        return switch (tipo) {
+            case PRODUCTO -> detalleRepository.ventasPorProducto(desde, hasta);
+            case CATEGORIA -> detalleRepository.ventasPorCategoria(desde, hasta);
+            case HORA -> detalleRepository.ventasPorHora(desde, hasta);
+            case DIA -> detalleRepository.ventasPorDia(desde, hasta);
+        };
+    }
+
+    private void sumarHoy(Agrupacion tipo, LocalDate hoy, Map<Object, Acumulado> grupos) {
+        switch (tipo) {
+            case PRODUCTO -> ventasDelDia.porProducto().forEach(fila -> sumarFila(grupos, fila.clave(), fila));
+            case CATEGORIA -> ventasDelDia.porCategoria().forEach(fila -> sumarFila(grupos, fila.clave(), fila));
+            case HORA -> ventasDelDia.porHora().forEach(fila ->
+                    sumarFila(grupos, fila.clave() == VentasDelDia.SIN_HORA ? null : fila.clave(), fila));
+            case DIA -> {
+                VentasDelDia.Fila totales = ventasDelDia.totales();
+                if (totales.pedidos() > 0) {
+                    sumarFila(grupos, hoy, totales);
+                }
+            }
+        }
+    }
+
+    private Map<Long, Long> categorias() {
+        return productoRepository.listarCategorias().stream()
+                .collect(Collectors.toMap(CategoriaProducto::getId, CategoriaProducto::getIdCategoria));
+    }
+
+    private static void sumarFila(Map<Object, Acumulado> grupos, Object clave, VentasDelDia.Fila fila) {
+        grupos.computeIfAbsent(clave, c -> new Acumulado()).sumar(fila.unidades(), fila.ingresos(), fila.pedidos());
+    }
+
+    private static List<VentasDelDia.Fila> filasDelDia(List<VentaAgrupada> filas) {
+        return filas.stream()
+                .map(fila -> new VentasDelDia.Fila(
+                        fila.getClave() == null ? VentasDelDia.SIN_HORA : ((Number) fila.getClave()).longValue(),
+                        valor(fila.getUnidades()), fila.getIngresos() == null ? 0.0 : fila.getIngresos(),
+                        valor(fila.getPedidos())))
+                .toList();
+    }
+
+    // Ids y horas llegan como Integer o Long según la consulta; se unifican para mezclarlos con los de memoria
+    private static Object clave(Object clave) {
+        return clave instanceof Number numero ? (Object) numero.longValue() : clave;
+    }
+
+    private static long valor(Long valor) {
+        return valor == null ? 0 : valor;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Map.Entry<Object, Acumulado>> orden(Agrupacion tipo) {
+        Comparator<Map.Entry<Object, Acumulado>> porClave = Comparator.comparing(
+                grupo -> (Comparable) grupo.getKey(), Comparator.nullsLast(Comparator.naturalOrder()));
+        if (tipo == Agrupacion.HORA || tipo == Agrupacion.DIA) {
+            return porClave;
+        }
+        return Comparator.<Map.Entry<Object, Acumulado>>comparingDouble(grupo -> grupo.getValue().ingresos)
+                .reversed()
+                .thenComparing(porClave);
+    }
+
+    private static FilaVentasDTO convertirFila(Object clave, Acumulado acumulado) {
+        return FilaVentasDTO.builder()
+                .clave(clave == null ? "sin_hora" : clave.toString())
+                .unidades(acumulado.unidades)
+                .ingresos(redondear(acumulado.ingresos))
+                .pedidos(acumulado.pedidos)
+                .ticketMedio(acumulado.ticketMedio())
+                .build();
+    }
+
+    private static double redondear(double importe) {
+        return Math.round(importe * 100) / 100.0;
+    }
+
+    private static Agrupacion agrupacionDesde(String agrupacion) {
+        try {
+            return Agrupacion.valueOf(agrupacion.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Agrupación no válida: " + agrupacion);
+        }
+    }
+
+    private static final class Acumulado {
+        long unidades;
+        double ingresos;
+        long pedidos;
+
+        void sumar(long masUnidades, Double masIngresos, long masPedidos) {
+            unidades += masUnidades;
+            ingresos += masIngresos == null ? 0.0 : masIngresos;
+            pedidos += masPedidos;
+        }
+
+        double ticketMedio() {
+            return pedidos == 0 ? 0.0 : redondear(ingresos / pedidos);
+        }
+    }
+}
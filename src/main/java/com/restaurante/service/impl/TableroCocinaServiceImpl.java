@@ -0,0 +1,222 @@
+package com.restaurante.service.impl;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.service.IPersonalCocinaService;
+import com.restaurante.service.ITableroCocinaService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tablero de cocina en tiempo real: recibe los eventos de pedidos publicados
+ * por los servicios (tras el commit) y los reenvía por SSE a cada pantalla
+ * suscrita que acepte ese estado y área.
+ *
+ * Cada suscriptor tiene un buffer acotado que vacía un hilo de envío; si una
+ * pantalla no consume a tiempo y el buffer se llena se la desconecta, y el
+ * EventSource del navegador vuelve a conectarse y recarga el tablero.
+ */
+@Service
+public class TableroCocinaServiceImpl implements ITableroCocinaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableroCocinaServiceImpl.class);
+
+    static final int CAPACIDAD_BUFFER = 256;
+    private static final long TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long LATIDO_SEGUNDOS = 15;
+
+    @Autowired
+    private IPersonalCocinaService personalCocinaService;
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final Executor envios;
+    private final ScheduledExecutorService latidos = Executors.newSingleThreadScheduledExecutor(hilo("tablero-sse-latido"));
+
+    // Sin contexto de Spring (pruebas): hilos de plataforma
+    public TableroCocinaServiceImpl() {
+        this(false);
+    }
+
+    @Autowired
+    public TableroCocinaServiceImpl(Environment environment) {
+        this(Threading.VIRTUAL.isActive(environment));
+    }
+
+    private TableroCocinaServiceImpl(boolean hilosVirtuales) {
+        // Con hilos virtuales cada vaciado tiene su propio hilo: una pantalla lenta no retrasa al resto
+        envios = hilosVirtuales
+                ? new VirtualThreadTaskExecutor("tablero-sse-envio-")
+                : Executors.newFixedThreadPool(4, hilo("tablero-sse-envio"));
+    }
+
+    @PostConstruct
+    void iniciar() {
+        // Comentario SSE periódico: mantiene viva la conexión en proxies y detecta clientes caídos
+        latidos.scheduleAtFixedRate(() -> {
+            Set<DataWithMediaType> latido = SseEmitter.event().comment("latido").build();
+            suscriptores.forEach(suscriptor -> encolar(suscriptor, latido));
+        }, LATIDO_SEGUNDOS, LATIDO_SEGUNDOS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        latidos.shutdownNow();
+        suscriptores.forEach(this::desconectar);
+        if (envios instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public SseEmitter suscribir(Set<String> estados, String area) {
+        SseEmitter emitter = crearEmitter();
+        Set<String> filtroEstados = estados == null ? Set.of() : estados.stream()
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+        Suscriptor suscriptor = new Suscriptor(emitter, filtroEstados, area);
+        suscriptores.add(suscriptor);
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(() -> desconectar(suscriptor));
+        emitter.onError(error -> suscriptores.remove(suscriptor));
+        return emitter;
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(PedidoEventoDTO evento) {
+        if (suscriptores.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> mensaje = SseEmitter.event()
+                .name(evento.getTipo())
+                .data(evento, MediaType.APPLICATION_JSON)
+                .build();
+        String area = null;
+        boolean areaResuelta = false;
+        for (Suscriptor suscriptor : suscriptores) {
+            if (!suscriptor.aceptaEstado(evento.getEstado())) {
+                continue;
+            }
+            // Los eventos sin personal asignado (p. ej. un pedido nuevo) llegan a todas las áreas
+            if (suscriptor.area != null && evento.getIdPersonaCocina() != null) {
+                if (!areaResuelta) {
+                    area = areaDe(evento.getIdPersonaCocina());
+                    areaResuelta = true;
+                }
+                if (!suscriptor.area.equalsIgnoreCase(area)) {
+                    continue;
+                }
+            }
+            encolar(suscriptor, mensaje);
+        }
+    }
+
+    @Override
+    public int suscriptoresActivos() {
+        return suscriptores.size();
+    }
+
+    protected SseEmitter crearEmitter() {
+        return new SseEmitter(TIMEOUT_MS);
+    }
+
+    private String areaDe(Long idPersonaCocina) {
+        try {
+            return personalCocinaService.obtenerPersonalPorId(idPersonaCocina).getArea();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void encolar(Suscriptor suscriptor, Set<DataWithMediaType> mensaje) {
+        if (!suscriptor.pendientes.offer(mensaje)) {
+            logger.warn("Pantalla de cocina desconectada: buffer lleno ({} eventos sin enviar)", CAPACIDAD_BUFFER);
+            desconectar(suscriptor);
+            return;
+        }
+        programarEnvio(suscriptor);
+    }
+
+    private void programarEnvio(Suscriptor suscriptor) {
+        if (suscriptor.enviando.compareAndSet(false, true)) {
+            envios.execute(() -> vaciar(suscriptor));
+        }
+    }
+
+    private void vaciar(Suscriptor suscriptor) {
+        try {
+            Set<DataWithMediaType> mensaje;
+            while ((mensaje = suscriptor.pendientes.poll()) != null) {
+                suscriptor.emitter.send(mensaje);
+            }
+        } catch (IOException | IllegalStateException e) {
+            desconectar(suscriptor);
+            return;
+        } finally {
+            suscriptor.enviando.set(false);
+        }
+        // Un evento pudo llegar justo antes de liberar el indicador
+        if (!suscriptor.pendientes.isEmpty()) {
+            programarEnvio(suscriptor);
+        }
+    }
+
+    private void desconectar(Suscriptor suscriptor) {
+        if (suscriptores.remove(suscriptor)) {
+            suscriptor.pendientes.clear();
+            suscriptor.emitter.complete();
+        }
+    }
+
+    private static ThreadFactory hilo(String nombre) {
+        return tarea -> {
+            Thread hilo = new Thread(tarea, nombre);
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    private static final class Suscriptor {
+        private final SseEmitter emitter;
+        private final Set<String> estados;
+        private final String area;
+        private final BlockingQueue<Set<DataWithMediaType>> pendientes = new ArrayBlockingQueue<>(CAPACIDAD_BUFFER);
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        private Suscriptor(SseEmitter emitter, Set<String> estados, String area) {
+            this.emitter = emitter;
+            this.estados = estados;
+            this.area = area;
+        }
+
+        private boolean aceptaEstado(String estado) {
+            return estados.isEmpty() || (estado != null && estados.contains(estado.toUpperCase()));
+        }
+    }
+}
@@ -1,24 +1,98 @@
 package com.restaurante.service.impl;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.ProductoValoradoDTO;
+import com.restaurante.dto.ResumenValoracionDTO;
 import com.restaurante.dto.ValoracionDTO;
 //import com.restaurante.model.Repartidor;
+import com.restaurante.model.ResumenValoracion;
+import com.restaurante.model.ResumenValoracion.Ambito;
 import com.restaurante.model.Valoracion;
+import com.restaurante.repository.ResumenValoracionRepository;
+import com.restaurante.repository.ResumenValoracionRepository.ValoracionProducto;
 import com.restaurante.repository.ValoracionRepository;
+import com.restaurante.repository.ValoracionRepository.ConteoPuntuacion;
 import com.restaurante.service.IValoracionService;
+import com.restaurante.service.comun.DespuesDelCommit;
+import com.restaurante.service.ranking.RankingProductos;
 
 @Service
 public class ValoracionServiceImpl implements IValoracionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ValoracionServiceImpl.class);
+
+    private static final int MAXIMO_TOP = 50;
+
     @Autowired
     private ValoracionRepository valoracionRepository;
 
+    @Autowired
+    private ResumenValoracionRepository resumenRepository;
+
+    private final RankingProductos ranking = new RankingProductos();
+
+    /**
+     * Carga el ranking de productos al arrancar y lo reconstruye cada
+     * app.ranking.reconstruccionMs, recorriendo los resúmenes con un stream. Así
+     * recoge las valoraciones hechas en otros nodos, los productos desactivados
+     * y los cambios de categoría; las valoraciones de este nodo se aplican al
+     * momento.
+     */
+    @Scheduled(fixedDelayString = "${app.ranking.reconstruccionMs:300000}")
+    @Transactional(readOnly = true)
+    public void reconstruirRanking() {
+        long marca = ranking.marca();
+        try (Stream<ValoracionProducto> filas = resumenRepository.streamValoracionesProducto()) {
+            ranking.reconstruir(filas.map(ValoracionServiceImpl::entrada), marca);
+        }
+    }
+
+    /**
+     * Comprobación nocturna de los resúmenes por producto: los mantienen las
+     * altas y bajas de líneas de pedido, pero un cambio que no pase por los
+     * servicios (SQL a mano, una carga masiva) los dejaría descuadrados. Una
+     * valoración que confirme mientras corre la sentencia puede quedar pisada;
+     * la siguiente pasada la corrige.
+     */
+    @Scheduled(cron = "${app.valoraciones.reconciliacionCron:0 40 4 * * *}")
+    @Transactional
+    public int reconciliarResumenesProducto() {
+        int corregidos = resumenRepository.recalcularProductos();
+        if (corregidos > 0) {
+            logger.warn("Corregidos {} resúmenes de valoración por producto que no cuadraban con las valoraciones",
+                    corregidos);
+        }
+        return corregidos;
+    }
+
+    @Override
+    public List<ProductoValoradoDTO> obtenerTopValorados(Long idCategoria, int limite) {
+        return ranking.top(idCategoria, Math.max(1, Math.min(limite, MAXIMO_TOP))).stream()
+                .map(ValoracionServiceImpl::convertirValorado)
+                .toList();
+    }
+
     @Override
     public List<ValoracionDTO> obtenerTodas() {
         return valoracionRepository.findAll().stream()
@@ -26,6 +100,23 @@ public class ValoracionServiceImpl implements IValoracionService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<ValoracionDTO> obtenerPagina(Long cursor, int limite) {
+        int tamano = PaginaDTO.normalizarLimite(limite);
+        List<ValoracionDTO> filas = valoracionRepository.findPaginaDesde(
+                PaginaDTO.normalizarCursor(cursor), PageRequest.ofSize(tamano + 1));
+        return PaginaDTO.de(filas, tamano, ValoracionDTO::getPid);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void recorrerTodas(Consumer<ValoracionDTO> consumidor) {
+        try (Stream<ValoracionDTO> filas = valoracionRepository.streamTodos()) {
+            filas.forEach(consumidor);
+        }
+    }
+
     @Override
     public ValoracionDTO obtenerPorId(Long id) {
         Valoracion valoracion = valoracionRepository.findById(id)
@@ -48,16 +139,26 @@ public class ValoracionServiceImpl implements IValoracionService {
     }
 
     @Override
+    @Transactional
     public ValoracionDTO crear(ValoracionDTO valoracionDTO) {
+        validarPuntuacion(valoracionDTO.getPuntuacion());
         Valoracion valoracion = convertToEntity(valoracionDTO);
         valoracion.setFechaModificacion(java.time.LocalDateTime.now());
-        return convertToDTO(valoracionRepository.save(valoracion));
+        Valoracion guardada = valoracionRepository.save(valoracion);
+        sumarAResumenes(guardada.getIdPedido(), guardada.getIdCliente(), guardada.getPuntuacion(), 1);
+        return convertToDTO(guardada);
     }
 
     @Override
+    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 50))
     public ValoracionDTO actualizar(Long id, ValoracionDTO valoracionDTO) {
+        validarPuntuacion(valoracionDTO.getPuntuacion());
         Valoracion existente = valoracionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Valoración no encontrada"));
+        Long pedidoAnterior = existente.getIdPedido();
+        Long clienteAnterior = existente.getIdCliente();
+        Integer puntuacionAnterior = existente.getPuntuacion();
         
         existente.setIdPedido(valoracionDTO.getIdPedido());
         existente.setIdCliente(valoracionDTO.getIdCliente());
@@ -65,33 +166,178 @@ public class ValoracionServiceImpl implements IValoracionService {
         existente.setComentario(valoracionDTO.getComentario());
         existente.setFechaModificacion(java.time.LocalDateTime.now());
         
-        return convertToDTO(valoracionRepository.save(existente));
+        Valoracion guardada = valoracionRepository.save(existente);
+        if (!Objects.equals(pedidoAnterior, guardada.getIdPedido())
+                || !Objects.equals(clienteAnterior, guardada.getIdCliente())
+                || !Objects.equals(puntuacionAnterior, guardada.getPuntuacion())) {
+            sumarAResumenes(pedidoAnterior, clienteAnterior, puntuacionAnterior, -1);
+            sumarAResumenes(guardada.getIdPedido(), guardada.getIdCliente(), guardada.getPuntuacion(), 1);
+        }
+        return convertToDTO(guardada);
     }
 
     @Override
+    @Transactional
     public void eliminar(Long id) {
-        valoracionRepository.deleteById(id);
+        // Se lee antes de borrar para poder restarla de los resúmenes
+        valoracionRepository.findById(id).ifPresent(valoracion -> {
+            valoracionRepository.delete(valoracion);
+            sumarAResumenes(valoracion.getIdPedido(), valoracion.getIdCliente(), valoracion.getPuntuacion(), -1);
+        });
+    }
+
+    /**
+     * Un producto entra en un pedido (delta = 1) o deja de estar en él
+     * (delta = -1): sus valoraciones pasan a contar, o dejan de contar, en el
+     * resumen del producto. Lo llaman los servicios de pedidos y líneas en su
+     * transacción.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sumarProductoDePedido(Long idPedido, Long idProducto, int delta) {
+        if (idPedido != null && idProducto != null && resumenRepository.sumarProducto(idPedido, idProducto, delta) > 0) {
+            actualizarRanking(Set.of(idProducto));
+        }
     }
 
+    /** Antes de borrar las líneas de un pedido, o el pedido. */
     @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void quitarProductosDePedido(Long idPedido) {
+        Set<Long> idsProducto = new LinkedHashSet<>(resumenRepository.findIdsProductoDePedido(idPedido));
+        int ajustados = 0;
+        for (Long idProducto : idsProducto) {
+            ajustados += resumenRepository.sumarProducto(idPedido, idProducto, -1);
+        }
+        if (ajustados > 0) {
+            actualizarRanking(idsProducto);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Double obtenerPuntuacionPromedioPorPedido(Long idPedido) {
-        return valoracionRepository.findByIdPedido(idPedido).stream()
-                .mapToInt(Valoracion::getPuntuacion)
-                .average()
-                .orElse(0.0);
+        return resumen(Ambito.PEDIDO, idPedido).getPromedio();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Double obtenerPuntuacionPromedioPorCliente(Long idCliente) {
-        return valoracionRepository.findByIdCliente(idCliente).stream()
-                .mapToInt(Valoracion::getPuntuacion)
-                .average()
-                .orElse(0.0);
+        return resumen(Ambito.CLIENTE, idCliente).getPromedio();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResumenValoracionDTO obtenerResumen(String ambito, Long id) {
+        return resumen(ambitoDesde(ambito), id);
+    }
+
+    /**
+     * Lectura de la fila de resumen por clave primaria. Si no existe (valoraciones
+     * anteriores a la tabla que no pasaron por la migración de carga) se calcula
+     * con un GROUP BY en la base de datos, sin cargar las valoraciones.
+     */
+    private ResumenValoracionDTO resumen(Ambito ambito, Long id) {
+        return resumenRepository.findById(new ResumenValoracion.Clave(ambito, id))
+                .map(this::convertirResumen)
+                .orElseGet(() -> agregarResumen(ambito, id));
+    }
+
+    private ResumenValoracionDTO agregarResumen(Ambito ambito, Long id) {
+        List<ConteoPuntuacion> conteos = switch (ambito) {
+            case PEDIDO -> valoracionRepository.contarPorPuntuacionDePedido(id);
+            case CLIENTE -> valoracionRepository.contarPorPuntuacionDeCliente(id);
+            case PRODUCTO -> valoracionRepository.contarPorPuntuacionDeProducto(id);
+        };
+        long[] estrellas = new long[5];
+        long cantidad = 0;
+        long suma = 0;
+        for (ConteoPuntuacion conteo : conteos) {
+            Integer puntuacion = conteo.getPuntuacion();
+            if (puntuacion != null && puntuacion >= 1 && puntuacion <= 5) {
+                estrellas[puntuacion - 1] += conteo.getCantidad();
+                cantidad += conteo.getCantidad();
+                suma += conteo.getCantidad() * puntuacion;
+            }
+        }
+        return resumenDTO(ambito, id, cantidad, suma, estrellas);
+    }
+
+    private ResumenValoracionDTO convertirResumen(ResumenValoracion resumen) {
+        return resumenDTO(resumen.getClave().getAmbito(), resumen.getClave().getIdReferencia(),
+                resumen.getCantidad(), resumen.getSuma(), new long[] {
+                        resumen.getEstrellas1(), resumen.getEstrellas2(), resumen.getEstrellas3(),
+                        resumen.getEstrellas4(), resumen.getEstrellas5()});
+    }
+
+    private ResumenValoracionDTO resumenDTO(Ambito ambito, Long id, long cantidad, long suma, long[] estrellas) {
+        return ResumenValoracionDTO.builder()
+                .ambito(ambito.name().toLowerCase())
+                .idReferencia(id)
+                .cantidad(cantidad)
+                .promedio(cantidad == 0 ? 0.0 : (double) suma / cantidad)
+                .estrellas(Arrays.stream(estrellas).boxed().toList())
+                .build();
+    }
+
+    private void sumarAResumenes(Long idPedido, Long idCliente, Integer puntuacion, int delta) {
+        if (puntuacion != null) {
+            resumenRepository.sumar(idPedido, idCliente, puntuacion, delta);
+            if (idPedido != null) {
+                actualizarRanking(new LinkedHashSet<>(resumenRepository.findIdsProductoDePedido(idPedido)));
+            }
+        }
+    }
+
+    /*
+     * Relee los resúmenes de los productos y los coloca en el ranking cuando la
+     * transacción confirma. La lectura se hace después del commit y con el lock
+     * del ranking: leídos antes, dos transacciones sobre el mismo producto
+     * podían publicar en orden inverso y dejar el resumen más viejo.
+     */
+    private void actualizarRanking(Set<Long> idsProducto) {
+        if (idsProducto.isEmpty()) {
+            return;
+        }
+        DespuesDelCommit.ejecutar(() -> ranking.actualizar(idsProducto, ids ->
+                resumenRepository.findValoracionesProducto(ids).stream()
+                        .map(ValoracionServiceImpl::entrada)
+                        .toList()));
+    }
+
+    private static RankingProductos.Entrada entrada(ValoracionProducto fila) {
+        return new RankingProductos.Entrada(fila.getIdProducto(), fila.getNombre(), fila.getIdCategoria(),
+                fila.getCantidad(), fila.getSuma());
+    }
+
+    private static ProductoValoradoDTO convertirValorado(RankingProductos.Entrada entrada) {
+        return ProductoValoradoDTO.builder()
+                .idProducto(entrada.idProducto())
+                .nombre(entrada.nombre())
+                .idCategoria(entrada.idCategoria())
+                .cantidad(entrada.cantidad())
+                .promedio(entrada.promedio())
+                .puntuacion(entrada.puntuacion())
+                .build();
+    }
+
+    private static void validarPuntuacion(Integer puntuacion) {
+        if (puntuacion == null || puntuacion < 1 || puntuacion > 5) {
+            throw new RuntimeException("La puntuación debe estar entre 1 y 5");
+        }
+    }
+
+    private static Ambito ambitoDesde(String ambito) {
+        try {
+            return Ambito.valueOf(ambito.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Ámbito de resumen no válido: " + ambito);
+        }
     }
 
     @Transactional
     public Valoracion obtenerPorIdConBloqueo(Long id) {
-        Valoracion est = valoracionRepository.findById(id)
+        Valoracion est = valoracionRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Valoración no encontrada"));
         try { Thread.sleep(15000); } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
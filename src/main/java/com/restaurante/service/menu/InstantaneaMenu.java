@@ -0,0 +1,22 @@
+package com.restaurante.service.menu;
+
+import java.util.Map;
+
+/**
+ * Todas las vistas públicas del menú construidas a la vez a partir de los mismos
+ * datos. {@code generacion} es el número de cambios conocidos al construirla:
+ * si ha avanzado desde entonces, la instantánea está desactualizada.
+ */
+public record InstantaneaMenu(
+        long generacion,
+        RecursoMenu menu,
+        RecursoMenu categoriasActivas,
+        RecursoMenu productosActivos,
+        RecursoMenu productosDestacados,
+        Map<Long, RecursoMenu> productosPorCategoria,
+        RecursoMenu listaVacia) {
+
+    public RecursoMenu productosDeCategoria(Long idCategoria) {
+        return productosPorCategoria.getOrDefault(idCategoria, listaVacia);
+    }
+}
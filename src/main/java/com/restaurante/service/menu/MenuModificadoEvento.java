@@ -0,0 +1,8 @@
+package com.restaurante.service.menu;
+
+/**
+ * Se publica tras confirmar un cambio de producto o categoría en este nodo.
+ * Los cambios de otros nodos llegan por las invalidaciones de caché.
+ */
+public record MenuModificadoEvento(String origen) {
+}
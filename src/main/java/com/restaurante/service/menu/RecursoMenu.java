@@ -0,0 +1,52 @@
+package com.restaurante.service.menu;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Una vista del menú ya serializada a JSON y, si merece la pena, comprimida con
+ * gzip. El ETag se deriva del contenido, así que dos nodos con el mismo menú
+ * responden el mismo ETag; la versión gzip lleva uno propio porque es otra
+ * representación del recurso.
+ */
+public record RecursoMenu(byte[] json, byte[] gzip, String etag) {
+
+    // Por debajo de este tamaño gzip apenas ahorra (o incluso agranda la respuesta)
+    private static final int MINIMO_COMPRIMIR = 1024;
+
+    public static RecursoMenu de(byte[] json) {
+        return new RecursoMenu(json, json.length >= MINIMO_COMPRIMIR ? comprimir(json) : null, resumen(json));
+    }
+
+    public boolean tieneGzip() {
+        return gzip != null;
+    }
+
+    public String etag(boolean comprimido) {
+        return "\"" + etag + (comprimido ? "-gz" : "") + "\"";
+    }
+
+    private static byte[] comprimir(byte[] json) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    private static String resumen(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.restaurante.service.outbox;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.restaurante.dto.PedidoEventoDTO;
+
+/**
+ * Reenvía los eventos al bus de la aplicación (tablero de cocina y demás
+ * listeners en este nodo). Llegan por dos caminos: el relé del outbox, en el
+ * nodo que reclama la fila, y LectorStreamEventos, en todos los nodos. Los
+ * listeners no descartan duplicados, así que cada idEvento se entrega aquí una
+ * sola vez, venga por donde venga y aunque el relé lo reenvíe en un reintento.
+ *
+ * Un evento cuenta como entregado cuando confirma la transacción del relé que
+ * marca su fila como publicada. Si esa transacción se deshace, la fila vuelve a
+ * estar pendiente y el reintento tiene que llegar a los listeners. Mientras la
+ * transacción sigue abierta el evento está en curso y tampoco se repite.
+ */
+@Component
+public class BusLocalPublicador implements PublicadorEventos {
+
+    // Bastan unos cuantos lotes: los reintentos llegan en segundos o minutos
+    private static final int RECIENTES = 10_000;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Boolean> publicados = new LinkedHashMap<>(RECIENTES, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> mayor) {
+            return size() > RECIENTES;
+        }
+    };
+    // Entregados en transacciones del relé que aún no han terminado
+    private final Set<Long> enCurso = new HashSet<>();
+
+    @Override
+    public void publicar(List<PedidoEventoDTO> eventos) {
+        Set<Long> entregados = entregadosEnTransaccion();
+        try {
+            for (PedidoEventoDTO evento : eventos) {
+                Long idEvento = evento.getIdEvento();
+                if (idEvento != null && !reservar(idEvento)) {
+                    continue;
+                }
+                try {
+                    eventPublisher.publishEvent(evento);
+                } catch (RuntimeException e) {
+                    // Si un listener falla, el reintento vuelve a entregar el evento
+                    liberar(idEvento == null ? Set.of() : Set.of(idEvento));
+                    throw e;
+                }
+                if (idEvento != null) {
+                    entregados.add(idEvento);
+                }
+            }
+        } finally {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                anotar(entregados);
+            }
+        }
+    }
+
+    /**
+     * Ids entregados en la transacción en curso: se anotan como publicados al
+     * confirmar y dejan de estar en curso al terminar. Sin transacción se anotan
+     * al terminar publicar.
+     */
+    @SuppressWarnings("unchecked")
+    private Set<Long> entregadosEnTransaccion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashSet<>();
+        }
+        Set<Long> ids = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (ids == null) {
+            Set<Long> nuevos = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    anotar(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int estado) {
+                    liberar(nuevos);
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BusLocalPublicador.this);
+                }
+            });
+            ids = nuevos;
+        }
+        return ids;
+    }
+
+    // Comprobar y marcar a la vez: el relé y el lector pueden traer el mismo evento a la vez
+    private synchronized boolean reservar(Long idEvento) {
+        if (publicados.containsKey(idEvento) || enCurso.contains(idEvento)) {
+            return false;
+        }
+        enCurso.add(idEvento);
+        return true;
+    }
+
+    private synchronized void anotar(Set<Long> idsEvento) {
+        idsEvento.forEach(idEvento -> publicados.put(idEvento, Boolean.TRUE));
+        enCurso.removeAll(idsEvento);
+    }
+
+    private synchronized void liberar(Set<Long> idsEvento) {
+        enCurso.removeAll(idsEvento);
+    }
+}
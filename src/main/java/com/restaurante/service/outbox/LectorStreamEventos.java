@@ -0,0 +1,112 @@
+package com.restaurante.service.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.PedidoEventoDTO;
+
+/**
+ * Lleva al bus de la aplicación de cada nodo los eventos que el relé del
+ * outbox de cualquier nodo añade al stream de Redis, para que los tableros de
+ * cocina suscritos a un nodo vean también los cambios que publica otro.
+ *
+ * Cada nodo lee el stream entero por su cuenta, sin grupo de consumidores
+ * (XREAD desde el último id leído), empezando por el final que tenga al
+ * arrancar. El nodo que publica un evento lo lee también; BusLocalPublicador
+ * lo descarta por idEvento, como las entradas repetidas por los reintentos.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.redis.enabled", havingValue = "true", matchIfMissing = true)
+public class LectorStreamEventos {
+
+    private static final Logger logger = LoggerFactory.getLogger(LectorStreamEventos.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BusLocalPublicador busLocal;
+
+    @Value("${app.outbox.redis.stream:restaurante:pedidos:eventos}")
+    private String stream;
+
+    @Value("${app.outbox.tamanoLote:200}")
+    private int tamanoLote;
+
+    // Nulo hasta la primera lectura que llega a Redis
+    private volatile String ultimoId;
+
+    /**
+     * Entrega las entradas nuevas y devuelve cuántas ha leído. Si el bus falla,
+     * el último id no avanza y el lote se relee en la pasada siguiente.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.redis.lecturaMs:200}")
+    public int leer() {
+        List<MapRecord<String, Object, Object>> entradas;
+        try {
+            if (ultimoId == null) {
+                ultimoId = ultimoDelStream();
+            }
+            entradas = redisTemplate.opsForStream().read(StreamReadOptions.empty().count(tamanoLote),
+                    StreamOffset.create(stream, ReadOffset.from(ultimoId)));
+        } catch (DataAccessException e) {
+            // Con Redis caído el relé ya avisa en cada lote; aquí basta con esperar a la pasada siguiente
+            logger.debug("No se pudo leer el stream {}", stream, e);
+            return 0;
+        }
+        if (entradas == null || entradas.isEmpty()) {
+            return 0;
+        }
+        List<PedidoEventoDTO> eventos = new ArrayList<>(entradas.size());
+        for (MapRecord<String, Object, Object> entrada : entradas) {
+            try {
+                eventos.add(leer(entrada));
+            } catch (IllegalStateException e) {
+                logger.warn("Entrada {} del stream {} ilegible; se descarta", entrada.getId(), stream, e);
+            }
+        }
+        busLocal.publicar(eventos);
+        ultimoId = entradas.get(entradas.size() - 1).getId().getValue();
+        return entradas.size();
+    }
+
+    // Solo lo que se añada a partir de ahora; stream vacío o inexistente: desde el principio
+    private String ultimoDelStream() {
+        List<MapRecord<String, Object, Object>> ultima = redisTemplate.opsForStream()
+                .reverseRange(stream, Range.unbounded(), Limit.limit().count(1));
+        return ultima == null || ultima.isEmpty() ? "0-0" : ultima.get(0).getId().getValue();
+    }
+
+    private PedidoEventoDTO leer(MapRecord<String, Object, Object> entrada) {
+        Object payload = entrada.getValue().get("payload");
+        if (payload == null) {
+            throw new IllegalStateException("Entrada sin payload: " + entrada.getId());
+        }
+        try {
+            return objectMapper.readValue(payload.toString(), PedidoEventoDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload ilegible en la entrada " + entrada.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.restaurante.service.outbox;
+
+import java.util.List;
+
+import com.restaurante.dto.PedidoEventoDTO;
+
+/**
+ * Destino de los eventos del outbox. Recibe cada lote en orden de id; si un
+ * destino lanza una excepción, el lote se vuelve a enviar a todos fila a fila
+ * hasta la primera que falla, y esa y las siguientes se reintentan más tarde.
+ * La entrega es al menos una vez: los consumidores deben descartar duplicados
+ * por idEvento.
+ */
+public interface PublicadorEventos {
+    void publicar(List<PedidoEventoDTO> eventos);
+}
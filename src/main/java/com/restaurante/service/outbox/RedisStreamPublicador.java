@@ -0,0 +1,71 @@
+package com.restaurante.service.outbox;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.PedidoEventoDTO;
+
+/**
+ * Añade los eventos a un stream de Redis, que leen LectorStreamEventos en cada
+ * nodo y los consumidores externos (notificaciones, integraciones). Cada lote
+ * se envía en un único pipeline y el stream se recorta de forma aproximada a
+ * app.outbox.redis.maxlen entradas.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.redis.enabled", havingValue = "true", matchIfMissing = true)
+public class RedisStreamPublicador implements PublicadorEventos {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.redis.stream:restaurante:pedidos:eventos}")
+    private String stream;
+
+    @Value("${app.outbox.redis.maxlen:100000}")
+    private long maximoEntradas;
+
+    @Override
+    public void publicar(List<PedidoEventoDTO> eventos) {
+        XAddOptions opciones = XAddOptions.maxlen(maximoEntradas).approximateTrimming(true);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operaciones) throws DataAccessException {
+                StreamOperations<String, String, String> streams =
+                        ((RedisOperations<String, String>) operaciones).opsForStream();
+                for (PedidoEventoDTO evento : eventos) {
+                    streams.add(StreamRecords.string(campos(evento)).withStreamKey(stream), opciones);
+                }
+                return null;
+            }
+        });
+    }
+
+    private Map<String, String> campos(PedidoEventoDTO evento) {
+        try {
+            return Map.of(
+                    "idEvento", String.valueOf(evento.getIdEvento()),
+                    "tipo", evento.getTipo(),
+                    "payload", objectMapper.writeValueAsString(evento));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + evento.getIdEvento(), e);
+        }
+    }
+}
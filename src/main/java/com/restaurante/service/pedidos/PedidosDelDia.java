@@ -0,0 +1,136 @@
+package com.restaurante.service.pedidos;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.service.comun.CambiosDesdeCarga;
+
+/**
+ * Pedidos de un día en memoria, ordenados por id. Se mantiene con cada alta,
+ * cambio o baja y se sustituye por completo con cada carga desde la base de
+ * datos; un pedido cuya fecha no es la del día cargado se quita.
+ *
+ * Los cambios aplicados mientras una carga está en curso prevalecen sobre lo
+ * que esa carga leyó (CambiosDesdeCarga); reaplicar un pedido lo sustituye.
+ *
+ * PedidoDTO es mutable, así que se guarda una copia de cada pedido recibido y
+ * cada lectura devuelve copias: lo que haga un llamador con su lista no llega
+ * a los demás ni al contenido.
+ */
+public class PedidosDelDia {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LocalDate dia;
+    private TreeMap<Long, PedidoDTO> pedidos = new TreeMap<>();
+    // Pedido nulo indica baja
+    private final CambiosDesdeCarga<Long, PedidoDTO> cambios = new CambiosDesdeCarga<>();
+    private volatile List<PedidoDTO> vista;
+
+    /** Se toma antes de listar los pedidos del día y se pasa a reemplazar. */
+    public long marca() {
+        lock.readLock().lock();
+        try {
+            return cambios.marca();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Indica si el contenido corresponde a ese día (falso antes de la primera carga o tras la medianoche). */
+    public boolean vigente(LocalDate hoy) {
+        lock.readLock().lock();
+        try {
+            return hoy.equals(dia);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye el contenido por los pedidos de ese día. Una carga con una marca
+     * anterior a la de la última aplicada se descarta: sus datos son más viejos.
+     */
+    public void reemplazar(LocalDate nuevoDia, List<PedidoDTO> cargados, long marca) {
+        TreeMap<Long, PedidoDTO> nuevos = new TreeMap<>();
+        for (PedidoDTO pedido : cargados) {
+            nuevos.put(pedido.getPid(), copia(pedido));
+        }
+        lock.writeLock().lock();
+        try {
+            if (cambios.obsoleta(marca)) {
+                return;
+            }
+            cambios.reaplicar(marca, (pid, pedido) -> aplicarEn(nuevos, nuevoDia, pid, pedido));
+            dia = nuevoDia;
+            pedidos = nuevos;
+            vista = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void aplicar(PedidoDTO pedido) {
+        registrar(pedido.getPid(), copia(pedido));
+    }
+
+    public void eliminar(Long pid) {
+        registrar(pid, null);
+    }
+
+    /**
+     * Copia de los pedidos del día. La lista interna se reutiliza entre lecturas
+     * hasta el siguiente cambio, sin lock; los pedidos se copian en cada lectura.
+     */
+    public List<PedidoDTO> listar() {
+        return vista().stream().map(PedidosDelDia::copia).toList();
+    }
+
+    private List<PedidoDTO> vista() {
+        List<PedidoDTO> actual = vista;
+        if (actual != null) {
+            return actual;
+        }
+        lock.readLock().lock();
+        try {
+            // Los cambios toman el lock de escritura, así que no pueden invalidar esta copia mientras se hace
+            actual = List.copyOf(pedidos.values());
+            vista = actual;
+            return actual;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void registrar(Long pid, PedidoDTO pedido) {
+        lock.writeLock().lock();
+        try {
+            cambios.anotar(pid, pedido);
+            aplicarEn(pedidos, dia, pid, pedido);
+            vista = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static PedidoDTO copia(PedidoDTO pedido) {
+        return PedidoDTO.builder()
+                .pid(pedido.getPid())
+                .idCliente(pedido.getIdCliente())
+                .fechaPedido(pedido.getFechaPedido())
+                .estado(pedido.getEstado())
+                .build();
+    }
+
+    private static void aplicarEn(TreeMap<Long, PedidoDTO> destino, LocalDate dia, Long pid, PedidoDTO pedido) {
+        if (pedido != null && dia != null && dia.equals(pedido.getFechaPedido())) {
+            destino.put(pid, pedido);
+        } else {
+            destino.remove(pid);
+        }
+    }
+}
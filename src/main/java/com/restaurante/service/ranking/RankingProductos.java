@@ -0,0 +1,187 @@
+package com.restaurante.service.ranking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.restaurante.service.comun.CambiosDesdeCarga;
+
+/**
+ * Productos ordenados por valoración, en total y por categoría. El contenido
+ * es una instantánea inmutable: cada cambio construye una nueva a partir de la
+ * actual y la publica de una vez, así que el top-K se lee recorriendo los K
+ * primeros elementos, sin ordenar ni bloquear, y nunca ve un producto a medio
+ * mover.
+ *
+ * La puntuación es un promedio bayesiano: cada producto parte de
+ * VALORACIONES_PREVIAS valoraciones de PROMEDIO_PREVIO estrellas, para que un
+ * producto con una sola valoración de 5 no quede por delante de uno con cien
+ * de 4,8.
+ *
+ * Los cambios aplicados mientras una reconstrucción está en curso prevalecen
+ * sobre lo que esa reconstrucción leyó (CambiosDesdeCarga); reaplicar un
+ * producto sustituye su entrada.
+ */
+public class RankingProductos {
+
+    static final double VALORACIONES_PREVIAS = 5;
+    static final double PROMEDIO_PREVIO = 3.0;
+
+    private static final Comparator<Entrada> ORDEN = Comparator.comparingDouble(Entrada::puntuacion).reversed()
+            .thenComparing(Comparator.comparingLong(Entrada::cantidad).reversed())
+            .thenComparing(Entrada::idProducto);
+
+    private final ReentrantLock escritura = new ReentrantLock();
+    private volatile Estado estado = Estado.VACIO;
+    // Entrada nula indica baja
+    private final CambiosDesdeCarga<Long, Entrada> cambios = new CambiosDesdeCarga<>();
+
+    /** Valoraciones acumuladas de un producto activo. */
+    public record Entrada(Long idProducto, String nombre, Long idCategoria, long cantidad, long suma) {
+
+        public double promedio() {
+            return cantidad == 0 ? 0.0 : (double) suma / cantidad;
+        }
+
+        public double puntuacion() {
+            return (suma + VALORACIONES_PREVIAS * PROMEDIO_PREVIO) / (cantidad + VALORACIONES_PREVIAS);
+        }
+    }
+
+    private static final class Estado {
+
+        static final Estado VACIO = new Estado(Map.of(), Map.of(),
+                Collections.unmodifiableNavigableSet(new TreeSet<>(ORDEN)));
+
+        final Map<Long, Entrada> porProducto;
+        final Map<Long, NavigableSet<Entrada>> porCategoria;
+        final NavigableSet<Entrada> todas;
+
+        private Estado(Map<Long, Entrada> porProducto, Map<Long, NavigableSet<Entrada>> porCategoria,
+                NavigableSet<Entrada> todas) {
+            this.porProducto = porProducto;
+            this.porCategoria = porCategoria;
+            this.todas = todas;
+        }
+
+        /**
+         * Copia con esos productos sustituidos (valor nulo: se quitan). Solo se
+         * copian los conjuntos de las categorías afectadas; el resto se comparte.
+         */
+        Estado con(Map<Long, Entrada> cambiados) {
+            Map<Long, Entrada> productos = new HashMap<>(porProducto);
+            Map<Long, NavigableSet<Entrada>> categorias = new HashMap<>(porCategoria);
+            NavigableSet<Entrada> nuevasTodas = new TreeSet<>(todas);
+            Map<Long, NavigableSet<Entrada>> copiadas = new HashMap<>();
+            cambiados.forEach((idProducto, entrada) -> {
+                Entrada anterior = entrada == null ? productos.remove(idProducto) : productos.put(idProducto, entrada);
+                if (anterior != null) {
+                    nuevasTodas.remove(anterior);
+                    categoria(categorias, copiadas, anterior.idCategoria()).remove(anterior);
+                }
+                if (entrada != null) {
+                    nuevasTodas.add(entrada);
+                    categoria(categorias, copiadas, entrada.idCategoria()).add(entrada);
+                }
+            });
+            copiadas.forEach((idCategoria, conjunto) -> {
+                if (conjunto.isEmpty()) {
+                    categorias.remove(idCategoria);
+                } else {
+                    categorias.put(idCategoria, Collections.unmodifiableNavigableSet(conjunto));
+                }
+            });
+            return new Estado(Collections.unmodifiableMap(productos), Collections.unmodifiableMap(categorias),
+                    Collections.unmodifiableNavigableSet(nuevasTodas));
+        }
+
+        private static NavigableSet<Entrada> categoria(Map<Long, NavigableSet<Entrada>> categorias,
+                Map<Long, NavigableSet<Entrada>> copiadas, Long idCategoria) {
+            return copiadas.computeIfAbsent(idCategoria, id -> {
+                NavigableSet<Entrada> actual = categorias.get(id);
+                return actual == null ? new TreeSet<>(ORDEN) : new TreeSet<>(actual);
+            });
+        }
+    }
+
+    /** Se toma antes de abrir el stream de resúmenes y se pasa a reconstruir. */
+    public long marca() {
+        escritura.lock();
+        try {
+            return cambios.marca();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Sustituye el contenido recorriendo las entradas una a una (un stream de la
+     * base de datos, sin cargarlas todas en una lista intermedia). Una
+     * reconstrucción con una marca anterior a la de la última aplicada se
+     * descarta: sus datos son más viejos.
+     */
+    public void reconstruir(Stream<Entrada> entradas, long marca) {
+        Map<Long, Entrada> leidas = new HashMap<>();
+        entradas.forEach(entrada -> leidas.put(entrada.idProducto(), entrada));
+        escritura.lock();
+        try {
+            if (cambios.obsoleta(marca)) {
+                return;
+            }
+            cambios.reaplicar(marca, leidas::put);
+            estado = Estado.VACIO.con(leidas);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Actualiza los productos indicados con lo que devuelva leer: los que tienen
+     * entrada se colocan en su nueva posición y el resto se quita (sin
+     * valoraciones o ya no activos). La lectura se hace dentro del lock, así
+     * que dos actualizaciones del mismo producto se aplican en el orden en que
+     * leyeron y la última en publicarse es la más reciente.
+     */
+    public void actualizar(Collection<Long> idsProducto, Function<Collection<Long>, Collection<Entrada>> leer) {
+        escritura.lock();
+        try {
+            Map<Long, Entrada> cambiados = new HashMap<>();
+            idsProducto.forEach(idProducto -> cambiados.put(idProducto, null));
+            leer.apply(idsProducto).forEach(entrada -> cambiados.put(entrada.idProducto(), entrada));
+            cambiados.forEach(cambios::anotar);
+            estado = estado.con(cambiados);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /** Los mejor valorados de una categoría, o de todo el menú si idCategoria es nulo. */
+    public List<Entrada> top(Long idCategoria, int limite) {
+        Estado actual = estado;
+        NavigableSet<Entrada> conjunto = idCategoria == null ? actual.todas : actual.porCategoria.get(idCategoria);
+        List<Entrada> resultado = new ArrayList<>(limite);
+        if (conjunto == null) {
+            return resultado;
+        }
+        for (Entrada entrada : conjunto) {
+            if (resultado.size() == limite) {
+                break;
+            }
+            resultado.add(entrada);
+        }
+        return resultado;
+    }
+
+    public int tamano() {
+        return estado.porProducto.size();
+    }
+}
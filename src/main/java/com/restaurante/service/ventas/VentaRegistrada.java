@@ -0,0 +1,14 @@
+package com.restaurante.service.ventas;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pedido dado de alta con sus líneas, publicado en el bus de eventos de la
+ * aplicación para sumarlo a las ventas del día en memoria.
+ */
+public record VentaRegistrada(Long idPedido, LocalDateTime fecha, List<Linea> lineas) {
+
+    public record Linea(long idProducto, int cantidad, double precioUnitario) {
+    }
+}
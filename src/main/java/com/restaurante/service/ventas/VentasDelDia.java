@@ -0,0 +1,346 @@
+package com.restaurante.service.ventas;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntToLongFunction;
+import java.util.function.ToIntFunction;
+
+import com.restaurante.service.comun.CambiosDesdeCarga;
+
+/**
+ * Ventas del día en curso acumuladas en arrays de primitivos: unidades,
+ * ingresos y pedidos por producto, por categoría y por hora del día. Los ids
+ * de producto y categoría son IDENTITY y pueden tener huecos grandes, así que
+ * no se usan como índice: cada id recibe una posición consecutiva la primera
+ * vez que aparece (Posiciones) y los arrays miden lo que el catálogo, no lo
+ * que el mayor id. Sumar un pedido es una búsqueda por línea y unas pocas
+ * sumas; un informe recorre los arrays.
+ *
+ * La categoría de cada producto también se guarda en un array por posición; un
+ * producto sin categoría conocida solo suma en los totales por producto y por
+ * hora hasta que se asigna (asignarCategorias).
+ *
+ * Se carga con los totales agrupados de la base de datos y reaplica las
+ * ventas registradas después de la marca (CambiosDesdeCarga). A diferencia de
+ * un pedido, una venta no se sustituye: se suma, así que reaplicarla solo es
+ * correcto si la carga no la incluía. Una venta se registra después de su
+ * commit, y una confirmada antes de la consulta pero registrada después de la
+ * marca ya está en los totales; por eso la carga trae también los pedidos que
+ * sumó y esos no se reaplican.
+ */
+public class VentasDelDia {
+
+    /** Hora de los pedidos sin fecha de creación (anteriores a la columna). */
+    public static final int SIN_HORA = -1;
+
+    private static final int HORAS = 24;
+    private static final long SIN_CATEGORIA = 0;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private LocalDate dia;
+    private final Posiciones posicionesProducto = new Posiciones(64);
+    private final Posiciones posicionesCategoria = new Posiciones(16);
+    private final Acumulados porProducto = new Acumulados(64);
+    private final Acumulados porCategoria = new Acumulados(16);
+    // Indexado por hora; la última posición es la de SIN_HORA
+    private final Acumulados porHora = new Acumulados(HORAS + 1);
+    private long[] categoriaDeProducto = new long[64];
+
+    // Por id de pedido
+    private final CambiosDesdeCarga<Long, VentaRegistrada> cambios = new CambiosDesdeCarga<>();
+
+    /** Totales de un grupo: un producto, una categoría o una hora (SIN_HORA para los pedidos sin hora). */
+    public record Fila(long clave, long unidades, double ingresos, long pedidos) {
+    }
+
+    /**
+     * Lo leído de la base de datos para un día, ya agrupado, con los ids de los
+     * pedidos que suman esos totales. Todo debe salir de la misma instantánea.
+     */
+    public record Carga(List<Fila> porProducto, List<Fila> porCategoria, List<Fila> porHora,
+            Map<Long, Long> categorias, Set<Long> pedidos) {
+    }
+
+    /** Se toma antes de los GROUP BY del día y se pasa a reemplazar con su carga. */
+    public long marca() {
+        lock.lock();
+        try {
+            return cambios.marca();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean vigente(LocalDate hoy) {
+        lock.lock();
+        try {
+            return hoy.equals(dia);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sustituye los acumulados por los de ese día. Una carga con una marca
+     * anterior a la de la última aplicada se descarta.
+     */
+    public void reemplazar(LocalDate nuevoDia, Carga carga, long marca) {
+        lock.lock();
+        try {
+            if (cambios.obsoleta(marca)) {
+                return;
+            }
+            // Las posiciones se reparten de nuevo: un producto borrado o sin ventas no ocupa hueco
+            posicionesProducto.vaciar();
+            posicionesCategoria.vaciar();
+            porProducto.cargar(carga.porProducto(), fila -> posicionesProducto.de(fila.clave()));
+            porCategoria.cargar(carga.porCategoria(), fila -> posicionesCategoria.de(fila.clave()));
+            porHora.cargar(carga.porHora(), fila -> posicionHora(fila.clave()));
+            categoriaDeProducto = new long[categoriaDeProducto.length];
+            asignar(carga.categorias());
+            dia = nuevoDia;
+            cambios.reaplicar(marca, (idPedido, venta) -> {
+                if (!carga.pedidos().contains(idPedido)) {
+                    sumar(venta);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Indica si todos los productos de la venta tienen categoría asignada. */
+    public boolean conoceCategorias(VentaRegistrada venta) {
+        lock.lock();
+        try {
+            for (VentaRegistrada.Linea linea : venta.lineas()) {
+                if (categoriaDe(linea.idProducto()) == SIN_CATEGORIA) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Asigna o corrige la categoría de productos nuevos o cambiados desde la última carga. */
+    public void asignarCategorias(Map<Long, Long> categorias) {
+        lock.lock();
+        try {
+            asignar(categorias);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Suma un pedido nuevo; si es de otro día que el cargado solo se anota para la próxima carga. */
+    public void registrar(VentaRegistrada venta) {
+        lock.lock();
+        try {
+            cambios.anotar(venta.idPedido(), venta);
+            sumar(venta);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Productos con alguna venta, por id. */
+    public List<Fila> porProducto() {
+        lock.lock();
+        try {
+            return porId(porProducto.filas(posicionesProducto::id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Fila> porCategoria() {
+        lock.lock();
+        try {
+            return porId(porCategoria.filas(posicionesCategoria::id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Horas con algún pedido, de 0 a 23, y al final SIN_HORA si la hay. */
+    public List<Fila> porHora() {
+        lock.lock();
+        try {
+            return porHora.filas(h -> h == HORAS ? SIN_HORA : h);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Totales del día; la clave no se usa. Cada pedido está en una sola hora, así que se suman las horas. */
+    public Fila totales() {
+        lock.lock();
+        try {
+            return new Fila(0, Arrays.stream(porHora.unidades).sum(), Arrays.stream(porHora.ingresos).sum(),
+                    Arrays.stream(porHora.pedidos).sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sumar(VentaRegistrada venta) {
+        if (dia == null || venta.fecha() == null || !dia.equals(venta.fecha().toLocalDate())) {
+            return;
+        }
+        int hora = venta.fecha().getHour();
+        // Un pedido cuenta una vez por producto y por categoría aunque tenga varias líneas de ellos
+        Set<Long> productos = new HashSet<>();
+        Set<Long> categorias = new HashSet<>();
+        long unidadesPedido = 0;
+        double importePedido = 0.0;
+        for (VentaRegistrada.Linea linea : venta.lineas()) {
+            double importe = linea.cantidad() * linea.precioUnitario();
+            porProducto.sumar(posicionesProducto.de(linea.idProducto()), linea.cantidad(), importe,
+                    productos.add(linea.idProducto()));
+            long categoria = categoriaDe(linea.idProducto());
+            if (categoria != SIN_CATEGORIA) {
+                porCategoria.sumar(posicionesCategoria.de(categoria), linea.cantidad(), importe,
+                        categorias.add(categoria));
+            }
+            unidadesPedido += linea.cantidad();
+            importePedido += importe;
+        }
+        porHora.sumar(hora, unidadesPedido, importePedido, true);
+    }
+
+    private void asignar(Map<Long, Long> categorias) {
+        for (Map.Entry<Long, Long> categoria : categorias.entrySet()) {
+            int i = posicionesProducto.de(categoria.getKey());
+            if (i >= categoriaDeProducto.length) {
+                categoriaDeProducto = Arrays.copyOf(categoriaDeProducto, capacidadPara(i));
+            }
+            categoriaDeProducto[i] = categoria.getValue() == null ? SIN_CATEGORIA : categoria.getValue();
+        }
+    }
+
+    private long categoriaDe(long idProducto) {
+        int i = posicionesProducto.buscar(idProducto);
+        return i >= 0 && i < categoriaDeProducto.length ? categoriaDeProducto[i] : SIN_CATEGORIA;
+    }
+
+    private static List<Fila> porId(List<Fila> filas) {
+        filas.sort(Comparator.comparingLong(Fila::clave));
+        return filas;
+    }
+
+    private static int posicionHora(long hora) {
+        return hora == SIN_HORA ? HORAS : (int) hora;
+    }
+
+    private static int capacidadPara(int indice) {
+        return Integer.highestOneBit(indice) * 2;
+    }
+
+    /**
+     * Posición consecutiva de cada id, en orden de llegada, y el id de cada
+     * posición. Crece con el número de ids distintos, no con su valor.
+     */
+    private static final class Posiciones {
+        private final Map<Long, Integer> porId = new HashMap<>();
+        private long[] ids;
+
+        Posiciones(int capacidad) {
+            ids = new long[capacidad];
+        }
+
+        /** Posición del id, asignándole la siguiente libre si aún no tiene. */
+        int de(long id) {
+            Integer posicion = porId.get(id);
+            if (posicion == null) {
+                posicion = porId.size();
+                if (posicion == ids.length) {
+                    ids = Arrays.copyOf(ids, capacidadPara(posicion));
+                }
+                ids[posicion] = id;
+                porId.put(id, posicion);
+            }
+            return posicion;
+        }
+
+        /** Posición del id, o -1 si no tiene. */
+        int buscar(long id) {
+            Integer posicion = porId.get(id);
+            return posicion == null ? -1 : posicion;
+        }
+
+        long id(int posicion) {
+            return ids[posicion];
+        }
+
+        void vaciar() {
+            porId.clear();
+        }
+    }
+
+    /** Tres arrays paralelos indexados por posición que crecen al doble cuando hace falta. */
+    private static final class Acumulados {
+        long[] unidades;
+        double[] ingresos;
+        long[] pedidos;
+
+        Acumulados(int capacidad) {
+            reiniciar(capacidad);
+        }
+
+        void reiniciar(int capacidad) {
+            unidades = new long[capacidad];
+            ingresos = new double[capacidad];
+            pedidos = new long[capacidad];
+        }
+
+        void cargar(List<Fila> filas, ToIntFunction<Fila> posicion) {
+            reiniciar(unidades.length);
+            for (Fila fila : filas) {
+                int i = asegurar(posicion.applyAsInt(fila));
+                unidades[i] = fila.unidades();
+                ingresos[i] = fila.ingresos();
+                pedidos[i] = fila.pedidos();
+            }
+        }
+
+        void sumar(int posicion, long masUnidades, double masIngresos, boolean nuevoPedido) {
+            int i = asegurar(posicion);
+            unidades[i] += masUnidades;
+            ingresos[i] += masIngresos;
+            if (nuevoPedido) {
+                pedidos[i]++;
+            }
+        }
+
+        List<Fila> filas(IntToLongFunction clave) {
+            List<Fila> filas = new ArrayList<>();
+            for (int i = 0; i < unidades.length; i++) {
+                if (unidades[i] != 0 || pedidos[i] != 0) {
+                    filas.add(new Fila(clave.applyAsLong(i), unidades[i], ingresos[i], pedidos[i]));
+                }
+            }
+            return filas;
+        }
+
+        private int asegurar(int i) {
+            if (i >= unidades.length) {
+                int capacidad = capacidadPara(i);
+                unidades = Arrays.copyOf(unidades, capacidad);
+                ingresos = Arrays.copyOf(ingresos, capacidad);
+                pedidos = Arrays.copyOf(pedidos, capacidad);
+            }
+            return i;
+        }
+    }
+}
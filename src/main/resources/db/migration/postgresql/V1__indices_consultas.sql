@@ -0,0 +1,62 @@
+-- Índices para las consultas de los repositorios. Las tablas las crea Hibernate
+-- (ddl-auto=update), por eso las migraciones se aplican después de JPA (MigracionesConfig).
+
+-- PedidoRepository
+-- findByIdCliente, findByIdClienteAndEstado
+CREATE INDEX IF NOT EXISTS idx_pedidos_cliente_estado ON pedidos (id_cliente, estado);
+-- findByEstado
+CREATE INDEX IF NOT EXISTS idx_pedidos_estado ON pedidos (estado);
+-- findByFechaPedido, findByFechaPedidoBetween, findPedidosDeHoy
+CREATE INDEX IF NOT EXISTS idx_pedidos_fecha_pedido ON pedidos (fecha_pedido);
+
+-- DetallePedidoRepository
+-- findByPedidoPid y la carga de las líneas de un pedido
+CREATE INDEX IF NOT EXISTS idx_detalle_pedido_pedido ON detalle_pedido (id_pedido);
+-- findByIdProducto
+CREATE INDEX IF NOT EXISTS idx_detalle_pedido_producto ON detalle_pedido (id_producto);
+-- findByInstruccionesEspecialIsNotNull: solo una minoría de líneas lleva instrucciones
+CREATE INDEX IF NOT EXISTS idx_detalle_pedido_con_instrucciones ON detalle_pedido (id)
+    WHERE instrucciones_especial IS NOT NULL;
+
+-- HistorialEstadosRepository
+-- findByIdPedido, findByIdPedidoOrderByFechaCambioDesc, findUltimoEstado
+CREATE INDEX IF NOT EXISTS idx_historial_estados_pedido_fecha ON historial_estados (id_pedido, fecha_cambio DESC);
+-- findByEstado
+CREATE INDEX IF NOT EXISTS idx_historial_estados_estado ON historial_estados (estado);
+-- findByIdCliente
+CREATE INDEX IF NOT EXISTS idx_historial_estados_cliente ON historial_estados (id_cliente);
+
+-- ValoracionRepository
+-- findByIdPedido
+CREATE INDEX IF NOT EXISTS idx_valoracion_pedido ON valoracion (id_pedido);
+-- findByIdCliente, findByIdClienteAndPuntuacionGreaterThanEqual
+CREATE INDEX IF NOT EXISTS idx_valoracion_cliente_puntuacion ON valoracion (id_cliente, puntuacion);
+-- findByPuntuacionBetween
+CREATE INDEX IF NOT EXISTS idx_valoracion_puntuacion ON valoracion (puntuacion);
+
+-- AsignacionRepartidorRepository
+-- findByIdPedido
+CREATE INDEX IF NOT EXISTS idx_asignacion_repartidor_pedido ON asignacion_repartidor (id_pedido);
+-- findByIdRepartidor
+CREATE INDEX IF NOT EXISTS idx_asignacion_repartidor_repartidor ON asignacion_repartidor (id_repartidor, fecha_entrega);
+-- findByFechaEntregaIsNull, findByIdRepartidorAndFechaEntregaIsNull: solo las entregas en curso
+CREATE INDEX IF NOT EXISTS idx_asignacion_repartidor_pendientes ON asignacion_repartidor (id_repartidor)
+    WHERE fecha_entrega IS NULL;
+-- findByFechaAsignacionBetween
+CREATE INDEX IF NOT EXISTS idx_asignacion_repartidor_fecha ON asignacion_repartidor (fecha_asignacion);
+
+-- ProductoRepository
+-- findByCategoriaId, findByCategoriaIdAndEstado
+CREATE INDEX IF NOT EXISTS idx_producto_categoria_estado ON producto (id_categoria, estado);
+-- findByEstado
+CREATE INDEX IF NOT EXISTS idx_producto_estado ON producto (estado);
+-- findByDestacado
+CREATE INDEX IF NOT EXISTS idx_producto_destacado ON producto (destacado);
+
+-- EventoOutboxRepository
+-- bloquearPendientes: solo las filas sin publicar, en orden de id
+DROP INDEX IF EXISTS idx_eventos_outbox_pendientes;
+CREATE INDEX idx_eventos_outbox_pendientes ON eventos_outbox (id) WHERE fecha_publicacion IS NULL;
+-- eliminarPublicadosAntesDe
+CREATE INDEX IF NOT EXISTS idx_eventos_outbox_publicados ON eventos_outbox (fecha_publicacion)
+    WHERE fecha_publicacion IS NOT NULL;
@@ -0,0 +1,9 @@
+-- detalle_pedido e historial_estados pasaron de IDENTITY a secuencia (INSERT por lotes).
+-- En bases ya pobladas la secuencia nueva empezaría en 1: se lleva al mayor id existente.
+SELECT setval('detalle_pedido_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 1) FROM detalle_pedido),
+    (SELECT last_value FROM detalle_pedido_seq)));
+
+SELECT setval('historial_estados_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 1) FROM historial_estados),
+    (SELECT last_value FROM historial_estados_seq)));
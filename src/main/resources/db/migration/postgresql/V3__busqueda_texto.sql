@@ -0,0 +1,13 @@
+-- Respaldo en base de datos de la búsqueda de productos y categorías, usado
+-- mientras el índice en memoria aún no está construido.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ProductoRepository.buscarTexto: palabras completas en nombre, descripción e ingredientes.
+-- La expresión debe coincidir exactamente con la de la consulta para que se use el índice.
+CREATE INDEX IF NOT EXISTS idx_producto_texto ON producto USING gin
+    (to_tsvector('spanish', nombre || ' ' || coalesce(descripcion, '') || ' ' || coalesce(ingredientes, '')));
+-- ProductoRepository.buscarTexto y findByNombreContainingIgnoreCase: fragmentos del nombre (upper(nombre) LIKE '%...%')
+CREATE INDEX IF NOT EXISTS idx_producto_nombre_trgm ON producto USING gin (upper(nombre) gin_trgm_ops);
+
+-- CategoriaRepository.findByNombreContainingIgnoreCase
+CREATE INDEX IF NOT EXISTS idx_categoria_nombre_trgm ON categoria USING gin (upper(nombre) gin_trgm_ops);
@@ -0,0 +1,23 @@
+-- Carga inicial de resumen_valoraciones (ResumenValoracion) con las valoraciones ya existentes.
+-- A partir de aquí la mantiene ValoracionServiceImpl en cada alta, cambio o baja.
+INSERT INTO resumen_valoraciones
+    (ambito, id_referencia, cantidad, suma, estrellas_1, estrellas_2, estrellas_3, estrellas_4, estrellas_5)
+SELECT r.ambito, r.id_referencia, COUNT(*), SUM(r.puntuacion),
+       COUNT(*) FILTER (WHERE r.puntuacion = 1),
+       COUNT(*) FILTER (WHERE r.puntuacion = 2),
+       COUNT(*) FILTER (WHERE r.puntuacion = 3),
+       COUNT(*) FILTER (WHERE r.puntuacion = 4),
+       COUNT(*) FILTER (WHERE r.puntuacion = 5)
+FROM (
+    SELECT 'PEDIDO' AS ambito, v.id_pedido AS id_referencia, v.puntuacion FROM valoracion v
+    UNION ALL
+    SELECT 'CLIENTE', v.id_cliente, v.puntuacion FROM valoracion v
+    UNION ALL
+    -- Una valoración cuenta una vez por cada producto distinto de su pedido
+    SELECT 'PRODUCTO', d.id_producto, v.puntuacion
+    FROM valoracion v
+    JOIN (SELECT DISTINCT id_pedido, id_producto FROM detalle_pedido) d ON d.id_pedido = v.id_pedido
+) r
+WHERE r.id_referencia IS NOT NULL AND r.puntuacion BETWEEN 1 AND 5
+GROUP BY r.ambito, r.id_referencia
+ON CONFLICT (ambito, id_referencia) DO NOTHING;
@@ -0,0 +1,30 @@
+-- Agregados diarios (AgregadoDiario, AgregadoDiarioProducto): estado del proceso nocturno de
+-- AgregadosDiariosServiceImpl. Las tablas de agregados las crea JPA; aquí van las del control.
+
+-- Una fila por proceso. marca: inicio de la última pasada completa; los pedidos y asignaciones
+-- modificados después (menos un margen) son los que cambian días. bloqueado_hasta: turno de la
+-- pasada en curso, para que solo la ejecute un nodo; caduca solo si el nodo cae.
+CREATE TABLE IF NOT EXISTS agregados_marca (
+    nombre varchar(50) PRIMARY KEY,
+    marca timestamp,
+    inicio_pasada timestamp,
+    bloqueado_hasta timestamp
+);
+
+INSERT INTO agregados_marca (nombre, marca) VALUES ('diario', LOCALTIMESTAMP)
+ON CONFLICT (nombre) DO NOTHING;
+
+-- Días a recalcular por cambios que no dejan fecha_modificacion: bajas de pedidos, líneas y
+-- asignaciones, y pedidos que cambian de día (PedidoRepository.marcarDiaPendiente)
+CREATE TABLE IF NOT EXISTS agregados_dias_pendientes (
+    dia date PRIMARY KEY,
+    fecha_marca timestamp NOT NULL
+);
+
+-- Carga inicial: todos los días con pedidos se calculan en la primera pasada
+INSERT INTO agregados_dias_pendientes (dia, fecha_marca)
+SELECT DISTINCT fecha_pedido, TIMESTAMP '2000-01-01' FROM pedidos WHERE fecha_pedido IS NOT NULL
+ON CONFLICT (dia) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_pedidos_fecha_modificacion ON pedidos (fecha_modificacion);
+CREATE INDEX IF NOT EXISTS idx_asignacion_repartidor_fecha_modificacion ON asignacion_repartidor (fecha_modificacion);
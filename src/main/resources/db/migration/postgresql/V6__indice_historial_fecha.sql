@@ -0,0 +1,2 @@
+-- Calibración de la cola de cocina (HistorialEstadosRepository.calcularCalibracion): cambios de los últimos días
+CREATE INDEX IF NOT EXISTS idx_historial_estados_fecha ON historial_estados (fecha_cambio);
@@ -0,0 +1,7 @@
+-- EventoOutboxRepository.bloquearPendientes: las filas descartadas (fecha_fallo) salen del índice de pendientes
+DROP INDEX IF EXISTS idx_eventos_outbox_pendientes;
+CREATE INDEX idx_eventos_outbox_pendientes ON eventos_outbox (id)
+    WHERE fecha_publicacion IS NULL AND fecha_fallo IS NULL;
+-- Filas descartadas, para revisarlas
+CREATE INDEX IF NOT EXISTS idx_eventos_outbox_fallidos ON eventos_outbox (fecha_fallo)
+    WHERE fecha_fallo IS NOT NULL;
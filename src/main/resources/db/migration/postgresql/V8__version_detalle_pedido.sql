@@ -0,0 +1,7 @@
+-- DetallePedido.version (@Version): Hibernate añade la columna vacía en las tablas ya pobladas
+-- y una línea con versión nula no se puede actualizar con bloqueo optimista. Se rellena con 0,
+-- el valor con el que Hibernate inserta las nuevas, y se impide que vuelva a quedar nula.
+UPDATE detalle_pedido SET version = 0 WHERE version IS NULL;
+ALTER TABLE detalle_pedido
+    ALTER COLUMN version SET DEFAULT 0,
+    ALTER COLUMN version SET NOT NULL;
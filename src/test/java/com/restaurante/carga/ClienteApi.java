@@ -0,0 +1,88 @@
+package com.restaurante.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cliente HTTP de los usuarios virtuales. Cada llamada se mide bajo el nombre
+ * de la operación que la hace, no de la URL, para agrupar /pedidos/{id}.
+ */
+final class ClienteApi {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String base;
+    private final ObjectMapper mapper;
+    private final Mediciones mediciones;
+
+    ClienteApi(String base, ObjectMapper mapper, Mediciones mediciones) {
+        this.base = base;
+        this.mapper = mapper;
+        this.mediciones = mediciones;
+    }
+
+    JsonNode get(String operacion, String ruta, String token) {
+        return enviar(operacion, peticion(ruta, token).GET());
+    }
+
+    JsonNode post(String operacion, String ruta, String token, Object cuerpo) {
+        return enviar(operacion, peticion(ruta, token).POST(cuerpo(cuerpo)));
+    }
+
+    JsonNode put(String operacion, String ruta, String token, Object cuerpo) {
+        return enviar(operacion, peticion(ruta, token).PUT(cuerpo(cuerpo)));
+    }
+
+    private HttpRequest.Builder peticion(String ruta, String token) {
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(base + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null) {
+            peticion.header("Authorization", "Bearer " + token);
+        }
+        return peticion;
+    }
+
+    private HttpRequest.BodyPublisher cuerpo(Object cuerpo) {
+        if (cuerpo == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(cuerpo));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Devuelve el cuerpo de una respuesta 2xx (nodo vacío si no tiene) o null
+     * si la petición falló; el fallo cuenta como error de la operación.
+     */
+    private JsonNode enviar(String operacion, HttpRequest.Builder peticion) {
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<byte[]> respuesta = http.send(peticion.build(), HttpResponse.BodyHandlers.ofByteArray());
+            boolean correcta = respuesta.statusCode() / 100 == 2;
+            mediciones.registrar(operacion, System.nanoTime() - inicio, correcta);
+            if (!correcta) {
+                return null;
+            }
+            return respuesta.body().length == 0 ? mapper.nullNode() : mapper.readTree(respuesta.body());
+        } catch (IOException e) {
+            mediciones.registrar(operacion, System.nanoTime() - inicio, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
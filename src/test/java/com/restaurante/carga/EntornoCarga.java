@@ -0,0 +1,72 @@
+package com.restaurante.carga;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import redis.embedded.RedisServer;
+
+/**
+ * PostgreSQL y Redis embebidos para la prueba de carga: binarios reales en
+ * procesos locales, sin Docker. Se arrancan una vez por JVM y se paran al salir,
+ * después de que Spring cierre el contexto.
+ */
+final class EntornoCarga {
+
+    private static EmbeddedPostgres postgres;
+    private static RedisServer redis;
+    private static int puertoRedis;
+
+    private EntornoCarga() {
+    }
+
+    static synchronized void iniciar() throws IOException {
+        if (postgres != null) {
+            return;
+        }
+        postgres = EmbeddedPostgres.builder().start();
+        // Como en docker-compose: @EnableJdbcHttpSession desactiva la inicialización de Spring Boot
+        ejecutarScript(Path.of("sql", "spring_session.sql"));
+        puertoRedis = puertoLibre();
+        redis = new RedisServer(puertoRedis);
+        redis.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(EntornoCarga::detener, "entorno-carga-parada"));
+    }
+
+    static String urlBaseDatos() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    static int puertoRedis() {
+        return puertoRedis;
+    }
+
+    private static void detener() {
+        try {
+            redis.stop();
+            postgres.close();
+        } catch (IOException e) {
+            System.err.println("No se pudo detener el entorno de carga: " + e.getMessage());
+        }
+    }
+
+    private static void ejecutarScript(Path script) throws IOException {
+        try (Connection conexion = postgres.getPostgresDatabase().getConnection();
+                Statement sentencia = conexion.createStatement()) {
+            sentencia.execute(Files.readString(script));
+        } catch (SQLException e) {
+            throw new IOException("No se pudo ejecutar " + script, e);
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
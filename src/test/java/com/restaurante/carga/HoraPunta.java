@@ -0,0 +1,174 @@
+package com.restaurante.carga;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Mezcla de operaciones de la hora de la comida. Cada paso de un usuario
+ * virtual elige una operación por peso; los pedidos avanzan por colas
+ * (pendiente, en preparación, listo, en camino, entregado) para que cada uno
+ * lo toque un solo usuario a la vez, como ocurre en cocina. Si la operación
+ * elegida no tiene trabajo pendiente, el paso se convierte en una lectura del menú.
+ */
+final class HoraPunta {
+
+    enum Operacion {
+        MENU(35),
+        PRODUCTOS_ACTIVOS(10),
+        CHECKOUT(15),
+        PEDIDOS_HOY(5),
+        PREPARAR(10),
+        MARCAR_LISTO(8),
+        ASIGNAR(6),
+        ENTREGAR(6),
+        VALORAR(5);
+
+        private final int peso;
+
+        Operacion(int peso) {
+            this.peso = peso;
+        }
+    }
+
+    record Usuario(long id, String token) {
+    }
+
+    private record PedidoEnCurso(long pid, Usuario cliente, Long idAsignacion) {
+    }
+
+    private static final int PESO_TOTAL = List.of(Operacion.values()).stream().mapToInt(op -> op.peso).sum();
+    private static final int REPARTIDORES = 8;
+
+    private final ClienteApi api;
+    private final List<Usuario> clientes;
+    private final String tokenCocina;
+    private final String tokenAdmin;
+    private final List<Long> productos;
+
+    private final Queue<PedidoEnCurso> pendientes = new ConcurrentLinkedQueue<>();
+    private final Queue<PedidoEnCurso> enPreparacion = new ConcurrentLinkedQueue<>();
+    private final Queue<PedidoEnCurso> listos = new ConcurrentLinkedQueue<>();
+    private final Queue<PedidoEnCurso> enCamino = new ConcurrentLinkedQueue<>();
+    private final Queue<PedidoEnCurso> entregados = new ConcurrentLinkedQueue<>();
+
+    HoraPunta(ClienteApi api, List<Usuario> clientes, String tokenCocina, String tokenAdmin, List<Long> productos) {
+        this.api = api;
+        this.clientes = clientes;
+        this.tokenCocina = tokenCocina;
+        this.tokenAdmin = tokenAdmin;
+        this.productos = productos;
+    }
+
+    void paso(ThreadLocalRandom azar) {
+        boolean hecho = switch (elegir(azar)) {
+            case MENU -> leerMenu();
+            case PRODUCTOS_ACTIVOS -> api.get("productos_activos", "/api/productos/activos", cliente(azar).token()) != null;
+            case CHECKOUT -> checkout(azar);
+            case PEDIDOS_HOY -> api.get("pedidos_hoy", "/api/pedidos/hoy", tokenCocina) != null;
+            case PREPARAR -> avanzar(pendientes, "EN_PREPARACION", enPreparacion);
+            case MARCAR_LISTO -> avanzar(enPreparacion, "LISTO", listos);
+            case ASIGNAR -> asignar(azar);
+            case ENTREGAR -> entregar();
+            case VALORAR -> valorar(azar);
+        };
+        if (!hecho) {
+            leerMenu();
+        }
+    }
+
+    private Operacion elegir(ThreadLocalRandom azar) {
+        int valor = azar.nextInt(PESO_TOTAL);
+        for (Operacion operacion : Operacion.values()) {
+            valor -= operacion.peso;
+            if (valor < 0) {
+                return operacion;
+            }
+        }
+        return Operacion.MENU;
+    }
+
+    private boolean leerMenu() {
+        return api.get("menu", "/api/public/menu", null) != null;
+    }
+
+    private boolean checkout(ThreadLocalRandom azar) {
+        Usuario cliente = cliente(azar);
+        int lineas = azar.nextInt(1, 4);
+        List<Map<String, Object>> detalles = azar.ints(lineas, 0, productos.size())
+                .distinct()
+                .mapToObj(i -> Map.<String, Object>of(
+                        "idProducto", productos.get(i),
+                        "cantidad", azar.nextInt(1, 3)))
+                .toList();
+        JsonNode pedido = api.post("checkout", "/api/pedidos/con-detalles", cliente.token(),
+                Map.of("idCliente", cliente.id(), "detalles", detalles));
+        if (pedido == null) {
+            return true;
+        }
+        pendientes.add(new PedidoEnCurso(pedido.get("pid").asLong(), cliente, null));
+        return true;
+    }
+
+    private boolean avanzar(Queue<PedidoEnCurso> origen, String estado, Queue<PedidoEnCurso> destino) {
+        PedidoEnCurso pedido = origen.poll();
+        if (pedido == null) {
+            return false;
+        }
+        if (cambiarEstado(pedido, estado)) {
+            destino.add(pedido);
+        }
+        return true;
+    }
+
+    private boolean asignar(ThreadLocalRandom azar) {
+        PedidoEnCurso pedido = listos.poll();
+        if (pedido == null) {
+            return false;
+        }
+        JsonNode asignacion = api.post("asignacion", "/api/asignaciones-repartidores", tokenAdmin,
+                Map.of("idPedido", pedido.pid(), "idRepartidor", azar.nextLong(1, REPARTIDORES + 1)));
+        if (asignacion != null && cambiarEstado(pedido, "EN_CAMINO")) {
+            enCamino.add(new PedidoEnCurso(pedido.pid(), pedido.cliente(), asignacion.get("pid").asLong()));
+        }
+        return true;
+    }
+
+    private boolean entregar() {
+        PedidoEnCurso pedido = enCamino.poll();
+        if (pedido == null) {
+            return false;
+        }
+        JsonNode entrega = api.put("registrar_entrega",
+                "/api/asignaciones-repartidores/" + pedido.idAsignacion() + "/registrar-entrega", tokenCocina, null);
+        if (entrega != null && cambiarEstado(pedido, "ENTREGADO")) {
+            entregados.add(pedido);
+        }
+        return true;
+    }
+
+    private boolean valorar(ThreadLocalRandom azar) {
+        PedidoEnCurso pedido = entregados.poll();
+        if (pedido == null) {
+            return false;
+        }
+        api.post("valoracion", "/api/valoraciones", pedido.cliente().token(), Map.of(
+                "idPedido", pedido.pid(),
+                "idCliente", pedido.cliente().id(),
+                "puntuacion", azar.nextInt(1, 6),
+                "comentario", "Valoración de carga"));
+        return true;
+    }
+
+    private boolean cambiarEstado(PedidoEnCurso pedido, String estado) {
+        return api.put("cambio_estado", "/api/pedidos/" + pedido.pid() + "/estado/" + estado, tokenCocina, null) != null;
+    }
+
+    private Usuario cliente(ThreadLocalRandom azar) {
+        return clientes.get(azar.nextInt(clientes.size()));
+    }
+}
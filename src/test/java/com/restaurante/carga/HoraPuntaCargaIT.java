@@ -0,0 +1,200 @@
+package com.restaurante.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.carga.HoraPunta.Usuario;
+import com.restaurante.carga.Mediciones.Resultado;
+
+/**
+ * Prueba de carga de la hora de la comida contra la aplicación completa
+ * (PostgreSQL y Redis embebidos). Solo se ejecuta con el perfil carga:
+ *   mvn -B -Pcarga verify -Dcarga.usuarios=32 -Dcarga.duracionSeg=60
+ * Imprime peticiones por segundo y p50/p99 por operación, deja el informe en
+ * target/carga/informe.json y falla si se supera algún umbral de
+ * carga/umbrales.properties.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=-1",
+        "app.indices.verificar=false",
+        "logging.level.com.restaurante=WARN"
+})
+class HoraPuntaCargaIT {
+
+    private static final int CLIENTES = 40;
+    private static final int CATEGORIAS = 8;
+    private static final int PRODUCTOS_POR_CATEGORIA = 15;
+
+    private final int usuarios = Integer.getInteger("carga.usuarios", 16);
+    private final Duration duracion = Duration.ofSeconds(Long.getLong("carga.duracionSeg", 30));
+    private final Duration calentamiento = Duration.ofSeconds(Long.getLong("carga.calentamientoSeg", 5));
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void entorno(DynamicPropertyRegistry registro) throws IOException {
+        EntornoCarga.iniciar();
+        registro.add("spring.datasource.url", EntornoCarga::urlBaseDatos);
+        registro.add("spring.datasource.username", () -> "postgres");
+        registro.add("spring.data.redis.port", EntornoCarga::puertoRedis);
+    }
+
+    @Test
+    void horaPunta_cumpleLosUmbralesDeLatenciaYRendimiento() throws Exception {
+        // Arrange
+        Mediciones mediciones = new Mediciones();
+        ClienteApi api = new ClienteApi("http://localhost:" + puerto, objectMapper, mediciones);
+        HoraPunta horaPunta = prepararDatos(api);
+        Properties umbrales = umbrales();
+
+        // Act
+        ejecutar(horaPunta, calentamiento);
+        mediciones.activar();
+        ejecutar(horaPunta, duracion);
+        mediciones.desactivar();
+        Map<String, Resultado> resultados = mediciones.resultados(duracion);
+        double totalPorSegundo = resultados.values().stream().mapToDouble(Resultado::porSegundo).sum();
+        informar(resultados, totalPorSegundo);
+
+        // Assert
+        SoftAssertions comprobaciones = new SoftAssertions();
+        comprobaciones.assertThat(totalPorSegundo)
+                .as("peticiones por segundo")
+                .isGreaterThanOrEqualTo(Double.parseDouble(umbrales.getProperty("rendimiento.minimoPorSegundo")));
+        double maximoErrores = Double.parseDouble(umbrales.getProperty("errores.maximo"));
+        resultados.forEach((operacion, resultado) -> {
+            comprobaciones.assertThat(resultado.tasaErrores())
+                    .as("tasa de errores de %s", operacion)
+                    .isLessThanOrEqualTo(maximoErrores);
+            String p99 = umbrales.getProperty("p99Ms." + operacion);
+            if (p99 != null) {
+                comprobaciones.assertThat(resultado.p99Ms())
+                        .as("p99 de %s (ms)", operacion)
+                        .isLessThanOrEqualTo(Double.parseDouble(p99));
+            }
+        });
+        comprobaciones.assertAll();
+    }
+
+    private HoraPunta prepararDatos(ClienteApi api) {
+        String tokenAdmin = login(api, "admin", "admin123").token();
+
+        List<Long> productos = new ArrayList<>();
+        for (int c = 1; c <= CATEGORIAS; c++) {
+            JsonNode categoria = api.post("preparacion", "/api/categorias", tokenAdmin, Map.of(
+                    "nombre", "Categoría " + c,
+                    "descripcion", "Categoría de carga " + c,
+                    "estado", "activo"));
+            for (int p = 1; p <= PRODUCTOS_POR_CATEGORIA; p++) {
+                Map<String, Object> producto = new LinkedHashMap<>();
+                producto.put("idCategoria", categoria.get("id").asLong());
+                producto.put("nombre", "Plato " + c + "-" + p);
+                producto.put("descripcion", "Plato de la categoría " + c + " con ingredientes de temporada");
+                producto.put("precio", BigDecimal.valueOf(800 + p * 75L, 2));
+                producto.put("tiempoPreparacion", "00:15:00");
+                producto.put("ingredientes", "tomate, queso, albahaca");
+                producto.put("estado", "activo");
+                producto.put("destacado", p % 5 == 0);
+                productos.add(api.post("preparacion", "/api/productos", tokenAdmin, producto).get("id").asLong());
+            }
+        }
+
+        List<Usuario> clientes = new ArrayList<>();
+        for (int i = 1; i <= CLIENTES; i++) {
+            clientes.add(registrar(api, "cliente" + i, null));
+        }
+        String tokenCocina = registrar(api, "cocina1", Set.of("personal_cocina")).token();
+        return new HoraPunta(api, clientes, tokenCocina, tokenAdmin, productos);
+    }
+
+    private Usuario registrar(ClienteApi api, String username, Set<String> roles) {
+        Map<String, Object> alta = new LinkedHashMap<>();
+        alta.put("username", username);
+        alta.put("email", username + "@carga.local");
+        alta.put("password", "secreto123");
+        alta.put("nombre", username);
+        if (roles != null) {
+            alta.put("roles", roles);
+        }
+        api.post("preparacion", "/api/auth/signup", null, alta);
+        return login(api, username, "secreto123");
+    }
+
+    private Usuario login(ClienteApi api, String username, String password) {
+        JsonNode respuesta = api.post("preparacion", "/api/auth/login", null,
+                Map.of("username", username, "password", password));
+        return new Usuario(respuesta.get("id").asLong(), respuesta.get("token").asText());
+    }
+
+    private void ejecutar(HoraPunta horaPunta, Duration tiempo) throws InterruptedException {
+        long fin = System.nanoTime() + tiempo.toNanos();
+        ExecutorService hilos = Executors.newFixedThreadPool(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            hilos.execute(() -> {
+                while (System.nanoTime() < fin) {
+                    horaPunta.paso(ThreadLocalRandom.current());
+                }
+            });
+        }
+        hilos.shutdown();
+        if (!hilos.awaitTermination(tiempo.toSeconds() + 60, TimeUnit.SECONDS)) {
+            hilos.shutdownNow();
+        }
+    }
+
+    private void informar(Map<String, Resultado> resultados, double totalPorSegundo) throws IOException {
+        StringBuilder tabla = new StringBuilder(String.format("%nHora punta: %d usuarios, %d s%n", usuarios, duracion.toSeconds()))
+                .append(String.format("%-20s %10s %8s %10s %10s %10s %10s%n",
+                        "operación", "peticiones", "errores", "pet/s", "p50 ms", "p99 ms", "máx ms"));
+        resultados.forEach((operacion, r) -> tabla.append(String.format("%-20s %10d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                operacion, r.peticiones(), r.errores(), r.porSegundo(), r.p50Ms(), r.p99Ms(), r.maxMs())));
+        tabla.append(String.format("%-20s %30.1f%n", "total", totalPorSegundo));
+        System.out.println(tabla);
+
+        Map<String, Object> informe = new LinkedHashMap<>();
+        informe.put("usuarios", usuarios);
+        informe.put("duracionSeg", duracion.toSeconds());
+        informe.put("peticionesPorSegundo", totalPorSegundo);
+        informe.put("operaciones", resultados);
+        Path fichero = Path.of("target", "carga", "informe.json");
+        Files.createDirectories(fichero.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(fichero.toFile(), informe);
+    }
+
+    private Properties umbrales() throws IOException {
+        Properties umbrales = new Properties();
+        try (InputStream entrada = getClass().getResourceAsStream("/carga/umbrales.properties")) {
+            umbrales.load(entrada);
+        }
+        return umbrales;
+    }
+}
@@ -0,0 +1,80 @@
+package com.restaurante.carga;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latencias y errores por operación. Solo se registra mientras está activa,
+ * para descartar el calentamiento.
+ */
+final class Mediciones {
+
+    private final Map<String, Muestras> porOperacion = new ConcurrentHashMap<>();
+    private volatile boolean activa;
+
+    void activar() {
+        activa = true;
+    }
+
+    void desactivar() {
+        activa = false;
+    }
+
+    void registrar(String operacion, long nanos, boolean correcta) {
+        if (activa) {
+            porOperacion.computeIfAbsent(operacion, clave -> new Muestras()).agregar(nanos, correcta);
+        }
+    }
+
+    Map<String, Resultado> resultados(Duration medido) {
+        Map<String, Resultado> resultados = new TreeMap<>();
+        porOperacion.forEach((operacion, muestras) -> resultados.put(operacion, muestras.resultado(medido)));
+        return resultados;
+    }
+
+    record Resultado(long peticiones, long errores, double porSegundo, double p50Ms, double p99Ms, double maxMs) {
+
+        double tasaErrores() {
+            return peticiones == 0 ? 0 : (double) errores / peticiones;
+        }
+    }
+
+    private static final class Muestras {
+
+        private long[] nanos = new long[1024];
+        private int cantidad;
+        private long errores;
+
+        synchronized void agregar(long duracion, boolean correcta) {
+            if (cantidad == nanos.length) {
+                nanos = Arrays.copyOf(nanos, cantidad * 2);
+            }
+            nanos[cantidad++] = duracion;
+            if (!correcta) {
+                errores++;
+            }
+        }
+
+        synchronized Resultado resultado(Duration medido) {
+            long[] ordenadas = Arrays.copyOf(nanos, cantidad);
+            Arrays.sort(ordenadas);
+            return new Resultado(cantidad, errores,
+                    cantidad / (medido.toMillis() / 1000.0),
+                    percentil(ordenadas, 0.50),
+                    percentil(ordenadas, 0.99),
+                    cantidad == 0 ? 0 : ordenadas[cantidad - 1] / 1_000_000.0);
+        }
+
+        // Rango más cercano: el menor valor que deja por debajo al menos el percentil pedido
+        private static double percentil(long[] ordenadas, double percentil) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            int posicion = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, posicion)] / 1_000_000.0;
+        }
+    }
+}
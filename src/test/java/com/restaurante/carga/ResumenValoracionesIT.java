@@ -0,0 +1,193 @@
+package com.restaurante.carga;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.restaurante.dto.DetallePedidoDTO;
+import com.restaurante.dto.ValoracionDTO;
+import com.restaurante.model.Categoria;
+import com.restaurante.model.Pedido;
+import com.restaurante.model.Producto;
+import com.restaurante.model.ResumenValoracion;
+import com.restaurante.model.ResumenValoracion.Ambito;
+import com.restaurante.repository.CategoriaRepository;
+import com.restaurante.repository.PedidoRepository;
+import com.restaurante.repository.ProductoRepository;
+import com.restaurante.repository.ResumenValoracionRepository;
+import com.restaurante.service.IDetallePedidoService;
+import com.restaurante.service.IValoracionService;
+import com.restaurante.service.impl.ValoracionServiceImpl;
+
+/**
+ * Resúmenes de valoración por producto contra PostgreSQL embebido: las
+ * sentencias nativas (upsert con ON CONFLICT, FILTER, FULL JOIN) no se pueden
+ * comprobar con mocks. Se ejecuta con el perfil carga:
+ *   mvn -B -Pcarga verify -Dit.test=ResumenValoracionesIT
+ */
+@SpringBootTest(properties = {
+        "management.server.port=-1",
+        "app.indices.verificar=false",
+        "logging.level.com.restaurante=WARN"
+})
+class ResumenValoracionesIT {
+
+    @Autowired
+    private IDetallePedidoService detallePedidoService;
+
+    @Autowired
+    private IValoracionService valoracionService;
+
+    @Autowired
+    private ValoracionServiceImpl reconciliacion;
+
+    @Autowired
+    private ResumenValoracionRepository resumenRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long idPedido;
+    private Long pizza;
+    private Long pasta;
+    private Long ensalada;
+
+    @DynamicPropertySource
+    static void entorno(DynamicPropertyRegistry registro) throws IOException {
+        EntornoCarga.iniciar();
+        registro.add("spring.datasource.url", EntornoCarga::urlBaseDatos);
+        registro.add("spring.datasource.username", () -> "postgres");
+        registro.add("spring.data.redis.port", EntornoCarga::puertoRedis);
+    }
+
+    @BeforeEach
+    void setUp() {
+        Categoria categoria = categoriaRepository.save(Categoria.builder()
+                .nombre("Resúmenes").estado("activo").build());
+        pizza = producto(categoria, "Pizza");
+        pasta = producto(categoria, "Pasta");
+        ensalada = producto(categoria, "Ensalada");
+        idPedido = pedidoRepository.save(Pedido.builder()
+                .idCliente(1L).fechaPedido(LocalDate.now()).estado("ENTREGADO").build()).getPid();
+    }
+
+    @Test
+    void lineasDePedido_muevenLasValoracionesDelPedidoEntreProductos() {
+        // Arrange: dos líneas de pizza cuentan una sola vez por valoración
+        Long primeraPizza = linea(pizza).getId();
+        Long segundaPizza = linea(pizza).getId();
+        DetallePedidoDTO lineaPasta = linea(pasta);
+        valorar(4);
+        valorar(2);
+
+        // Act
+        lineaPasta.setIdProducto(ensalada);
+        detallePedidoService.actualizar(lineaPasta.getId(), lineaPasta);
+        detallePedidoService.eliminar(primeraPizza);
+        long pizzaConUnaLinea = cantidad(pizza);
+        detallePedidoService.eliminar(segundaPizza);
+
+        // Assert
+        assertThat(pizzaConUnaLinea).isEqualTo(2);
+        assertThat(cantidad(pizza)).isZero();
+        assertThat(cantidad(pasta)).isZero();
+        assertThat(cantidad(ensalada)).isEqualTo(2);
+        assertThat(resumenRepository.findById(clave(ensalada)).orElseThrow().getSuma()).isEqualTo(6);
+    }
+
+    @Test
+    void lineaNueva_sumaLasValoracionesQueYaTeniaElPedido() {
+        // Arrange
+        linea(pizza);
+        valorar(5);
+
+        // Act
+        linea(pasta);
+        detallePedidoService.eliminarTodosDePedido(idPedido);
+
+        // Assert
+        assertThat(cantidad(pizza)).isZero();
+        assertThat(cantidad(pasta)).isZero();
+    }
+
+    @Test
+    void reconciliar_corrigeUnResumenDescuadrado() {
+        // Arrange
+        linea(pizza);
+        valorar(3);
+        jdbcTemplate.update("UPDATE resumen_valoraciones SET cantidad = 99, suma = 7 "
+                + "WHERE ambito = 'PRODUCTO' AND id_referencia = ?", pizza);
+
+        // Act
+        int corregidos = reconciliacion.reconciliarResumenesProducto();
+
+        // Assert
+        assertThat(corregidos).isPositive();
+        ResumenValoracion resumen = resumenRepository.findById(clave(pizza)).orElseThrow();
+        assertThat(resumen.getCantidad()).isEqualTo(1);
+        assertThat(resumen.getSuma()).isEqualTo(3);
+        assertThat(reconciliacion.reconciliarResumenesProducto()).isZero();
+    }
+
+    @Test
+    void valorar_colocaLosProductosEnElRankingTrasConfirmar() {
+        // Arrange
+        linea(pizza);
+        valorar(5);
+
+        // Act
+        valorar(1);
+
+        // Assert: la lectura tras el commit ya ve las dos valoraciones
+        assertThat(valoracionService.obtenerTopValorados(null, 50))
+                .filteredOn(valorado -> valorado.getIdProducto().equals(pizza))
+                .singleElement()
+                .satisfies(valorado -> assertThat(valorado.getPromedio()).isEqualTo(3.0));
+    }
+
+    private Long producto(Categoria categoria, String nombre) {
+        return productoRepository.save(Producto.builder()
+                .categoria(categoria)
+                .nombre(nombre)
+                .precio(new BigDecimal("9.50"))
+                .estado("activo")
+                .destacado(false)
+                .build()).getId();
+    }
+
+    private DetallePedidoDTO linea(Long idProducto) {
+        return detallePedidoService.crear(DetallePedidoDTO.builder()
+                .idPedido(idPedido).idProducto(idProducto).cantidad(1).precioUnitario(9.5).build());
+    }
+
+    private void valorar(int puntuacion) {
+        valoracionService.crear(ValoracionDTO.builder()
+                .idPedido(idPedido).idCliente(1L).puntuacion(puntuacion).build());
+    }
+
+    private long cantidad(Long idProducto) {
+        return resumenRepository.findById(clave(idProducto)).map(ResumenValoracion::getCantidad).orElse(0L);
+    }
+
+    private static ResumenValoracion.Clave clave(Long idProducto) {
+        return new ResumenValoracion.Clave(Ambito.PRODUCTO, idProducto);
+    }
+}
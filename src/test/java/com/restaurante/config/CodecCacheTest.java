@@ -0,0 +1,69 @@
+package com.restaurante.config;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.restaurante.config.cache.CodecCache;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.ProductoDTO;
+
+class CodecCacheTest {
+
+    @ParameterizedTest
+    @EnumSource(CodecCache.class)
+    void listaDeProductos_idaYVueltaConservaTiposYValores(CodecCache codec) {
+        // Arrange
+        RedisSerializer<Object> serializador = codec.serializador();
+        List<ProductoDTO> menu = new ArrayList<>(List.of(
+                ProductoDTO.builder().id(1L).idCategoria(2L).nombre("Pizza").precio(new BigDecimal("12.50"))
+                        .tiempoPreparacion(Time.valueOf("00:15:00")).estado("activo").destacado(true).build(),
+                ProductoDTO.builder().id(2L).idCategoria(2L).nombre("Lasaña").precio(new BigDecimal("9.90"))
+                        .tiempoPreparacion(Time.valueOf("00:20:00")).estado("activo").destacado(false).build()));
+
+        // Act
+        Object leido = serializador.deserialize(serializador.serialize(menu));
+
+        // Assert
+        assertThat(leido).isEqualTo(menu);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CodecCache.class)
+    void pedidoConFecha_idaYVuelta(CodecCache codec) {
+        // Arrange
+        RedisSerializer<Object> serializador = codec.serializador();
+        PedidoDTO pedido = PedidoDTO.builder().pid(5L).idCliente(1L).fechaPedido(LocalDate.of(2025, 6, 1)).estado("PENDIENTE").build();
+
+        // Act
+        Object pedidoLeido = serializador.deserialize(serializador.serialize(pedido));
+
+        // Assert
+        assertThat(pedidoLeido).isEqualTo(pedido);
+    }
+
+    @Test
+    void smile_ocupaMenosQueJdkEnUnaListaGrande() {
+        // Arrange
+        List<ProductoDTO> menu = new ArrayList<>();
+        for (long i = 1; i <= 500; i++) {
+            menu.add(ProductoDTO.builder().id(i).idCategoria(i % 10).nombre("Producto " + i)
+                    .precio(BigDecimal.valueOf(i, 2)).estado("activo").destacado(i % 7 == 0).build());
+        }
+
+        // Act
+        int bytesSmile = CodecCache.SMILE.serializador().serialize(menu).length;
+        int bytesJdk = CodecCache.JDK.serializador().serialize(menu).length;
+
+        // Assert
+        assertThat(bytesSmile).isLessThan(bytesJdk);
+    }
+}
@@ -0,0 +1,49 @@
+package com.restaurante.config;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.restaurante.config.metricas.ConvencionPeticiones;
+
+import io.micrometer.common.KeyValue;
+
+class ConvencionPeticionesTest {
+
+    private final ConvencionPeticiones convencion = new ConvencionPeticiones();
+
+    @Test
+    void etiquetas_sinUsuarioAutenticadoUsaRolAnonimo() {
+        // Arrange
+        ServerRequestObservationContext contexto = contexto(new MockHttpServletRequest("GET", "/api/public/menu"));
+
+        // Act
+        List<KeyValue> etiquetas = convencion.getLowCardinalityKeyValues(contexto).stream().toList();
+
+        // Assert
+        assertThat(etiquetas).contains(KeyValue.of(ConvencionPeticiones.ETIQUETA_ROL, ConvencionPeticiones.ANONIMO));
+        assertThat(etiquetas).extracting(KeyValue::getKey).contains("method", "uri", "status", "outcome");
+    }
+
+    @Test
+    void etiquetas_combinanLosRolesOrdenadosYSinPrefijo() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pedidos/hoy");
+        ConvencionPeticiones.registrarRol(request, Set.of("ROLE_PERSONAL_COCINA", "ROLE_ADMIN"));
+
+        // Act
+        List<KeyValue> etiquetas = convencion.getLowCardinalityKeyValues(contexto(request)).stream().toList();
+
+        // Assert
+        assertThat(etiquetas).contains(KeyValue.of(ConvencionPeticiones.ETIQUETA_ROL, "admin+personal_cocina"));
+    }
+
+    private ServerRequestObservationContext contexto(MockHttpServletRequest request) {
+        return new ServerRequestObservationContext(request, new MockHttpServletResponse());
+    }
+}
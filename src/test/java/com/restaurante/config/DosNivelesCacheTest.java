@@ -0,0 +1,175 @@
+package com.restaurante.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurante.config.cache.DosNivelesCacheManager;
+import com.restaurante.config.cache.InvalidacionCache;
+import com.restaurante.dto.EstadisticasCacheDTO;
+
+class DosNivelesCacheTest {
+
+    // ConcurrentMapCacheManager hace de Redis compartido y la lista de nodos de canal pub/sub
+    private ConcurrentMapCacheManager remoto;
+    private List<DosNivelesCacheManager> nodos;
+    private DosNivelesCacheManager nodoA;
+    private DosNivelesCacheManager nodoB;
+
+    @BeforeEach
+    void setUp() {
+        remoto = new ConcurrentMapCacheManager();
+        nodos = new ArrayList<>();
+        nodoA = nuevoNodo();
+        nodoB = nuevoNodo();
+    }
+
+    @Test
+    void get_falloEnL1SeResuelveEnRedisYSeCopiaALocal() {
+        // Arrange
+        remoto.getCache("producto").put(1L, "Pizza");
+        Cache cache = nodoA.getCache("producto");
+
+        // Act
+        cache.get(1L);
+        remoto.getCache("producto").evict(1L);
+        Cache.ValueWrapper segundaLectura = cache.get(1L);
+
+        // Assert
+        assertThat(segundaLectura).isNotNull();
+        assertThat(segundaLectura.get()).isEqualTo("Pizza");
+        EstadisticasCacheDTO estadisticas = nodoA.estadisticas().get(0);
+        assertThat(estadisticas.getAciertosL1()).isEqualTo(1);
+        assertThat(estadisticas.getFallosL1()).isEqualTo(1);
+        assertThat(estadisticas.getAciertosL2()).isEqualTo(1);
+    }
+
+    @Test
+    void evict_invalidaLaCopiaLocalDeOtrosNodos() {
+        // Arrange
+        nodoA.getCache("producto").put(1L, "Pizza");
+        nodoB.getCache("producto").get(1L);
+
+        // Act
+        nodoA.getCache("producto").evict(1L);
+
+        // Assert
+        assertThat(nodoB.getCache("producto").get(1L)).isNull();
+    }
+
+    @Test
+    void put_reemplazaLaCopiaLocalDeOtrosNodos() {
+        // Arrange
+        nodoA.getCache("productos_activos").put("todos", "menu-v1");
+        nodoB.getCache("productos_activos").get("todos");
+
+        // Act
+        nodoA.getCache("productos_activos").put("todos", "menu-v2");
+
+        // Assert
+        assertThat(nodoB.getCache("productos_activos").get("todos").get()).isEqualTo("menu-v2");
+    }
+
+    @Test
+    void clear_vaciaLaRegionEnTodosLosNodos() {
+        // Arrange
+        nodoA.getCache("productos").put("todos", "menu-v1");
+        nodoB.getCache("productos").get("todos");
+
+        // Act
+        nodoB.getCache("productos").clear();
+
+        // Assert
+        assertThat(nodoA.getCache("productos").get("todos")).isNull();
+    }
+
+    @Test
+    void getConCargador_cargaUnaSolaVezYLaGuardaEnAmbosNiveles() {
+        // Arrange
+        AtomicInteger cargas = new AtomicInteger();
+        Cache cache = nodoA.getCache("categorias");
+
+        // Act
+        cache.get("activas", () -> "cargado-" + cargas.incrementAndGet());
+        String segunda = cache.get("activas", () -> "cargado-" + cargas.incrementAndGet());
+
+        // Assert
+        assertThat(segunda).isEqualTo("cargado-1");
+        assertThat(cargas.get()).isEqualTo(1);
+        assertThat(remoto.getCache("categorias").get("activas").get()).isEqualTo("cargado-1");
+    }
+
+    @Test
+    void getConCargador_noPisaLoQueOtroNodoEscribioDuranteLaCarga() {
+        // Arrange
+        Cache cache = nodoA.getCache("categorias");
+
+        // Act: mientras nodoA carga tras el fallo, nodoB escribe un valor más reciente
+        String resultado = cache.get("activas", () -> {
+            nodoB.getCache("categorias").put("activas", "escrito-en-B");
+            return "cargado-en-A";
+        });
+
+        // Assert
+        assertThat(resultado).isEqualTo("escrito-en-B");
+        assertThat(remoto.getCache("categorias").get("activas").get()).isEqualTo("escrito-en-B");
+        assertThat(cache.get("activas").get()).isEqualTo("escrito-en-B");
+    }
+
+    @Test
+    void recibir_notificaALosOyentesSoloLasInvalidacionesDeOtrosNodos() {
+        // Arrange
+        List<InvalidacionCache> recibidasA = new ArrayList<>();
+        List<InvalidacionCache> recibidasB = new ArrayList<>();
+        nodoA.alRecibir(recibidasA::add);
+        nodoB.alRecibir(recibidasB::add);
+
+        // Act
+        nodoA.getCache("producto").put(7L, "Lasaña");
+
+        // Assert
+        assertThat(recibidasA).isEmpty();
+        assertThat(recibidasB).singleElement()
+                .satisfies(invalidacion -> {
+                    assertThat(invalidacion.cache()).isEqualTo("producto");
+                    assertThat(invalidacion.clave()).isEqualTo(7L);
+                });
+    }
+
+    @Test
+    void put_trasUnFalloEsUnRellenoYNoSeNotifica() {
+        // Arrange
+        List<InvalidacionCache> recibidasB = new ArrayList<>();
+        nodoB.alRecibir(recibidasB::add);
+        Cache cache = nodoA.getCache("pedido");
+
+        // Act: lo que hace un @Cacheable sin sync, y después un @CachePut de otra clave
+        assertThat(cache.get(3L)).isNull();
+        cache.put(3L, "PENDIENTE");
+        cache.put(4L, "LISTO");
+
+        // Assert
+        assertThat(remoto.getCache("pedido").get(3L).get()).isEqualTo("PENDIENTE");
+        assertThat(recibidasB).singleElement()
+                .satisfies(invalidacion -> assertThat(invalidacion.clave()).isEqualTo(4L));
+    }
+
+    private DosNivelesCacheManager nuevoNodo() {
+        DosNivelesCacheManager nodo = new DosNivelesCacheManager(remoto,
+                Caffeine.newBuilder().maximumSize(100).recordStats(),
+                this::difundir);
+        nodos.add(nodo);
+        return nodo;
+    }
+
+    private void difundir(InvalidacionCache invalidacion) {
+        nodos.forEach(nodo -> nodo.recibir(invalidacion));
+    }
+}
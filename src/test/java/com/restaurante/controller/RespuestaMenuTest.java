@@ -0,0 +1,21 @@
+package com.restaurante.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class RespuestaMenuTest {
+
+    @Test
+    void aceptaGzip_respetaLosValoresQ() {
+        // Act & Assert
+        assertThat(RespuestaMenu.aceptaGzip("gzip, deflate, br")).isTrue();
+        assertThat(RespuestaMenu.aceptaGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(RespuestaMenu.aceptaGzip("gzip;q=0")).isFalse();
+        assertThat(RespuestaMenu.aceptaGzip("gzip; q=0.0, identity")).isFalse();
+        assertThat(RespuestaMenu.aceptaGzip("br, *")).isTrue();
+        assertThat(RespuestaMenu.aceptaGzip("gzip;q=0, *")).isFalse();
+        assertThat(RespuestaMenu.aceptaGzip("*;q=0")).isFalse();
+        assertThat(RespuestaMenu.aceptaGzip("identity")).isFalse();
+        assertThat(RespuestaMenu.aceptaGzip(null)).isFalse();
+    }
+}
@@ -0,0 +1,107 @@
+package com.restaurante.registro.security;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "QWERTYUIOPASDFGHJKLZXCVBNMQWERTYUIOPASDFGHJKLZXCVBNMQWERTYUIOPASDFGHJKLZXCVBNM");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        jwtUtils.init();
+    }
+
+    @Test
+    void generateJwtToken_incluyeIdYRolesComoClaims() {
+        // Arrange
+        UsuarioPrincipal usuario = new UsuarioPrincipal(7L, "ana", "secreto", true,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE")));
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+
+        // Act
+        Claims claims = jwtUtils.parseClaims(token);
+
+        // Assert
+        assertThat(claims.getSubject()).isEqualTo("ana");
+        assertThat(jwtUtils.getUserId(claims)).isEqualTo(7L);
+        assertThat(jwtUtils.getRoles(claims)).containsExactly("ROLE_CLIENTE");
+    }
+
+    @Test
+    void parseClaims_tokenAlteradoDevuelveNull() {
+        // Arrange
+        UsuarioPrincipal usuario = new UsuarioPrincipal(7L, "ana", "secreto", true, List.of());
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+
+        // Act
+        Claims claims = jwtUtils.parseClaims(token.substring(0, token.length() - 2) + "xx");
+
+        // Assert
+        assertThat(claims).isNull();
+    }
+
+    @Test
+    void revocar_rechazaTokensEmitidosAntesYNoLosPosteriores() {
+        // Arrange
+        RevocacionTokens revocacion = new RevocacionTokens();
+        ReflectionTestUtils.setField(revocacion, "cacheManager", new ConcurrentMapCacheManager());
+        Date antes = new Date(System.currentTimeMillis() - 5000);
+
+        // Act
+        boolean revocadoAntesDeLogout = revocacion.estaRevocado("ana", antes);
+        revocacion.revocar("ana");
+
+        // Assert
+        assertThat(revocadoAntesDeLogout).isFalse();
+        assertThat(revocacion.estaRevocado("ana", antes)).isTrue();
+        assertThat(revocacion.estaRevocado("ana", new Date(System.currentTimeMillis() + 1000))).isFalse();
+        assertThat(revocacion.estaRevocado("luis", antes)).isFalse();
+    }
+
+    @Test
+    void revocar_rechazaUnTokenEmitidoEnElMismoSegundoAntesDelLogout() {
+        // Arrange
+        RevocacionTokens revocacion = new RevocacionTokens();
+        ReflectionTestUtils.setField(revocacion, "cacheManager", new ConcurrentMapCacheManager());
+        UsuarioPrincipal usuario = new UsuarioPrincipal(7L, "ana", "secreto", true, List.of());
+        Claims claims = jwtUtils.parseClaims(
+                jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(usuario, null, List.of())));
+
+        // Act
+        revocacion.revocar("ana");
+
+        // Assert: iat está truncado a segundos; la emisión en milisegundos no
+        assertThat(jwtUtils.getEmision(claims)).isAfterOrEqualTo(claims.getIssuedAt());
+        assertThat(revocacion.estaRevocado("ana", jwtUtils.getEmision(claims))).isTrue();
+    }
+
+    @Test
+    void getEmision_sinMilisegundosTomaElPrincipioDelSegundoDeIat() {
+        // Arrange
+        Claims claims = Jwts.claims();
+        claims.setIssuedAt(new Date(1_700_000_000_000L));
+
+        // Act
+        Date emision = jwtUtils.getEmision(claims);
+
+        // Assert
+        assertThat(emision.getTime()).isEqualTo(1_700_000_000_000L);
+    }
+}
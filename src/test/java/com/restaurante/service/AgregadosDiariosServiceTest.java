@@ -0,0 +1,119 @@
+package com.restaurante.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyInt;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.restaurante.dto.AgregadoDiarioDTO;
+import com.restaurante.model.AgregadoDiario;
+import com.restaurante.repository.AgregadoDiarioRepository;
+import com.restaurante.service.impl.AgregadosDiariosServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class AgregadosDiariosServiceTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2026, 3, 2);
+    private static final LocalDate MARTES = LocalDate.of(2026, 3, 3);
+
+    @Mock
+    private AgregadoDiarioRepository agregadoRepository;
+
+    @InjectMocks
+    private AgregadosDiariosServiceImpl agregadosService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(agregadosService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(agregadosService, "margenMinutos", 10);
+        ReflectionTestUtils.setField(agregadosService, "turnoMinutos", 60);
+    }
+
+    @Test
+    void procesarPendientes_recalculaCadaDiaYAvanzaLaMarcaAlFinal() {
+        // Arrange
+        when(agregadoRepository.tomarTurno(60)).thenReturn(1);
+        when(agregadoRepository.diasCambiados(10)).thenReturn(List.of(Date.valueOf(LUNES), Date.valueOf(MARTES)));
+
+        // Act
+        int dias = agregadosService.procesarPendientes();
+
+        // Assert
+        assertThat(dias).isEqualTo(2);
+        InOrder orden = inOrder(agregadoRepository);
+        for (LocalDate dia : List.of(LUNES, MARTES)) {
+            orden.verify(agregadoRepository).borrarProductosDelDia(dia);
+            orden.verify(agregadoRepository).insertarProductosDelDia(dia);
+            orden.verify(agregadoRepository).borrarDia(dia);
+            orden.verify(agregadoRepository).insertarDia(dia);
+            orden.verify(agregadoRepository).quitarPendiente(dia, 10);
+        }
+        orden.verify(agregadoRepository).avanzarMarca();
+    }
+
+    @Test
+    void procesarPendientes_sinTurnoNoHaceNada() {
+        // Arrange
+        when(agregadoRepository.tomarTurno(60)).thenReturn(0);
+
+        // Act
+        int dias = agregadosService.procesarPendientes();
+
+        // Assert
+        assertThat(dias).isZero();
+        verify(agregadoRepository, never()).diasCambiados(anyInt());
+        verify(agregadoRepository, never()).avanzarMarca();
+    }
+
+    @Test
+    void procesarPendientes_siFallaUnDiaLiberaElTurnoSinAvanzarLaMarca() {
+        // Arrange
+        when(agregadoRepository.tomarTurno(60)).thenReturn(1);
+        when(agregadoRepository.diasCambiados(10)).thenReturn(List.of(Date.valueOf(LUNES), Date.valueOf(MARTES)));
+        when(agregadoRepository.insertarDia(LUNES)).thenReturn(1);
+        when(agregadoRepository.insertarDia(MARTES)).thenThrow(new RuntimeException("conexión perdida"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> agregadosService.procesarPendientes()).hasMessage("conexión perdida");
+        verify(agregadoRepository).quitarPendiente(LUNES, 10);
+        verify(agregadoRepository, never()).avanzarMarca();
+        verify(agregadoRepository).liberarTurno();
+    }
+
+    @Test
+    void obtenerDias_calculaTicketYTiempoMedioDeEntrega() {
+        // Arrange
+        AgregadoDiario agregado = new AgregadoDiario(LUNES, 4, 0, 0, 1, 0, 3, 9, 100.0, 3, 5400,
+                LocalDateTime.of(2026, 3, 3, 3, 30));
+        when(agregadoRepository.findByDiaBetweenOrderByDia(LUNES, MARTES)).thenReturn(List.of(agregado));
+
+        // Act
+        List<AgregadoDiarioDTO> resultado = agregadosService.obtenerDias(LUNES, MARTES);
+
+        // Assert
+        assertThat(resultado).hasSize(1);
+        assertThat(resultado.get(0).getTicketMedio()).isEqualTo(25.0);
+        assertThat(resultado.get(0).getMinutosEntregaMedio()).isEqualTo(30.0);
+        assertThat(resultado.get(0).getPedidosEntregado()).isEqualTo(3);
+    }
+}
@@ -10,15 +10,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.restaurante.dto.AsignacionRepartidorDTO;
+import com.restaurante.dto.PedidoEventoDTO;
 import com.restaurante.model.AsignacionRepartidor;
 import com.restaurante.repository.AsignacionRepartidorRepository;
+import com.restaurante.repository.PedidoRepository;
 import com.restaurante.service.impl.AsignacionRepartidorServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +28,12 @@ class AsignacionRepartidorServiceTest {
     @Mock
     private AsignacionRepartidorRepository asignacionRepository;
 
+    @Mock
+    private IOutboxService outboxService;
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
     @InjectMocks
     private AsignacionRepartidorServiceImpl asignacionService;
 
@@ -173,19 +180,24 @@ class AsignacionRepartidorServiceTest {
         assertThat(resultado.getFechaEntrega()).isNotNull();
         verify(asignacionRepository, times(1)).findById(id);
         verify(asignacionRepository, times(1)).save(any(AsignacionRepartidor.class));
+        verify(outboxService, times(1)).registrar(any(PedidoEventoDTO.class));
     }
 
     @Test
-    void eliminar_llamaMetodoDelete() {
+    void eliminar_marcaElPedidoComoModificadoYBorra() {
         // Arrange
         Long id = 1L;
-        doNothing().when(asignacionRepository).deleteById(id);
+        AsignacionRepartidor asignacion = new AsignacionRepartidor();
+        asignacion.setPid(id);
+        asignacion.setIdPedido(5L);
+        when(asignacionRepository.findById(id)).thenReturn(Optional.of(asignacion));
 
         // Act
         asignacionService.eliminar(id);
 
         // Assert
-        verify(asignacionRepository, times(1)).deleteById(id);
+        verify(pedidoRepository, times(1)).marcarModificado(5L);
+        verify(asignacionRepository, times(1)).delete(asignacion);
     }
 
     @Test
@@ -195,13 +207,13 @@ class AsignacionRepartidorServiceTest {
         AsignacionRepartidor asignacion = new AsignacionRepartidor();
         asignacion.setPid(id);
         
-        when(asignacionRepository.findById(id)).thenReturn(Optional.of(asignacion));
+        when(asignacionRepository.findByIdForUpdate(id)).thenReturn(Optional.of(asignacion));
 
         // Act
         AsignacionRepartidor resultado = asignacionService.obtenerPorIdConBloqueo(id);
 
         // Assert
         assertThat(resultado.getPid()).isEqualTo(id);
-        verify(asignacionRepository, times(1)).findById(id);
+        verify(asignacionRepository, times(1)).findByIdForUpdate(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.restaurante.service;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.service.outbox.BusLocalPublicador;
+
+@ExtendWith(MockitoExtension.class)
+class BusLocalPublicadorTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BusLocalPublicador bus;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publicar_unReenvioEnLaMismaTransaccionNoSeRepite() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        PedidoEventoDTO evento = evento(1L);
+
+        // Act: el relé envía el lote y, tras fallar otro destino, la fila suelta
+        bus.publicar(List.of(evento));
+        bus.publicar(List.of(evento));
+        terminar(TransactionSynchronization.STATUS_COMMITTED);
+        bus.publicar(List.of(evento));
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void publicar_siLaTransaccionDelReleSeDeshaceElReintentoSeEntrega() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        PedidoEventoDTO evento = evento(1L);
+        bus.publicar(List.of(evento));
+
+        // Act
+        terminar(TransactionSynchronization.STATUS_ROLLED_BACK);
+        bus.publicar(List.of(evento));
+
+        // Assert
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void publicar_elLectorDelStreamNoRepiteLoQueEntregaUnaTransaccionAbierta() throws InterruptedException {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        PedidoEventoDTO evento = evento(1L);
+        bus.publicar(List.of(evento));
+
+        // Act: el lector corre en su propio hilo, sin transacción, antes de que el relé confirme
+        Thread lector = new Thread(() -> bus.publicar(List.of(evento)));
+        lector.start();
+        lector.join();
+        terminar(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    // Lo que hace el gestor de transacciones al terminar: afterCommit si confirma y siempre afterCompletion
+    private static void terminar(int estado) {
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        if (estado == TransactionSynchronization.STATUS_COMMITTED) {
+            sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+        }
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(estado));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static PedidoEventoDTO evento(Long idEvento) {
+        PedidoEventoDTO evento = PedidoEventoDTO.builder()
+                .tipo(PedidoEventoDTO.ESTADO_ACTUALIZADO).idPedido(5L).estado("LISTO").build();
+        evento.setIdEvento(idEvento);
+        return evento;
+    }
+}
@@ -0,0 +1,46 @@
+package com.restaurante.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+import com.restaurante.service.comun.CambiosDesdeCarga;
+
+class CambiosDesdeCargaTest {
+
+    @Test
+    void reaplicar_pasaSoloElUltimoCambioDeCadaClavePosteriorALaMarca() {
+        // Arrange
+        CambiosDesdeCarga<Long, String> cambios = new CambiosDesdeCarga<>();
+        cambios.anotar(1L, "PENDIENTE");
+        long marca = cambios.marca();
+        cambios.anotar(2L, "PENDIENTE");
+        cambios.anotar(2L, "LISTO");
+        cambios.anotar(3L, null);
+        Map<Long, String> reaplicados = new HashMap<>();
+
+        // Act
+        cambios.reaplicar(marca, reaplicados::put);
+
+        // Assert
+        assertThat(reaplicados).containsOnlyKeys(2L, 3L).containsEntry(2L, "LISTO").containsEntry(3L, null);
+    }
+
+    @Test
+    void obsoleta_descartaLasCargasAnterioresALaUltimaAplicada() {
+        // Arrange
+        CambiosDesdeCarga<Long, String> cambios = new CambiosDesdeCarga<>();
+        long antigua = cambios.marca();
+        cambios.anotar(1L, "PENDIENTE");
+        long reciente = cambios.marca();
+
+        // Act
+        cambios.reaplicar(reciente, (clave, valor) -> { });
+
+        // Assert
+        assertThat(cambios.obsoleta(antigua)).isTrue();
+        assertThat(cambios.obsoleta(reciente)).isFalse();
+    }
+}
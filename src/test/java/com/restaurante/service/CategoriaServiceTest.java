@@ -18,6 +18,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.restaurante.dto.CategoriaDTO;
 import com.restaurante.model.Categoria;
@@ -34,6 +35,9 @@ class CategoriaServiceTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoriaServiceImpl categoriaService;
 
@@ -200,13 +204,13 @@ class CategoriaServiceTest {
         Categoria categoria = new Categoria();
         categoria.setId(id);
         
-        when(categoriaRepository.findById(id)).thenReturn(Optional.of(categoria));
+        when(categoriaRepository.findByIdForUpdate(id)).thenReturn(Optional.of(categoria));
 
         // Act
         Categoria resultado = categoriaService.obtenerPorIdConBloqueo(id);
 
         // Assert
         assertThat(resultado.getId()).isEqualTo(id);
-        verify(categoriaRepository, times(1)).findById(id);
+        verify(categoriaRepository, times(1)).findByIdForUpdate(id);
     }
 }
\ No newline at end of file
@@ -144,7 +144,7 @@ class ClienteServiceTest {
         cliente.setId(id);
         cliente.setNombre("Juan");
 
-        when(clienteRepository.findById(id)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.findByIdForUpdate(id)).thenReturn(Optional.of(cliente));
 
         // Act
         Cliente resultado = clienteService.obtenerClientePorIdConBloqueo(id);
@@ -152,6 +152,6 @@ class ClienteServiceTest {
         // Assert
         assertThat(resultado.getId()).isEqualTo(id);
         assertThat(resultado.getNombre()).isEqualTo("Juan");
-        verify(clienteRepository, times(1)).findById(id);
+        verify(clienteRepository, times(1)).findByIdForUpdate(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.restaurante.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurante.service.cocina.ColaCocina;
+import com.restaurante.service.cocina.ColaCocina.Estimacion;
+import com.restaurante.service.cocina.ColaCocina.Ticket;
+
+class ColaCocinaTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2024, 6, 1, 13, 0);
+
+    private ColaCocina cola;
+
+    @BeforeEach
+    void setUp() {
+        cola = new ColaCocina();
+        // Pedido 1 en preparación desde hace 5 minutos; 2 y 3 pendientes
+        cola.reemplazar(List.of(
+                new Ticket(1L, AHORA.minusMinutes(20), 1200, 600, AHORA.minusMinutes(5)),
+                new Ticket(2L, AHORA.minusMinutes(10), 600, 600, null),
+                new Ticket(3L, AHORA.minusMinutes(2), 300, 300, null)), cola.marca());
+    }
+
+    @Test
+    void estimar_repartePendienteDeDelanteEntreLosCocineros() {
+        // Act
+        Estimacion tercero = cola.estimar(3L, AHORA, 2).orElseThrow();
+
+        // Assert: (1200 - 300 + 600 + 300) / 2
+        assertThat(tercero.pedidosDelante()).isEqualTo(2);
+        assertThat(tercero.segundosRestantes()).isEqualTo(900);
+        assertThat(tercero.enPreparacion()).isFalse();
+    }
+
+    @Test
+    void estimar_nuncaBajaDelPlatoMasLargo() {
+        // Act: con muchos cocineros manda la duración propia
+        Estimacion segundo = cola.estimar(2L, AHORA, 50).orElseThrow();
+
+        // Assert
+        assertThat(segundo.segundosRestantes()).isEqualTo(600);
+    }
+
+    @Test
+    void estimar_unPedidoVencidoDelanteNoAnulaElTrabajoDeLosDemas() {
+        // Arrange: el pedido 1 lleva tres horas en preparación con 20 minutos de trabajo
+        cola.abrir(new Ticket(1L, AHORA.minusMinutes(20), 1200, 600, AHORA.minusHours(3)));
+
+        // Act
+        Estimacion primero = cola.estimar(1L, AHORA, 2).orElseThrow();
+        Estimacion tercero = cola.estimar(3L, AHORA, 2).orElseThrow();
+
+        // Assert: sigue delante pero no resta nada; (600 + 300) / 2
+        assertThat(primero.segundosRestantes()).isZero();
+        assertThat(tercero.pedidosDelante()).isEqualTo(2);
+        assertThat(tercero.segundosRestantes()).isEqualTo(450);
+    }
+
+    @Test
+    void iniciarYCerrar_actualizanLaColaSinRecorrerla() {
+        // Act
+        cola.cerrar(1L, AHORA);
+        cola.iniciar(2L, AHORA.minusMinutes(4));
+        cola.abrir(new Ticket(4L, AHORA, 600, 600, null));
+
+        // Assert
+        assertThat(cola.tamano()).isEqualTo(3);
+        assertThat(cola.estimar(1L, AHORA, 1)).isEmpty();
+        assertThat(cola.estimar(2L, AHORA, 1).orElseThrow().segundosRestantes()).isEqualTo(360);
+        // 360 del segundo + 300 del tercero + 600 propios
+        assertThat(cola.estimar(4L, AHORA, 1).orElseThrow().segundosRestantes()).isEqualTo(1260);
+    }
+
+    @Test
+    void calibrar_ajustaLosTiemposConLoObservado() {
+        // Arrange: los pedidos tardan la mitad más de lo estimado
+        cola.calibrar(100, 90000, 60000);
+
+        // Act
+        Estimacion segundo = cola.estimar(2L, AHORA, 50).orElseThrow();
+
+        // Assert
+        assertThat(segundo.factor()).isEqualTo(1.5);
+        assertThat(segundo.segundosRestantes()).isEqualTo(900);
+    }
+
+    @Test
+    void reemplazar_conservaLosCambiosHechosDuranteLaCarga() {
+        // Arrange
+        long marca = cola.marca();
+        cola.cerrar(2L, null);
+        cola.abrir(new Ticket(5L, AHORA, 300, 300, null));
+
+        // Act: la carga leyó la base de datos antes de esos cambios
+        cola.reemplazar(List.of(
+                new Ticket(1L, AHORA.minusMinutes(20), 1200, 600, AHORA.minusMinutes(5)),
+                new Ticket(2L, AHORA.minusMinutes(10), 600, 600, null)), marca);
+
+        // Assert
+        assertThat(cola.contiene(2L)).isFalse();
+        assertThat(cola.estimar(5L, AHORA, 1).orElseThrow().pedidosDelante()).isEqualTo(1);
+    }
+
+    @Test
+    void abrir_creceYCompactaLasPosiciones() {
+        // Act: más altas y cierres que la capacidad inicial
+        for (long id = 100; id < 400; id++) {
+            cola.abrir(new Ticket(id, AHORA, 60, 60, null));
+            if (id % 2 == 0) {
+                cola.cerrar(id, null);
+            }
+        }
+
+        // Assert
+        assertThat(cola.tamano()).isEqualTo(153);
+        assertThat(cola.estimar(399L, AHORA, 1).orElseThrow().pedidosDelante()).isEqualTo(152);
+    }
+}
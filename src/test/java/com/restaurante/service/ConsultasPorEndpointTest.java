@@ -0,0 +1,168 @@
+package com.restaurante.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.restaurante.model.Categoria;
+import com.restaurante.model.DetallePedido;
+import com.restaurante.model.Pedido;
+import com.restaurante.model.Producto;
+import com.restaurante.service.impl.DetallePedidoServiceImpl;
+import com.restaurante.service.impl.ProductoServiceImpl;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cuenta las sentencias SQL de cada listado con las estadísticas de Hibernate.
+ * Los datos reparten los productos entre varias categorías y las líneas entre
+ * varios pedidos: si un listado volviera a cargar la asociación fila a fila
+ * (N+1), el número de sentencias crecería con ellas. Sin caché de Spring, para
+ * medir solo el acceso a datos.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+@ContextConfiguration(classes = ConsultasPorEndpointTest.Configuracion.class)
+class ConsultasPorEndpointTest {
+
+    @Configuration
+    @EntityScan("com.restaurante.model")
+    @EnableJpaRepositories("com.restaurante.repository")
+    @Import({ ProductoServiceImpl.class, DetallePedidoServiceImpl.class })
+    static class Configuracion {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        // Los resúmenes de valoración no intervienen en los listados medidos
+        @Bean
+        IValoracionService valoracionService() {
+            return mock(IValoracionService.class);
+        }
+    }
+
+    private static final int CATEGORIAS = 4;
+    private static final int PEDIDOS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private IProductoService productoService;
+
+    @Autowired
+    private IDetallePedidoService detallePedidoService;
+
+    private Long idCategoria;
+    private Long idPedido;
+
+    @BeforeEach
+    void setUp() {
+        for (int c = 0; c < CATEGORIAS; c++) {
+            Categoria categoria = entityManager.persist(Categoria.builder()
+                    .nombre("Categoría " + c).estado("activo").build());
+            idCategoria = categoria.getId();
+            for (int p = 0; p < 3; p++) {
+                entityManager.persist(Producto.builder()
+                        .categoria(categoria)
+                        .nombre("Producto " + c + "-" + p)
+                        .precio(BigDecimal.TEN)
+                        .estado("activo")
+                        .destacado(p == 0)
+                        .build());
+            }
+        }
+        for (int i = 0; i < PEDIDOS; i++) {
+            Pedido pedido = entityManager.persist(Pedido.builder().idCliente(1L).estado("PENDIENTE").build());
+            idPedido = pedido.getPid();
+            for (int d = 0; d < 2; d++) {
+                entityManager.persist(DetallePedido.builder()
+                        .pedido(pedido)
+                        .idProducto(1L)
+                        .cantidad(1)
+                        .precioUnitario(10.0)
+                        .instruccionesEspecial(d == 0 ? "Sin sal" : null)
+                        .build());
+            }
+        }
+        // Se vacía el contexto de persistencia para que las asociaciones no salgan de la memoria
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listadosDeProductos_unaSentenciaCadaUno() {
+        // Act & Assert
+        assertThat(sentencias(productoService::obtenerTodos)).isEqualTo(1);
+        assertThat(sentencias(productoService::obtenerActivos)).isEqualTo(1);
+        assertThat(sentencias(productoService::obtenerDestacados)).isEqualTo(1);
+        assertThat(sentencias(() -> productoService.obtenerPorCategoria(idCategoria))).isEqualTo(1);
+    }
+
+    @Test
+    void listadosDeProductos_devuelvenLaCategoriaDeCadaProducto() {
+        // Act
+        List<?> todos = productoService.obtenerTodos();
+
+        // Assert
+        assertThat(todos).hasSize(CATEGORIAS * 3);
+        assertThat(productoService.obtenerPorCategoria(idCategoria))
+                .hasSize(3)
+                .allSatisfy(producto -> assertThat(producto.getIdCategoria()).isEqualTo(idCategoria));
+        assertThat(productoService.obtenerDestacados()).hasSize(CATEGORIAS);
+    }
+
+    @Test
+    void listadosDeDetalles_unaSentenciaCadaUno() {
+        // Act & Assert
+        assertThat(sentencias(detallePedidoService::obtenerTodos)).isEqualTo(1);
+        assertThat(sentencias(() -> detallePedidoService.obtenerPorPedido(idPedido))).isEqualTo(1);
+        assertThat(sentencias(() -> detallePedidoService.obtenerPorProducto(1L))).isEqualTo(1);
+        assertThat(sentencias(detallePedidoService::obtenerConInstruccionesEspeciales)).isEqualTo(1);
+    }
+
+    @Test
+    void obtenerPorId_noCargaLaAsociacion() {
+        // Arrange
+        Long idDetalle = detallePedidoService.obtenerPorPedido(idPedido).get(0).getId();
+        entityManager.clear();
+
+        // Act & Assert: el id del pedido sale de la FK, sin select de pedidos
+        assertThat(sentencias(() -> detallePedidoService.obtenerPorId(idDetalle))).isEqualTo(1);
+        assertThat(detallePedidoService.obtenerPorId(idDetalle).getIdPedido()).isEqualTo(idPedido);
+    }
+
+    private long sentencias(Supplier<?> endpoint) {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        estadisticas.clear();
+        endpoint.get();
+        return estadisticas.getPrepareStatementCount();
+    }
+}
@@ -11,6 +11,7 @@ import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -32,6 +33,9 @@ class DetallePedidoServiceTest {
     @Mock
     private PedidoRepository pedidoRepository;
 
+    @Mock
+    private IValoracionService valoracionService;
+
     @InjectMocks
     private DetallePedidoServiceImpl detalleService;
 
@@ -48,13 +52,17 @@ class DetallePedidoServiceTest {
         return detalle;
     }
 
+    private DetallePedidoDTO crearDetalleDTO(Long id, Long idPedido) {
+        return DetallePedidoDTO.builder().id(id).idPedido(idPedido).build();
+    }
+
     @Test
     void obtenerTodos_devuelveListaDTO() {
         // Arrange
-        DetallePedido detalle1 = crearDetalleMock(1L, 1L);
-        DetallePedido detalle2 = crearDetalleMock(2L, 1L);
+        DetallePedidoDTO detalle1 = crearDetalleDTO(1L, 1L);
+        DetallePedidoDTO detalle2 = crearDetalleDTO(2L, 1L);
 
-        when(detalleRepository.findAll()).thenReturn(Arrays.asList(detalle1, detalle2));
+        when(detalleRepository.listarTodos()).thenReturn(Arrays.asList(detalle1, detalle2));
 
         // Act
         List<DetallePedidoDTO> resultado = detalleService.obtenerTodos();
@@ -62,7 +70,8 @@ class DetallePedidoServiceTest {
         // Assert
         assertThat(resultado).hasSize(2);
         assertThat(resultado.get(0).getIdPedido()).isEqualTo(1L);
-        verify(detalleRepository, times(1)).findAll();
+        verify(detalleRepository, times(1)).listarTodos();
+        verify(detalleRepository, never()).findAll();
     }
 
     @Test
@@ -86,9 +95,9 @@ class DetallePedidoServiceTest {
     void obtenerPorPedido_devuelveListaDTO() {
         // Arrange
         Long idPedido = 1L;
-        DetallePedido detalle = crearDetalleMock(1L, idPedido);
+        DetallePedidoDTO detalle = crearDetalleDTO(1L, idPedido);
 
-        when(detalleRepository.findByPedidoPid(idPedido)).thenReturn(Arrays.asList(detalle));
+        when(detalleRepository.listarPorPedido(idPedido)).thenReturn(Arrays.asList(detalle));
 
         // Act
         List<DetallePedidoDTO> resultado = detalleService.obtenerPorPedido(idPedido);
@@ -96,17 +105,17 @@ class DetallePedidoServiceTest {
         // Assert
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getIdPedido()).isEqualTo(idPedido);
-        verify(detalleRepository, times(1)).findByPedidoPid(idPedido);
+        verify(detalleRepository, times(1)).listarPorPedido(idPedido);
     }
 
     @Test
     void obtenerPorProducto_devuelveListaDTO() {
         // Arrange
         Long idProducto = 1L;
-        DetallePedido detalle = crearDetalleMock(1L, 1L);
+        DetallePedidoDTO detalle = crearDetalleDTO(1L, 1L);
         detalle.setIdProducto(idProducto);
 
-        when(detalleRepository.findByIdProducto(idProducto)).thenReturn(Arrays.asList(detalle));
+        when(detalleRepository.listarPorProducto(idProducto)).thenReturn(Arrays.asList(detalle));
 
         // Act
         List<DetallePedidoDTO> resultado = detalleService.obtenerPorProducto(idProducto);
@@ -114,16 +123,16 @@ class DetallePedidoServiceTest {
         // Assert
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getIdProducto()).isEqualTo(idProducto);
-        verify(detalleRepository, times(1)).findByIdProducto(idProducto);
+        verify(detalleRepository, times(1)).listarPorProducto(idProducto);
     }
 
     @Test
     void obtenerConInstruccionesEspeciales_devuelveListaDTO() {
         // Arrange
-        DetallePedido detalle = crearDetalleMock(1L, 1L);
+        DetallePedidoDTO detalle = crearDetalleDTO(1L, 1L);
         detalle.setInstruccionesEspecial("Sin sal");
 
-        when(detalleRepository.findByInstruccionesEspecialIsNotNull()).thenReturn(Arrays.asList(detalle));
+        when(detalleRepository.listarConInstruccionesEspeciales()).thenReturn(Arrays.asList(detalle));
 
         // Act
         List<DetallePedidoDTO> resultado = detalleService.obtenerConInstruccionesEspeciales();
@@ -131,7 +140,7 @@ class DetallePedidoServiceTest {
         // Assert
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getInstruccionesEspecial()).isEqualTo("Sin sal");
-        verify(detalleRepository, times(1)).findByInstruccionesEspecialIsNotNull();
+        verify(detalleRepository, times(1)).listarConInstruccionesEspeciales();
     }
 
     @Test
@@ -158,6 +167,26 @@ class DetallePedidoServiceTest {
         assertThat(resultado.getId()).isEqualTo(1L);
         assertThat(resultado.getIdPedido()).isEqualTo(idPedido);
         verify(detalleRepository, times(1)).save(any(DetallePedido.class));
+        verify(valoracionService, times(1)).sumarProductoDePedido(idPedido, 1L, 1);
+    }
+
+    @Test
+    void actualizar_cambiarDeProductoMueveLasValoracionesDelPedido() {
+        // Arrange: el pedido 4 tiene otra línea del producto 8, así que solo entra el 9
+        DetallePedido existente = crearDetalleMock(1L, 4L);
+        existente.setIdProducto(8L);
+        DetallePedidoDTO dto = DetallePedidoDTO.builder().idProducto(9L).cantidad(1).precioUnitario(5.0).build();
+        when(detalleRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(detalleRepository.save(any(DetallePedido.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(detalleRepository.existsByPedidoPidAndIdProducto(4L, 9L)).thenReturn(false);
+        when(detalleRepository.existsByPedidoPidAndIdProducto(4L, 8L)).thenReturn(true);
+
+        // Act
+        detalleService.actualizar(1L, dto);
+
+        // Assert
+        verify(valoracionService, times(1)).sumarProductoDePedido(4L, 9L, 1);
+        verify(valoracionService, never()).sumarProductoDePedido(4L, 8L, -1);
     }
 
     @Test
@@ -188,16 +217,19 @@ class DetallePedidoServiceTest {
     }
 
     @Test
-    void eliminar_llamaMetodoDelete() {
+    void eliminar_marcaElPedidoComoModificadoYBorra() {
         // Arrange
         Long id = 1L;
-        doNothing().when(detalleRepository).deleteById(id);
+        DetallePedido detalle = crearDetalleMock(id, 7L);
+        when(detalleRepository.findById(id)).thenReturn(Optional.of(detalle));
 
         // Act
         detalleService.eliminar(id);
 
         // Assert
-        verify(detalleRepository, times(1)).deleteById(id);
+        verify(pedidoRepository, times(1)).marcarModificado(7L);
+        verify(detalleRepository, times(1)).delete(detalle);
+        verify(valoracionService, times(1)).sumarProductoDePedido(7L, null, -1);
     }
 
     @Test
@@ -210,6 +242,8 @@ class DetallePedidoServiceTest {
         detalleService.eliminarTodosDePedido(idPedido);
 
         // Assert
+        verify(pedidoRepository, times(1)).marcarModificado(idPedido);
+        verify(valoracionService, times(1)).quitarProductosDePedido(idPedido);
         verify(detalleRepository, times(1)).deleteByPedidoPid(idPedido);
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.restaurante.service;
+
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.restaurante.config.cache.CambiosRemotos;
+import com.restaurante.dto.EtaPedidoDTO;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.repository.DetallePedidoRepository;
+import com.restaurante.repository.DetallePedidoRepository.LineaCocina;
+import com.restaurante.repository.HistorialEstadosRepository;
+import com.restaurante.repository.PedidoRepository;
+import com.restaurante.repository.PedidoRepository.PedidoAbierto;
+import com.restaurante.repository.PersonalCocinaRepository;
+import com.restaurante.repository.PersonalCocinaRepository.PlantillaCocina;
+import com.restaurante.service.cocina.EstadoPedidoCambiado;
+import com.restaurante.service.impl.EtaCocinaServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class EtaCocinaServiceTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private DetallePedidoRepository detalleRepository;
+
+    @Mock
+    private PersonalCocinaRepository personalRepository;
+
+    @Mock
+    private HistorialEstadosRepository historialRepository;
+
+    @Mock
+    private IPedidoService pedidoService;
+
+    @InjectMocks
+    private EtaCocinaServiceImpl etaService;
+
+    private record Abierto(Long getPid, String getEstado, LocalDateTime getFechaCreacion, LocalDateTime getInicio)
+            implements PedidoAbierto {
+    }
+
+    private record Linea(Long getIdPedido, Integer getCantidad, Time getTiempoPreparacion) implements LineaCocina {
+    }
+
+    private record Plantilla(String getTurno, String getArea, Long getPersonas) implements PlantillaCocina {
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(etaService, "tiempoPorDefecto", 600L);
+        ReflectionTestUtils.setField(etaService, "areas", Set.of());
+    }
+
+    @Test
+    void obtenerEta_cargaLaColaYCuentaLosCocinerosDelTurno() {
+        // Arrange: dos pedidos de 20 minutos de trabajo y dos cocineros en cada turno
+        LocalDateTime llegada = LocalDateTime.now().minusMinutes(1);
+        when(detalleRepository.listarLineasCocinaAbiertas(any(LocalDate.class))).thenReturn(List.of(
+                new Linea(1L, 2, Time.valueOf(LocalTime.of(0, 10))),
+                new Linea(2L, 1, Time.valueOf(LocalTime.of(0, 20)))));
+        when(pedidoRepository.listarAbiertosDesde(any(LocalDate.class))).thenReturn(List.of(
+                new Abierto(1L, "PENDIENTE", llegada.minusMinutes(1), null),
+                new Abierto(2L, "PENDIENTE", llegada, null)));
+        when(personalRepository.contarPorTurnoYArea()).thenReturn(List.of(
+                new Plantilla("mañana", "parrilla", 2L), new Plantilla("tarde", "parrilla", 2L),
+                new Plantilla("noche", "parrilla", 2L)));
+        etaService.reconciliarCola();
+
+        // Act
+        EtaPedidoDTO eta = etaService.obtenerEta(2L);
+
+        // Assert: (1200 + 1200) / 2 cocineros
+        assertThat(eta.isListo()).isFalse();
+        assertThat(eta.getPedidosDelante()).isEqualTo(1);
+        assertThat(eta.getCocineros()).isEqualTo(2);
+        assertThat(eta.getSegundosRestantes()).isEqualTo(1200);
+        verify(pedidoRepository, never()).findAbierto(any());
+    }
+
+    @Test
+    void alCambiarPedido_abreConElAltaYCierraAlPasarAListo() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        when(pedidoRepository.findAbierto(7L)).thenReturn(Optional.of(new Abierto(7L, "PENDIENTE", ahora, null)));
+        when(detalleRepository.listarLineasCocina(7L)).thenReturn(List.of(new Linea(7L, 1, null)));
+        when(pedidoService.obtenerPorId(7L)).thenReturn(new PedidoDTO(7L, 1L, ahora.toLocalDate(), "LISTO"));
+
+        // Act
+        etaService.alCambiarPedido(evento(PedidoEventoDTO.PEDIDO_CREADO, "PENDIENTE", ahora));
+        EtaPedidoDTO pendiente = etaService.obtenerEta(7L);
+        etaService.alCambiarPedido(evento(PedidoEventoDTO.ESTADO_ACTUALIZADO, "LISTO", ahora.plusMinutes(9)));
+        EtaPedidoDTO listo = etaService.obtenerEta(7L);
+
+        // Assert: sin tiempo de preparación cuenta el de por defecto; ya cerrado, basta la caché del pedido
+        assertThat(pendiente.getSegundosRestantes()).isEqualTo(600);
+        assertThat(listo.isListo()).isTrue();
+        assertThat(listo.getEstado()).isEqualTo("LISTO");
+        verify(pedidoRepository, times(1)).findAbierto(7L);
+    }
+
+    @Test
+    void alCambiarEstado_aplicaElCambioLocalSinEsperarAlOutbox() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        when(pedidoRepository.findAbierto(7L)).thenReturn(Optional.of(new Abierto(7L, "PENDIENTE", ahora, null)));
+        when(detalleRepository.listarLineasCocina(7L)).thenReturn(List.of(new Linea(7L, 1, null)));
+        etaService.alCambiarPedido(evento(PedidoEventoDTO.PEDIDO_CREADO, "PENDIENTE", ahora));
+
+        // Act: el cambio hecho en este nodo y, si este nodo publica el outbox, el mismo cambio otra vez
+        etaService.alCambiarEstado(new EstadoPedidoCambiado(7L, "EN_PREPARACION", ahora.plusMinutes(2)));
+        EtaPedidoDTO local = etaService.obtenerEta(7L);
+        etaService.alCambiarPedido(evento(PedidoEventoDTO.ESTADO_ACTUALIZADO, "EN_PREPARACION", ahora.plusMinutes(3)));
+        EtaPedidoDTO repetido = etaService.obtenerEta(7L);
+
+        // Assert: el inicio es el del cambio local; repetirlo no lo mueve
+        assertThat(local.getEstado()).isEqualTo("EN_PREPARACION");
+        assertThat(repetido.getSegundosRestantes()).isEqualTo(local.getSegundosRestantes());
+        verify(pedidoRepository, times(1)).findAbierto(7L);
+    }
+
+    @Test
+    void aplicarCambiosRemotos_releeEnLoteSoloLosPedidosDeLaCola() {
+        // Arrange: 7 y 8 en la cola; llegan cambios remotos de 7, 8 y 9 (este último no está en la cola)
+        LocalDateTime ahora = LocalDateTime.now();
+        when(detalleRepository.listarLineasCocinaAbiertas(any(LocalDate.class))).thenReturn(List.of(
+                new Linea(7L, 1, null), new Linea(8L, 1, null)));
+        when(pedidoRepository.listarAbiertosDesde(any(LocalDate.class))).thenReturn(List.of(
+                new Abierto(7L, "PENDIENTE", ahora.minusMinutes(2), null),
+                new Abierto(8L, "PENDIENTE", ahora.minusMinutes(1), null)));
+        when(personalRepository.contarPorTurnoYArea()).thenReturn(List.of());
+        etaService.reconciliarCola();
+        CambiosRemotos cambios = (CambiosRemotos) ReflectionTestUtils.getField(etaService, "cambiosRemotos");
+        cambios.anotar(7L);
+        cambios.anotar(8L);
+        cambios.anotar(9L);
+        when(detalleRepository.listarLineasCocinaDe(List.of(7L, 8L))).thenReturn(List.of(new Linea(8L, 3, null)));
+        when(pedidoRepository.listarAbiertos(List.of(7L, 8L))).thenReturn(List.of(
+                new Abierto(8L, "PENDIENTE", ahora.minusMinutes(1), null)));
+        when(pedidoService.obtenerPorId(7L)).thenReturn(new PedidoDTO(7L, 1L, ahora.toLocalDate(), "LISTO"));
+
+        // Act
+        etaService.aplicarCambiosRemotos();
+        EtaPedidoDTO cerrado = etaService.obtenerEta(7L);
+        EtaPedidoDTO cambiado = etaService.obtenerEta(8L);
+
+        // Assert: 7 ya no está abierto y 8 tiene ahora tres raciones por delante de nadie
+        assertThat(cerrado.isListo()).isTrue();
+        assertThat(cambiado.getPedidosDelante()).isZero();
+        assertThat(cambiado.getSegundosRestantes()).isEqualTo(1800);
+        verify(pedidoRepository, never()).findAbierto(any());
+    }
+
+    private static PedidoEventoDTO evento(String tipo, String estado, LocalDateTime fecha) {
+        return PedidoEventoDTO.builder().tipo(tipo).idPedido(7L).estado(estado).fecha(fecha).build();
+    }
+}
@@ -15,6 +15,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.restaurante.dto.HistorialEstadosDTO;
 import com.restaurante.model.HistorialEstados;
@@ -27,6 +28,9 @@ class HistorialEstadosServiceTest {
     @Mock
     private HistorialEstadosRepository historialRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private HistorialEstadosServiceImpl historialService;
 
@@ -173,13 +177,13 @@ class HistorialEstadosServiceTest {
         HistorialEstados historial = new HistorialEstados();
         historial.setId(id);
         
-        when(historialRepository.findById(id)).thenReturn(Optional.of(historial));
+        when(historialRepository.findByIdForUpdate(id)).thenReturn(Optional.of(historial));
 
         // Act
         HistorialEstados resultado = historialService.obtenerPorIdConBloqueo(id);
 
         // Assert
         assertThat(resultado.getId()).isEqualTo(id);
-        verify(historialRepository, times(1)).findById(id);
+        verify(historialRepository, times(1)).findByIdForUpdate(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.restaurante.service;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurante.dto.ProductoDTO;
+import com.restaurante.service.busqueda.IndiceInvertido;
+import com.restaurante.service.busqueda.IndiceInvertido.Campo;
+
+class IndiceInvertidoTest {
+
+    private IndiceInvertido<ProductoDTO> indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceInvertido<>(ProductoDTO::getId, producto -> List.of(
+                new Campo(producto.getNombre(), 3),
+                new Campo(producto.getIngredientes(), 2),
+                new Campo(producto.getDescripcion(), 1)));
+        indice.reconstruir(List.of(
+                producto(1L, "Pizza Margarita", "tomate, mozzarella, albahaca", "Clásica italiana"),
+                producto(2L, "Ensalada César", "lechuga, pollo, parmesano", null),
+                producto(3L, "Calzone", "jamón, mozzarella", "Pizza cerrada al horno"),
+                producto(4L, "Piña colada", "piña, coco, ron", "Bebida tropical")), indice.marca());
+    }
+
+    @Test
+    void buscar_ignoraMayusculasYTildes() {
+        // Act & Assert
+        assertThat(indice.buscar("CESAR", 10)).extracting("id").containsExactly(2L);
+        assertThat(indice.buscar("jamon", 10)).extracting("id").containsExactly(3L);
+        assertThat(indice.buscar("pina", 10)).extracting("id").containsExactly(4L);
+    }
+
+    @Test
+    void buscar_comparaCadaPalabraComoPrefijoYExigeTodas() {
+        // Act & Assert
+        assertThat(indice.buscar("pizz marg", 10)).extracting("id").containsExactly(1L);
+        assertThat(indice.buscar("mozza", 10)).extracting("id").containsExactlyInAnyOrder(1L, 3L);
+        assertThat(indice.buscar("pizza coco", 10)).isEmpty();
+    }
+
+    @Test
+    void buscar_ordenaPorCampoYCoincidenciaCompleta() {
+        // Act
+        List<ProductoDTO> resultado = indice.buscar("pizza", 10);
+
+        // Assert: en el nombre pesa más que en la descripción
+        assertThat(resultado).extracting("id").containsExactly(1L, 3L);
+    }
+
+    @Test
+    void indexarYEliminar_actualizanElIndiceSinReconstruirlo() {
+        // Act
+        indice.indexar(producto(1L, "Pizza Cuatro Quesos", "mozzarella, gorgonzola", null));
+        indice.eliminar(3L);
+
+        // Assert
+        assertThat(indice.buscar("margarita", 10)).isEmpty();
+        assertThat(indice.buscar("gorgon", 10)).extracting("id").containsExactly(1L);
+        assertThat(indice.buscar("calzone", 10)).isEmpty();
+        assertThat(indice.tamano()).isEqualTo(3);
+    }
+
+    @Test
+    void reconstruir_conservaLosCambiosHechosDuranteLaLectura() {
+        // Arrange
+        long marca = indice.marca();
+        indice.indexar(producto(5L, "Lasaña", "carne, bechamel", null));
+        indice.eliminar(1L);
+
+        // Act: la reconstrucción leyó la base de datos antes de esos cambios
+        indice.reconstruir(List.of(
+                producto(1L, "Pizza Margarita", "tomate, mozzarella, albahaca", null),
+                producto(2L, "Ensalada César", "lechuga, pollo, parmesano", null)), marca);
+
+        // Assert
+        assertThat(indice.buscar("lasana", 10)).extracting("id").containsExactly(5L);
+        assertThat(indice.buscar("margarita", 10)).isEmpty();
+        assertThat(indice.tamano()).isEqualTo(2);
+    }
+
+    @Test
+    void reconstruir_descartaUnaLecturaMasAntiguaQueLaAplicada() {
+        // Arrange
+        long antigua = indice.marca();
+        indice.indexar(producto(5L, "Lasaña", "carne, bechamel", null));
+        indice.reconstruir(List.of(producto(5L, "Lasaña", "carne, bechamel", null)), indice.marca());
+
+        // Act
+        indice.reconstruir(List.of(), antigua);
+
+        // Assert
+        assertThat(indice.buscar("lasana", 10)).extracting("id").containsExactly(5L);
+    }
+
+    @Test
+    void buscar_respetaElLimite() {
+        // Act & Assert
+        assertThat(indice.buscar("mozzarella", 1)).hasSize(1);
+        assertThat(indice.buscar("  ", 10)).isEmpty();
+    }
+
+    private ProductoDTO producto(Long id, String nombre, String ingredientes, String descripcion) {
+        return ProductoDTO.builder()
+                .id(id)
+                .nombre(nombre)
+                .ingredientes(ingredientes)
+                .descripcion(descripcion)
+                .build();
+    }
+}
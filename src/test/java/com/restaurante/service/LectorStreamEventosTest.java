@@ -0,0 +1,151 @@
+package com.restaurante.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.service.outbox.BusLocalPublicador;
+import com.restaurante.service.outbox.LectorStreamEventos;
+
+class LectorStreamEventosTest {
+
+    private static final String STREAM = "restaurante:pedidos:eventos";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    // El stream de Redis que comparten los nodos
+    private final List<MapRecord<String, Object, Object>> entradas = new ArrayList<>();
+    private StringRedisTemplate redisTemplate;
+
+    private record Nodo(ApplicationEventPublisher listeners, BusLocalPublicador bus, LectorStreamEventos lector) {
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StreamOperations<String, Object, Object> streams = mock(StreamOperations.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForStream()).thenReturn(streams);
+        when(streams.reverseRange(eq(STREAM), any(Range.class), any(Limit.class))).thenAnswer(inv ->
+                entradas.isEmpty() ? List.of() : List.of(entradas.get(entradas.size() - 1)));
+        when(streams.read(any(StreamReadOptions.class), any(StreamOffset.class))).thenAnswer(inv -> {
+            RecordId desde = RecordId.of(((StreamOffset<String>) inv.getArgument(1)).getOffset().getOffset());
+            return entradas.stream().filter(entrada -> posterior(entrada.getId(), desde)).toList();
+        });
+    }
+
+    @Test
+    void leer_elSuscriptorDelNodoQueNoPublicaRecibeElEvento() {
+        // Arrange: dos nodos que ya han leído el stream vacío
+        Nodo publica = nodo();
+        Nodo otro = nodo();
+        publica.lector().leer();
+        otro.lector().leer();
+        PedidoEventoDTO evento = evento(1L);
+
+        // Act: el relé del primero entrega el evento a su bus y lo añade al stream; los dos leen
+        publica.bus().publicar(List.of(evento));
+        anadir(evento);
+        publica.lector().leer();
+        otro.lector().leer();
+        otro.lector().leer();
+
+        // Assert: cada nodo lo entrega una vez; el que publica lo descarta al leerlo del stream
+        verify(publica.listeners(), times(1)).publishEvent(any(Object.class));
+        verify(otro.listeners(), times(1)).publishEvent(evento);
+    }
+
+    @Test
+    void leer_descartaLasEntradasRepetidasPorLosReintentosDelRele() {
+        // Arrange
+        Nodo otro = nodo();
+        otro.lector().leer();
+        PedidoEventoDTO evento = evento(1L);
+
+        // Act: el relé añadió el lote y, tras fallar otro destino, la fila suelta
+        anadir(evento);
+        anadir(evento);
+        int leidas = otro.lector().leer();
+
+        // Assert
+        assertThat(leidas).isEqualTo(2);
+        verify(otro.listeners(), times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void leer_alArrancarEmpiezaPorElFinalDelStream() {
+        // Arrange: eventos de antes de arrancar el nodo
+        anadir(evento(1L));
+        Nodo nuevo = nodo();
+
+        // Act
+        int leidas = nuevo.lector().leer();
+
+        // Assert
+        assertThat(leidas).isZero();
+        verify(nuevo.listeners(), never()).publishEvent(any(Object.class));
+    }
+
+    private Nodo nodo() {
+        ApplicationEventPublisher listeners = mock(ApplicationEventPublisher.class);
+        BusLocalPublicador bus = new BusLocalPublicador();
+        ReflectionTestUtils.setField(bus, "eventPublisher", listeners);
+        LectorStreamEventos lector = new LectorStreamEventos();
+        ReflectionTestUtils.setField(lector, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(lector, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(lector, "busLocal", bus);
+        ReflectionTestUtils.setField(lector, "stream", STREAM);
+        ReflectionTestUtils.setField(lector, "tamanoLote", 200);
+        return new Nodo(listeners, bus, lector);
+    }
+
+    // Lo que escribe RedisStreamPublicador
+    private void anadir(PedidoEventoDTO evento) {
+        try {
+            Map<Object, Object> campos = Map.of(
+                    "idEvento", String.valueOf(evento.getIdEvento()),
+                    "tipo", evento.getTipo(),
+                    "payload", objectMapper.writeValueAsString(evento));
+            entradas.add(StreamRecords.mapBacked(campos).withStreamKey(STREAM)
+                    .withId(RecordId.of(entradas.size() + 1L, 0)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean posterior(RecordId id, RecordId desde) {
+        return id.getTimestamp() > desde.getTimestamp()
+                || (id.getTimestamp() == desde.getTimestamp() && id.getSequence() > desde.getSequence());
+    }
+
+    private static PedidoEventoDTO evento(Long idEvento) {
+        PedidoEventoDTO evento = PedidoEventoDTO.builder()
+                .tipo(PedidoEventoDTO.ESTADO_ACTUALIZADO).idPedido(5L).estado("LISTO").build();
+        evento.setIdEvento(idEvento);
+        return evento;
+    }
+}
@@ -0,0 +1,113 @@
+package com.restaurante.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.CategoriaDTO;
+import com.restaurante.dto.ProductoDTO;
+import com.restaurante.service.impl.MenuServiceImpl;
+import com.restaurante.service.menu.InstantaneaMenu;
+import com.restaurante.service.menu.MenuModificadoEvento;
+import com.restaurante.service.menu.RecursoMenu;
+
+@ExtendWith(MockitoExtension.class)
+class MenuServiceTest {
+
+    @Mock
+    private IProductoService productoService;
+
+    @Mock
+    private ICategoriaService categoriaService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private MenuServiceImpl menuService;
+
+    private ProductoDTO producto(Long id, Long idCategoria, String nombre) {
+        return ProductoDTO.builder().id(id).idCategoria(idCategoria).nombre(nombre).estado("activo").build();
+    }
+
+    @Test
+    void obtenerInstantanea_sinCambiosReutilizaLosMismosBytes() {
+        // Arrange
+        when(categoriaService.obtenerActivas()).thenReturn(List.of(CategoriaDTO.builder().id(1L).nombre("Pizzas").build()));
+        when(productoService.obtenerActivos()).thenReturn(List.of(producto(1L, 1L, "Pizza")));
+        when(productoService.obtenerDestacados()).thenReturn(List.of());
+
+        // Act
+        InstantaneaMenu primera = menuService.obtenerInstantanea();
+        InstantaneaMenu segunda = menuService.obtenerInstantanea();
+
+        // Assert
+        assertThat(segunda).isSameAs(primera);
+        verify(productoService, times(1)).obtenerActivos();
+        assertThat(new String(primera.productosActivos().json())).contains("\"nombre\":\"Pizza\"");
+        assertThat(new String(primera.menu().json())).contains("\"categorias\"").contains("\"productos\"");
+    }
+
+    @Test
+    void alModificarMenu_reconstruyeYCambiaElEtagSoloSiCambiaElContenido() {
+        // Arrange
+        when(categoriaService.obtenerActivas()).thenReturn(List.of());
+        when(productoService.obtenerDestacados()).thenReturn(List.of());
+        when(productoService.obtenerActivos())
+                .thenReturn(List.of(producto(1L, 1L, "Pizza")))
+                .thenReturn(List.of(producto(1L, 1L, "Pizza")))
+                .thenReturn(List.of(producto(1L, 1L, "Pizza napolitana")));
+        String inicial = menuService.obtenerInstantanea().productosActivos().etag(false);
+
+        // Act
+        menuService.alModificarMenu(new MenuModificadoEvento("producto"));
+        String sinCambios = menuService.obtenerInstantanea().productosActivos().etag(false);
+        menuService.alModificarMenu(new MenuModificadoEvento("producto"));
+        String conCambios = menuService.obtenerInstantanea().productosActivos().etag(false);
+
+        // Assert
+        assertThat(sinCambios).isEqualTo(inicial);
+        assertThat(conCambios).isNotEqualTo(inicial);
+        verify(productoService, times(3)).obtenerActivos();
+    }
+
+    @Test
+    void obtenerInstantanea_separaPorCategoriaYComprimeLasListasGrandes() throws IOException {
+        // Arrange
+        List<ProductoDTO> activos = new ArrayList<>();
+        for (long i = 1; i <= 40; i++) {
+            activos.add(producto(i, i % 2 + 1, "Producto " + i));
+        }
+        when(categoriaService.obtenerActivas()).thenReturn(List.of());
+        when(productoService.obtenerActivos()).thenReturn(activos);
+        when(productoService.obtenerDestacados()).thenReturn(List.of());
+
+        // Act
+        InstantaneaMenu instantanea = menuService.obtenerInstantanea();
+
+        // Assert
+        RecursoMenu todos = instantanea.productosActivos();
+        assertThat(todos.tieneGzip()).isTrue();
+        assertThat(todos.etag(true)).isNotEqualTo(todos.etag(false)).startsWith("\"").endsWith("-gz\"");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(todos.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(todos.json());
+        }
+        assertThat(new String(instantanea.productosDeCategoria(1L).json())).contains("Producto 2\"").doesNotContain("Producto 1\"");
+        assertThat(new String(instantanea.productosDeCategoria(99L).json())).isEqualTo("[]");
+        assertThat(instantanea.productosDeCategoria(99L).tieneGzip()).isFalse();
+    }
+}
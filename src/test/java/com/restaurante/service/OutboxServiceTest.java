@@ -0,0 +1,182 @@
+package com.restaurante.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.model.EventoOutbox;
+import com.restaurante.repository.EventoOutboxRepository;
+import com.restaurante.service.impl.OutboxServiceImpl;
+import com.restaurante.service.outbox.PublicadorEventos;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private EventoOutboxRepository outboxRepository;
+
+    @Mock
+    private PublicadorEventos publicador;
+
+    @InjectMocks
+    private OutboxServiceImpl outboxService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "publicadores", List.of(publicador));
+        ReflectionTestUtils.setField(outboxService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(outboxService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(outboxService, "tamanoLote", 2);
+        ReflectionTestUtils.setField(outboxService, "maxIntentos", 3);
+        ReflectionTestUtils.setField(outboxService, "esperaMaxima", 300000L);
+    }
+
+    @Test
+    void registrar_guardaElEventoSerializado() throws Exception {
+        // Arrange
+        PedidoEventoDTO evento = PedidoEventoDTO.builder()
+                .tipo(PedidoEventoDTO.ESTADO_ACTUALIZADO).idPedido(5L).estado("LISTO").build();
+        ArgumentCaptor<EventoOutbox> captor = ArgumentCaptor.forClass(EventoOutbox.class);
+
+        // Act
+        outboxService.registrar(evento);
+
+        // Assert
+        verify(outboxRepository).save(captor.capture());
+        EventoOutbox fila = captor.getValue();
+        assertThat(fila.getIdPedido()).isEqualTo(5L);
+        assertThat(fila.getFechaPublicacion()).isNull();
+        assertThat(objectMapper.readValue(fila.getPayload(), PedidoEventoDTO.class).getEstado()).isEqualTo("LISTO");
+    }
+
+    @Test
+    void publicarPendientes_publicaPorLotesYMarcaLasFilas() throws Exception {
+        // Arrange
+        List<EventoOutbox> primerLote = List.of(fila(1L), fila(2L));
+        List<EventoOutbox> segundoLote = List.of(fila(3L));
+        when(outboxRepository.bloquearPendientes(eq(2), any())).thenReturn(primerLote, segundoLote);
+        List<Long> publicados = new ArrayList<>();
+        doAnswer(inv -> {
+            List<PedidoEventoDTO> eventos = inv.getArgument(0);
+            eventos.forEach(e -> publicados.add(e.getIdEvento()));
+            return null;
+        }).when(publicador).publicar(any());
+
+        // Act
+        int total = outboxService.publicarPendientes();
+
+        // Assert
+        assertThat(total).isEqualTo(3);
+        assertThat(publicados).containsExactly(1L, 2L, 3L);
+        assertThat(primerLote).allMatch(f -> f.getFechaPublicacion() != null);
+        assertThat(segundoLote.get(0).getFechaPublicacion()).isNotNull();
+        verify(outboxRepository, times(2)).bloquearPendientes(eq(2), any());
+    }
+
+    @Test
+    void publicarPendientes_siFallaUnDestinoLasFilasQuedanPendientes() throws Exception {
+        // Arrange
+        EventoOutbox pendiente = fila(1L);
+        when(outboxRepository.bloquearPendientes(eq(2), any())).thenReturn(List.of(pendiente));
+        doThrow(new RuntimeException("Redis caído")).when(publicador).publicar(any());
+
+        // Act
+        int total = outboxService.publicarPendientes();
+
+        // Assert
+        assertThat(total).isZero();
+        assertThat(pendiente.getFechaPublicacion()).isNull();
+        assertThat(pendiente.getIntentos()).isEqualTo(1);
+        assertThat(pendiente.getProximoIntento()).isNotNull();
+        assertThat(pendiente.getFechaFallo()).isNull();
+    }
+
+    @Test
+    void publicarPendientes_fallaDeUnaFilaAplazaLasSiguientesSinProbarlas() throws Exception {
+        // Arrange: el destino rechaza el evento 2 y el 3 tiene un payload ilegible
+        EventoOutbox buena = fila(1L);
+        EventoOutbox rechazada = fila(2L);
+        EventoOutbox ilegible = fila(3L);
+        ilegible.setPayload("{no es json");
+        EventoOutbox siguiente = fila(4L);
+        when(outboxRepository.bloquearPendientes(eq(2), any()))
+                .thenReturn(List.of(buena, rechazada, ilegible, siguiente));
+        List<Long> publicados = new ArrayList<>();
+        doAnswer(inv -> {
+            List<PedidoEventoDTO> eventos = inv.getArgument(0);
+            if (eventos.stream().anyMatch(e -> e.getIdEvento() == 2L)) {
+                throw new RuntimeException("rechazado");
+            }
+            eventos.forEach(e -> publicados.add(e.getIdEvento()));
+            return null;
+        }).when(publicador).publicar(any());
+
+        // Act
+        int total = outboxService.publicarPendientes();
+
+        // Assert: el lote, la fila 1 y la 2; la 4 espera a la 2 sin llegar al destino
+        assertThat(total).isEqualTo(1);
+        assertThat(publicados).containsExactly(1L);
+        verify(publicador, times(3)).publicar(any());
+        assertThat(buena.getFechaPublicacion()).isNotNull();
+        assertThat(rechazada.getIntentos()).isEqualTo(1);
+        assertThat(rechazada.getUltimoError()).contains("rechazado");
+        assertThat(siguiente.getFechaPublicacion()).isNull();
+        assertThat(siguiente.getIntentos()).isZero();
+        assertThat(siguiente.getProximoIntento()).isEqualTo(rechazada.getProximoIntento());
+        assertThat(ilegible.getFechaFallo()).isNotNull();
+        assertThat(ilegible.getIntentos()).isZero();
+    }
+
+    @Test
+    void publicarPendientes_filaQueAgotaSusIntentosSeDescartaYNoRetieneMasALasSiguientes() throws Exception {
+        // Arrange
+        EventoOutbox rechazada = fila(1L);
+        rechazada.setIntentos(2);
+        EventoOutbox siguiente = fila(2L);
+        when(outboxRepository.bloquearPendientes(eq(2), any())).thenReturn(List.of(rechazada, siguiente));
+        doThrow(new RuntimeException("rechazado")).when(publicador).publicar(any());
+
+        // Act
+        outboxService.publicarPendientes();
+
+        // Assert
+        assertThat(rechazada.getFechaFallo()).isNotNull();
+        assertThat(siguiente.getIntentos()).isZero();
+        assertThat(siguiente.getProximoIntento()).isNotNull();
+        verify(publicador, times(2)).publicar(any());
+    }
+
+    private EventoOutbox fila(Long id) throws Exception {
+        EventoOutbox fila = new EventoOutbox();
+        fila.setId(id);
+        fila.setTipo(PedidoEventoDTO.ESTADO_ACTUALIZADO);
+        fila.setPayload(objectMapper.writeValueAsString(PedidoEventoDTO.builder()
+                .tipo(PedidoEventoDTO.ESTADO_ACTUALIZADO).idPedido(id).estado("LISTO").build()));
+        return fila;
+    }
+}
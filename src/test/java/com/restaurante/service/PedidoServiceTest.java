@@ -1,25 +1,53 @@
 package com.restaurante.service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+
+import com.restaurante.dto.CambioEstadoLoteDTO;
+import com.restaurante.dto.DetallePedidoDTO;
+import com.restaurante.dto.PaginaDTO;
+import com.restaurante.dto.PedidoCompletoDTO;
 import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.model.HistorialEstados;
 import com.restaurante.model.Pedido;
+import com.restaurante.repository.DetallePedidoRepository;
+import com.restaurante.repository.HistorialEstadosRepository;
 import com.restaurante.repository.PedidoRepository;
+import com.restaurante.repository.PedidoRepository.EstadoActual;
+import com.restaurante.repository.ProductoRepository;
+import com.restaurante.repository.ProductoRepository.PrecioProducto;
+import com.restaurante.service.cocina.EstadoPedidoCambiado;
 import com.restaurante.service.impl.PedidoServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +56,27 @@ class PedidoServiceTest {
     @Mock
     private PedidoRepository pedidoRepository;
 
+    @Mock
+    private DetallePedidoRepository detalleRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IOutboxService outboxService;
+
+    @Mock
+    private HistorialEstadosRepository historialRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private IValoracionService valoracionService;
+
     @InjectMocks
     private PedidoServiceImpl pedidoService;
 
@@ -49,6 +98,57 @@ class PedidoServiceTest {
         verify(pedidoRepository, times(1)).findAll();
     }
 
+    @Test
+    void obtenerPagina_devuelveCursorDelUltimoElemento() {
+        // Arrange
+        PedidoDTO pedido1 = PedidoDTO.builder().pid(11L).build();
+        PedidoDTO pedido2 = PedidoDTO.builder().pid(12L).build();
+        PedidoDTO pedido3 = PedidoDTO.builder().pid(13L).build();
+
+        when(pedidoRepository.findPaginaDesde(eq(10L), eq(PageRequest.ofSize(3))))
+            .thenReturn(Arrays.asList(pedido1, pedido2, pedido3));
+
+        // Act
+        PaginaDTO<PedidoDTO> resultado = pedidoService.obtenerPagina(10L, 2);
+
+        // Assert
+        assertThat(resultado.getContenido()).extracting(PedidoDTO::getPid).containsExactly(11L, 12L);
+        assertThat(resultado.getSiguienteCursor()).isEqualTo(12L);
+        assertThat(resultado.isHayMas()).isTrue();
+    }
+
+    @Test
+    void obtenerPagina_ultimaPaginaSinCursorInicial() {
+        // Arrange
+        PedidoDTO pedido = PedidoDTO.builder().pid(1L).build();
+
+        when(pedidoRepository.findPaginaDesde(eq(0L), eq(PageRequest.ofSize(PaginaDTO.LIMITE_MAXIMO + 1))))
+            .thenReturn(Arrays.asList(pedido));
+
+        // Act
+        PaginaDTO<PedidoDTO> resultado = pedidoService.obtenerPagina(null, 10_000);
+
+        // Assert
+        assertThat(resultado.getContenido()).hasSize(1);
+        assertThat(resultado.getSiguienteCursor()).isEqualTo(1L);
+        assertThat(resultado.isHayMas()).isFalse();
+    }
+
+    @Test
+    void recorrerTodos_entregaCadaFilaDelStream() {
+        // Arrange
+        when(pedidoRepository.streamTodos()).thenReturn(Stream.of(
+            PedidoDTO.builder().pid(1L).build(),
+            PedidoDTO.builder().pid(2L).build()));
+        List<PedidoDTO> recibidos = new ArrayList<>();
+
+        // Act
+        pedidoService.recorrerTodos(recibidos::add);
+
+        // Assert
+        assertThat(recibidos).extracting(PedidoDTO::getPid).containsExactly(1L, 2L);
+    }
+
     @Test
     void obtenerPorId_devuelveDTO() {
         // Arrange
@@ -101,19 +201,25 @@ class PedidoServiceTest {
     }
 
     @Test
-    void obtenerPedidosDelDia_devuelveListaDTO() {
+    void obtenerPedidosDelDia_cargaUnaVezYDespuesSeMantieneConLasEscrituras() {
         // Arrange
-        Pedido pedido = new Pedido();
-        pedido.setFechaPedido(LocalDate.now());
-
-        when(pedidoRepository.findByFechaPedido(LocalDate.now())).thenReturn(Arrays.asList(pedido));
+        LocalDate hoy = LocalDate.now();
+        when(pedidoRepository.listarPorFecha(hoy)).thenReturn(List.of(new PedidoDTO(1L, 7L, hoy, "PENDIENTE")));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> {
+            Pedido pedido = inv.getArgument(0);
+            pedido.setPid(2L);
+            return pedido;
+        });
 
         // Act
-        List<PedidoDTO> resultado = pedidoService.obtenerPedidosDelDia();
+        List<PedidoDTO> primera = pedidoService.obtenerPedidosDelDia();
+        pedidoService.crear(PedidoDTO.builder().idCliente(8L).build());
+        List<PedidoDTO> segunda = pedidoService.obtenerPedidosDelDia();
 
         // Assert
-        assertThat(resultado).hasSize(1);
-        verify(pedidoRepository, times(1)).findByFechaPedido(LocalDate.now());
+        assertThat(primera).extracting(PedidoDTO::getPid).containsExactly(1L);
+        assertThat(segunda).extracting(PedidoDTO::getPid).containsExactly(1L, 2L);
+        verify(pedidoRepository, times(1)).listarPorFecha(hoy);
     }
 
     @Test
@@ -135,15 +241,66 @@ class PedidoServiceTest {
         verify(pedidoRepository, times(1)).save(any(Pedido.class));
     }
 
+    @Test
+    void crearConDetalles_validaConUnaConsultaYGuardaLineasEnLote() {
+        // Arrange
+        PedidoCompletoDTO dto = PedidoCompletoDTO.builder()
+                .idCliente(1L)
+                .detalles(List.of(
+                        DetallePedidoDTO.builder().idProducto(10L).cantidad(2).build(),
+                        DetallePedidoDTO.builder().idProducto(20L).cantidad(1).precioUnitario(4.5).build()))
+                .build();
+
+        Pedido pedidoGuardado = new Pedido();
+        pedidoGuardado.setPid(7L);
+
+        when(productoRepository.findByIdIn(any())).thenReturn(List.of(
+                precioProducto(10L, "3.00", "activo"),
+                precioProducto(20L, "4.50", "activo")));
+        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedidoGuardado);
+        when(detalleRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        PedidoCompletoDTO resultado = pedidoService.crearConDetalles(dto);
+
+        // Assert
+        assertThat(resultado.getPid()).isEqualTo(7L);
+        assertThat(resultado.getDetalles()).hasSize(2)
+                .allSatisfy(linea -> assertThat(linea.getIdPedido()).isEqualTo(7L));
+        assertThat(resultado.getDetalles().get(0).getPrecioUnitario()).isEqualTo(3.0);
+        assertThat(resultado.getTotal()).isEqualByComparingTo("10.50");
+        verify(productoRepository, times(1)).findByIdIn(any());
+        verify(detalleRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void crearConDetalles_productoInactivoNoGuardaNada() {
+        // Arrange
+        PedidoCompletoDTO dto = PedidoCompletoDTO.builder()
+                .idCliente(1L)
+                .detalles(List.of(DetallePedidoDTO.builder().idProducto(10L).cantidad(1).build()))
+                .build();
+
+        when(productoRepository.findByIdIn(any())).thenReturn(List.of(precioProducto(10L, "3.00", "inactivo")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> pedidoService.crearConDetalles(dto))
+                .hasMessageContaining("Producto no disponible");
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verify(detalleRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void actualizar_modificaPedido() {
         // Arrange
         Long id = 1L;
         PedidoDTO dto = new PedidoDTO();
-        dto.setEstado("NUEVO_ESTADO");
+        dto.setIdCliente(4L);
+        dto.setEstado("PENDIENTE");
         
         Pedido existente = new Pedido();
         existente.setPid(id);
+        existente.setEstado("PENDIENTE");
         
         when(pedidoRepository.findById(id)).thenReturn(Optional.of(existente));
         when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -152,9 +309,55 @@ class PedidoServiceTest {
         PedidoDTO resultado = pedidoService.actualizar(id, dto);
 
         // Assert
-        assertThat(resultado.getEstado()).isEqualTo("NUEVO_ESTADO");
+        assertThat(resultado.getIdCliente()).isEqualTo(4L);
+        assertThat(resultado.getEstado()).isEqualTo("PENDIENTE");
         verify(pedidoRepository, times(1)).findById(id);
         verify(pedidoRepository, times(1)).save(any(Pedido.class));
+        verify(historialRepository, never()).save(any(HistorialEstados.class));
+        verify(outboxService, never()).registrar(any(PedidoEventoDTO.class));
+    }
+
+    @Test
+    void actualizar_cambioDeEstadoDejaHistorialYEvento() {
+        // Arrange
+        Long id = 1L;
+        PedidoDTO dto = new PedidoDTO();
+        dto.setEstado("en_preparacion");
+
+        Pedido existente = new Pedido();
+        existente.setPid(id);
+
+        when(pedidoRepository.findById(id)).thenReturn(Optional.of(existente));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        PedidoDTO resultado = pedidoService.actualizar(id, dto);
+
+        // Assert
+        assertThat(resultado.getEstado()).isEqualTo("EN_PREPARACION");
+        verify(historialRepository, times(1)).save(argThat(historial -> "EN_PREPARACION".equals(historial.getEstado())));
+        verify(outboxService, times(1)).registrar(argThat(evento ->
+                PedidoEventoDTO.ESTADO_ACTUALIZADO.equals(evento.getTipo())));
+        verify(eventPublisher, times(1)).publishEvent(argThat(evento -> evento instanceof EstadoPedidoCambiado cambio
+                && id.equals(cambio.idPedido()) && "EN_PREPARACION".equals(cambio.estado())));
+    }
+
+    @Test
+    void actualizar_rechazaSaltosEnElCicloDeVida() {
+        // Arrange
+        PedidoDTO dto = new PedidoDTO();
+        dto.setEstado("ENTREGADO");
+
+        Pedido existente = new Pedido();
+        existente.setPid(1L);
+        existente.setEstado("PENDIENTE");
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(existente));
+
+        // Act & Assert
+        assertThatThrownBy(() -> pedidoService.actualizar(1L, dto))
+                .hasMessageContaining("PENDIENTE -> ENTREGADO");
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verify(outboxService, never()).registrar(any(PedidoEventoDTO.class));
     }
 
     @Test
@@ -165,17 +368,36 @@ class PedidoServiceTest {
         
         Pedido pedido = new Pedido();
         pedido.setPid(id);
+        pedido.setEstado("EN_CAMINO");
         
         when(pedidoRepository.findById(id)).thenReturn(Optional.of(pedido));
         when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
-        PedidoDTO resultado = pedidoService.actualizarEstado(id, nuevoEstado);
+        PedidoDTO resultado = pedidoService.actualizarEstado(id, nuevoEstado, 9L);
 
         // Assert
         assertThat(resultado.getEstado()).isEqualTo(nuevoEstado);
         verify(pedidoRepository, times(1)).findById(id);
         verify(pedidoRepository, times(1)).save(any(Pedido.class));
+        verify(historialRepository, times(1)).save(argThat(historial -> historial.getIdPersonaCocina() == 9L));
+        verify(outboxService, times(1)).registrar(argThat(evento -> evento.getIdPersonaCocina() == 9L));
+    }
+
+    @Test
+    void actualizarEstado_rechazaSaltosEnElCicloDeVida() {
+        // Arrange
+        Pedido pedido = new Pedido();
+        pedido.setPid(1L);
+        pedido.setEstado("PENDIENTE");
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+
+        // Act & Assert
+        assertThatThrownBy(() -> pedidoService.actualizarEstado(1L, "LISTO", null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("PENDIENTE -> LISTO");
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verify(historialRepository, never()).save(any(HistorialEstados.class));
     }
 
     @Test
@@ -188,6 +410,8 @@ class PedidoServiceTest {
         pedidoService.eliminar(id);
 
         // Assert
+        verify(pedidoRepository, times(1)).marcarDiaPendiente(id);
+        verify(valoracionService, times(1)).quitarProductosDePedido(id);
         verify(pedidoRepository, times(1)).deleteById(id);
     }
 
@@ -198,13 +422,80 @@ class PedidoServiceTest {
         Pedido pedido = new Pedido();
         pedido.setPid(id);
         
-        when(pedidoRepository.findById(id)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.findByIdForUpdate(id)).thenReturn(Optional.of(pedido));
 
         // Act
         Pedido resultado = pedidoService.obtenerPorIdConBloqueo(id);
 
         // Assert
         assertThat(resultado.getPid()).isEqualTo(id);
-        verify(pedidoRepository, times(1)).findById(id);
+        verify(pedidoRepository, times(1)).findByIdForUpdate(id);
+    }
+
+    @Test
+    void actualizarEstadoEnLote_cambiaTodosConUnaSolaSentencia() {
+        // Arrange
+        when(pedidoRepository.findEstadosByPidIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                estadoActual(1L, "EN_PREPARACION"), estadoActual(2L, "en_preparacion"), estadoActual(3L, "EN_PREPARACION")));
+        when(pedidoRepository.actualizarEstadoEnLote(List.of(1L, 2L, 3L), Set.of("EN_PREPARACION", "en_preparacion"), "LISTO"))
+                .thenReturn(3);
+        Cache cachePedido = mock(Cache.class);
+        when(cacheManager.getCache("pedido")).thenReturn(cachePedido);
+
+        // Act
+        List<PedidoDTO> resultado = pedidoService.actualizarEstadoEnLote(
+                new CambioEstadoLoteDTO(List.of(3L, 1L, 2L), "LISTO", 9L));
+
+        // Assert
+        assertThat(resultado).extracting(PedidoDTO::getPid).containsExactly(1L, 2L, 3L);
+        assertThat(resultado).extracting(PedidoDTO::getEstado).containsOnly("LISTO");
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verify(historialRepository).saveAll(argThat((List<HistorialEstados> historial) -> historial.size() == 3
+                && historial.stream().allMatch(h -> h.getIdPersonaCocina() == 9L)));
+        verify(outboxService).registrarTodos(argThat(eventos -> eventos.size() == 3));
+        verify(eventPublisher, times(3)).publishEvent(any(EstadoPedidoCambiado.class));
+        verify(cachePedido).evict(2L);
+    }
+
+    @Test
+    void actualizarEstadoEnLote_noCambiaNingunoSiUnoNoPuedeAvanzar() {
+        // Arrange
+        when(pedidoRepository.findEstadosByPidIn(Set.of(1L, 2L))).thenReturn(List.of(
+                estadoActual(1L, "EN_PREPARACION"), estadoActual(2L, "PENDIENTE")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> pedidoService.actualizarEstadoEnLote(new CambioEstadoLoteDTO(List.of(1L, 2L), "LISTO", null)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("PENDIENTE -> LISTO");
+        verify(pedidoRepository, never()).actualizarEstadoEnLote(anyCollection(), anyCollection(), any());
+        verify(historialRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void actualizarEstadoEnLote_fallaSiOtroCambioSeAdelanta() {
+        // Arrange
+        when(pedidoRepository.findEstadosByPidIn(Set.of(1L, 2L))).thenReturn(List.of(
+                estadoActual(1L, "EN_PREPARACION"), estadoActual(2L, "EN_PREPARACION")));
+        when(pedidoRepository.actualizarEstadoEnLote(List.of(1L, 2L), Set.of("EN_PREPARACION"), "LISTO")).thenReturn(1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> pedidoService.actualizarEstadoEnLote(new CambioEstadoLoteDTO(List.of(1L, 2L), "LISTO", null)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(outboxService, never()).registrarTodos(anyList());
+    }
+
+    private EstadoActual estadoActual(Long pid, String estado) {
+        return new EstadoFijo(pid, 7L, LocalDate.now(), estado);
+    }
+
+    private record EstadoFijo(Long getPid, Long getIdCliente, LocalDate getFechaPedido, String getEstado)
+            implements EstadoActual {
+    }
+
+    private PrecioProducto precioProducto(Long id, String precio, String estado) {
+        return new PrecioFijo(id, new BigDecimal(precio), estado);
+    }
+
+    private record PrecioFijo(Long getId, BigDecimal getPrecio, String getEstado) implements PrecioProducto {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package com.restaurante.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.service.pedidos.PedidosDelDia;
+
+class PedidosDelDiaTest {
+
+    private static final LocalDate HOY = LocalDate.of(2024, 6, 1);
+
+    private PedidosDelDia pedidos;
+
+    @BeforeEach
+    void setUp() {
+        pedidos = new PedidosDelDia();
+        pedidos.reemplazar(HOY, List.of(pedido(1L, HOY, "PENDIENTE"), pedido(2L, HOY, "LISTO")), pedidos.marca());
+    }
+
+    @Test
+    void aplicar_actualizaAgregaYQuitaPorFecha() {
+        // Act
+        pedidos.aplicar(pedido(1L, HOY, "EN_PREPARACION"));
+        pedidos.aplicar(pedido(3L, HOY, "PENDIENTE"));
+        pedidos.aplicar(pedido(2L, HOY.minusDays(1), "LISTO"));
+        pedidos.eliminar(3L);
+
+        // Assert
+        assertThat(pedidos.listar()).singleElement()
+                .satisfies(pedido -> assertThat(pedido.getEstado()).isEqualTo("EN_PREPARACION"));
+    }
+
+    @Test
+    void reemplazar_conservaLosCambiosHechosDuranteLaCarga() {
+        // Arrange
+        long marca = pedidos.marca();
+        pedidos.aplicar(pedido(2L, HOY, "EN_CAMINO"));
+        pedidos.eliminar(1L);
+
+        // Act: la carga leyó la base de datos antes de esos cambios
+        pedidos.reemplazar(HOY, List.of(pedido(1L, HOY, "PENDIENTE"), pedido(2L, HOY, "LISTO")), marca);
+
+        // Assert
+        assertThat(pedidos.listar()).singleElement()
+                .satisfies(pedido -> assertThat(pedido.getEstado()).isEqualTo("EN_CAMINO"));
+    }
+
+    @Test
+    void reemplazar_descartaUnaCargaMasAntiguaQueLaAplicada() {
+        // Arrange
+        long antigua = pedidos.marca();
+        pedidos.aplicar(pedido(3L, HOY, "PENDIENTE"));
+        pedidos.reemplazar(HOY, List.of(pedido(3L, HOY, "PENDIENTE")), pedidos.marca());
+
+        // Act
+        pedidos.reemplazar(HOY, List.of(pedido(1L, HOY, "PENDIENTE")), antigua);
+
+        // Assert
+        assertThat(pedidos.listar()).extracting(PedidoDTO::getPid).containsExactly(3L);
+    }
+
+    @Test
+    void vigente_dejaDeSerloAlCambiarDeDiaYLaCargaNuevaIncluyeLosPedidosYaCreados() {
+        // Arrange
+        LocalDate manana = HOY.plusDays(1);
+        long marca = pedidos.marca();
+        pedidos.aplicar(pedido(4L, manana, "PENDIENTE"));
+
+        // Act
+        boolean vigenteManana = pedidos.vigente(manana);
+        pedidos.reemplazar(manana, List.of(), marca);
+
+        // Assert
+        assertThat(vigenteManana).isFalse();
+        assertThat(pedidos.vigente(manana)).isTrue();
+        assertThat(pedidos.listar()).extracting(PedidoDTO::getPid).containsExactly(4L);
+    }
+
+    @Test
+    void listar_devuelveCopiasQueElLlamadorPuedeModificar() {
+        // Arrange
+        PedidoDTO recibido = pedido(3L, HOY, "PENDIENTE");
+        pedidos.aplicar(recibido);
+
+        // Act
+        recibido.setEstado("CANCELADO");
+        pedidos.listar().forEach(pedido -> pedido.setEstado("ENTREGADO"));
+
+        // Assert
+        assertThat(pedidos.listar()).extracting(PedidoDTO::getEstado)
+                .containsExactly("PENDIENTE", "LISTO", "PENDIENTE");
+    }
+
+    private PedidoDTO pedido(Long pid, LocalDate fecha, String estado) {
+        return new PedidoDTO(pid, 7L, fecha, estado);
+    }
+}
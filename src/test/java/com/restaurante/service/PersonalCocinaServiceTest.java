@@ -126,13 +126,13 @@ class PersonalCocinaServiceTest {
         PersonalCocina personal = new PersonalCocina();
         personal.setId(id);
         
-        when(personalRepository.findById(id)).thenReturn(Optional.of(personal));
+        when(personalRepository.findByIdForUpdate(id)).thenReturn(Optional.of(personal));
 
         // Act
         PersonalCocina resultado = personalService.obtenerPorIdConBloqueo(id);
 
         // Assert
         assertThat(resultado.getId()).isEqualTo(id);
-        verify(personalRepository, times(1)).findById(id);
+        verify(personalRepository, times(1)).findByIdForUpdate(id);
     }
 }
\ No newline at end of file
@@ -10,14 +10,25 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurante.config.cache.DosNivelesCacheManager;
+import com.restaurante.config.cache.InvalidacionCache;
 import com.restaurante.dto.ProductoDTO;
 import com.restaurante.model.Categoria;
 import com.restaurante.model.Producto;
@@ -34,6 +45,12 @@ class ProductoServiceTest {
     @Mock
     private CategoriaRepository categoriaRepository;
 
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductoServiceImpl productoService;
 
@@ -50,13 +67,17 @@ class ProductoServiceTest {
         return producto;
     }
 
+    private ProductoDTO crearProductoDTO(Long id, Long idCategoria) {
+        return ProductoDTO.builder().id(id).idCategoria(idCategoria).build();
+    }
+
     @Test
     void obtenerTodos_devuelveListaDTO() {
         // Arrange
-        Producto producto1 = crearProductoMock(1L, 1L);
-        Producto producto2 = crearProductoMock(2L, 1L);
+        ProductoDTO producto1 = crearProductoDTO(1L, 1L);
+        ProductoDTO producto2 = crearProductoDTO(2L, 1L);
 
-        when(productoRepository.findAll()).thenReturn(Arrays.asList(producto1, producto2));
+        when(productoRepository.listarTodos()).thenReturn(Arrays.asList(producto1, producto2));
 
         // Act
         List<ProductoDTO> resultado = productoService.obtenerTodos();
@@ -64,16 +85,17 @@ class ProductoServiceTest {
         // Assert
         assertThat(resultado).hasSize(2);
         assertThat(resultado.get(0).getIdCategoria()).isEqualTo(1L);
-        verify(productoRepository, times(1)).findAll();
+        verify(productoRepository, times(1)).listarTodos();
+        verify(productoRepository, never()).findAll();
     }
 
     @Test
     void obtenerActivos_devuelveListaDTO() {
         // Arrange
-        Producto producto = crearProductoMock(1L, 1L);
+        ProductoDTO producto = crearProductoDTO(1L, 1L);
         producto.setEstado("activo");
 
-        when(productoRepository.findByEstado("activo")).thenReturn(Collections.singletonList(producto));
+        when(productoRepository.listarPorEstado("activo")).thenReturn(Collections.singletonList(producto));
 
         // Act
         List<ProductoDTO> resultado = productoService.obtenerActivos();
@@ -81,16 +103,16 @@ class ProductoServiceTest {
         // Assert
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getEstado()).isEqualTo("activo");
-        verify(productoRepository, times(1)).findByEstado("activo");
+        verify(productoRepository, times(1)).listarPorEstado("activo");
     }
 
     @Test
     void obtenerDestacados_devuelveListaDTO() {
         // Arrange
-        Producto producto = crearProductoMock(1L, 1L);
+        ProductoDTO producto = crearProductoDTO(1L, 1L);
         producto.setDestacado(true);
 
-        when(productoRepository.findByDestacado(true)).thenReturn(Collections.singletonList(producto));
+        when(productoRepository.listarPorDestacado(true)).thenReturn(Collections.singletonList(producto));
 
         // Act
         List<ProductoDTO> resultado = productoService.obtenerDestacados();
@@ -98,17 +120,17 @@ class ProductoServiceTest {
         // Assert
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getDestacado()).isTrue();
-        verify(productoRepository, times(1)).findByDestacado(true);
+        verify(productoRepository, times(1)).listarPorDestacado(true);
     }
 
     @Test
     void obtenerPorCategoria_devuelveListaDTO() {
         // Arrange
         Long idCategoria = 1L;
-        Producto producto = crearProductoMock(1L, idCategoria);
+        ProductoDTO producto = crearProductoDTO(1L, idCategoria);
         producto.setEstado("activo");
 
-        when(productoRepository.findByCategoriaIdAndEstado(idCategoria, "activo"))
+        when(productoRepository.listarPorCategoriaYEstado(idCategoria, "activo"))
             .thenReturn(Collections.singletonList(producto));
 
         // Act
@@ -117,7 +139,7 @@ class ProductoServiceTest {
         // Assert
         assertThat(resultado).hasSize(1);
         assertThat(resultado.get(0).getIdCategoria()).isEqualTo(idCategoria);
-        verify(productoRepository, times(1)).findByCategoriaIdAndEstado(idCategoria, "activo");
+        verify(productoRepository, times(1)).listarPorCategoriaYEstado(idCategoria, "activo");
     }
 
     @Test
@@ -190,6 +212,60 @@ class ProductoServiceTest {
         verify(productoRepository, times(1)).save(any(Producto.class));
     }
 
+    @Test
+    void actualizar_cambioDeCategoriaQuitaLasListasAfectadasSinVaciarOtrasCategorias() {
+        // Arrange
+        Long id = 1L;
+        ProductoDTO enCacheAntes = ProductoDTO.builder().id(id).idCategoria(1L).nombre("Pizza").estado("activo").build();
+        ProductoDTO otro = ProductoDTO.builder().id(2L).idCategoria(3L).nombre("Sopa").estado("activo").build();
+        cacheManager.getCache("productos_activos").put(SimpleKey.EMPTY, List.of(enCacheAntes, otro));
+        cacheManager.getCache("productos_por_categoria").put(1L, List.of(enCacheAntes));
+        cacheManager.getCache("productos_por_categoria").put(2L, List.of());
+        cacheManager.getCache("productos_por_categoria").put(3L, List.of(otro));
+        cacheManager.getCache("producto").put(id, enCacheAntes);
+
+        Producto existente = crearProductoMock(id, 1L);
+        existente.setEstado("activo");
+        ProductoDTO dto = ProductoDTO.builder().idCategoria(2L).nombre("Pizza grande").destacado(false).build();
+
+        when(productoRepository.findById(id)).thenReturn(Optional.of(existente));
+        when(categoriaRepository.findById(2L)).thenReturn(Optional.of(crearCategoriaMock(2L)));
+        when(productoRepository.save(any(Producto.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        productoService.actualizar(id, dto);
+
+        // Assert
+        assertThat(cacheManager.getCache("productos_activos").get(SimpleKey.EMPTY)).isNull();
+        assertThat(cacheManager.getCache("productos_por_categoria").get(1L)).isNull();
+        assertThat(cacheManager.getCache("productos_por_categoria").get(2L)).isNull();
+        assertThat(cacheManager.getCache("productos_por_categoria").get(3L, List.class)).containsExactly(otro);
+        assertThat(cacheManager.getCache("producto").get(id)).isNull();
+    }
+
+    @Test
+    void desactivar_quitaLasListasAgregadasYElProducto() {
+        // Arrange
+        Long id = 1L;
+        ProductoDTO enCache = ProductoDTO.builder().id(id).idCategoria(1L).estado("activo").build();
+        cacheManager.getCache("productos").put(SimpleKey.EMPTY, List.of(enCache));
+        cacheManager.getCache("productos_activos").put(SimpleKey.EMPTY, List.of(enCache));
+        cacheManager.getCache("producto").put(id, enCache);
+
+        Producto producto = crearProductoMock(id, 1L);
+        producto.setEstado("activo");
+        when(productoRepository.findById(id)).thenReturn(Optional.of(producto));
+        when(productoRepository.save(any(Producto.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        productoService.desactivar(id);
+
+        // Assert
+        assertThat(cacheManager.getCache("productos_activos").get(SimpleKey.EMPTY)).isNull();
+        assertThat(cacheManager.getCache("productos").get(SimpleKey.EMPTY)).isNull();
+        assertThat(cacheManager.getCache("producto").get(id)).isNull();
+    }
+
     @Test
     void desactivar_cambiaEstado() {
         // Arrange
@@ -210,22 +286,90 @@ class ProductoServiceTest {
     }
 
     @Test
-    void buscarPorNombre_devuelveListaDTO() {
+    void buscar_sinIndiceConstruido_usaLaConsultaDeTextoDeLaBase() {
         // Arrange
-        String nombre = "Pizza";
+        String texto = "Pizza";
         Producto producto = crearProductoMock(1L, 1L);
-        producto.setNombre(nombre);
+        producto.setNombre(texto);
 
-        when(productoRepository.findByNombreContainingIgnoreCase(nombre))
+        when(productoRepository.buscarTexto(texto, 20))
             .thenReturn(Collections.singletonList(producto));
 
         // Act
-        List<ProductoDTO> resultado = productoService.buscarPorNombre(nombre);
+        List<ProductoDTO> resultado = productoService.buscar(texto, 20);
 
         // Assert
         assertThat(resultado).hasSize(1);
-        assertThat(resultado.get(0).getNombre()).isEqualTo(nombre);
-        verify(productoRepository, times(1)).findByNombreContainingIgnoreCase(nombre);
+        assertThat(resultado.get(0).getNombre()).isEqualTo(texto);
+        verify(productoRepository, times(1)).buscarTexto(texto, 20);
+    }
+
+    @Test
+    void buscar_conIndiceConstruido_ignoraTildesYNoConsultaLaBase() {
+        // Arrange
+        ProductoDTO lasana = crearProductoDTO(1L, 1L);
+        lasana.setNombre("Lasaña boloñesa");
+        lasana.setEstado("activo");
+        ProductoDTO ensalada = crearProductoDTO(2L, 1L);
+        ensalada.setNombre("Ensalada César");
+        ensalada.setEstado("activo");
+        when(productoRepository.listarPorEstado("activo")).thenReturn(Arrays.asList(lasana, ensalada));
+        productoService.reconstruirIndiceBusqueda();
+
+        // Act
+        List<ProductoDTO> resultado = productoService.buscar("lasana bolo", 20);
+
+        // Assert
+        assertThat(resultado).extracting("id").containsExactly(1L);
+        verify(productoRepository, never()).buscarTexto(any(), anyInt());
+    }
+
+    @Test
+    void desactivar_quitaElProductoDelIndiceDeBusqueda() {
+        // Arrange
+        ProductoDTO enIndice = crearProductoDTO(1L, 1L);
+        enIndice.setNombre("Pizza");
+        enIndice.setEstado("activo");
+        when(productoRepository.listarPorEstado("activo")).thenReturn(Collections.singletonList(enIndice));
+        Producto producto = crearProductoMock(1L, 1L);
+        producto.setNombre("Pizza");
+        producto.setEstado("activo");
+        productoService.reconstruirIndiceBusqueda();
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.save(any(Producto.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        productoService.desactivar(1L);
+
+        // Assert
+        assertThat(productoService.buscar("pizza", 20)).isEmpty();
+    }
+
+    @Test
+    void aplicarCambiosRemotos_consultaUnaVezLosProductosCambiadosEnOtrosNodos() {
+        // Arrange
+        DosNivelesCacheManager nodo = new DosNivelesCacheManager(new ConcurrentMapCacheManager(),
+                Caffeine.newBuilder(), invalidacion -> { });
+        ReflectionTestUtils.setField(productoService, "cacheManager", nodo);
+        ReflectionTestUtils.invokeMethod(productoService, "escucharOtrosNodos");
+        when(productoRepository.listarPorEstado("activo")).thenReturn(List.of());
+        productoService.reconstruirIndiceBusqueda();
+        Producto pizza = crearProductoMock(1L, 1L);
+        pizza.setNombre("Pizza");
+        pizza.setEstado("activo");
+        when(productoRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(pizza));
+        nodo.recibir(new InvalidacionCache("otro", "producto", 1L));
+        nodo.recibir(new InvalidacionCache("otro", "producto", 2L));
+        nodo.recibir(new InvalidacionCache("otro", "producto", 1L));
+
+        // Act
+        productoService.aplicarCambiosRemotos();
+        productoService.aplicarCambiosRemotos();
+
+        // Assert
+        verify(productoRepository, times(1)).findAllById(any());
+        verify(productoRepository, never()).findById(any());
+        assertThat(productoService.buscar("pizza", 20)).extracting("id").containsExactly(1L);
     }
 
     @Test
@@ -247,13 +391,13 @@ class ProductoServiceTest {
         Long id = 1L;
         Producto producto = crearProductoMock(id, 1L);
         
-        when(productoRepository.findById(id)).thenReturn(Optional.of(producto));
+        when(productoRepository.findByIdForUpdate(id)).thenReturn(Optional.of(producto));
 
         // Act
         Producto resultado = productoService.obtenerPorIdConBloqueo(id);
 
         // Assert
         assertThat(resultado.getId()).isEqualTo(id);
-        verify(productoRepository, times(1)).findById(id);
+        verify(productoRepository, times(1)).findByIdForUpdate(id);
     }
 }
\ No newline at end of file
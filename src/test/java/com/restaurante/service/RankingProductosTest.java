@@ -0,0 +1,102 @@
+package com.restaurante.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurante.service.ranking.RankingProductos;
+import com.restaurante.service.ranking.RankingProductos.Entrada;
+
+class RankingProductosTest {
+
+    private static final Long PIZZAS = 1L;
+    private static final Long POSTRES = 2L;
+
+    private RankingProductos ranking;
+
+    @BeforeEach
+    void setUp() {
+        ranking = new RankingProductos();
+        ranking.reconstruir(Stream.of(
+                new Entrada(10L, "Margarita", PIZZAS, 100, 480),
+                new Entrada(11L, "Cuatro quesos", PIZZAS, 1, 5),
+                new Entrada(20L, "Tiramisú", POSTRES, 40, 180)), ranking.marca());
+    }
+
+    @Test
+    void top_ordenaPorPromedioAjustadoPorCantidad() {
+        // Act
+        List<Entrada> resultado = ranking.top(null, 10);
+
+        // Assert: una sola valoración de 5 no adelanta a cien de 4,8
+        assertThat(resultado).extracting(Entrada::idProducto).containsExactly(10L, 20L, 11L);
+        assertThat(resultado.get(0).promedio()).isEqualTo(4.8);
+    }
+
+    @Test
+    void top_filtraPorCategoriaYRespetaElLimite() {
+        // Act
+        List<Entrada> pizzas = ranking.top(PIZZAS, 1);
+        List<Entrada> sinCategoria = ranking.top(99L, 10);
+
+        // Assert
+        assertThat(pizzas).extracting(Entrada::idProducto).containsExactly(10L);
+        assertThat(sinCategoria).isEmpty();
+    }
+
+    @Test
+    void actualizar_recolocaYQuitaLosProductosSinEntrada() {
+        // Act: el tiramisú sube con nuevas valoraciones y la cuatro quesos pierde la suya
+        ranking.actualizar(Set.of(11L, 20L), ids -> List.of(new Entrada(20L, "Tiramisú", POSTRES, 200, 990)));
+
+        // Assert
+        assertThat(ranking.top(null, 10)).extracting(Entrada::idProducto).containsExactly(20L, 10L);
+        assertThat(ranking.top(PIZZAS, 10)).extracting(Entrada::idProducto).containsExactly(10L);
+        assertThat(ranking.tamano()).isEqualTo(2);
+    }
+
+    @Test
+    void reconstruir_sustituyeElContenido() {
+        // Act
+        ranking.reconstruir(Stream.of(new Entrada(11L, "Cuatro quesos", PIZZAS, 3, 12)), ranking.marca());
+
+        // Assert
+        assertThat(ranking.top(null, 10)).extracting(Entrada::idProducto).containsExactly(11L);
+        assertThat(ranking.top(POSTRES, 10)).isEmpty();
+    }
+
+    @Test
+    void reconstruir_mantieneLosCambiosAplicadosDespuesDeSuMarca() {
+        // Arrange: la reconstrucción toma la marca y consulta; mientras, se valora el tiramisú
+        long marca = ranking.marca();
+        List<Entrada> leidas = List.of(
+                new Entrada(10L, "Margarita", PIZZAS, 100, 480),
+                new Entrada(20L, "Tiramisú", POSTRES, 40, 180));
+        ranking.actualizar(Set.of(20L), ids -> List.of(new Entrada(20L, "Tiramisú", POSTRES, 200, 990)));
+
+        // Act
+        ranking.reconstruir(leidas.stream(), marca);
+
+        // Assert
+        assertThat(ranking.top(POSTRES, 10)).singleElement()
+                .satisfies(entrada -> assertThat(entrada.cantidad()).isEqualTo(200));
+    }
+
+    @Test
+    void reconstruir_descartaUnaCargaConMarcaAnteriorALaAplicada() {
+        // Arrange
+        long vieja = ranking.marca();
+        ranking.actualizar(Set.of(11L), ids -> List.of());
+        ranking.reconstruir(Stream.of(new Entrada(10L, "Margarita", PIZZAS, 100, 480)), ranking.marca());
+
+        // Act
+        ranking.reconstruir(Stream.of(new Entrada(11L, "Cuatro quesos", PIZZAS, 1, 5)), vieja);
+
+        // Assert
+        assertThat(ranking.top(null, 10)).extracting(Entrada::idProducto).containsExactly(10L);
+    }
+}
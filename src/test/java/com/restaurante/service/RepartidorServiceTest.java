@@ -126,13 +126,13 @@ class RepartidorServiceTest {
         Repartidor repartidor = new Repartidor();
         repartidor.setId(id);
         
-        when(repartidorRepository.findById(id)).thenReturn(Optional.of(repartidor));
+        when(repartidorRepository.findByIdForUpdate(id)).thenReturn(Optional.of(repartidor));
 
         // Act
         Repartidor resultado = repartidorService.obtenerPorIdConBloqueo(id);
 
         // Assert
         assertThat(resultado.getId()).isEqualTo(id);
-        verify(repartidorRepository, times(1)).findById(id);
+        verify(repartidorRepository, times(1)).findByIdForUpdate(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.restaurante.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.restaurante.dto.FilaVentasDTO;
+import com.restaurante.dto.ReporteVentasDTO;
+import com.restaurante.repository.DetallePedidoRepository;
+import com.restaurante.repository.DetallePedidoRepository.VentaAgrupada;
+import com.restaurante.repository.ProductoRepository;
+import com.restaurante.repository.ProductoRepository.CategoriaProducto;
+import com.restaurante.service.impl.ReporteVentasServiceImpl;
+import com.restaurante.service.ventas.VentaRegistrada;
+
+@ExtendWith(MockitoExtension.class)
+class ReporteVentasServiceTest {
+
+    @Mock
+    private DetallePedidoRepository detalleRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ReporteVentasServiceImpl reporteVentasService;
+
+    @Test
+    void obtenerVentas_rangoPasadoSeAgregaEnLaBaseDeDatos() {
+        // Arrange
+        LocalDate desde = LocalDate.now().minusDays(30);
+        LocalDate hasta = LocalDate.now().minusDays(1);
+        when(detalleRepository.ventasPorProducto(desde, hasta)).thenReturn(List.of(
+                new VentaFija(1L, 10L, 100.0, 8L),
+                new VentaFija(2L, 30L, 240.0, 20L)));
+        when(detalleRepository.ventasTotales(desde, hasta)).thenReturn(new VentaFija(0, 40L, 340.0, 25L));
+
+        // Act
+        ReporteVentasDTO resultado = reporteVentasService.obtenerVentas(desde, hasta, "producto");
+
+        // Assert
+        assertThat(resultado.getFilas()).extracting(FilaVentasDTO::getClave).containsExactly("2", "1");
+        assertThat(resultado.getFilas().get(0).getTicketMedio()).isEqualTo(12.0);
+        assertThat(resultado.getPedidos()).isEqualTo(25);
+        assertThat(resultado.getTicketMedio()).isEqualTo(13.6);
+        verify(detalleRepository, never()).ventasPorHora(any(), any());
+    }
+
+    @Test
+    void obtenerVentas_sumaElDiaEnCursoDesdeMemoria() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        LocalDate ayer = hoy.minusDays(1);
+        when(detalleRepository.ventasPorCategoria(ayer, ayer)).thenReturn(List.of(new VentaFija(5L, 2L, 20.0, 1L)));
+        when(detalleRepository.ventasPorCategoria(hoy, hoy)).thenReturn(List.of());
+        when(detalleRepository.ventasTotales(ayer, ayer)).thenReturn(new VentaFija(0, 2L, 20.0, 1L));
+        when(productoRepository.listarCategorias()).thenReturn(List.of(new CategoriaFija(1L, 5L), new CategoriaFija(2L, 6L)));
+        reporteVentasService.reconciliarVentasDelDia();
+        reporteVentasService.registrarVenta(new VentaRegistrada(9L, LocalDateTime.now(), List.of(
+                new VentaRegistrada.Linea(1L, 1, 12.5),
+                new VentaRegistrada.Linea(2L, 2, 3.0))));
+
+        // Act
+        ReporteVentasDTO resultado = reporteVentasService.obtenerVentas(ayer, hoy, "categoria");
+
+        // Assert
+        assertThat(resultado.getFilas()).containsExactly(
+                new FilaVentasDTO("5", 3, 32.5, 2, 16.25),
+                new FilaVentasDTO("6", 2, 6.0, 1, 6.0));
+        assertThat(resultado.getPedidos()).isEqualTo(2);
+        assertThat(resultado.getIngresos()).isEqualTo(38.5);
+    }
+
+    @Test
+    void obtenerVentas_rechazaAgrupacionYRangoNoValidos() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+
+        // Act & Assert
+        assertThatThrownBy(() -> reporteVentasService.obtenerVentas(hoy, hoy, "semana"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Agrupación no válida");
+        assertThatThrownBy(() -> reporteVentasService.obtenerVentas(hoy, hoy.minusDays(1), "dia"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("rango");
+        assertThatThrownBy(() -> reporteVentasService.obtenerVentas(hoy.minusYears(3), hoy, "dia"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("731");
+    }
+
+    @Test
+    void reconciliarVentasDelDia_sinLecturasNoConsultaYLaSiguienteLecturaRecarga() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        when(detalleRepository.ventasPorProducto(hoy, hoy)).thenReturn(List.of());
+        when(detalleRepository.ventasPorCategoria(hoy, hoy)).thenReturn(List.of());
+        when(detalleRepository.ventasPorHora(hoy, hoy)).thenReturn(List.of());
+        when(productoRepository.listarCategorias()).thenReturn(List.of());
+        reporteVentasService.reconciliarVentasDelDia();
+
+        // Act
+        reporteVentasService.reconciliarVentasDelDia();
+        reporteVentasService.reconciliarVentasDelDia();
+        reporteVentasService.obtenerVentas(hoy, hoy, "hora");
+        reporteVentasService.obtenerVentas(hoy, hoy, "hora");
+
+        // Assert: la carga inicial y la de la primera lectura; la segunda lectura ya está al día
+        verify(detalleRepository, times(2)).ventasPorHora(hoy, hoy);
+    }
+
+    private record VentaFija(Object getClave, Long getUnidades, Double getIngresos, Long getPedidos)
+            implements VentaAgrupada {
+    }
+
+    private record CategoriaFija(Long getId, Long getIdCategoria) implements CategoriaProducto {
+    }
+}
@@ -0,0 +1,129 @@
+package com.restaurante.service;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.restaurante.dto.PedidoEventoDTO;
+import com.restaurante.dto.PersonalCocinaDTO;
+import com.restaurante.service.impl.TableroCocinaServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class TableroCocinaServiceTest {
+
+    @Mock
+    private IPersonalCocinaService personalCocinaService;
+
+    // Cada suscripción recibe un emitter que guarda lo enviado en lugar de escribir en la respuesta
+    private CountDownLatch bloqueoEnvio = new CountDownLatch(0);
+
+    @InjectMocks
+    private TableroCocinaServiceImpl tableroService = new TableroCocinaServiceImpl() {
+        @Override
+        protected SseEmitter crearEmitter() {
+            return new EmitterCapturador(bloqueoEnvio);
+        }
+    };
+
+    @Test
+    void publicar_reenviaSoloALosSuscriptoresDelEstado() throws Exception {
+        // Arrange
+        EmitterCapturador pendientes = (EmitterCapturador) tableroService.suscribir(Set.of("pendiente"), null);
+        EmitterCapturador listos = (EmitterCapturador) tableroService.suscribir(Set.of("LISTO"), null);
+
+        // Act
+        tableroService.publicar(evento(PedidoEventoDTO.PEDIDO_CREADO, "PENDIENTE", null));
+
+        // Assert
+        PedidoEventoDTO recibido = pendientes.siguiente(2000);
+        assertThat(recibido.getIdPedido()).isEqualTo(1L);
+        assertThat(listos.siguiente(200)).isNull();
+    }
+
+    @Test
+    void publicar_filtraPorAreaDelPersonalAsignado() throws Exception {
+        // Arrange
+        PersonalCocinaDTO cocinero = new PersonalCocinaDTO();
+        cocinero.setArea("Parrilla");
+        when(personalCocinaService.obtenerPersonalPorId(7L)).thenReturn(cocinero);
+        EmitterCapturador parrilla = (EmitterCapturador) tableroService.suscribir(null, "parrilla");
+        EmitterCapturador postres = (EmitterCapturador) tableroService.suscribir(null, "Postres");
+
+        // Act
+        tableroService.publicar(evento(PedidoEventoDTO.HISTORIAL_REGISTRADO, "EN_PREPARACION", 7L));
+
+        // Assert
+        assertThat(parrilla.siguiente(2000)).isNotNull();
+        assertThat(postres.siguiente(200)).isNull();
+        verify(personalCocinaService, times(1)).obtenerPersonalPorId(7L);
+    }
+
+    @Test
+    void publicar_desconectaAlSuscriptorQueLlenaSuBuffer() {
+        // Arrange
+        bloqueoEnvio = new CountDownLatch(1);
+        tableroService.suscribir(null, null);
+
+        // Act
+        for (int i = 0; i < 300; i++) {
+            tableroService.publicar(evento(PedidoEventoDTO.ESTADO_ACTUALIZADO, "PENDIENTE", null));
+        }
+        bloqueoEnvio.countDown();
+
+        // Assert
+        assertThat(tableroService.suscriptoresActivos()).isZero();
+    }
+
+    private PedidoEventoDTO evento(String tipo, String estado, Long idPersonaCocina) {
+        return PedidoEventoDTO.builder()
+                .tipo(tipo)
+                .idPedido(1L)
+                .estado(estado)
+                .idPersonaCocina(idPersonaCocina)
+                .build();
+    }
+
+    private static class EmitterCapturador extends SseEmitter {
+
+        private final BlockingQueue<PedidoEventoDTO> enviados = new LinkedBlockingQueue<>();
+        private final CountDownLatch bloqueo;
+
+        EmitterCapturador(CountDownLatch bloqueo) {
+            this.bloqueo = bloqueo;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                bloqueo.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (DataWithMediaType item : items) {
+                if (item.getData() instanceof PedidoEventoDTO evento) {
+                    enviados.add(evento);
+                }
+            }
+        }
+
+        PedidoEventoDTO siguiente(long esperaMs) throws InterruptedException {
+            return enviados.poll(esperaMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -3,22 +3,31 @@ package com.restaurante.service;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.restaurante.dto.ProductoValoradoDTO;
+import com.restaurante.dto.ResumenValoracionDTO;
 import com.restaurante.dto.ValoracionDTO;
+import com.restaurante.model.ResumenValoracion;
+import com.restaurante.model.ResumenValoracion.Ambito;
 import com.restaurante.model.Valoracion;
+import com.restaurante.repository.ResumenValoracionRepository;
+import com.restaurante.repository.ResumenValoracionRepository.ValoracionProducto;
 import com.restaurante.repository.ValoracionRepository;
+import com.restaurante.repository.ValoracionRepository.ConteoPuntuacion;
 import com.restaurante.service.impl.ValoracionServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +36,9 @@ class ValoracionServiceTest {
     @Mock
     private ValoracionRepository valoracionRepository;
 
+    @Mock
+    private ResumenValoracionRepository resumenRepository;
+
     @InjectMocks
     private ValoracionServiceImpl valoracionService;
 
@@ -100,13 +112,18 @@ class ValoracionServiceTest {
     }
 
     @Test
-    void crear_guardaValoracion() {
+    void crear_guardaValoracionYLaSumaALosResumenes() {
         // Arrange
         ValoracionDTO dto = new ValoracionDTO();
         dto.setIdPedido(1L);
+        dto.setIdCliente(7L);
+        dto.setPuntuacion(4);
         
         Valoracion valoracionGuardada = new Valoracion();
         valoracionGuardada.setPid(1L);
+        valoracionGuardada.setIdPedido(1L);
+        valoracionGuardada.setIdCliente(7L);
+        valoracionGuardada.setPuntuacion(4);
         
         when(valoracionRepository.save(any(Valoracion.class))).thenReturn(valoracionGuardada);
 
@@ -116,59 +133,139 @@ class ValoracionServiceTest {
         // Assert
         assertThat(resultado.getPid()).isEqualTo(1L);
         verify(valoracionRepository, times(1)).save(any(Valoracion.class));
+        verify(resumenRepository, times(1)).sumar(1L, 7L, 4, 1);
+    }
+
+    @Test
+    void crear_colocaLosProductosDelPedidoEnElRanking() {
+        // Arrange
+        ValoracionDTO dto = new ValoracionDTO();
+        dto.setIdPedido(1L);
+        dto.setIdCliente(7L);
+        dto.setPuntuacion(5);
+
+        Valoracion valoracionGuardada = new Valoracion();
+        valoracionGuardada.setPid(1L);
+        valoracionGuardada.setIdPedido(1L);
+        valoracionGuardada.setIdCliente(7L);
+        valoracionGuardada.setPuntuacion(5);
+
+        when(valoracionRepository.save(any(Valoracion.class))).thenReturn(valoracionGuardada);
+        when(resumenRepository.findIdsProductoDePedido(1L)).thenReturn(List.of(10L, 11L));
+        when(resumenRepository.findValoracionesProducto(Set.of(10L, 11L))).thenReturn(List.of(
+                new ValoracionFija(10L, "Margarita", 2L, 20L, 90L),
+                new ValoracionFija(11L, "Tiramisú", 3L, 1L, 5L)));
+
+        // Act
+        valoracionService.crear(dto);
+        List<ProductoValoradoDTO> todos = valoracionService.obtenerTopValorados(null, 10);
+        List<ProductoValoradoDTO> postres = valoracionService.obtenerTopValorados(3L, 10);
+
+        // Assert
+        assertThat(todos).extracting(ProductoValoradoDTO::getIdProducto).containsExactly(10L, 11L);
+        assertThat(todos.get(0).getPromedio()).isEqualTo(4.5);
+        assertThat(postres).extracting(ProductoValoradoDTO::getNombre).containsExactly("Tiramisú");
     }
 
     @Test
-    void eliminar_llamaMetodoDelete() {
+    void crear_rechazaPuntuacionFueraDeRango() {
+        // Arrange
+        ValoracionDTO dto = new ValoracionDTO();
+        dto.setIdPedido(1L);
+        dto.setPuntuacion(6);
+
+        // Act & Assert
+        assertThatThrownBy(() -> valoracionService.crear(dto))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("entre 1 y 5");
+        verify(valoracionRepository, never()).save(any(Valoracion.class));
+    }
+
+    @Test
+    void actualizar_mueveLaValoracionEntreResumenesSiCambiaLaPuntuacion() {
+        // Arrange
+        Valoracion existente = new Valoracion();
+        existente.setPid(1L);
+        existente.setIdPedido(3L);
+        existente.setIdCliente(7L);
+        existente.setPuntuacion(2);
+        when(valoracionRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(valoracionRepository.save(any(Valoracion.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        valoracionService.actualizar(1L, ValoracionDTO.builder().idPedido(3L).idCliente(7L).puntuacion(5).build());
+
+        // Assert
+        verify(resumenRepository).sumar(3L, 7L, 2, -1);
+        verify(resumenRepository).sumar(3L, 7L, 5, 1);
+    }
+
+    @Test
+    void eliminar_borraYRestaDeLosResumenes() {
         // Arrange
         Long id = 1L;
-        doNothing().when(valoracionRepository).deleteById(id);
+        Valoracion valoracion = new Valoracion();
+        valoracion.setPid(id);
+        valoracion.setIdPedido(3L);
+        valoracion.setIdCliente(7L);
+        valoracion.setPuntuacion(5);
+        when(valoracionRepository.findById(id)).thenReturn(Optional.of(valoracion));
 
         // Act
         valoracionService.eliminar(id);
 
         // Assert
-        verify(valoracionRepository, times(1)).deleteById(id);
+        verify(valoracionRepository, times(1)).delete(valoracion);
+        verify(resumenRepository, times(1)).sumar(3L, 7L, 5, -1);
     }
 
     @Test
-    void obtenerPuntuacionPromedioPorPedido_devuelvePromedio() {
+    void obtenerPuntuacionPromedioPorPedido_leeLaFilaDeResumen() {
         // Arrange
         Long idPedido = 1L;
-        Valoracion valoracion1 = new Valoracion();
-        valoracion1.setPuntuacion(4);
-        Valoracion valoracion2 = new Valoracion();
-        valoracion2.setPuntuacion(5);
-
-        when(valoracionRepository.findByIdPedido(idPedido))
-            .thenReturn(Arrays.asList(valoracion1, valoracion2));
+        ResumenValoracion.Clave clave = new ResumenValoracion.Clave(Ambito.PEDIDO, idPedido);
+        when(resumenRepository.findById(clave))
+            .thenReturn(Optional.of(new ResumenValoracion(clave, 2, 9, 0, 0, 0, 1, 1)));
 
         // Act
         Double resultado = valoracionService.obtenerPuntuacionPromedioPorPedido(idPedido);
 
         // Assert
         assertThat(resultado).isEqualTo(4.5);
-        verify(valoracionRepository, times(1)).findByIdPedido(idPedido);
+        verify(valoracionRepository, never()).findByIdPedido(idPedido);
     }
 
     @Test
-    void obtenerPuntuacionPromedioPorCliente_devuelvePromedio() {
+    void obtenerPuntuacionPromedioPorCliente_sinResumenAgregaEnLaBaseDeDatos() {
         // Arrange
         Long idCliente = 1L;
-        Valoracion valoracion1 = new Valoracion();
-        valoracion1.setPuntuacion(3);
-        Valoracion valoracion2 = new Valoracion();
-        valoracion2.setPuntuacion(4);
-
-        when(valoracionRepository.findByIdCliente(idCliente))
-            .thenReturn(Arrays.asList(valoracion1, valoracion2));
+        when(resumenRepository.findById(new ResumenValoracion.Clave(Ambito.CLIENTE, idCliente)))
+            .thenReturn(Optional.empty());
+        when(valoracionRepository.contarPorPuntuacionDeCliente(idCliente))
+            .thenReturn(List.of(conteo(3, 1L), conteo(4, 1L)));
 
         // Act
         Double resultado = valoracionService.obtenerPuntuacionPromedioPorCliente(idCliente);
 
         // Assert
         assertThat(resultado).isEqualTo(3.5);
-        verify(valoracionRepository, times(1)).findByIdCliente(idCliente);
+        verify(valoracionRepository, never()).findByIdCliente(idCliente);
+    }
+
+    @Test
+    void obtenerResumen_devuelveHistogramaDeEstrellas() {
+        // Arrange
+        ResumenValoracion.Clave clave = new ResumenValoracion.Clave(Ambito.PRODUCTO, 9L);
+        when(resumenRepository.findById(clave))
+            .thenReturn(Optional.of(new ResumenValoracion(clave, 4, 15, 1, 0, 0, 1, 2)));
+
+        // Act
+        ResumenValoracionDTO resultado = valoracionService.obtenerResumen("producto", 9L);
+
+        // Assert
+        assertThat(resultado.getCantidad()).isEqualTo(4);
+        assertThat(resultado.getPromedio()).isEqualTo(3.75);
+        assertThat(resultado.getEstrellas()).containsExactly(1L, 0L, 0L, 1L, 2L);
     }
 
     @Test
@@ -178,13 +275,24 @@ class ValoracionServiceTest {
         Valoracion valoracion = new Valoracion();
         valoracion.setPid(id);
         
-        when(valoracionRepository.findById(id)).thenReturn(Optional.of(valoracion));
+        when(valoracionRepository.findByIdForUpdate(id)).thenReturn(Optional.of(valoracion));
 
         // Act
         Valoracion resultado = valoracionService.obtenerPorIdConBloqueo(id);
 
         // Assert
         assertThat(resultado.getPid()).isEqualTo(id);
-        verify(valoracionRepository, times(1)).findById(id);
+        verify(valoracionRepository, times(1)).findByIdForUpdate(id);
+    }
+
+    private ConteoPuntuacion conteo(Integer puntuacion, Long cantidad) {
+        return new ConteoFijo(puntuacion, cantidad);
+    }
+
+    private record ConteoFijo(Integer getPuntuacion, Long getCantidad) implements ConteoPuntuacion {
+    }
+
+    private record ValoracionFija(Long getIdProducto, String getNombre, Long getIdCategoria, Long getCantidad,
+            Long getSuma) implements ValoracionProducto {
     }
-}
\ No newline at end of file
+}
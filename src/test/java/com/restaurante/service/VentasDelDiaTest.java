@@ -0,0 +1,134 @@
+package com.restaurante.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurante.service.ventas.VentaRegistrada;
+import com.restaurante.service.ventas.VentaRegistrada.Linea;
+import com.restaurante.service.ventas.VentasDelDia;
+import com.restaurante.service.ventas.VentasDelDia.Carga;
+import com.restaurante.service.ventas.VentasDelDia.Fila;
+
+class VentasDelDiaTest {
+
+    private static final LocalDate HOY = LocalDate.of(2024, 6, 1);
+
+    private VentasDelDia ventas;
+
+    @BeforeEach
+    void setUp() {
+        ventas = new VentasDelDia();
+        ventas.reemplazar(HOY, carga(List.of(new Fila(1L, 4, 50.0, 3)), List.of(new Fila(13L, 4, 50.0, 3))),
+                ventas.marca());
+    }
+
+    @Test
+    void registrar_sumaPorProductoYPorHora() {
+        // Act: dos líneas del mismo producto cuentan un solo pedido para ese producto
+        ventas.registrar(venta(11, HOY.atTime(13, 40), new Linea(1L, 1, 12.5), new Linea(1L, 2, 12.5),
+                new Linea(200L, 1, 3.0)));
+
+        // Assert
+        assertThat(ventas.porProducto()).containsExactly(new Fila(1L, 7, 87.5, 4), new Fila(200L, 1, 3.0, 1));
+        assertThat(ventas.porHora()).containsExactly(new Fila(13L, 8, 90.5, 4));
+        assertThat(ventas.totales()).isEqualTo(new Fila(0, 8, 90.5, 4));
+    }
+
+    @Test
+    void registrar_cuentaUnPedidoPorCategoriaYEsperaALasCategoriasNuevas() {
+        // Arrange
+        VentaRegistrada venta = venta(12, HOY.atTime(20, 0), new Linea(1L, 1, 12.5), new Linea(2L, 1, 11.0),
+                new Linea(300L, 1, 4.0));
+
+        // Act: el producto 300 no tenía categoría al registrar la venta
+        boolean conocidas = ventas.conoceCategorias(venta);
+        ventas.registrar(venta);
+        ventas.asignarCategorias(Map.of(300L, 7L));
+        ventas.registrar(venta(13, HOY.atTime(20, 5), new Linea(300L, 2, 4.0)));
+
+        // Assert
+        assertThat(conocidas).isFalse();
+        assertThat(ventas.porCategoria()).containsExactly(new Fila(5L, 2, 23.5, 1), new Fila(7L, 2, 8.0, 1));
+    }
+
+    @Test
+    void registrar_ignoraVentasDeOtroDia() {
+        // Act
+        ventas.registrar(venta(14, HOY.minusDays(1).atTime(23, 59), new Linea(1L, 1, 12.5)));
+
+        // Assert
+        assertThat(ventas.totales().pedidos()).isEqualTo(3);
+    }
+
+    @Test
+    void reemplazar_reaplicaSoloLasVentasPosterioresALaMarca() {
+        // Arrange
+        ventas.registrar(venta(11, HOY.atTime(12, 0), new Linea(1L, 1, 10.0)));
+        long marca = ventas.marca();
+        ventas.registrar(venta(12, HOY.atTime(14, 0), new Linea(1L, 1, 10.0)));
+
+        // Act: la carga ya incluye la primera venta pero no la segunda
+        ventas.reemplazar(HOY, carga(List.of(new Fila(1L, 5, 60.0, 4)),
+                List.of(new Fila(12L, 1, 10.0, 1), new Fila(13L, 4, 50.0, 3)), Set.of(11L)), marca);
+
+        // Assert
+        assertThat(ventas.porProducto()).containsExactly(new Fila(1L, 6, 70.0, 5));
+        assertThat(ventas.porHora()).extracting(Fila::clave).containsExactly(12L, 13L, 14L);
+    }
+
+    @Test
+    void reemplazar_noReaplicaLasVentasPosterioresALaMarcaQueLaCargaYaIncluye() {
+        // Arrange: la venta 12 se confirma antes de la consulta pero se registra después de la marca
+        long marca = ventas.marca();
+        ventas.registrar(venta(12, HOY.atTime(14, 0), new Linea(1L, 1, 10.0)));
+        ventas.registrar(venta(13, HOY.atTime(14, 5), new Linea(1L, 2, 10.0)));
+
+        // Act: la carga incluye la 12 y no la 13
+        ventas.reemplazar(HOY, carga(List.of(new Fila(1L, 5, 60.0, 4)),
+                List.of(new Fila(13L, 4, 50.0, 3), new Fila(14L, 1, 10.0, 1)), Set.of(12L)), marca);
+
+        // Assert
+        assertThat(ventas.porProducto()).containsExactly(new Fila(1L, 7, 80.0, 5));
+        assertThat(ventas.totales()).isEqualTo(new Fila(0, 7, 80.0, 5));
+    }
+
+    @Test
+    void porHora_dejaAlFinalLosPedidosSinHora() {
+        // Act
+        ventas.reemplazar(HOY, carga(List.of(), List.of(new Fila(VentasDelDia.SIN_HORA, 2, 20.0, 1),
+                new Fila(9L, 1, 5.0, 1))), ventas.marca());
+
+        // Assert
+        assertThat(ventas.porHora()).extracting(Fila::clave).containsExactly(9L, (long) VentasDelDia.SIN_HORA);
+    }
+
+    @Test
+    void registrar_aceptaIdsDispersosYDevuelveLasFilasPorId() {
+        // Act: ids IDENTITY con huecos grandes no dimensionan los arrays
+        ventas.asignarCategorias(Map.of(9_000_000_000L, 7L));
+        ventas.registrar(venta(17, HOY.atTime(20, 5), new Linea(9_000_000_000L, 2, 4.0), new Linea(2L, 1, 6.0)));
+
+        // Assert
+        assertThat(ventas.porProducto()).extracting(Fila::clave).containsExactly(1L, 2L, 9_000_000_000L);
+        assertThat(ventas.porCategoria()).containsExactly(new Fila(5L, 1, 6.0, 1), new Fila(7L, 2, 8.0, 1));
+    }
+
+    private static Carga carga(List<Fila> porProducto, List<Fila> porHora) {
+        return carga(porProducto, porHora, Set.of());
+    }
+
+    private static Carga carga(List<Fila> porProducto, List<Fila> porHora, Set<Long> pedidos) {
+        return new Carga(porProducto, List.of(), porHora, Map.of(1L, 5L, 2L, 5L), pedidos);
+    }
+
+    private static VentaRegistrada venta(long idPedido, LocalDateTime fecha, Linea... lineas) {
+        return new VentaRegistrada(idPedido, fecha, List.of(lineas));
+    }
+}